@@ -67,4 +67,24 @@ public interface DataAcquisitionService
    *           in case the given device was <code>null</code>.
    */
   void acquireData( Device aDevice ) throws IOException;
+
+  /**
+   * Acquires data from the given device back-to-back, until the acquisition is
+   * cancelled. The result of each acquisition is reported to the acquisition
+   * data listeners as soon as it is available.
+   * <p>
+   * Devices that implement {@link ContinuousAcquisitionDevice} keep their
+   * connection open and are re-armed directly after each acquisition. All
+   * other devices simply perform one acquisition after the other.
+   * </p>
+   *
+   * @param aDevice
+   *          the device from which data should be acquired, cannot be
+   *          <code>null</code>;
+   * @throws IOException
+   *           in case of I/O problems during the acquisition of data;
+   * @throws IllegalArgumentException
+   *           in case the given device was <code>null</code>.
+   */
+  void acquireDataContinuously( Device aDevice ) throws IOException;
 }
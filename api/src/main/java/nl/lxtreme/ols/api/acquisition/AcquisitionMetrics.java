@@ -0,0 +1,233 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.acquisition;
+
+
+import java.util.*;
+
+
+/**
+ * Provides the timings of the various phases of a single acquisition, such as
+ * opening the port, waiting for the trigger and transferring the samples.
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public final class AcquisitionMetrics
+{
+  // INNER TYPES
+
+  /**
+   * Provides the timing of a single phase of an acquisition.
+   */
+  public static final class Phase
+  {
+    // VARIABLES
+
+    private final String name;
+    private final long duration;
+    private final long byteCount;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new Phase instance.
+     */
+    Phase( final String aName, final long aDuration, final long aByteCount )
+    {
+      this.name = aName;
+      this.duration = aDuration;
+      this.byteCount = aByteCount;
+    }
+
+    // METHODS
+
+    /**
+     * Returns the number of bytes transferred during this phase.
+     *
+     * @return a byte count, >= 0.
+     */
+    public long getByteCount()
+    {
+      return this.byteCount;
+    }
+
+    /**
+     * Returns the duration of this phase.
+     *
+     * @return a duration, in nanoseconds, >= 0.
+     */
+    public long getDuration()
+    {
+      return this.duration;
+    }
+
+    /**
+     * Returns the name of this phase.
+     *
+     * @return a name, never <code>null</code>.
+     */
+    public String getName()
+    {
+      return this.name;
+    }
+
+    /**
+     * Returns the average throughput of this phase.
+     *
+     * @return a throughput, in bytes per second, or -1.0 if no bytes were
+     *         transferred during this phase.
+     */
+    public double getThroughput()
+    {
+      if ( ( this.byteCount <= 0L ) || ( this.duration <= 0L ) )
+      {
+        return -1.0;
+      }
+      return ( this.byteCount * 1.0e9 ) / this.duration;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+      final StringBuilder sb = new StringBuilder( this.name );
+      sb.append( ": " ).append( this.duration / 1000L ).append( " us" );
+      if ( this.byteCount > 0L )
+      {
+        sb.append( ", " ).append( this.byteCount ).append( " bytes" );
+      }
+      return sb.toString();
+    }
+  }
+
+  // CONSTANTS
+
+  /** Opening the connection to the device. */
+  public static final String PHASE_OPEN = "Open connection";
+  /** Detecting the device on the connection. */
+  public static final String PHASE_DETECT = "Detect device";
+  /** Writing the configuration to the device. */
+  public static final String PHASE_CONFIGURE = "Configure device";
+  /** Waiting for the device to trigger and send its first sample. */
+  public static final String PHASE_TRIGGER = "Wait for trigger";
+  /** Transferring the samples from the device. */
+  public static final String PHASE_TRANSFER = "Transfer";
+  /** Normalizing the raw sample bytes into sample values. */
+  public static final String PHASE_NORMALIZE = "Normalization";
+  /** Decoding the sample values, as far as not done during the transfer. */
+  public static final String PHASE_DECODE = "Decoding";
+  /** Building the acquisition result. */
+  public static final String PHASE_BUILD = "Build result";
+  /** Closing the connection to the device. */
+  public static final String PHASE_CLOSE = "Close connection";
+
+  // VARIABLES
+
+  private final List<Phase> phases;
+  private long totalTime;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new AcquisitionMetrics instance.
+   */
+  public AcquisitionMetrics()
+  {
+    this.phases = new ArrayList<Phase>();
+  }
+
+  // METHODS
+
+  /**
+   * Adds the timing of a phase to these metrics. If a phase with the same name
+   * already exists, the given duration and byte count are added to it.
+   *
+   * @param aName
+   *          the name of the phase, cannot be <code>null</code>;
+   * @param aDuration
+   *          the duration of the phase, in nanoseconds, >= 0;
+   * @param aByteCount
+   *          the number of bytes transferred during the phase, >= 0.
+   */
+  public synchronized void addPhase( final String aName, final long aDuration, final long aByteCount )
+  {
+    if ( aName == null )
+    {
+      throw new IllegalArgumentException( "Name cannot be null!" );
+    }
+
+    for ( int i = 0; i < this.phases.size(); i++ )
+    {
+      final Phase phase = this.phases.get( i );
+      if ( aName.equals( phase.getName() ) )
+      {
+        this.phases.set( i, new Phase( aName, phase.getDuration() + aDuration, phase.getByteCount() + aByteCount ) );
+        return;
+      }
+    }
+
+    this.phases.add( new Phase( aName, aDuration, aByteCount ) );
+  }
+
+  /**
+   * Returns all phases, in the order in which they were added.
+   *
+   * @return a list of phases, never <code>null</code>.
+   */
+  public synchronized List<Phase> getPhases()
+  {
+    return new ArrayList<Phase>( this.phases );
+  }
+
+  /**
+   * Returns the total time of the acquisition, as seen by the acquisition
+   * service.
+   *
+   * @return the total time, in nanoseconds, or 0L if not (yet) known.
+   */
+  public synchronized long getTotalTime()
+  {
+    return this.totalTime;
+  }
+
+  /**
+   * Sets the total time of the acquisition.
+   *
+   * @param aTotalTime
+   *          the total time, in nanoseconds, >= 0.
+   */
+  public synchronized void setTotalTime( final long aTotalTime )
+  {
+    this.totalTime = aTotalTime;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized String toString()
+  {
+    return "Total: " + ( this.totalTime / 1000L ) + " us; " + this.phases;
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.acquisition;
+
+
+/**
+ * Provides an extended {@link AcquisitionProgressListener} that is also
+ * interested in the timings of the individual phases of an acquisition.
+ * <p>
+ * Acquisition tasks can check whether the progress listener they are given
+ * implements this interface, and if so, report the timing of each phase to it.
+ * </p>
+ */
+public interface AcquisitionMetricsListener extends AcquisitionProgressListener
+{
+  // METHODS
+
+  /**
+   * Called when a phase of the acquisition is completed.
+   *
+   * @param aPhase
+   *          the name of the completed phase, cannot be <code>null</code>;
+   * @param aDuration
+   *          the duration of the phase, in nanoseconds, >= 0;
+   * @param aByteCount
+   *          the number of bytes transferred during the phase, >= 0.
+   */
+  void acquisitionPhaseCompleted( String aPhase, long aDuration, long aByteCount );
+}
@@ -21,6 +21,9 @@
 package nl.lxtreme.ols.api.acquisition;
 
 
+import nl.lxtreme.ols.api.data.*;
+
+
 /**
  * Denotes a concrete result of a single acquisition.
  */
@@ -44,6 +47,21 @@ public interface AcquisitionResult
    */
   public abstract int getChannels();
 
+  /**
+   * Returns the edge index of the channel with the given index.
+   * <p>
+   * The edge index allows edges of a single channel to be found without
+   * having to scan through all sample values. Implementations are expected to
+   * create this index lazily and cache it for subsequent calls.
+   * </p>
+   * 
+   * @param aChannelIdx
+   *          the index of the channel to return the edge index for, >= 0 &&
+   *          < 32.
+   * @return the edge index of the requested channel, never <code>null</code>.
+   */
+  public abstract ChannelEdgeIndex getEdgeIndex( final int aChannelIdx );
+
   /**
    * Returns a bitmask of enabled channels in the sample data.
    * 
@@ -0,0 +1,196 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.acquisition;
+
+
+import nl.lxtreme.ols.api.data.*;
+
+
+/**
+ * Adapts an {@link AcquisitionResult} that only provides its samples as arrays
+ * to the {@link IndexedAcquisitionResult} interface.
+ */
+public final class AcquisitionResultAdapter implements IndexedAcquisitionResult
+{
+  // VARIABLES
+
+  private final AcquisitionResult result;
+  private final int[] values;
+  private final long[] timestamps;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new AcquisitionResultAdapter instance.
+   */
+  private AcquisitionResultAdapter( final AcquisitionResult aResult )
+  {
+    this.result = aResult;
+    this.values = aResult.getValues();
+    this.timestamps = aResult.getTimestamps();
+  }
+
+  // METHODS
+
+  /**
+   * Returns the given acquisition result as indexed acquisition result.
+   *
+   * @param aResult
+   *          the acquisition result to adapt, can be <code>null</code>.
+   * @return the given acquisition result if it already is an indexed
+   *         acquisition result, or an adapter for it, or <code>null</code> if
+   *         the given result was <code>null</code>.
+   */
+  public static IndexedAcquisitionResult adapt( final AcquisitionResult aResult )
+  {
+    if ( ( aResult == null ) || ( aResult instanceof IndexedAcquisitionResult ) )
+    {
+      return ( IndexedAcquisitionResult )aResult;
+    }
+    return new AcquisitionResultAdapter( aResult );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getAbsoluteLength()
+  {
+    return this.result.getAbsoluteLength();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getChannels()
+  {
+    return this.result.getChannels();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ChannelEdgeIndex getEdgeIndex( final int aChannelIdx )
+  {
+    return this.result.getEdgeIndex( aChannelIdx );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getEnabledChannels()
+  {
+    return this.result.getEnabledChannels();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleCount()
+  {
+    return this.values.length;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleIndex( final long aTimeValue )
+  {
+    return this.result.getSampleIndex( aTimeValue );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleRate()
+  {
+    return this.result.getSampleRate();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getTimestamp( final int aIndex )
+  {
+    return this.timestamps[aIndex];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long[] getTimestamps()
+  {
+    return this.timestamps;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getTriggerPosition()
+  {
+    return this.result.getTriggerPosition();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getValue( final int aIndex )
+  {
+    return this.values[aIndex];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] getValues()
+  {
+    return this.values;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasTimingData()
+  {
+    return this.result.hasTimingData();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasTriggerData()
+  {
+    return this.result.hasTriggerData();
+  }
+}
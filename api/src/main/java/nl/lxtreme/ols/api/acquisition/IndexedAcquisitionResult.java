@@ -0,0 +1,64 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.acquisition;
+
+
+/**
+ * Denotes an acquisition result whose samples can be accessed one at a time.
+ * <p>
+ * Unlike {@link #getValues()} and {@link #getTimestamps()}, the methods of this
+ * interface do not require the samples to be available as arrays, allowing
+ * implementations to store them in a compact form, or off the heap. Use
+ * {@link AcquisitionResultAdapter#adapt(AcquisitionResult)} to obtain an
+ * instance of this interface for any acquisition result.
+ * </p>
+ */
+public interface IndexedAcquisitionResult extends AcquisitionResult
+{
+  // METHODS
+
+  /**
+   * Returns the number of samples in this acquisition result.
+   *
+   * @return a sample count, >= 0.
+   */
+  public abstract int getSampleCount();
+
+  /**
+   * Returns the timestamp of the sample with the given index.
+   *
+   * @param aIndex
+   *          the index of the sample, >= 0 && < {@link #getSampleCount()}.
+   * @return the timestamp of the requested sample.
+   * @see #getTimestamps()
+   */
+  public abstract long getTimestamp( final int aIndex );
+
+  /**
+   * Returns the value of the sample with the given index.
+   *
+   * @param aIndex
+   *          the index of the sample, >= 0 && < {@link #getSampleCount()}.
+   * @return the value of the requested sample.
+   * @see #getValues()
+   */
+  public abstract int getValue( final int aIndex );
+}
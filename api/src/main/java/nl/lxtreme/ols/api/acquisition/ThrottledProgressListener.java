@@ -0,0 +1,155 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.acquisition;
+
+
+import java.util.concurrent.*;
+
+
+/**
+ * Provides an {@link AcquisitionProgressListener} that limits the number of
+ * progress updates passed on to another listener.
+ * <p>
+ * Progress is only passed on when the percentage actually changes, and at most
+ * once per given interval. A completion of 100% is always passed on directly,
+ * while {@link #flush()} can be used to pass on the last suppressed update.
+ * Phase timings are passed on as-is in case the other listener is an
+ * {@link AcquisitionMetricsListener}.
+ * </p>
+ * <p>
+ * This class is <em>not</em> thread-safe, and is intended to be used by a
+ * single acquisition task.
+ * </p>
+ */
+public final class ThrottledProgressListener implements AcquisitionMetricsListener
+{
+  // CONSTANTS
+
+  /** The default minimal interval between two progress updates, in ms. */
+  public static final long DEFAULT_INTERVAL = 50L;
+
+  // VARIABLES
+
+  private final AcquisitionProgressListener listener;
+  private final long interval;
+
+  private int lastPercentage;
+  private int reportedPercentage;
+  private long lastReportTime;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new ThrottledProgressListener instance using the default
+   * interval.
+   *
+   * @param aListener
+   *          the listener to pass the progress updates on to, cannot be
+   *          <code>null</code>.
+   */
+  public ThrottledProgressListener( final AcquisitionProgressListener aListener )
+  {
+    this( aListener, DEFAULT_INTERVAL );
+  }
+
+  /**
+   * Creates a new ThrottledProgressListener instance.
+   *
+   * @param aListener
+   *          the listener to pass the progress updates on to, cannot be
+   *          <code>null</code>;
+   * @param aInterval
+   *          the minimal interval between two progress updates, in ms, >= 0.
+   */
+  public ThrottledProgressListener( final AcquisitionProgressListener aListener, final long aInterval )
+  {
+    if ( aListener == null )
+    {
+      throw new IllegalArgumentException( "Listener cannot be null!" );
+    }
+    if ( aInterval < 0L )
+    {
+      throw new IllegalArgumentException( "Interval cannot be negative!" );
+    }
+
+    this.listener = aListener;
+    this.interval = TimeUnit.MILLISECONDS.toNanos( aInterval );
+
+    this.lastPercentage = -1;
+    this.reportedPercentage = -1;
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void acquisitionInProgress( final int aPercentage )
+  {
+    if ( aPercentage == this.lastPercentage )
+    {
+      // Nothing changed; bail out as quickly as possible...
+      return;
+    }
+    this.lastPercentage = aPercentage;
+
+    final long now = System.nanoTime();
+    if ( ( this.reportedPercentage < 0 ) || ( aPercentage >= 100 ) || ( ( now - this.lastReportTime ) >= this.interval ) )
+    {
+      report( now );
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void acquisitionPhaseCompleted( final String aPhase, final long aDuration, final long aByteCount )
+  {
+    if ( this.listener instanceof AcquisitionMetricsListener )
+    {
+      ( ( AcquisitionMetricsListener )this.listener ).acquisitionPhaseCompleted( aPhase, aDuration, aByteCount );
+    }
+  }
+
+  /**
+   * Passes on the last progress update in case it was suppressed.
+   */
+  public void flush()
+  {
+    if ( this.lastPercentage != this.reportedPercentage )
+    {
+      report( System.nanoTime() );
+    }
+  }
+
+  /**
+   * Passes on the last progress update to the listener.
+   */
+  private void report( final long aTime )
+  {
+    this.reportedPercentage = this.lastPercentage;
+    this.lastReportTime = aTime;
+
+    this.listener.acquisitionInProgress( this.reportedPercentage );
+  }
+}
@@ -0,0 +1,332 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides a view on a consecutive range of samples of another acquisition
+ * result.
+ * <p>
+ * A view does not copy any sample data; single samples are read from its
+ * parent through {@link #getValue(int)} and {@link #getTimestamp(int)}. Only
+ * when {@link #getValues()} or {@link #getTimestamps()} is called, the samples
+ * of the viewed range are copied into new arrays. Optionally, the
+ * timestamps of the view can be rebased to let its first sample start at time
+ * zero.
+ * </p>
+ */
+public final class AcquisitionResultView implements IndexedAcquisitionResult
+{
+  // VARIABLES
+
+  private final AcquisitionResult parent;
+  private final IndexedAcquisitionResult data;
+  private final int offset;
+  private final int length;
+  private final long timeOffset;
+  private final long absoluteLength;
+  private final ChannelEdgeIndex[] edgeIndices;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new AcquisitionResultView instance.
+   *
+   * @param aParent
+   *          the acquisition result to create a view for, cannot be
+   *          <code>null</code>;
+   * @param aStartIdx
+   *          the index of the first sample (inclusive) of the view;
+   * @param aEndIdx
+   *          the index of the last sample (exclusive) of the view;
+   * @param aRebase
+   *          <code>true</code> to let the timestamps of the view start at
+   *          zero, <code>false</code> to keep the original timestamps.
+   */
+  public AcquisitionResultView( final AcquisitionResult aParent, final int aStartIdx, final int aEndIdx,
+      final boolean aRebase )
+  {
+    if ( aParent == null )
+    {
+      throw new IllegalArgumentException( "Parent cannot be null!" );
+    }
+
+    // Avoid views on views; simply create a view on the original data...
+    int start = aStartIdx;
+    int end = aEndIdx;
+    long timeOffset = 0L;
+
+    AcquisitionResult parent = aParent;
+    if ( parent instanceof AcquisitionResultView )
+    {
+      final AcquisitionResultView view = ( AcquisitionResultView )parent;
+      start = Math.min( Math.max( 0, start ), view.length ) + view.offset;
+      end = Math.min( Math.max( 0, end ), view.length ) + view.offset;
+      timeOffset = view.timeOffset;
+      parent = view.parent;
+    }
+
+    this.parent = parent;
+    this.data = AcquisitionResultAdapter.adapt( parent );
+
+    final int count = this.data.getSampleCount();
+    this.offset = Math.min( Math.max( 0, start ), count );
+    this.length = Math.max( 0, Math.min( end, count ) - this.offset );
+
+    if ( aRebase && ( this.length > 0 ) )
+    {
+      timeOffset = this.data.getTimestamp( this.offset );
+    }
+    this.timeOffset = timeOffset;
+
+    // The last sample lasts until the next sample of the parent, if any...
+    final int next = this.offset + this.length;
+    if ( next < count )
+    {
+      this.absoluteLength = this.data.getTimestamp( next ) - this.timeOffset;
+    }
+    else
+    {
+      this.absoluteLength = parent.getAbsoluteLength() - this.timeOffset;
+    }
+
+    this.edgeIndices = new ChannelEdgeIndex[Ols.MAX_CHANNELS];
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getAbsoluteLength()
+  {
+    return this.absoluteLength;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getChannels()
+  {
+    return this.parent.getChannels();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The edge index of a view is derived from the edge index of its parent,
+   * and only contains the edges that lie within this view.
+   * </p>
+   */
+  @Override
+  public ChannelEdgeIndex getEdgeIndex( final int aChannelIdx )
+  {
+    if ( ( aChannelIdx < 0 ) || ( aChannelIdx > ( Ols.MAX_CHANNELS - 1 ) ) )
+    {
+      throw new IllegalArgumentException( "Invalid channel index: " + aChannelIdx + "! Should be between 0 and "
+          + Ols.MAX_CHANNELS );
+    }
+
+    synchronized ( this.edgeIndices )
+    {
+      ChannelEdgeIndex result = this.edgeIndices[aChannelIdx];
+      if ( result == null )
+      {
+        result = createEdgeIndex( aChannelIdx );
+        this.edgeIndices[aChannelIdx] = result;
+      }
+      return result;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getEnabledChannels()
+  {
+    return this.parent.getEnabledChannels();
+  }
+
+  /**
+   * Returns the index of the first sample of this view in its parent.
+   *
+   * @return a sample index, >= 0.
+   */
+  public int getOffset()
+  {
+    return this.offset;
+  }
+
+  /**
+   * Returns the acquisition result this view is created for.
+   *
+   * @return the parent acquisition result, never <code>null</code>.
+   */
+  public AcquisitionResult getParent()
+  {
+    return this.parent;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleCount()
+  {
+    return this.length;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleIndex( final long aTimeValue )
+  {
+    final int idx = this.parent.getSampleIndex( aTimeValue + this.timeOffset ) - this.offset;
+    return Math.max( 0, Math.min( idx, this.length - 1 ) );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleRate()
+  {
+    return this.parent.getSampleRate();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getTimestamp( final int aIndex )
+  {
+    return this.data.getTimestamp( this.offset + aIndex ) - this.timeOffset;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This copies all timestamps of this view, use {@link #getTimestamp(int)}
+   * instead where possible.
+   * </p>
+   */
+  @Override
+  public long[] getTimestamps()
+  {
+    final long[] result = new long[this.length];
+    for ( int i = 0; i < result.length; i++ )
+    {
+      result[i] = getTimestamp( i );
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getTriggerPosition()
+  {
+    return this.parent.getTriggerPosition() - this.timeOffset;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getValue( final int aIndex )
+  {
+    return this.data.getValue( this.offset + aIndex );
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This copies all sample values of this view, use {@link #getValue(int)}
+   * instead where possible.
+   * </p>
+   */
+  @Override
+  public int[] getValues()
+  {
+    final int[] result = new int[this.length];
+    for ( int i = 0; i < result.length; i++ )
+    {
+      result[i] = getValue( i );
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasTimingData()
+  {
+    return this.parent.hasTimingData();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasTriggerData()
+  {
+    return this.parent.hasTriggerData();
+  }
+
+  /**
+   * Creates the edge index for the given channel from the edge index of the
+   * parent.
+   */
+  private ChannelEdgeIndex createEdgeIndex( final int aChannelIdx )
+  {
+    if ( this.length == 0 )
+    {
+      return new ChannelEdgeIndex( aChannelIdx, 0, new long[0] );
+    }
+
+    final ChannelEdgeIndex parentIndex = this.parent.getEdgeIndex( aChannelIdx );
+
+    final long firstTimestamp = this.data.getTimestamp( this.offset );
+    final long lastTimestamp = this.data.getTimestamp( this.offset + this.length - 1 );
+
+    // Only the edges *after* the first sample are edges of this view...
+    final long[] edges = parentIndex.getEdges( firstTimestamp + 1L, lastTimestamp + 1L );
+    if ( this.timeOffset != 0L )
+    {
+      for ( int i = 0; i < edges.length; i++ )
+      {
+        edges[i] -= this.timeOffset;
+      }
+    }
+
+    return new ChannelEdgeIndex( aChannelIdx, parentIndex.getLevel( firstTimestamp ), edges );
+  }
+}
@@ -43,7 +43,7 @@ public class BaseDataSet<DATA extends BaseData<DATA>>
   private final int sampleRate;
   private final boolean triggerDataPresent;
   private final long triggerPosition;
-  private final long[] timestamps;
+  private final IndexedAcquisitionResult acquisitionResult;
 
   // CONSTRUCTORS
 
@@ -70,7 +70,7 @@ public class BaseDataSet<DATA extends BaseData<DATA>>
     this.triggerDataPresent = aData.hasTriggerData();
     this.triggerPosition = aData.getTriggerPosition();
 
-    this.timestamps = aData.getTimestamps();
+    this.acquisitionResult = AcquisitionResultAdapter.adapt( aData );
   }
 
   // METHODS
@@ -123,7 +123,7 @@ public class BaseDataSet<DATA extends BaseData<DATA>>
    */
   public final double getTime( final int aSampleIdx )
   {
-    long time = this.timestamps[aSampleIdx];
+    long time = this.acquisitionResult.getTimestamp( aSampleIdx );
     if ( this.triggerDataPresent )
     {
       time -= this.triggerPosition;
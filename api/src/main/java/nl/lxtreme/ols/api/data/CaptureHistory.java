@@ -0,0 +1,344 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.io.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Keeps the data sets of the last captures, limited by a memory budget.
+ * <p>
+ * The data sets are kept in a ring buffer, in the order in which they were
+ * added. Each data set retains its channels, and thereby the annotations made
+ * on it. When the total size of the captured data exceeds the budget, the
+ * oldest data sets are evicted, although the latest data set is always kept.
+ * </p>
+ * <p>
+ * This history owns the captured data of its data sets: captured data that
+ * holds external resources, such as {@link MappedCapturedData}, is closed when
+ * its data set is evicted or when this history is cleared.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public final class CaptureHistory
+{
+  // CONSTANTS
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  // VARIABLES
+
+  private DataSet[] entries;
+  private long[] sizes;
+  private int head;
+  private int count;
+  private int current;
+  private long budget;
+  private long memoryUsage;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new CaptureHistory instance.
+   *
+   * @param aBudget
+   *          the maximum number of bytes used by all captured data in this
+   *          history, a value <= 0 only retains the latest data set.
+   */
+  public CaptureHistory( final long aBudget )
+  {
+    this.entries = new DataSet[INITIAL_CAPACITY];
+    this.sizes = new long[INITIAL_CAPACITY];
+    this.budget = aBudget;
+    this.current = -1;
+  }
+
+  // METHODS
+
+  /**
+   * Returns the (estimated) number of bytes used by the given acquisition
+   * result.
+   *
+   * @param aData
+   *          the acquisition result to estimate, can be <code>null</code>.
+   * @return a memory usage, in bytes, >= 0.
+   */
+  public static long getMemoryUsage( final AcquisitionResult aData )
+  {
+    if ( aData == null )
+    {
+      return 0L;
+    }
+    if ( aData instanceof CapturedData )
+    {
+      return ( ( CapturedData )aData ).getMemoryUsage();
+    }
+    if ( aData instanceof MappedCapturedData )
+    {
+      // The samples are stored in a file, which takes 12 bytes per sample...
+      return 12L * ( ( MappedCapturedData )aData ).getSampleCount();
+    }
+    if ( aData instanceof AcquisitionResultView )
+    {
+      // A view shares the samples of its parent...
+      return getMemoryUsage( ( ( AcquisitionResultView )aData ).getParent() );
+    }
+    return 12L * AcquisitionResultAdapter.adapt( aData ).getSampleCount();
+  }
+
+  /**
+   * Closes the captured data of the given data set, if it holds any external
+   * resources.
+   */
+  private static void close( final DataSet aDataSet )
+  {
+    final AcquisitionResult data = ( aDataSet == null ) ? null : aDataSet.getCapturedData();
+    if ( data instanceof Closeable )
+    {
+      try
+      {
+        ( ( Closeable )data ).close();
+      }
+      catch ( IOException exception )
+      {
+        // Ignore; nothing we can do about this...
+      }
+    }
+  }
+
+  /**
+   * Adds a data set to this history, and makes it the current data set.
+   * Evicts the oldest data sets in case the memory budget is exceeded.
+   *
+   * @param aDataSet
+   *          the data set to add, cannot be <code>null</code>.
+   */
+  public synchronized void add( final DataSet aDataSet )
+  {
+    if ( aDataSet == null )
+    {
+      throw new IllegalArgumentException( "Data set cannot be null!" );
+    }
+
+    if ( this.count == this.entries.length )
+    {
+      grow();
+    }
+
+    final long size = getMemoryUsage( aDataSet.getCapturedData() );
+    final int idx = ( this.head + this.count ) % this.entries.length;
+
+    this.entries[idx] = aDataSet;
+    this.sizes[idx] = size;
+    this.count++;
+    this.memoryUsage += size;
+
+    this.current = this.count - 1;
+
+    evict();
+  }
+
+  /**
+   * Removes all data sets from this history.
+   */
+  public synchronized void clear()
+  {
+    for ( int i = 0; i < this.entries.length; i++ )
+    {
+      close( this.entries[i] );
+      this.entries[i] = null;
+    }
+    this.head = 0;
+    this.count = 0;
+    this.current = -1;
+    this.memoryUsage = 0L;
+  }
+
+  /**
+   * Returns the data set with the given index.
+   *
+   * @param aIndex
+   *          the index of the data set, >= 0 (the oldest data set) and <
+   *          {@link #size()}.
+   * @return the requested data set, never <code>null</code>.
+   */
+  public synchronized DataSet get( final int aIndex )
+  {
+    if ( ( aIndex < 0 ) || ( aIndex >= this.count ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid index: " + aIndex + "!" );
+    }
+    return this.entries[( this.head + aIndex ) % this.entries.length];
+  }
+
+  /**
+   * Returns the memory budget of this history.
+   *
+   * @return a memory budget, in bytes.
+   */
+  public synchronized long getBudget()
+  {
+    return this.budget;
+  }
+
+  /**
+   * Returns the index of the current data set.
+   *
+   * @return the index of the current data set, or -1 if this history is
+   *         empty.
+   */
+  public synchronized int getCurrentIndex()
+  {
+    return this.current;
+  }
+
+  /**
+   * Returns the total number of bytes used by the captured data of all data
+   * sets in this history.
+   *
+   * @return a memory usage, in bytes, >= 0.
+   */
+  public synchronized long getMemoryUsage()
+  {
+    return this.memoryUsage;
+  }
+
+  /**
+   * Returns whether there is a data set after the current one.
+   *
+   * @return <code>true</code> if there is a next data set, <code>false</code>
+   *         otherwise.
+   */
+  public synchronized boolean hasNext()
+  {
+    return ( this.current + 1 ) < this.count;
+  }
+
+  /**
+   * Returns whether there is a data set before the current one.
+   *
+   * @return <code>true</code> if there is a previous data set,
+   *         <code>false</code> otherwise.
+   */
+  public synchronized boolean hasPrevious()
+  {
+    return this.current > 0;
+  }
+
+  /**
+   * Makes the data set after the current one the current data set.
+   *
+   * @return the new current data set, or <code>null</code> if there is no next
+   *         data set.
+   */
+  public synchronized DataSet next()
+  {
+    if ( !hasNext() )
+    {
+      return null;
+    }
+    return get( ++this.current );
+  }
+
+  /**
+   * Makes the data set before the current one the current data set.
+   *
+   * @return the new current data set, or <code>null</code> if there is no
+   *         previous data set.
+   */
+  public synchronized DataSet previous()
+  {
+    if ( !hasPrevious() )
+    {
+      return null;
+    }
+    return get( --this.current );
+  }
+
+  /**
+   * Sets the memory budget of this history, evicting the oldest data sets if
+   * needed.
+   *
+   * @param aBudget
+   *          the maximum number of bytes used by all captured data in this
+   *          history, a value <= 0 only retains the latest data set.
+   */
+  public synchronized void setBudget( final long aBudget )
+  {
+    this.budget = aBudget;
+
+    evict();
+  }
+
+  /**
+   * Returns the number of data sets in this history.
+   *
+   * @return a data set count, >= 0.
+   */
+  public synchronized int size()
+  {
+    return this.count;
+  }
+
+  /**
+   * Evicts the oldest data sets until the memory usage fits the budget again,
+   * always retaining the latest data set.
+   */
+  private void evict()
+  {
+    while ( ( this.count > 1 ) && ( this.memoryUsage > this.budget ) )
+    {
+      this.memoryUsage -= this.sizes[this.head];
+      close( this.entries[this.head] );
+      this.entries[this.head] = null;
+
+      this.head = ( this.head + 1 ) % this.entries.length;
+      this.count--;
+      this.current = Math.max( 0, this.current - 1 );
+    }
+  }
+
+  /**
+   * Doubles the capacity of the ring buffer.
+   */
+  private void grow()
+  {
+    final int capacity = this.entries.length;
+    final DataSet[] newEntries = new DataSet[2 * capacity];
+    final long[] newSizes = new long[2 * capacity];
+
+    for ( int i = 0; i < this.count; i++ )
+    {
+      final int idx = ( this.head + i ) % capacity;
+      newEntries[i] = this.entries[idx];
+      newSizes[i] = this.sizes[idx];
+    }
+
+    this.entries = newEntries;
+    this.sizes = newSizes;
+    this.head = 0;
+  }
+}
@@ -32,20 +32,22 @@ import nl.lxtreme.ols.api.acquisition.*;
  * run.
  * <p>
  * In the java code each transition is represented by an integer together with a
- * timestamp represented by a long value.
+ * timestamp represented by a long value. Both are stored in the most compact
+ * form possible; use {@link #getValue(int)} and {@link #getTimestamp(int)} to
+ * access them without expanding them to arrays.
  * 
  * @author Michael "Mr. Sump" Poppitz
  * @author J.W. Janssen
  */
-public class CapturedData implements AcquisitionResult
+public class CapturedData implements IndexedAcquisitionResult
 {
   // VARIABLES
 
   /** captured values */
-  private final int[] values;
+  private volatile ValueStore values;
 
   /** timestamp values in samples count from start */
-  private final long[] timestamps;
+  private volatile TimestampStore timestamps;
 
   /** position of trigger as time value */
   private final long triggerPosition;
@@ -62,6 +64,9 @@ public class CapturedData implements AcquisitionResult
   /** absolute sample length */
   private final long absoluteLength;
 
+  /** lazily created edge indices, one per channel */
+  private final ChannelEdgeIndex[] edgeIndices = new ChannelEdgeIndex[Ols.MAX_CHANNELS];
+
   // CONSTRUCTORS
 
   /**
@@ -86,43 +91,23 @@ public class CapturedData implements AcquisitionResult
     this.channels = channels;
     this.enabledChannels = enabledChannels;
 
-    // calculate transitions
-    int tmp = values[0];
-    int count = 1; // first value is the initial value at time 0
-    for ( final int value : values )
-    {
-      if ( tmp != value )
-      {
-        count++;
-      }
-      tmp = value;
-    }
+    // calculate transitions; large captures are compacted in parallel...
+    final TransitionCompactor compactor = new TransitionCompactor( values );
+    final int count = compactor.getCount(); // includes the initial value
 
-    this.timestamps = new long[count];
-    this.values = new int[count];
-    this.timestamps[0] = 0;
-    this.values[0] = values[0];
+    // store only transitions
+    final long[] timestamps = new long[count];
+    final int[] sampleValues = new int[count];
+    compactor.copyTo( sampleValues, timestamps, null /* aSourceTimestamps */);
 
-    tmp = values[0];
-    count = 1;
-    for ( int i = 1; i < values.length; i++ )
-    {
-      if ( tmp != values[i] )
-      {
-        // store only transitions
-        this.timestamps[count] = i;
-        this.values[count] = values[i];
-        count++;
-      }
-      tmp = values[i];
-    }
-
-    long absLength = this.timestamps[this.timestamps.length - 1];
+    long absLength = timestamps[timestamps.length - 1];
     if ( values.length > 1 )
     {
-      absLength -= this.timestamps[0];
+      absLength -= timestamps[0];
     }
 
+    this.values = ValueStore.create( sampleValues, enabledChannels );
+    this.timestamps = TimestampStore.create( timestamps );
     this.absoluteLength = absLength;
   }
 
@@ -165,22 +150,16 @@ public class CapturedData implements AcquisitionResult
       absLength = Math.max( aAbsLen, aTimestamps[aTimestamps.length - 1] );
     }
 
+    final int[] sampleValues;
+    final long[] timestamps;
     if ( aValues.length > 0 )
     {
-      // 1: calculate the number of unique transitions...
-      int count = 1;
+      // 1: calculate the number of unique transitions; large captures are
+      // compacted in parallel...
+      final TransitionCompactor compactor = new TransitionCompactor( aValues );
 
-      int oldValue = aValues[0];
-      long lastTimestamp = aTimestamps[0];
-      for ( int i = 1; i < aValues.length; i++ )
-      {
-        if ( aValues[i] != oldValue )
-        {
-          count++;
-          lastTimestamp = aTimestamps[i];
-        }
-        oldValue = aValues[i];
-      }
+      int count = compactor.getCount();
+      long lastTimestamp = aTimestamps[compactor.getLastTransitionIndex()];
 
       // Issue #167: make sure the absolute length is *always* present...
       boolean addExtraSample = ( lastTimestamp != absLength ) || count < 2;
@@ -190,37 +169,26 @@ public class CapturedData implements AcquisitionResult
       }
 
       // 2: copy *only* the unique transitions...
-      this.values = new int[count];
-      this.timestamps = new long[count];
+      sampleValues = new int[count];
+      timestamps = new long[count];
 
-      this.values[0] = aValues[0];
-      this.timestamps[0] = aTimestamps[0];
-
-      oldValue = aValues[0];
-      for ( int i = 1, j = 1; i < aValues.length; i++ )
-      {
-        if ( aValues[i] != oldValue )
-        {
-          this.values[j] = aValues[i];
-          this.timestamps[j] = aTimestamps[i];
-          j++;
-        }
-        oldValue = aValues[i];
-      }
+      compactor.copyTo( sampleValues, timestamps, aTimestamps );
 
       // Issue #167: make sure the absolute length is *always* present...
       if ( addExtraSample )
       {
-        this.values[count - 1] = aValues[aValues.length - 1];
-        this.timestamps[count - 1] = absLength;
+        sampleValues[count - 1] = aValues[aValues.length - 1];
+        timestamps[count - 1] = absLength;
       }
     }
     else
     {
-      this.values = new int[0];
-      this.timestamps = new long[0];
+      sampleValues = new int[0];
+      timestamps = new long[0];
     }
 
+    this.values = ValueStore.create( sampleValues, aEnabledChannels );
+    this.timestamps = TimestampStore.create( timestamps );
     this.triggerPosition = aTriggerPosition;
     this.rate = aRate;
     this.channels = aChannels;
@@ -265,6 +233,8 @@ public class CapturedData implements AcquisitionResult
       absLength = Math.max( aAbsoluteLength, aTimestamps.get( aTimestamps.size() - 1 ).longValue() );
     }
 
+    final int[] sampleValues;
+    final long[] timestamps;
     if ( !aValues.isEmpty() )
     {
       final int size = aValues.size();
@@ -293,11 +263,11 @@ public class CapturedData implements AcquisitionResult
       }
 
       // 2: copy *only* the unique transitions...
-      this.values = new int[count];
-      this.timestamps = new long[count];
+      sampleValues = new int[count];
+      timestamps = new long[count];
 
-      this.values[0] = aValues.get( 0 ).intValue();
-      this.timestamps[0] = aTimestamps.get( 0 ).longValue();
+      sampleValues[0] = aValues.get( 0 ).intValue();
+      timestamps[0] = aTimestamps.get( 0 ).longValue();
 
       oldValue = aValues.get( 0 );
       for ( int i = 1, j = 1; i < size; i++ )
@@ -306,8 +276,8 @@ public class CapturedData implements AcquisitionResult
         Long timestamp = aTimestamps.get( i );
         if ( value.compareTo( oldValue ) != 0 )
         {
-          this.values[j] = value.intValue();
-          this.timestamps[j] = timestamp.longValue();
+          sampleValues[j] = value.intValue();
+          timestamps[j] = timestamp.longValue();
           j++;
         }
         oldValue = value;
@@ -316,16 +286,18 @@ public class CapturedData implements AcquisitionResult
       // Issue #167: make sure the absolute length is *always* present...
       if ( addExtraSample )
       {
-        this.values[count - 1] = aValues.get( size - 1 ).intValue();
-        this.timestamps[count - 1] = absLength;
+        sampleValues[count - 1] = aValues.get( size - 1 ).intValue();
+        timestamps[count - 1] = absLength;
       }
     }
     else
     {
-      this.values = new int[0];
-      this.timestamps = new long[0];
+      sampleValues = new int[0];
+      timestamps = new long[0];
     }
 
+    this.values = ValueStore.create( sampleValues, aEnabledChannels );
+    this.timestamps = TimestampStore.create( timestamps );
     this.triggerPosition = aTriggerPosition;
     this.rate = aRate;
     this.channels = aChannels;
@@ -333,12 +305,56 @@ public class CapturedData implements AcquisitionResult
     this.absoluteLength = aAbsoluteLength;
   }
 
+  /**
+   * Constructs CapturedData directly on top of the given sampling data.
+   * <p>
+   * The given arrays are used as-is, and are expected to contain only
+   * transitions, ending with a sample at the absolute length.
+   * </p>
+   * 
+   * @param aValues
+   *          32bit values, containing only transitions;
+   * @param aTimestamps
+   *          timstamps in number of samples since sample start;
+   * @param aTriggerPosition
+   *          position of trigger as time value
+   * @param aRate
+   *          sampling rate (may be set to <code>NOT_AVAILABLE</code>)
+   * @param aChannels
+   *          number of used channels
+   * @param aEnabledChannels
+   *          bit mask identifying used channels
+   * @param aAbsLen
+   *          absolute number of samples;
+   * @param aCompacted
+   *          only used to distinguish this constructor from the public one,
+   *          should be <code>true</code>.
+   * @see CapturedDataBuilder
+   */
+  CapturedData( final int[] aValues, final long[] aTimestamps, final long aTriggerPosition, final int aRate,
+      final int aChannels, final int aEnabledChannels, final long aAbsLen, final boolean aCompacted )
+  {
+    if ( aValues.length != aTimestamps.length )
+    {
+      throw new IllegalArgumentException( "Values and timestamps size mismatch!" );
+    }
+
+    this.values = ValueStore.create( aValues, aEnabledChannels );
+    this.timestamps = TimestampStore.create( aTimestamps );
+    this.triggerPosition = aTriggerPosition;
+    this.rate = aRate;
+    this.channels = aChannels;
+    this.enabledChannels = aEnabledChannels;
+    this.absoluteLength = aAbsLen;
+  }
+
   /**
    * Provides a binary search for arrays of long-values.
    * <p>
    * This implementation is directly copied from the JDK
    * {@link Arrays#binarySearch(long[], long)} implementation, slightly modified
-   * to only perform a single comparison-action.
+   * to return the insertion point in case the key is not found. It only uses
+   * primitive comparisons, so no objects are created during the search.
    * </p>
    * 
    * @param aArray
@@ -349,27 +365,25 @@ public class CapturedData implements AcquisitionResult
    *          the to index to search up and until;
    * @param aKey
    *          the value to search for.
-   * @return the index of the given key, which is either the greatest index of
-   *         the value less or equal to the given key.
+   * @return the index of the given key, or, if not found, the index of the
+   *         first value greater than the given key, clamped to the last index.
    * @see Arrays#binarySearch(long[], long)
    */
-  static final int binarySearch( final long[] aArray, final int aFromIndex, final int aToIndex, final Long aKey )
+  static final int binarySearch( final long[] aArray, final int aFromIndex, final int aToIndex, final long aKey )
   {
-    int mid = -1;
     int low = aFromIndex;
     int high = aToIndex - 1;
 
     while ( low <= high )
     {
-      mid = ( low + high ) >>> 1;
-      final Long midVal = Long.valueOf( aArray[mid] );
+      final int mid = ( low + high ) >>> 1;
+      final long midVal = aArray[mid];
 
-      final int c = aKey.compareTo( midVal );
-      if ( c > 0 )
+      if ( midVal < aKey )
       {
         low = mid + 1;
       }
-      else if ( c < 0 )
+      else if ( midVal > aKey )
       {
         high = mid - 1;
       }
@@ -379,25 +393,11 @@ public class CapturedData implements AcquisitionResult
       }
     }
 
-    if ( mid < 0 )
-    {
-      return low;
-    }
-
     // Determine the insertion point, avoid crossing the array boundaries...
-    if ( mid < ( aToIndex - 1 ) )
-    {
-      // If the searched value is greater than the value of the found index,
-      // insert it after this value, otherwise before it (= the last return)...
-      if ( aKey.longValue() > aArray[mid] )
-      {
-        return mid + 1;
-      }
-    }
-
-    return mid;
+    return Math.max( aFromIndex, Math.min( low, aToIndex - 1 ) );
   }
 
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getAbsoluteLength()
    */
@@ -416,6 +416,30 @@ public class CapturedData implements AcquisitionResult
     return this.channels;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getEdgeIndex(int)
+   */
+  @Override
+  public final ChannelEdgeIndex getEdgeIndex( final int aChannelIdx )
+  {
+    if ( ( aChannelIdx < 0 ) || ( aChannelIdx > ( Ols.MAX_CHANNELS - 1 ) ) )
+    {
+      throw new IllegalArgumentException( "Invalid channel index: " + aChannelIdx + "! Should be between 0 and "
+          + Ols.MAX_CHANNELS );
+    }
+
+    synchronized ( this.edgeIndices )
+    {
+      ChannelEdgeIndex result = this.edgeIndices[aChannelIdx];
+      if ( result == null )
+      {
+        result = ChannelEdgeIndex.create( this, aChannelIdx );
+        this.edgeIndices[aChannelIdx] = result;
+      }
+      return result;
+    }
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getEnabledChannels()
    */
@@ -425,13 +449,33 @@ public class CapturedData implements AcquisitionResult
     return this.enabledChannels;
   }
 
+  /**
+   * Returns the number of bytes used to store the samples of this captured
+   * data.
+   *
+   * @return a memory usage, in bytes, >= 0.
+   */
+  public final long getMemoryUsage()
+  {
+    return this.values.getMemoryUsage() + this.timestamps.getMemoryUsage();
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getSampleIndex(long)
    */
   @Override
   public final int getSampleIndex( final long abs )
   {
-    return binarySearch( this.timestamps, 0, this.timestamps.length, Long.valueOf( abs ) );
+    return this.timestamps.search( abs );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final int getSampleCount()
+  {
+    return this.values.size();
   }
 
   /**
@@ -444,12 +488,41 @@ public class CapturedData implements AcquisitionResult
   }
 
   /**
-   * @see nl.lxtreme.ols.api.data.CapturedData#getTimestamps()
+   * {@inheritDoc}
+   */
+  @Override
+  public final long getTimestamp( final int aIndex )
+  {
+    return this.timestamps.get( aIndex );
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * In case the timestamps are stored in a compact form, they are expanded to
+   * a <tt>long</tt>-array that replaces the compact form, so this captured data
+   * will use more memory afterwards. Use {@link #getTimestamp(int)} instead
+   * where possible.
+   * </p>
    */
   @Override
   public final long[] getTimestamps()
   {
-    return this.timestamps;
+    long[] result = this.timestamps.asArray();
+    if ( result == null )
+    {
+      synchronized ( this )
+      {
+        result = this.timestamps.asArray();
+        if ( result == null )
+        {
+          // Keep only the expanded timestamps, not both representations...
+          result = this.timestamps.toArray();
+          this.timestamps = new TimestampStore.LongStore( result );
+        }
+      }
+    }
+    return result;
   }
 
   /**
@@ -462,12 +535,41 @@ public class CapturedData implements AcquisitionResult
   }
 
   /**
-   * @see nl.lxtreme.ols.api.data.CapturedData#getValues()
+   * {@inheritDoc}
+   */
+  @Override
+  public final int getValue( final int aIndex )
+  {
+    return this.values.get( aIndex );
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * In case the values are stored in a compact form, they are expanded to an
+   * <tt>int</tt>-array that replaces the compact form, so this captured data
+   * will use more memory afterwards. Use {@link #getValue(int)} instead where
+   * possible.
+   * </p>
    */
   @Override
   public final int[] getValues()
   {
-    return this.values;
+    int[] result = this.values.asArray();
+    if ( result == null )
+    {
+      synchronized ( this )
+      {
+        result = this.values.asArray();
+        if ( result == null )
+        {
+          // Keep only the expanded values, not both representations...
+          result = this.values.toArray();
+          this.values = new ValueStore.IntStore( result );
+        }
+      }
+    }
+    return result;
   }
 
   /**
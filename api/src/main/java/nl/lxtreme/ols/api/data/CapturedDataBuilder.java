@@ -0,0 +1,205 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+
+
+/**
+ * Provides a builder for {@link CapturedData}, allowing sample values to be
+ * added one by one without the need to box them.
+ * <p>
+ * Only transitions are retained: a sample value that equals its predecessor is
+ * not stored. The internal arrays grow geometrically, so adding a sample is an
+ * amortized constant time operation.
+ * </p>
+ * <p>
+ * This class is <b>not</b> thread-safe.
+ * </p>
+ */
+public final class CapturedDataBuilder
+{
+  // CONSTANTS
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  // VARIABLES
+
+  private int[] values;
+  private long[] timestamps;
+  private int size;
+  private long lastTimestamp;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new CapturedDataBuilder instance with a default initial
+   * capacity.
+   */
+  public CapturedDataBuilder()
+  {
+    this( DEFAULT_CAPACITY );
+  }
+
+  /**
+   * Creates a new CapturedDataBuilder instance.
+   *
+   * @param aInitialCapacity
+   *          the initial number of transitions to reserve room for, > 0.
+   */
+  public CapturedDataBuilder( final int aInitialCapacity )
+  {
+    if ( aInitialCapacity <= 0 )
+    {
+      throw new IllegalArgumentException( "Initial capacity must be positive!" );
+    }
+
+    this.values = new int[aInitialCapacity];
+    this.timestamps = new long[aInitialCapacity];
+    this.size = 0;
+    this.lastTimestamp = -1L;
+  }
+
+  // METHODS
+
+  /**
+   * Adds a sample value with its timestamp.
+   * <p>
+   * Timestamps are expected to be added in ascending order. If the given
+   * sample value equals the last added sample value, only its timestamp is
+   * remembered to determine the absolute length of the data.
+   * </p>
+   *
+   * @param aValue
+   *          the sample value to add;
+   * @param aTimestamp
+   *          the timestamp of the sample value, in number of samples since
+   *          sample start.
+   * @return this builder, never <code>null</code>.
+   */
+  public CapturedDataBuilder add( final int aValue, final long aTimestamp )
+  {
+    final int idx = this.size;
+    if ( ( idx == 0 ) || ( this.values[idx - 1] != aValue ) )
+    {
+      if ( idx == this.values.length )
+      {
+        grow( idx + 1 );
+      }
+
+      this.values[idx] = aValue;
+      this.timestamps[idx] = aTimestamp;
+      this.size = idx + 1;
+    }
+
+    this.lastTimestamp = aTimestamp;
+    return this;
+  }
+
+  /**
+   * Creates the captured data using all sample values added so far.
+   * <p>
+   * This builder can no longer be used after this method is called.
+   * </p>
+   *
+   * @param aTriggerPosition
+   *          position of trigger as time value;
+   * @param aRate
+   *          sampling rate (may be set to <code>NOT_AVAILABLE</code>);
+   * @param aChannels
+   *          number of used channels;
+   * @param aEnabledChannels
+   *          bit mask identifying used channels;
+   * @param aAbsLen
+   *          absolute number of samples, or a negative value to use the last
+   *          added timestamp.
+   * @return a new captured data instance, never <code>null</code>.
+   */
+  public CapturedData build( final long aTriggerPosition, final int aRate, final int aChannels,
+      final int aEnabledChannels, final long aAbsLen )
+  {
+    // Ensure we've got an absolute length available...
+    final long absLength;
+    if ( aAbsLen < 0L )
+    {
+      absLength = Math.max( 0L, this.lastTimestamp );
+    }
+    else
+    {
+      absLength = Math.max( aAbsLen, this.lastTimestamp );
+    }
+
+    int count = this.size;
+    if ( count > 0 )
+    {
+      // Issue #167: make sure the absolute length is *always* present...
+      if ( ( this.timestamps[count - 1] != absLength ) || ( count < 2 ) )
+      {
+        if ( count == this.values.length )
+        {
+          grow( count + 1 );
+        }
+        this.values[count] = this.values[count - 1];
+        this.timestamps[count] = absLength;
+        count++;
+      }
+    }
+
+    final int[] resultValues = ( count == this.values.length ) ? this.values : Arrays.copyOf( this.values, count );
+    final long[] resultTimestamps = ( count == this.timestamps.length ) ? this.timestamps : Arrays.copyOf(
+        this.timestamps, count );
+
+    // Release our buffers as early as possible...
+    this.values = null;
+    this.timestamps = null;
+    this.size = 0;
+
+    return new CapturedData( resultValues, resultTimestamps, aTriggerPosition, aRate, aChannels, aEnabledChannels,
+        absLength, true /* aCompacted */);
+  }
+
+  /**
+   * Returns the number of transitions added so far.
+   *
+   * @return a transition count, >= 0.
+   */
+  public int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * Grows the internal arrays to hold at least the given number of elements.
+   */
+  private void grow( final int aMinCapacity )
+  {
+    final int oldCapacity = this.values.length;
+    long newCapacity = Math.max( aMinCapacity, ( oldCapacity * 3L ) / 2L + 1L );
+    if ( newCapacity > Integer.MAX_VALUE )
+    {
+      newCapacity = Integer.MAX_VALUE;
+    }
+
+    this.values = Arrays.copyOf( this.values, ( int )newCapacity );
+    this.timestamps = Arrays.copyOf( this.timestamps, ( int )newCapacity );
+  }
+}
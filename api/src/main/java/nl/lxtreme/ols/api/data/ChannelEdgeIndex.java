@@ -0,0 +1,331 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides an index of all edges of a single channel in an acquisition result.
+ * <p>
+ * The index only stores the timestamps at which the level of the channel
+ * changes, allowing edges to be found by means of a binary search instead of
+ * a linear scan through all sample values.
+ * </p>
+ */
+public final class ChannelEdgeIndex
+{
+  // VARIABLES
+
+  private final int channelIdx;
+  private final int initialLevel;
+  private final long[] edges;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new ChannelEdgeIndex instance.
+   */
+  ChannelEdgeIndex( final int aChannelIdx, final int aInitialLevel, final long[] aEdges )
+  {
+    this.channelIdx = aChannelIdx;
+    this.initialLevel = aInitialLevel;
+    this.edges = aEdges;
+  }
+
+  // METHODS
+
+  /**
+   * Creates an edge index for the given channel of the given acquisition
+   * result.
+   *
+   * @param aData
+   *          the acquisition result to index, cannot be <code>null</code>;
+   * @param aChannelIdx
+   *          the index of the channel to index, >= 0 && < 32.
+   * @return a new edge index, never <code>null</code>.
+   */
+  public static ChannelEdgeIndex create( final AcquisitionResult aData, final int aChannelIdx )
+  {
+    if ( ( aChannelIdx < 0 ) || ( aChannelIdx > ( Ols.MAX_CHANNELS - 1 ) ) )
+    {
+      throw new IllegalArgumentException( "Invalid channel index: " + aChannelIdx + "! Should be between 0 and "
+          + Ols.MAX_CHANNELS );
+    }
+
+    // Access the samples one by one, to avoid them being expanded to arrays...
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( aData );
+    final int size = data.getSampleCount();
+    if ( size == 0 )
+    {
+      return new ChannelEdgeIndex( aChannelIdx, 0, new long[0] );
+    }
+
+    final int mask = ( 1 << aChannelIdx );
+
+    // 1: calculate the number of edges...
+    int count = 0;
+    int oldLevel = data.getValue( 0 ) & mask;
+    for ( int i = 1; i < size; i++ )
+    {
+      final int level = data.getValue( i ) & mask;
+      if ( level != oldLevel )
+      {
+        count++;
+      }
+      oldLevel = level;
+    }
+
+    // 2: copy *only* the timestamps of the edges...
+    final long[] edges = new long[count];
+
+    oldLevel = data.getValue( 0 ) & mask;
+    for ( int i = 1, j = 0; i < size; i++ )
+    {
+      final int level = data.getValue( i ) & mask;
+      if ( level != oldLevel )
+      {
+        edges[j++] = data.getTimestamp( i );
+      }
+      oldLevel = level;
+    }
+
+    return new ChannelEdgeIndex( aChannelIdx, ( ( data.getValue( 0 ) & mask ) != 0 ) ? 1 : 0, edges );
+  }
+
+  /**
+   * Creates an edge index for the given channel of the given sample data.
+   *
+   * @param aValues
+   *          the sample values to index, cannot be <code>null</code>;
+   * @param aTimestamps
+   *          the timestamps of the sample values, cannot be <code>null</code>;
+   * @param aChannelIdx
+   *          the index of the channel to index, >= 0 && < 32.
+   * @return a new edge index, never <code>null</code>.
+   */
+  public static ChannelEdgeIndex create( final int[] aValues, final long[] aTimestamps, final int aChannelIdx )
+  {
+    if ( ( aChannelIdx < 0 ) || ( aChannelIdx > ( Ols.MAX_CHANNELS - 1 ) ) )
+    {
+      throw new IllegalArgumentException( "Invalid channel index: " + aChannelIdx + "! Should be between 0 and "
+          + Ols.MAX_CHANNELS );
+    }
+    if ( aValues.length == 0 )
+    {
+      return new ChannelEdgeIndex( aChannelIdx, 0, new long[0] );
+    }
+
+    final int mask = ( 1 << aChannelIdx );
+
+    // 1: calculate the number of edges...
+    int count = 0;
+    int oldLevel = aValues[0] & mask;
+    for ( int i = 1; i < aValues.length; i++ )
+    {
+      final int level = aValues[i] & mask;
+      if ( level != oldLevel )
+      {
+        count++;
+      }
+      oldLevel = level;
+    }
+
+    // 2: copy *only* the timestamps of the edges...
+    final long[] edges = new long[count];
+
+    oldLevel = aValues[0] & mask;
+    for ( int i = 1, j = 0; i < aValues.length; i++ )
+    {
+      final int level = aValues[i] & mask;
+      if ( level != oldLevel )
+      {
+        edges[j++] = aTimestamps[i];
+      }
+      oldLevel = level;
+    }
+
+    return new ChannelEdgeIndex( aChannelIdx, ( ( aValues[0] & mask ) != 0 ) ? 1 : 0, edges );
+  }
+
+  /**
+   * Returns the first index in the given array whose value is greater than (or
+   * equal to, if so requested) the given key.
+   */
+  private static int search( final long[] aArray, final long aKey, final boolean aInclusive )
+  {
+    int low = 0;
+    int high = aArray.length;
+
+    while ( low < high )
+    {
+      final int mid = ( low + high ) >>> 1;
+      final long midVal = aArray[mid];
+
+      if ( ( midVal < aKey ) || ( !aInclusive && ( midVal == aKey ) ) )
+      {
+        low = mid + 1;
+      }
+      else
+      {
+        high = mid;
+      }
+    }
+
+    return low;
+  }
+
+  /**
+   * Finds the first edge of the given type that occurs strictly after the
+   * given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to start searching from;
+   * @param aEdge
+   *          the type of edge to search for, {@link Edge#NONE} for any edge.
+   * @return the timestamp of the found edge, or {@link Ols#NOT_AVAILABLE} if
+   *         no such edge exists.
+   */
+  public long findEdgeAfter( final long aTimestamp, final Edge aEdge )
+  {
+    int idx = search( this.edges, aTimestamp, false /* aInclusive */);
+    if ( ( idx < this.edges.length ) && !aEdge.isNone() && ( getEdge( idx ) != aEdge ) )
+    {
+      idx++;
+    }
+    if ( idx >= this.edges.length )
+    {
+      return Ols.NOT_AVAILABLE;
+    }
+    return this.edges[idx];
+  }
+
+  /**
+   * Finds the last edge of the given type that occurs strictly before the
+   * given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to start searching from;
+   * @param aEdge
+   *          the type of edge to search for, {@link Edge#NONE} for any edge.
+   * @return the timestamp of the found edge, or {@link Ols#NOT_AVAILABLE} if
+   *         no such edge exists.
+   */
+  public long findEdgeBefore( final long aTimestamp, final Edge aEdge )
+  {
+    int idx = search( this.edges, aTimestamp, true /* aInclusive */) - 1;
+    if ( ( idx >= 0 ) && !aEdge.isNone() && ( getEdge( idx ) != aEdge ) )
+    {
+      idx--;
+    }
+    if ( idx < 0 )
+    {
+      return Ols.NOT_AVAILABLE;
+    }
+    return this.edges[idx];
+  }
+
+  /**
+   * Returns the index of the channel this index is created for.
+   *
+   * @return a channel index, >= 0 && < 32.
+   */
+  public int getChannelIndex()
+  {
+    return this.channelIdx;
+  }
+
+  /**
+   * Returns the type of the edge with the given index.
+   *
+   * @param aIndex
+   *          the index of the edge, >= 0 && < {@link #getEdgeCount()}.
+   * @return the type of the edge, either {@link Edge#RISING} or
+   *         {@link Edge#FALLING}.
+   */
+  public Edge getEdge( final int aIndex )
+  {
+    // Each edge toggles the level, so every even edge changes the initial
+    // level, while every odd edge restores it...
+    final int level = this.initialLevel ^ ( ~aIndex & 1 );
+    return ( level != 0 ) ? Edge.RISING : Edge.FALLING;
+  }
+
+  /**
+   * Returns the total number of edges in this index.
+   *
+   * @return an edge count, >= 0.
+   */
+  public int getEdgeCount()
+  {
+    return this.edges.length;
+  }
+
+  /**
+   * Returns the timestamps of all edges in the given time range.
+   *
+   * @param aStartTime
+   *          the start timestamp (inclusive) of the range;
+   * @param aEndTime
+   *          the end timestamp (exclusive) of the range.
+   * @return the timestamps of all edges in the given range, never
+   *         <code>null</code>.
+   */
+  public long[] getEdges( final long aStartTime, final long aEndTime )
+  {
+    final int startIdx = search( this.edges, aStartTime, true /* aInclusive */);
+    final int endIdx = search( this.edges, aEndTime, true /* aInclusive */);
+    if ( startIdx >= endIdx )
+    {
+      return new long[0];
+    }
+    return Arrays.copyOfRange( this.edges, startIdx, endIdx );
+  }
+
+  /**
+   * Returns the timestamp of the edge with the given index.
+   *
+   * @param aIndex
+   *          the index of the edge, >= 0 && < {@link #getEdgeCount()}.
+   * @return the timestamp of the edge.
+   */
+  public long getEdgeTimestamp( final int aIndex )
+  {
+    return this.edges[aIndex];
+  }
+
+  /**
+   * Returns the level of the channel at the given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to return the level for.
+   * @return 1 if the channel is high at the given timestamp, 0 if it is low.
+   */
+  public int getLevel( final long aTimestamp )
+  {
+    final int count = search( this.edges, aTimestamp, false /* aInclusive */);
+    return this.initialLevel ^ ( count & 1 );
+  }
+}
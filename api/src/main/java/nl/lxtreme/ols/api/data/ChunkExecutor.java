@@ -0,0 +1,173 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+import java.util.concurrent.*;
+
+
+/**
+ * Runs work on large sample arrays in parallel, by dividing the samples into
+ * chunks that are processed by a small pool of daemon threads, which are
+ * created on demand and terminate when idle.
+ */
+final class ChunkExecutor
+{
+  // INNER TYPES
+
+  /**
+   * Denotes the work to be done for a single chunk.
+   */
+  static interface ChunkTask
+  {
+    /**
+     * Runs this task for the chunk with the given index.
+     *
+     * @param aChunk
+     *          the index of the chunk to process.
+     */
+    void run( int aChunk );
+  }
+
+  /**
+   * Creates daemon threads, so the worker threads never keep the JVM alive.
+   */
+  static final class DaemonThreadFactory implements ThreadFactory
+  {
+    private int count = 0;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Thread newThread( final Runnable aRunnable )
+    {
+      final Thread result = new Thread( aRunnable, "Sample data worker #" + ( ++this.count ) );
+      result.setDaemon( true );
+      return result;
+    }
+  }
+
+  // CONSTANTS
+
+  /** The minimal number of samples before work is done in parallel. */
+  static final int PARALLEL_THRESHOLD = 1 << 20;
+
+  /** The number of threads used to process chunks. */
+  static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+
+  /** The time, in seconds, after which an idle worker thread terminates. */
+  static final long KEEP_ALIVE_TIME = 5L;
+
+  private static ThreadPoolExecutor executor;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new ChunkExecutor instance, never used.
+   */
+  private ChunkExecutor()
+  {
+    // NO-op
+  }
+
+  // METHODS
+
+  /**
+   * Returns the number of chunks to use for the given number of samples.
+   *
+   * @param aSampleCount
+   *          the number of samples to process.
+   * @return a chunk count, >= 1.
+   */
+  static int getChunkCount( final int aSampleCount )
+  {
+    return ( aSampleCount < PARALLEL_THRESHOLD ) ? 1 : THREAD_COUNT;
+  }
+
+  /**
+   * Runs the given task for all chunks, in parallel if there is more than one
+   * chunk, and waits until all chunks are done.
+   *
+   * @param aChunks
+   *          the number of chunks to process, >= 1;
+   * @param aTask
+   *          the task to run for each chunk, cannot be <code>null</code>.
+   */
+  static void execute( final int aChunks, final ChunkTask aTask )
+  {
+    if ( aChunks == 1 )
+    {
+      aTask.run( 0 );
+      return;
+    }
+
+    final List<Future<?>> futures = new ArrayList<Future<?>>( aChunks );
+    final ExecutorService executorService = getExecutor();
+    for ( int i = 0; i < aChunks; i++ )
+    {
+      final int chunk = i;
+      futures.add( executorService.submit( new Runnable()
+      {
+        @Override
+        public void run()
+        {
+          aTask.run( chunk );
+        }
+      } ) );
+    }
+
+    try
+    {
+      for ( Future<?> future : futures )
+      {
+        future.get();
+      }
+    }
+    catch ( InterruptedException exception )
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException( "Processing sample data interrupted!", exception );
+    }
+    catch ( ExecutionException exception )
+    {
+      throw new RuntimeException( "Processing sample data failed!", exception.getCause() );
+    }
+  }
+
+  /**
+   * Returns the executor used to run the chunks in parallel. Its threads are
+   * only created when chunks are submitted, and terminate after being idle for
+   * {@link #KEEP_ALIVE_TIME} seconds, so no threads linger once the bundle is
+   * stopped.
+   */
+  static synchronized ThreadPoolExecutor getExecutor()
+  {
+    if ( executor == null )
+    {
+      executor = new ThreadPoolExecutor( THREAD_COUNT, THREAD_COUNT, KEEP_ALIVE_TIME, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory() );
+      executor.allowCoreThreadTimeOut( true );
+    }
+    return executor;
+  }
+}
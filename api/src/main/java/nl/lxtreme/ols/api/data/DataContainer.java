@@ -44,7 +44,7 @@ import nl.lxtreme.ols.api.data.project.*;
  * @deprecated
  */
 @Deprecated
-public final class DataContainer implements AcquisitionResult
+public final class DataContainer implements IndexedAcquisitionResult
 {
   // VARIABLES
 
@@ -112,7 +112,7 @@ public final class DataContainer implements AcquisitionResult
    */
   public double calculateTime( final int aSampleIndex )
   {
-    double timestamp = calculateTimeOffset( getTimestamps()[aSampleIndex] );
+    double timestamp = calculateTimeOffset( getTimestamp( aSampleIndex ) );
     return ( timestamp / getSampleRate() );
   }
 
@@ -332,6 +332,19 @@ public final class DataContainer implements AcquisitionResult
         / ( double )getAcquisitionData().getSampleRate() );
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getEdgeIndex(int)
+   */
+  @Override
+  public ChannelEdgeIndex getEdgeIndex( final int aChannelIdx )
+  {
+    if ( !hasCapturedData() )
+    {
+      return ChannelEdgeIndex.create( new int[0], new long[0], aChannelIdx );
+    }
+    return getAcquisitionData().getEdgeIndex( aChannelIdx );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getEnabledChannels()
    */
@@ -350,6 +363,15 @@ public final class DataContainer implements AcquisitionResult
     return hasCapturedData() ? getAcquisitionData().getSampleIndex( aAbs ) : Ols.NOT_AVAILABLE;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleCount()
+  {
+    return hasCapturedData() ? AcquisitionResultAdapter.adapt( getAcquisitionData() ).getSampleCount() : 0;
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getSampleRate()
    */
@@ -359,6 +381,15 @@ public final class DataContainer implements AcquisitionResult
     return hasCapturedData() ? getAcquisitionData().getSampleRate() : Ols.NOT_AVAILABLE;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getTimestamp( final int aIndex )
+  {
+    return AcquisitionResultAdapter.adapt( getAcquisitionData() ).getTimestamp( aIndex );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getTimestamps()
    */
@@ -377,6 +408,15 @@ public final class DataContainer implements AcquisitionResult
     return hasCapturedData() && hasTriggerData() ? getAcquisitionData().getTriggerPosition() : Ols.NOT_AVAILABLE;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getValue( final int aIndex )
+  {
+    return AcquisitionResultAdapter.adapt( getAcquisitionData() ).getValue( aIndex );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getValues()
    */
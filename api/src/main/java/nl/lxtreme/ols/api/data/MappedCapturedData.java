@@ -0,0 +1,654 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.channels.FileChannel.MapMode;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides an acquisition result whose sample data is stored in memory-mapped
+ * temporary files instead of on the Java heap.
+ * <p>
+ * Samples should be accessed through the {@link IndexedAcquisitionResult}
+ * methods. Like {@link CapturedData}, a capture holds at most
+ * {@link Integer#MAX_VALUE} transitions, as all sample indices are integers.
+ * For compatibility with existing code, {@link #getValues()} and
+ * {@link #getTimestamps()} are still supported, but these copy the data onto
+ * the heap upon each call.
+ * </p>
+ * <p>
+ * The temporary files are removed by {@link #close()}, which should be called
+ * by the owner of this captured data as soon as it is no longer used.
+ * </p>
+ */
+public final class MappedCapturedData implements IndexedAcquisitionResult, Closeable
+{
+  // INNER TYPES
+
+  /**
+   * Provides a writer for {@link MappedCapturedData}, which writes all added
+   * sample values directly to disk.
+   * <p>
+   * Like {@link CapturedDataBuilder}, only transitions are retained.
+   * </p>
+   */
+  public static final class Writer
+  {
+    // CONSTANTS
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // VARIABLES
+
+    private final File valuesFile;
+    private final File timestampsFile;
+    private final FileChannel valuesChannel;
+    private final FileChannel timestampsChannel;
+    private final ByteBuffer valuesBuffer;
+    private final ByteBuffer timestampsBuffer;
+
+    private int size;
+    private int lastValue;
+    private long lastTransition;
+    private long lastTimestamp;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link Writer} instance that writes its data to files in
+     * the default temporary directory.
+     *
+     * @throws IOException
+     *           in case the temporary files could not be created.
+     */
+    public Writer() throws IOException
+    {
+      this( null );
+    }
+
+    /**
+     * Creates a new {@link Writer} instance that writes its data to files in
+     * the given directory.
+     *
+     * @param aDirectory
+     *          the directory to create the temporary files in, can be
+     *          <code>null</code> to use the default temporary directory.
+     * @throws IOException
+     *           in case the temporary files could not be created.
+     */
+    public Writer( final File aDirectory ) throws IOException
+    {
+      this.valuesFile = createTempFile( "values", aDirectory );
+      this.timestampsFile = createTempFile( "timestamps", aDirectory );
+
+      this.valuesChannel = new RandomAccessFile( this.valuesFile, "rw" ).getChannel();
+      this.timestampsChannel = new RandomAccessFile( this.timestampsFile, "rw" ).getChannel();
+
+      this.valuesBuffer = ByteBuffer.allocateDirect( BUFFER_SIZE ).order( ByteOrder.nativeOrder() );
+      this.timestampsBuffer = ByteBuffer.allocateDirect( 2 * BUFFER_SIZE ).order( ByteOrder.nativeOrder() );
+
+      this.size = 0;
+      this.lastTimestamp = -1L;
+    }
+
+    // METHODS
+
+    /**
+     * Creates a new temporary file.
+     */
+    private static File createTempFile( final String aType, final File aDirectory ) throws IOException
+    {
+      return File.createTempFile( "ols-", "." + aType, aDirectory );
+    }
+
+    /**
+     * Adds a sample value with its timestamp.
+     *
+     * @param aValue
+     *          the sample value to add;
+     * @param aTimestamp
+     *          the timestamp of the sample value, in number of samples since
+     *          sample start.
+     * @return this writer, never <code>null</code>.
+     * @throws IOException
+     *           in case of I/O problems writing the sample data, or in case
+     *           the maximum number of transitions is exceeded.
+     */
+    public Writer add( final int aValue, final long aTimestamp ) throws IOException
+    {
+      if ( ( this.size == 0 ) || ( this.lastValue != aValue ) )
+      {
+        write( aValue, aTimestamp );
+      }
+
+      this.lastTimestamp = aTimestamp;
+      return this;
+    }
+
+    /**
+     * Aborts this writer, removing all data written so far.
+     */
+    public void abort()
+    {
+      closeChannels();
+
+      this.valuesFile.delete();
+      this.timestampsFile.delete();
+    }
+
+    /**
+     * Creates the captured data using all sample values added so far.
+     * <p>
+     * This writer can no longer be used after this method is called.
+     * </p>
+     *
+     * @param aTriggerPosition
+     *          position of trigger as time value;
+     * @param aRate
+     *          sampling rate (may be set to <code>NOT_AVAILABLE</code>);
+     * @param aChannels
+     *          number of used channels;
+     * @param aEnabledChannels
+     *          bit mask identifying used channels;
+     * @param aAbsLen
+     *          absolute number of samples, or a negative value to use the last
+     *          added timestamp.
+     * @return a new captured data instance, never <code>null</code>.
+     * @throws IOException
+     *           in case of I/O problems mapping the sample data.
+     */
+    public MappedCapturedData build( final long aTriggerPosition, final int aRate, final int aChannels,
+        final int aEnabledChannels, final long aAbsLen ) throws IOException
+    {
+      final long absLength;
+      if ( aAbsLen < 0L )
+      {
+        absLength = Math.max( 0L, this.lastTimestamp );
+      }
+      else
+      {
+        absLength = Math.max( aAbsLen, this.lastTimestamp );
+      }
+
+      // Issue #167: make sure the absolute length is *always* present...
+      if ( ( this.size > 0 ) && ( ( this.lastTransition != absLength ) || ( this.size < 2 ) ) )
+      {
+        write( this.lastValue, absLength );
+      }
+
+      try
+      {
+        flush();
+
+        final IntBuffer[] values = mapInts( this.valuesChannel, this.size );
+        final LongBuffer[] timestamps = mapLongs( this.timestampsChannel, this.size );
+
+        return new MappedCapturedData( this.valuesFile, this.timestampsFile, values, timestamps, this.size,
+            aTriggerPosition, aRate, aChannels, aEnabledChannels, absLength );
+      }
+      catch ( IOException exception )
+      {
+        abort();
+        throw exception;
+      }
+      finally
+      {
+        // Mapped buffers remain valid after their channel is closed...
+        closeChannels();
+      }
+    }
+
+    /**
+     * Returns the number of transitions written so far.
+     *
+     * @return a transition count, >= 0.
+     */
+    public int size()
+    {
+      return this.size;
+    }
+
+    /**
+     * Closes all channels, ignoring any exceptions.
+     */
+    private void closeChannels()
+    {
+      try
+      {
+        this.valuesChannel.close();
+      }
+      catch ( IOException exception )
+      {
+        // Ignore...
+      }
+      try
+      {
+        this.timestampsChannel.close();
+      }
+      catch ( IOException exception )
+      {
+        // Ignore...
+      }
+    }
+
+    /**
+     * Writes all pending data to disk.
+     */
+    private void flush() throws IOException
+    {
+      this.valuesBuffer.flip();
+      while ( this.valuesBuffer.hasRemaining() )
+      {
+        this.valuesChannel.write( this.valuesBuffer );
+      }
+      this.valuesBuffer.clear();
+
+      this.timestampsBuffer.flip();
+      while ( this.timestampsBuffer.hasRemaining() )
+      {
+        this.timestampsChannel.write( this.timestampsBuffer );
+      }
+      this.timestampsBuffer.clear();
+    }
+
+    /**
+     * Writes a single transition.
+     */
+    private void write( final int aValue, final long aTimestamp ) throws IOException
+    {
+      if ( this.size == Integer.MAX_VALUE )
+      {
+        throw new IOException( "Too many transitions; captured data is limited to " + Integer.MAX_VALUE
+            + " transitions!" );
+      }
+      if ( !this.valuesBuffer.hasRemaining() )
+      {
+        flush();
+      }
+
+      this.valuesBuffer.putInt( aValue );
+      this.timestampsBuffer.putLong( aTimestamp );
+
+      this.lastValue = aValue;
+      this.lastTransition = aTimestamp;
+      this.size++;
+    }
+  }
+
+  // CONSTANTS
+
+  /** The number of bytes mapped in a single segment, should be a power of two. */
+  private static final long SEGMENT_SIZE = 1L << 30;
+
+  private static final int INT_SEGMENT_SHIFT = 28;
+  private static final int LONG_SEGMENT_SHIFT = 27;
+  private static final int INT_SEGMENT_MASK = ( 1 << INT_SEGMENT_SHIFT ) - 1;
+  private static final int LONG_SEGMENT_MASK = ( 1 << LONG_SEGMENT_SHIFT ) - 1;
+
+  // VARIABLES
+
+  private final File valuesFile;
+  private final File timestampsFile;
+  private final IntBuffer[] values;
+  private final LongBuffer[] timestamps;
+  private final int size;
+
+  private final long triggerPosition;
+  private final int rate;
+  private final int channels;
+  private final int enabledChannels;
+  private final long absoluteLength;
+
+  private final ChannelEdgeIndex[] edgeIndices = new ChannelEdgeIndex[Ols.MAX_CHANNELS];
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new MappedCapturedData instance.
+   */
+  MappedCapturedData( final File aValuesFile, final File aTimestampsFile, final IntBuffer[] aValues,
+      final LongBuffer[] aTimestamps, final int aSize, final long aTriggerPosition, final int aRate,
+      final int aChannels, final int aEnabledChannels, final long aAbsLen )
+  {
+    this.valuesFile = aValuesFile;
+    this.timestampsFile = aTimestampsFile;
+    this.values = aValues;
+    this.timestamps = aTimestamps;
+    this.size = aSize;
+    this.triggerPosition = aTriggerPosition;
+    this.rate = aRate;
+    this.channels = aChannels;
+    this.enabledChannels = aEnabledChannels;
+    this.absoluteLength = aAbsLen;
+  }
+
+  // METHODS
+
+  /**
+   * Maps the given number of integers of the given channel in segments.
+   */
+  static IntBuffer[] mapInts( final FileChannel aChannel, final int aCount ) throws IOException
+  {
+    final ByteBuffer[] segments = map( aChannel, aCount * 4L );
+    final IntBuffer[] result = new IntBuffer[segments.length];
+    for ( int i = 0; i < segments.length; i++ )
+    {
+      result[i] = segments[i].asIntBuffer();
+    }
+    return result;
+  }
+
+  /**
+   * Maps the given number of longs of the given channel in segments.
+   */
+  static LongBuffer[] mapLongs( final FileChannel aChannel, final int aCount ) throws IOException
+  {
+    final ByteBuffer[] segments = map( aChannel, aCount * 8L );
+    final LongBuffer[] result = new LongBuffer[segments.length];
+    for ( int i = 0; i < segments.length; i++ )
+    {
+      result[i] = segments[i].asLongBuffer();
+    }
+    return result;
+  }
+
+  /**
+   * Maps the given number of bytes of the given channel in segments of at most
+   * {@link #SEGMENT_SIZE} bytes.
+   */
+  private static ByteBuffer[] map( final FileChannel aChannel, final long aLength ) throws IOException
+  {
+    final int count = ( int )( ( aLength + SEGMENT_SIZE - 1L ) / SEGMENT_SIZE );
+    final ByteBuffer[] result = new ByteBuffer[count];
+    for ( int i = 0; i < count; i++ )
+    {
+      final long offset = i * SEGMENT_SIZE;
+      final long length = Math.min( SEGMENT_SIZE, aLength - offset );
+      result[i] = aChannel.map( MapMode.READ_ONLY, offset, length ).order( ByteOrder.nativeOrder() );
+    }
+    return result;
+  }
+
+  /**
+   * Deletes the given file, or, if that is not possible because it is still
+   * mapped, deletes it when the VM exits.
+   */
+  private static void delete( final File aFile )
+  {
+    if ( aFile.exists() && !aFile.delete() )
+    {
+      aFile.deleteOnExit();
+    }
+  }
+
+  /**
+   * Removes the temporary files backing this captured data.
+   * <p>
+   * The mapping itself is released by the garbage collector once this object
+   * is no longer referenced. Until then, the samples remain readable on
+   * platforms that allow mapped files to be removed.
+   * </p>
+   */
+  @Override
+  public void close()
+  {
+    delete( this.valuesFile );
+    delete( this.timestampsFile );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getAbsoluteLength()
+  {
+    return this.absoluteLength;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getChannels()
+  {
+    return this.channels;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ChannelEdgeIndex getEdgeIndex( final int aChannelIdx )
+  {
+    if ( ( aChannelIdx < 0 ) || ( aChannelIdx > ( Ols.MAX_CHANNELS - 1 ) ) )
+    {
+      throw new IllegalArgumentException( "Invalid channel index: " + aChannelIdx + "! Should be between 0 and "
+          + Ols.MAX_CHANNELS );
+    }
+
+    synchronized ( this.edgeIndices )
+    {
+      ChannelEdgeIndex result = this.edgeIndices[aChannelIdx];
+      if ( result == null )
+      {
+        result = createEdgeIndex( aChannelIdx );
+        this.edgeIndices[aChannelIdx] = result;
+      }
+      return result;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getEnabledChannels()
+  {
+    return this.enabledChannels;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleCount()
+  {
+    return this.size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleIndex( final long aTimeValue )
+  {
+    int low = 0;
+    int high = this.size - 1;
+
+    while ( low <= high )
+    {
+      final int mid = ( low + high ) >>> 1;
+      final long midVal = getTimestamp( mid );
+
+      if ( midVal < aTimeValue )
+      {
+        low = mid + 1;
+      }
+      else if ( midVal > aTimeValue )
+      {
+        high = mid - 1;
+      }
+      else
+      {
+        return mid; // key found
+      }
+    }
+
+    // Avoid crossing the array boundaries...
+    return Math.max( 0, Math.min( low, this.size - 1 ) );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSampleRate()
+  {
+    return this.rate;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getTimestamp( final int aIndex )
+  {
+    return this.timestamps[aIndex >>> LONG_SEGMENT_SHIFT].get( aIndex & LONG_SEGMENT_MASK );
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This copies all timestamps onto the heap, use {@link #getTimestamp(int)}
+   * instead where possible.
+   * </p>
+   */
+  @Override
+  public long[] getTimestamps()
+  {
+    final long[] result = new long[this.size];
+    for ( int i = 0, s = 0; s < this.timestamps.length; s++ )
+    {
+      final LongBuffer segment = this.timestamps[s].duplicate();
+      final int length = segment.remaining();
+      segment.get( result, i, length );
+      i += length;
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getTriggerPosition()
+  {
+    return this.triggerPosition;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getValue( final int aIndex )
+  {
+    return this.values[aIndex >>> INT_SEGMENT_SHIFT].get( aIndex & INT_SEGMENT_MASK );
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This copies all values onto the heap, use {@link #getValue(int)} instead
+   * where possible.
+   * </p>
+   */
+  @Override
+  public int[] getValues()
+  {
+    final int[] result = new int[this.size];
+    for ( int i = 0, s = 0; s < this.values.length; s++ )
+    {
+      final IntBuffer segment = this.values[s].duplicate();
+      final int length = segment.remaining();
+      segment.get( result, i, length );
+      i += length;
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasTimingData()
+  {
+    return ( this.rate != Ols.NOT_AVAILABLE );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean hasTriggerData()
+  {
+    return ( this.triggerPosition != Ols.NOT_AVAILABLE );
+  }
+
+  /**
+   * Creates the edge index for the given channel directly from the mapped
+   * data.
+   */
+  private ChannelEdgeIndex createEdgeIndex( final int aChannelIdx )
+  {
+    if ( this.size == 0 )
+    {
+      return ChannelEdgeIndex.create( new int[0], new long[0], aChannelIdx );
+    }
+
+    final int mask = ( 1 << aChannelIdx );
+
+    // 1: calculate the number of edges...
+    int count = 0;
+    int oldLevel = getValue( 0 ) & mask;
+    for ( int i = 1; i < this.size; i++ )
+    {
+      final int level = getValue( i ) & mask;
+      if ( level != oldLevel )
+      {
+        count++;
+      }
+      oldLevel = level;
+    }
+
+    // 2: copy *only* the timestamps of the edges...
+    final long[] edges = new long[count];
+
+    oldLevel = getValue( 0 ) & mask;
+    for ( int i = 1, j = 0; i < this.size; i++ )
+    {
+      final int level = getValue( i ) & mask;
+      if ( level != oldLevel )
+      {
+        edges[j++] = getTimestamp( i );
+      }
+      oldLevel = level;
+    }
+
+    return new ChannelEdgeIndex( aChannelIdx, ( ( getValue( 0 ) & mask ) != 0 ) ? 1 : 0, edges );
+  }
+}
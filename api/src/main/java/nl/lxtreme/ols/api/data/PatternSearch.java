@@ -0,0 +1,242 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Searches an acquisition result for all occurrences of a sample pattern.
+ * <p>
+ * As sample data only contains the moments at which the sample value changes,
+ * the search is a single scan over the transitions. Large acquisition results
+ * are scanned in parallel chunks. Once created, the matches can be navigated
+ * by means of {@link #findMatchAfter(long)} and {@link #findMatchBefore(long)}.
+ * </p>
+ */
+public final class PatternSearch
+{
+  // VARIABLES
+
+  private final AcquisitionResult data;
+  private final SamplePattern pattern;
+  private final long[] matches;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new PatternSearch instance, and searches the given acquisition
+   * result for all occurrences of the given pattern.
+   *
+   * @param aData
+   *          the acquisition result to search, cannot be <code>null</code>;
+   * @param aPattern
+   *          the pattern to search for, cannot be <code>null</code>.
+   */
+  public PatternSearch( final AcquisitionResult aData, final SamplePattern aPattern )
+  {
+    this( aData, aPattern, -1 /* aChunkCount */);
+  }
+
+  /**
+   * Creates a new PatternSearch instance, and searches the given acquisition
+   * result for all occurrences of the given pattern, using the given number of
+   * chunks, or a negative value to determine it from the size of the data.
+   */
+  PatternSearch( final AcquisitionResult aData, final SamplePattern aPattern, final int aChunkCount )
+  {
+    if ( aData == null )
+    {
+      throw new IllegalArgumentException( "Data cannot be null!" );
+    }
+    if ( aPattern == null )
+    {
+      throw new IllegalArgumentException( "Pattern cannot be null!" );
+    }
+
+    this.data = aData;
+    this.pattern = aPattern;
+    // Access the samples one by one, to avoid them being expanded to arrays...
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( aData );
+    final int chunkCount = ( aChunkCount < 0 ) ? ChunkExecutor.getChunkCount( data.getSampleCount() ) : aChunkCount;
+
+    this.matches = search( data, aPattern, chunkCount );
+  }
+
+  // METHODS
+
+  /**
+   * Scans the given sample data for all matches of the given pattern.
+   */
+  private static long[] search( final IndexedAcquisitionResult aData, final SamplePattern aPattern,
+      final int aChunkCount )
+  {
+    final int size = aData.getSampleCount();
+    if ( size == 0 )
+    {
+      return new long[0];
+    }
+
+    final int chunks = Math.max( 1, Math.min( aChunkCount, size ) );
+    final int chunkSize = ( size + chunks - 1 ) / chunks;
+    final long[][] results = new long[chunks][];
+    final int[] counts = new int[chunks];
+
+    ChunkExecutor.execute( chunks, new ChunkExecutor.ChunkTask()
+    {
+      @Override
+      public void run( final int aChunk )
+      {
+        final int start = Math.min( size, aChunk * chunkSize );
+        final int end = Math.min( size, start + chunkSize );
+
+        long[] result = new long[16];
+        int count = 0;
+        int previous = ( start > 0 ) ? aData.getValue( start - 1 ) : 0;
+        for ( int i = start; i < end; i++ )
+        {
+          final int value = aData.getValue( i );
+
+          final boolean match;
+          if ( i == 0 )
+          {
+            match = aPattern.matchesFirst( value );
+          }
+          else
+          {
+            match = aPattern.matches( previous, value );
+          }
+          previous = value;
+
+          if ( match )
+          {
+            if ( count == result.length )
+            {
+              result = Arrays.copyOf( result, count + ( count >> 1 ) );
+            }
+            result[count++] = aData.getTimestamp( i );
+          }
+        }
+
+        results[aChunk] = result;
+        counts[aChunk] = count;
+      }
+    } );
+
+    // Concatenate the matches of all chunks...
+    int total = 0;
+    for ( int count : counts )
+    {
+      total += count;
+    }
+
+    final long[] result = new long[total];
+    for ( int i = 0, offset = 0; i < chunks; i++ )
+    {
+      System.arraycopy( results[i], 0, result, offset, counts[i] );
+      offset += counts[i];
+    }
+    return result;
+  }
+
+  /**
+   * Finds the first match that occurs strictly after the given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to search from.
+   * @return the timestamp of the found match, or {@link Ols#NOT_AVAILABLE} if
+   *         there is no such match.
+   */
+  public long findMatchAfter( final long aTimestamp )
+  {
+    int idx = Arrays.binarySearch( this.matches, aTimestamp );
+    idx = ( idx < 0 ) ? -idx - 1 : idx + 1;
+    if ( idx >= this.matches.length )
+    {
+      return Ols.NOT_AVAILABLE;
+    }
+    return this.matches[idx];
+  }
+
+  /**
+   * Finds the last match that occurs strictly before the given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to search from.
+   * @return the timestamp of the found match, or {@link Ols#NOT_AVAILABLE} if
+   *         there is no such match.
+   */
+  public long findMatchBefore( final long aTimestamp )
+  {
+    int idx = Arrays.binarySearch( this.matches, aTimestamp );
+    idx = ( ( idx < 0 ) ? -idx - 1 : idx ) - 1;
+    if ( idx < 0 )
+    {
+      return Ols.NOT_AVAILABLE;
+    }
+    return this.matches[idx];
+  }
+
+  /**
+   * Returns the acquisition result that is searched.
+   *
+   * @return the acquisition result, never <code>null</code>.
+   */
+  public AcquisitionResult getData()
+  {
+    return this.data;
+  }
+
+  /**
+   * Returns the number of matches found.
+   *
+   * @return a match count, >= 0.
+   */
+  public int getMatchCount()
+  {
+    return this.matches.length;
+  }
+
+  /**
+   * Returns the timestamps of all matches.
+   *
+   * @return a copy of the timestamps of all matches, in ascending order, never
+   *         <code>null</code>.
+   */
+  public long[] getMatches()
+  {
+    return this.matches.clone();
+  }
+
+  /**
+   * Returns the pattern that is searched for.
+   *
+   * @return the pattern, never <code>null</code>.
+   */
+  public SamplePattern getPattern()
+  {
+    return this.pattern;
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import nl.lxtreme.ols.api.*;
+
+
+/**
+ * Denotes a pattern of channel levels and edges to search for in sample data.
+ * <p>
+ * A pattern consists of a value and mask, which should match the levels of
+ * the masked channels, and optionally a set of channels that should have a
+ * rising or falling edge. A pattern without edges matches each moment the
+ * masked channels <em>become</em> equal to the value; a pattern with edges
+ * matches each moment all edges occur while the masked channels are equal to
+ * the value.
+ * </p>
+ */
+public final class SamplePattern
+{
+  // VARIABLES
+
+  private final int mask;
+  private final int value;
+  private final int risingEdges;
+  private final int fallingEdges;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SamplePattern instance.
+   *
+   * @param aMask
+   *          the mask of channels whose level should match;
+   * @param aValue
+   *          the levels the masked channels should have;
+   * @param aRisingEdges
+   *          the mask of channels that should have a rising edge;
+   * @param aFallingEdges
+   *          the mask of channels that should have a falling edge.
+   * @throws IllegalArgumentException
+   *           in case the value has bits outside the mask, or in case a
+   *           channel should have both a rising and a falling edge.
+   */
+  public SamplePattern( final int aMask, final int aValue, final int aRisingEdges, final int aFallingEdges )
+  {
+    if ( ( aValue & ~aMask ) != 0 )
+    {
+      throw new IllegalArgumentException( "Value has bits outside mask!" );
+    }
+    if ( ( aRisingEdges & aFallingEdges ) != 0 )
+    {
+      throw new IllegalArgumentException( "Channel cannot have both a rising and falling edge!" );
+    }
+
+    this.mask = aMask;
+    this.value = aValue;
+    this.risingEdges = aRisingEdges;
+    this.fallingEdges = aFallingEdges;
+  }
+
+  // METHODS
+
+  /**
+   * Parses the given pattern, given as one character per channel with the
+   * most significant channel first.
+   * <p>
+   * Allowed characters are '0' (low), '1' (high), 'X' (don't care), 'R'
+   * (rising edge) and 'F' (falling edge). Whitespace and underscores can be
+   * used for readability and are ignored. For example,
+   * <tt>"XXXXXXRX 0101 1010"</tt> searches for channels 0..7 being equal to
+   * 0x5A while channel 9 rises.
+   * </p>
+   *
+   * @param aPattern
+   *          the pattern to parse, cannot be <code>null</code>.
+   * @return the parsed pattern, never <code>null</code>.
+   * @throws IllegalArgumentException
+   *           in case the given pattern is invalid.
+   */
+  public static SamplePattern parse( final String aPattern )
+  {
+    int mask = 0;
+    int value = 0;
+    int rising = 0;
+    int falling = 0;
+
+    int channel = 0;
+    for ( int i = aPattern.length() - 1; i >= 0; i-- )
+    {
+      final char ch = aPattern.charAt( i );
+      if ( Character.isWhitespace( ch ) || ( ch == '_' ) )
+      {
+        continue;
+      }
+      if ( channel >= Ols.MAX_CHANNELS )
+      {
+        throw new IllegalArgumentException( "Pattern has more than " + Ols.MAX_CHANNELS + " channels!" );
+      }
+
+      final int bit = 1 << channel++;
+      switch ( Character.toUpperCase( ch ) )
+      {
+        case '0':
+          mask |= bit;
+          break;
+        case '1':
+          mask |= bit;
+          value |= bit;
+          break;
+        case 'R':
+          rising |= bit;
+          break;
+        case 'F':
+          falling |= bit;
+          break;
+        case 'X':
+          break;
+        default:
+          throw new IllegalArgumentException( "Invalid pattern character: '" + ch + "'!" );
+      }
+    }
+
+    if ( channel == 0 )
+    {
+      throw new IllegalArgumentException( "Empty pattern!" );
+    }
+
+    return new SamplePattern( mask, value, rising, falling );
+  }
+
+  /**
+   * Returns the mask of channels that should have a falling edge.
+   *
+   * @return a channel mask.
+   */
+  public int getFallingEdges()
+  {
+    return this.fallingEdges;
+  }
+
+  /**
+   * Returns the mask of channels whose level should match.
+   *
+   * @return a channel mask.
+   */
+  public int getMask()
+  {
+    return this.mask;
+  }
+
+  /**
+   * Returns the mask of channels that should have a rising edge.
+   *
+   * @return a channel mask.
+   */
+  public int getRisingEdges()
+  {
+    return this.risingEdges;
+  }
+
+  /**
+   * Returns the levels the masked channels should have.
+   *
+   * @return a value.
+   */
+  public int getValue()
+  {
+    return this.value;
+  }
+
+  /**
+   * Returns whether this pattern contains edges.
+   *
+   * @return <code>true</code> if this pattern contains at least one edge,
+   *         <code>false</code> if it only contains levels.
+   */
+  public boolean hasEdges()
+  {
+    return ( this.risingEdges | this.fallingEdges ) != 0;
+  }
+
+  /**
+   * Returns whether the given sample value, preceded by the given previous
+   * value, matches this pattern.
+   *
+   * @param aPreviousValue
+   *          the previous sample value;
+   * @param aValue
+   *          the sample value to match.
+   * @return <code>true</code> if the given value matches this pattern,
+   *         <code>false</code> otherwise.
+   */
+  public boolean matches( final int aPreviousValue, final int aValue )
+  {
+    if ( ( aValue & this.mask ) != this.value )
+    {
+      return false;
+    }
+    if ( !hasEdges() )
+    {
+      // Only match the moment the levels become equal...
+      return ( aPreviousValue & this.mask ) != this.value;
+    }
+    return ( ( ~aPreviousValue & aValue & this.risingEdges ) == this.risingEdges )
+        && ( ( aPreviousValue & ~aValue & this.fallingEdges ) == this.fallingEdges );
+  }
+
+  /**
+   * Returns whether the first sample value matches this pattern.
+   *
+   * @param aValue
+   *          the first sample value to match.
+   * @return <code>true</code> if the given value matches this pattern,
+   *         <code>false</code> otherwise.
+   */
+  public boolean matchesFirst( final int aValue )
+  {
+    return !hasEdges() && ( ( aValue & this.mask ) == this.value );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    final int channels = Integer.SIZE - Integer.numberOfLeadingZeros( this.mask | this.risingEdges
+        | this.fallingEdges );
+
+    final StringBuilder sb = new StringBuilder();
+    for ( int i = Math.max( 1, channels ) - 1; i >= 0; i-- )
+    {
+      final int bit = 1 << i;
+      if ( ( this.risingEdges & bit ) != 0 )
+      {
+        sb.append( 'R' );
+      }
+      else if ( ( this.fallingEdges & bit ) != 0 )
+      {
+        sb.append( 'F' );
+      }
+      else if ( ( this.mask & bit ) != 0 )
+      {
+        sb.append( ( ( this.value & bit ) != 0 ) ? '1' : '0' );
+      }
+      else
+      {
+        sb.append( 'X' );
+      }
+    }
+    return sb.toString();
+  }
+}
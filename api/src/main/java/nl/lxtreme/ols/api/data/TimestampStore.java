@@ -0,0 +1,482 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+/**
+ * Provides a compact storage for an ascending sequence of timestamps.
+ * <p>
+ * Depending on the range of the timestamps, they are either stored as 32-bit
+ * offsets from the first timestamp, as variable-length encoded deltas in
+ * blocks with a 64-bit base value, or simply as 64-bit values.
+ * </p>
+ */
+abstract class TimestampStore
+{
+  // INNER TYPES
+
+  /**
+   * Stores timestamps as variable-length encoded deltas in fixed-size blocks.
+   * Each block starts with a full 64-bit timestamp, allowing random access by
+   * decoding at most {@link #BLOCK_SIZE} - 1 deltas.
+   */
+  static final class BlockDeltaStore extends TimestampStore
+  {
+    private static final int BLOCK_SHIFT = 6;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    private final int size;
+    private final long[] blockBases;
+    private final int[] blockOffsets;
+    private final byte[] deltas;
+
+    /**
+     * Creates a new {@link BlockDeltaStore} instance.
+     */
+    BlockDeltaStore( final long[] aTimestamps, final int aEncodedSize )
+    {
+      final int blockCount = ( aTimestamps.length + BLOCK_SIZE - 1 ) >> BLOCK_SHIFT;
+
+      this.size = aTimestamps.length;
+      this.blockBases = new long[blockCount];
+      this.blockOffsets = new int[blockCount];
+      this.deltas = new byte[aEncodedSize];
+
+      int offset = 0;
+      for ( int i = 0; i < aTimestamps.length; i++ )
+      {
+        if ( ( i & BLOCK_MASK ) == 0 )
+        {
+          this.blockBases[i >> BLOCK_SHIFT] = aTimestamps[i];
+          this.blockOffsets[i >> BLOCK_SHIFT] = offset;
+        }
+        else
+        {
+          long delta = aTimestamps[i] - aTimestamps[i - 1];
+          while ( ( delta & ~0x7FL ) != 0L )
+          {
+            this.deltas[offset++] = ( byte )( ( delta & 0x7F ) | 0x80 );
+            delta >>>= 7;
+          }
+          this.deltas[offset++] = ( byte )delta;
+        }
+      }
+    }
+
+    /**
+     * Calculates the number of bytes needed to encode the given timestamps.
+     */
+    static long getEncodedSize( final long[] aTimestamps )
+    {
+      long result = 0L;
+      for ( int i = 1; i < aTimestamps.length; i++ )
+      {
+        if ( ( i & BLOCK_MASK ) != 0 )
+        {
+          long delta = aTimestamps[i] - aTimestamps[i - 1];
+          do
+          {
+            result++;
+            delta >>>= 7;
+          }
+          while ( delta != 0L );
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Returns the number of bytes used by this store.
+     */
+    static long getMemoryUsage( final int aSize, final long aEncodedSize )
+    {
+      final long blockCount = ( aSize + BLOCK_SIZE - 1 ) >> BLOCK_SHIFT;
+      return ( blockCount * 12L ) + aEncodedSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long get( final int aIndex )
+    {
+      final int block = aIndex >> BLOCK_SHIFT;
+
+      long result = this.blockBases[block];
+      int offset = this.blockOffsets[block];
+      for ( int i = aIndex & BLOCK_MASK; i > 0; i-- )
+      {
+        long delta = 0L;
+        int shift = 0;
+        byte b;
+        do
+        {
+          b = this.deltas[offset++];
+          delta |= ( long )( b & 0x7F ) << shift;
+          shift += 7;
+        }
+        while ( b < 0 );
+
+        result += delta;
+      }
+      return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long getMemoryUsage()
+    {
+      return getMemoryUsage( this.size, this.deltas.length );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int size()
+    {
+      return this.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long[] toArray()
+    {
+      final long[] result = new long[this.size];
+
+      int offset = 0;
+      for ( int i = 0; i < this.size; i++ )
+      {
+        if ( ( i & BLOCK_MASK ) == 0 )
+        {
+          result[i] = this.blockBases[i >> BLOCK_SHIFT];
+        }
+        else
+        {
+          long delta = 0L;
+          int shift = 0;
+          byte b;
+          do
+          {
+            b = this.deltas[offset++];
+            delta |= ( long )( b & 0x7F ) << shift;
+            shift += 7;
+          }
+          while ( b < 0 );
+
+          result[i] = result[i - 1] + delta;
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Stores timestamps as unsigned 32-bit offsets from a 64-bit base value.
+   */
+  static final class IntStore extends TimestampStore
+  {
+    private final long base;
+    private final int[] offsets;
+
+    /**
+     * Creates a new {@link IntStore} instance.
+     */
+    IntStore( final long[] aTimestamps )
+    {
+      this.base = aTimestamps[0];
+      this.offsets = new int[aTimestamps.length];
+      for ( int i = 0; i < aTimestamps.length; i++ )
+      {
+        this.offsets[i] = ( int )( aTimestamps[i] - this.base );
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long get( final int aIndex )
+    {
+      return this.base + ( this.offsets[aIndex] & 0xFFFFFFFFL );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long getMemoryUsage()
+    {
+      return 4L * this.offsets.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int size()
+    {
+      return this.offsets.length;
+    }
+  }
+
+  /**
+   * Stores timestamps as plain 64-bit values.
+   */
+  static final class LongStore extends TimestampStore
+  {
+    private final long[] timestamps;
+
+    /**
+     * Creates a new {@link LongStore} instance.
+     */
+    LongStore( final long[] aTimestamps )
+    {
+      this.timestamps = aTimestamps;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long[] asArray()
+    {
+      return this.timestamps;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long get( final int aIndex )
+    {
+      return this.timestamps[aIndex];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long getMemoryUsage()
+    {
+      return 8L * this.timestamps.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int search( final long aKey )
+    {
+      return CapturedData.binarySearch( this.timestamps, 0, this.timestamps.length, aKey );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int size()
+    {
+      return this.timestamps.length;
+    }
+  }
+
+  // CONSTANTS
+
+  /** Every 2^SKIP_SHIFT-th timestamp is kept in the skip table. */
+  private static final int SKIP_SHIFT = 12;
+
+  // VARIABLES
+
+  private volatile long[] skipTable;
+
+  // METHODS
+
+  /**
+   * Creates the most compact store for the given timestamps.
+   *
+   * @param aTimestamps
+   *          the timestamps to store, in ascending order, cannot be
+   *          <code>null</code>.
+   * @return a timestamp store, never <code>null</code>.
+   */
+  static TimestampStore create( final long[] aTimestamps )
+  {
+    final int size = aTimestamps.length;
+    if ( size < 2 )
+    {
+      return new LongStore( aTimestamps );
+    }
+
+    final long range = aTimestamps[size - 1] - aTimestamps[0];
+    if ( ( range >= 0L ) && ( range <= 0xFFFFFFFFL ) )
+    {
+      return new IntStore( aTimestamps );
+    }
+
+    // Only use delta encoding if it saves at least a quarter of the memory...
+    final long encodedSize = BlockDeltaStore.getEncodedSize( aTimestamps );
+    if ( ( encodedSize <= Integer.MAX_VALUE )
+        && ( BlockDeltaStore.getMemoryUsage( size, encodedSize ) < ( 6L * size ) ) )
+    {
+      return new BlockDeltaStore( aTimestamps, ( int )encodedSize );
+    }
+
+    return new LongStore( aTimestamps );
+  }
+
+  /**
+   * Returns the timestamps as array, if this store is backed by one.
+   *
+   * @return the backing array of timestamps, or <code>null</code> if this store
+   *         is not backed by a <tt>long</tt>-array.
+   */
+  long[] asArray()
+  {
+    return null;
+  }
+
+  /**
+   * Returns the timestamp with the given index.
+   *
+   * @param aIndex
+   *          the index of the timestamp, >= 0 && < {@link #size()}.
+   * @return the requested timestamp.
+   */
+  abstract long get( final int aIndex );
+
+  /**
+   * Returns the number of bytes used by the timestamps in this store.
+   *
+   * @return a memory usage, in bytes, >= 0.
+   */
+  abstract long getMemoryUsage();
+
+  /**
+   * Searches for the given timestamp.
+   * <p>
+   * To limit the number of timestamps that need to be decoded, a sparse skip
+   * table with every 4096th timestamp is searched first, after which only the
+   * timestamps between two consecutive skip table entries are searched.
+   * </p>
+   *
+   * @param aKey
+   *          the timestamp to search for.
+   * @return the index of the given timestamp, or, if not found, the index of
+   *         the first timestamp greater than the given timestamp, clamped to
+   *         the last index.
+   * @see CapturedData#binarySearch(long[], int, int, long)
+   */
+  int search( final long aKey )
+  {
+    final int size = size();
+    if ( size == 0 )
+    {
+      return 0;
+    }
+
+    final long[] skips = getSkipTable();
+
+    // Find the last skip table entry that is less than or equal to the key...
+    int block = CapturedData.binarySearch( skips, 0, skips.length, aKey );
+    if ( ( skips[block] > aKey ) && ( block > 0 ) )
+    {
+      block--;
+    }
+
+    int low = block << SKIP_SHIFT;
+    final int last = Math.min( size, ( block + 1 ) << SKIP_SHIFT ) - 1;
+    int high = last;
+
+    while ( low <= high )
+    {
+      final int mid = ( low + high ) >>> 1;
+      final long midVal = get( mid );
+
+      if ( midVal < aKey )
+      {
+        low = mid + 1;
+      }
+      else if ( midVal > aKey )
+      {
+        high = mid - 1;
+      }
+      else
+      {
+        return mid; // key found
+      }
+    }
+
+    // The insertion point can be the first timestamp of the next block...
+    return Math.min( low, size - 1 );
+  }
+
+  /**
+   * Returns the number of timestamps in this store.
+   *
+   * @return a timestamp count, >= 0.
+   */
+  abstract int size();
+
+  /**
+   * Returns the skip table, creating it if needed.
+   */
+  private long[] getSkipTable()
+  {
+    long[] result = this.skipTable;
+    if ( result == null )
+    {
+      result = new long[( ( size() - 1 ) >> SKIP_SHIFT ) + 1];
+      for ( int i = 0; i < result.length; i++ )
+      {
+        result[i] = get( i << SKIP_SHIFT );
+      }
+      this.skipTable = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns all timestamps as (new) array.
+   *
+   * @return an array with all timestamps, never <code>null</code>.
+   */
+  long[] toArray()
+  {
+    final long[] array = asArray();
+    if ( array != null )
+    {
+      return array;
+    }
+
+    final long[] result = new long[size()];
+    for ( int i = 0; i < result.length; i++ )
+    {
+      result[i] = get( i );
+    }
+    return result;
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+/**
+ * Compacts sample data by keeping only the first sample and all samples whose
+ * value differs from their predecessor.
+ * <p>
+ * Large sample arrays are split into chunks that are counted and copied in
+ * parallel. The number of transitions per chunk determines where each chunk
+ * is to be copied to, so the result is identical to compacting all samples
+ * in a single pass.
+ * </p>
+ */
+final class TransitionCompactor
+{
+  // CONSTANTS
+
+  /** The minimal number of samples before compacting is done in parallel. */
+  static final int PARALLEL_THRESHOLD = ChunkExecutor.PARALLEL_THRESHOLD;
+
+  // VARIABLES
+
+  private final int[] values;
+  /** chunk boundaries, chunk i covers [bounds[i], bounds[i + 1]) */
+  private final int[] bounds;
+  /** index in the compacted data of the first transition of each chunk */
+  private final int[] offsets;
+  private final int count;
+  private final int lastTransitionIdx;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new TransitionCompactor instance, counting the transitions in
+   * the given values.
+   *
+   * @param aValues
+   *          the sample values to compact, should contain at least one value.
+   */
+  TransitionCompactor( final int[] aValues )
+  {
+    this( aValues, ChunkExecutor.getChunkCount( aValues.length ) );
+  }
+
+  /**
+   * Creates a new TransitionCompactor instance, counting the transitions in
+   * the given values.
+   *
+   * @param aValues
+   *          the sample values to compact, should contain at least one value;
+   * @param aChunkCount
+   *          the number of chunks to divide the values in, >= 1.
+   */
+  TransitionCompactor( final int[] aValues, final int aChunkCount )
+  {
+    this.values = aValues;
+
+    // The first value is always kept, so chunks start at index 1...
+    final int chunks = Math.max( 1, Math.min( aChunkCount, aValues.length - 1 ) );
+    final int chunkSize = ( aValues.length - 1 + chunks - 1 ) / chunks;
+
+    this.bounds = new int[chunks + 1];
+    for ( int i = 0; i < chunks; i++ )
+    {
+      this.bounds[i] = Math.min( aValues.length, 1 + ( i * chunkSize ) );
+    }
+    this.bounds[chunks] = aValues.length;
+
+    // 1: count the transitions of each chunk; each chunk compares its first
+    // value to the last value of its predecessor...
+    final int[] counts = new int[chunks];
+    final int[] lastIdx = new int[chunks];
+
+    ChunkExecutor.execute( chunks, new ChunkExecutor.ChunkTask()
+    {
+      @Override
+      public void run( final int aChunk )
+      {
+        final int[] v = TransitionCompactor.this.values;
+        final int end = TransitionCompactor.this.bounds[aChunk + 1];
+
+        int chunkCount = 0;
+        int last = -1;
+        for ( int i = TransitionCompactor.this.bounds[aChunk]; i < end; i++ )
+        {
+          if ( v[i] != v[i - 1] )
+          {
+            chunkCount++;
+            last = i;
+          }
+        }
+        counts[aChunk] = chunkCount;
+        lastIdx[aChunk] = last;
+      }
+    } );
+
+    // 2: determine where each chunk starts in the compacted data...
+    this.offsets = new int[chunks];
+
+    int total = 1; // first value is the initial value
+    int lastTransition = 0;
+    for ( int i = 0; i < chunks; i++ )
+    {
+      this.offsets[i] = total;
+      total += counts[i];
+      if ( lastIdx[i] >= 0 )
+      {
+        lastTransition = lastIdx[i];
+      }
+    }
+
+    this.count = total;
+    this.lastTransitionIdx = lastTransition;
+  }
+
+  // METHODS
+
+  /**
+   * Copies the first value and all transitions to the given arrays.
+   *
+   * @param aValues
+   *          the array to copy the values to, should have room for at least
+   *          {@link #getCount()} values;
+   * @param aTimestamps
+   *          the array to copy the timestamps to, should have room for at
+   *          least {@link #getCount()} timestamps;
+   * @param aSourceTimestamps
+   *          the timestamps belonging to the sample values, or
+   *          <code>null</code> to use the sample index as timestamp.
+   */
+  void copyTo( final int[] aValues, final long[] aTimestamps, final long[] aSourceTimestamps )
+  {
+    aValues[0] = this.values[0];
+    aTimestamps[0] = ( aSourceTimestamps == null ) ? 0L : aSourceTimestamps[0];
+
+    ChunkExecutor.execute( this.offsets.length, new ChunkExecutor.ChunkTask()
+    {
+      @Override
+      public void run( final int aChunk )
+      {
+        final int[] v = TransitionCompactor.this.values;
+        final int end = TransitionCompactor.this.bounds[aChunk + 1];
+
+        int j = TransitionCompactor.this.offsets[aChunk];
+        for ( int i = TransitionCompactor.this.bounds[aChunk]; i < end; i++ )
+        {
+          if ( v[i] != v[i - 1] )
+          {
+            aValues[j] = v[i];
+            aTimestamps[j] = ( aSourceTimestamps == null ) ? i : aSourceTimestamps[i];
+            j++;
+          }
+        }
+      }
+    } );
+  }
+
+  /**
+   * Returns the number of values that remain after compacting.
+   *
+   * @return a value count, >= 1.
+   */
+  int getCount()
+  {
+    return this.count;
+  }
+
+  /**
+   * Returns the index of the last transition.
+   *
+   * @return the index of the last value that differs from its predecessor,
+   *         or 0 if all values are equal.
+   */
+  int getLastTransitionIndex()
+  {
+    return this.lastTransitionIdx;
+  }
+}
@@ -0,0 +1,280 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+/**
+ * Provides a compact storage for sample values.
+ * <p>
+ * Captures with at most 8 or 16 enabled channels are stored as bytes or
+ * shorts, respectively; all other captures are simply stored as 32-bit values.
+ * </p>
+ */
+abstract class ValueStore
+{
+  // INNER TYPES
+
+  /**
+   * Stores sample values of at most 8 channels as bytes.
+   */
+  static final class ByteStore extends ValueStore
+  {
+    private final byte[] values;
+
+    /**
+     * Creates a new {@link ByteStore} instance.
+     */
+    ByteStore( final int[] aValues )
+    {
+      this.values = new byte[aValues.length];
+      for ( int i = 0; i < aValues.length; i++ )
+      {
+        this.values[i] = ( byte )aValues[i];
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int get( final int aIndex )
+    {
+      return this.values[aIndex] & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long getMemoryUsage()
+    {
+      return this.values.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int size()
+    {
+      return this.values.length;
+    }
+  }
+
+  /**
+   * Stores sample values as plain 32-bit values.
+   */
+  static final class IntStore extends ValueStore
+  {
+    private final int[] values;
+
+    /**
+     * Creates a new {@link IntStore} instance.
+     */
+    IntStore( final int[] aValues )
+    {
+      this.values = aValues;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int[] asArray()
+    {
+      return this.values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int get( final int aIndex )
+    {
+      return this.values[aIndex];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long getMemoryUsage()
+    {
+      return 4L * this.values.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int size()
+    {
+      return this.values.length;
+    }
+  }
+
+  /**
+   * Stores sample values of at most 16 channels as shorts.
+   */
+  static final class ShortStore extends ValueStore
+  {
+    private final short[] values;
+
+    /**
+     * Creates a new {@link ShortStore} instance.
+     */
+    ShortStore( final int[] aValues )
+    {
+      this.values = new short[aValues.length];
+      for ( int i = 0; i < aValues.length; i++ )
+      {
+        this.values[i] = ( short )aValues[i];
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int get( final int aIndex )
+    {
+      return this.values[aIndex] & 0xFFFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    long getMemoryUsage()
+    {
+      return 2L * this.values.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int size()
+    {
+      return this.values.length;
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Creates the most compact store for the given sample values.
+   *
+   * @param aValues
+   *          the sample values to store, cannot be <code>null</code>;
+   * @param aEnabledChannels
+   *          the bit mask of enabled channels, used to determine the number of
+   *          bits needed per sample value.
+   * @return a value store, never <code>null</code>.
+   */
+  static ValueStore create( final int[] aValues, final int aEnabledChannels )
+  {
+    int mask;
+    if ( ( aEnabledChannels & ~0xFF ) == 0 )
+    {
+      mask = 0xFF;
+    }
+    else if ( ( aEnabledChannels & ~0xFFFF ) == 0 )
+    {
+      mask = 0xFFFF;
+    }
+    else
+    {
+      return new IntStore( aValues );
+    }
+
+    // Make sure we do not lose any bits in case the values contain data of
+    // channels that are not marked as enabled...
+    for ( int value : aValues )
+    {
+      if ( ( value & ~mask ) != 0 )
+      {
+        return new IntStore( aValues );
+      }
+    }
+
+    if ( mask == 0xFF )
+    {
+      return new ByteStore( aValues );
+    }
+    return new ShortStore( aValues );
+  }
+
+  /**
+   * Returns the sample values as array, if this store is backed by one.
+   *
+   * @return the backing array of sample values, or <code>null</code> if this
+   *         store is not backed by an <tt>int</tt>-array.
+   */
+  int[] asArray()
+  {
+    return null;
+  }
+
+  /**
+   * Returns the sample value with the given index.
+   *
+   * @param aIndex
+   *          the index of the sample value, >= 0 && < {@link #size()}.
+   * @return the requested sample value.
+   */
+  abstract int get( final int aIndex );
+
+  /**
+   * Returns the number of bytes used by the sample values in this store.
+   *
+   * @return a memory usage, in bytes, >= 0.
+   */
+  abstract long getMemoryUsage();
+
+  /**
+   * Returns the number of sample values in this store.
+   *
+   * @return a sample value count, >= 0.
+   */
+  abstract int size();
+
+  /**
+   * Returns all sample values as (new) array.
+   *
+   * @return an array with all sample values, never <code>null</code>.
+   */
+  int[] toArray()
+  {
+    final int[] array = asArray();
+    if ( array != null )
+    {
+      return array;
+    }
+
+    final int[] result = new int[size()];
+    for ( int i = 0; i < result.length; i++ )
+    {
+      result[i] = get( i );
+    }
+    return result;
+  }
+}
@@ -126,6 +126,15 @@ public interface Project
    */
   void setChanged( final boolean aChanged );
 
+  /**
+   * Replaces the current data set of this project, for example, to show a
+   * previously captured data set again.
+   * 
+   * @param aDataSet
+   *          the data set to set, cannot be <code>null</code>.
+   */
+  void setDataSet( final DataSet aDataSet );
+
   /**
    * Sets the filename of this project.
    * 
@@ -0,0 +1,51 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.devices;
+
+
+import java.io.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Denotes a device that natively supports back-to-back acquisitions, for
+ * example, by re-arming itself without being reconfigured.
+ */
+public interface ContinuousAcquisitionDevice extends Device
+{
+  // METHODS
+
+  /**
+   * Creates a new {@link ContinuousAcquisitionTask} for acquiring data
+   * back-to-back from the device.
+   *
+   * @param aProgressListener
+   *          the acquisition progress listener the acquisition task can use to
+   *          report its progress, cannot be <code>null</code>.
+   * @return a new continuous acquisition task, never <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems during the creation of the acquisition
+   *           task.
+   */
+  public ContinuousAcquisitionTask createContinuousAcquisitionTask( AcquisitionProgressListener aProgressListener )
+      throws IOException;
+}
@@ -0,0 +1,52 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.devices;
+
+
+import java.io.*;
+
+
+/**
+ * Denotes an acquisition task that can be called repeatedly for back-to-back
+ * acquisitions. Each call to {@link #call()} returns the result of a single
+ * acquisition. In between calls, the connection to the device is kept open and
+ * the device is re-armed as soon as possible, in order to minimize the time in
+ * which no data is captured.
+ */
+public interface ContinuousAcquisitionTask extends AcquisitionTask, Closeable
+{
+  // METHODS
+
+  /**
+   * Closes this task, disarming the device if it is still armed, and releases
+   * the connection to the device.
+   *
+   * @throws IOException
+   *           in case of I/O problems.
+   */
+  public void close() throws IOException;
+
+  /**
+   * Signals that the acquisition currently in progress is the last one, so the
+   * device should no longer be re-armed after its data is read.
+   */
+  public void stop();
+}
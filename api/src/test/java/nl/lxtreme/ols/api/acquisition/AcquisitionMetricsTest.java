@@ -0,0 +1,74 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.acquisition;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.acquisition.AcquisitionMetrics.Phase;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link AcquisitionMetrics}.
+ */
+public class AcquisitionMetricsTest
+{
+  // METHODS
+
+  /**
+   * Tests that phases with the same name are merged into a single phase.
+   */
+  @Test
+  public void testAddPhaseMergesSameName()
+  {
+    final AcquisitionMetrics metrics = new AcquisitionMetrics();
+    metrics.addPhase( AcquisitionMetrics.PHASE_OPEN, 10L, 0L );
+    metrics.addPhase( AcquisitionMetrics.PHASE_TRANSFER, 100L, 16L );
+    metrics.addPhase( AcquisitionMetrics.PHASE_TRANSFER, 300L, 48L );
+
+    final List<Phase> phases = metrics.getPhases();
+    assertEquals( 2, phases.size() );
+
+    assertEquals( AcquisitionMetrics.PHASE_OPEN, phases.get( 0 ).getName() );
+    assertEquals( AcquisitionMetrics.PHASE_TRANSFER, phases.get( 1 ).getName() );
+    assertEquals( 400L, phases.get( 1 ).getDuration() );
+    assertEquals( 64L, phases.get( 1 ).getByteCount() );
+  }
+
+  /**
+   * Tests that the throughput of a phase is expressed in bytes per second.
+   */
+  @Test
+  public void testThroughput()
+  {
+    final AcquisitionMetrics metrics = new AcquisitionMetrics();
+    metrics.addPhase( AcquisitionMetrics.PHASE_TRANSFER, 500000000L, 1024L );
+    metrics.addPhase( AcquisitionMetrics.PHASE_CLOSE, 10L, 0L );
+
+    final List<Phase> phases = metrics.getPhases();
+    assertEquals( 2048.0, phases.get( 0 ).getThroughput(), 1.0e-6 );
+    assertEquals( -1.0, phases.get( 1 ).getThroughput(), 0.0 );
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.acquisition;
+
+
+import static org.mockito.Mockito.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link ThrottledProgressListener}.
+ */
+public class ThrottledProgressListenerTest
+{
+  // METHODS
+
+  /**
+   * Tests that only changes in percentage are passed on.
+   */
+  @Test
+  public void testOnlyChangesArePassedOn()
+  {
+    final AcquisitionProgressListener listener = mock( AcquisitionProgressListener.class );
+    final ThrottledProgressListener throttled = new ThrottledProgressListener( listener, 0L );
+
+    for ( int i = 0; i < 1000; i++ )
+    {
+      throttled.acquisitionInProgress( i / 100 );
+    }
+
+    for ( int i = 0; i < 10; i++ )
+    {
+      verify( listener ).acquisitionInProgress( i );
+    }
+    verifyNoMoreInteractions( listener );
+  }
+
+  /**
+   * Tests that updates within the interval are suppressed, except for the
+   * completion and a flush.
+   */
+  @Test
+  public void testUpdatesAreRateLimited()
+  {
+    final AcquisitionProgressListener listener = mock( AcquisitionProgressListener.class );
+    final ThrottledProgressListener throttled = new ThrottledProgressListener( listener, 60000L );
+
+    for ( int i = 0; i <= 50; i++ )
+    {
+      throttled.acquisitionInProgress( i );
+    }
+    throttled.flush();
+    throttled.flush();
+
+    throttled.acquisitionInProgress( 75 );
+    throttled.acquisitionInProgress( 100 );
+    throttled.flush();
+
+    verify( listener ).acquisitionInProgress( 0 );
+    verify( listener ).acquisitionInProgress( 50 );
+    verify( listener ).acquisitionInProgress( 100 );
+    verifyNoMoreInteractions( listener );
+  }
+
+  /**
+   * Tests that phase timings are passed on to a metrics listener.
+   */
+  @Test
+  public void testPhasesArePassedOn()
+  {
+    final AcquisitionMetricsListener listener = mock( AcquisitionMetricsListener.class );
+    final ThrottledProgressListener throttled = new ThrottledProgressListener( listener );
+
+    throttled.acquisitionPhaseCompleted( AcquisitionMetrics.PHASE_TRANSFER, 10L, 20L );
+
+    verify( listener ).acquisitionPhaseCompleted( AcquisitionMetrics.PHASE_TRANSFER, 10L, 20L );
+  }
+}
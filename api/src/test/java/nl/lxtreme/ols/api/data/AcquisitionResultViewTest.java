@@ -0,0 +1,144 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+
+/**
+ * Test cases for {@link AcquisitionResultView}.
+ */
+public class AcquisitionResultViewTest
+{
+  // VARIABLES
+
+  private CapturedData data;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    final Random rnd = new Random( 23L );
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+
+    long time = 0L;
+    for ( int i = 0; i < 1000; i++ )
+    {
+      builder.add( rnd.nextInt( 4 ), time );
+      time += 1 + rnd.nextInt( 10 );
+    }
+
+    this.data = builder.build( 500L, 1000, 2, 0x03, time );
+  }
+
+  /**
+   * Tests that the edge index of a view only contains the edges of the view.
+   */
+  @Test
+  public void testEdgeIndex()
+  {
+    final AcquisitionResultView view = new AcquisitionResultView( this.data, 100, 200, true /* aRebase */);
+    final CapturedData copy = new CapturedData( view.getValues(), view.getTimestamps(), view.getTriggerPosition(),
+        view.getSampleRate(), view.getChannels(), view.getEnabledChannels(), view.getAbsoluteLength() );
+
+    for ( int i = 0; i < 2; i++ )
+    {
+      final ChannelEdgeIndex expected = copy.getEdgeIndex( i );
+      final ChannelEdgeIndex actual = view.getEdgeIndex( i );
+
+      assertArrayEquals( expected.getEdges( 0L, Long.MAX_VALUE ), actual.getEdges( 0L, Long.MAX_VALUE ) );
+      assertEquals( expected.getLevel( 0L ), actual.getLevel( 0L ) );
+    }
+  }
+
+  /**
+   * Tests that a rebased view starts at time zero.
+   */
+  @Test
+  public void testRebasedView()
+  {
+    final int[] values = this.data.getValues();
+    final long[] timestamps = this.data.getTimestamps();
+
+    final AcquisitionResultView view = new AcquisitionResultView( this.data, 100, 200, true /* aRebase */);
+    assertEquals( 100, view.getSampleCount() );
+    assertEquals( 0L, view.getTimestamp( 0 ) );
+    assertEquals( timestamps[200] - timestamps[100], view.getAbsoluteLength() );
+    assertEquals( this.data.getTriggerPosition() - timestamps[100], view.getTriggerPosition() );
+
+    assertArrayEquals( Arrays.copyOfRange( values, 100, 200 ), view.getValues() );
+    for ( int i = 0; i < view.getSampleCount(); i++ )
+    {
+      assertEquals( timestamps[100 + i] - timestamps[100], view.getTimestamps()[i] );
+    }
+
+    assertEquals( 0, view.getSampleIndex( -1L ) );
+    assertEquals( 10, view.getSampleIndex( view.getTimestamp( 10 ) ) );
+    assertEquals( 99, view.getSampleIndex( Long.MAX_VALUE / 2 ) );
+  }
+
+  /**
+   * Tests that creating and reading a view does not expand the samples of its
+   * parent into arrays.
+   */
+  @Test
+  public void testViewDoesNotExpandParent()
+  {
+    final long usage = this.data.getMemoryUsage();
+
+    final AcquisitionResultView view = new AcquisitionResultView( this.data, 100, 200, true /* aRebase */);
+    for ( int i = 0; i < view.getSampleCount(); i++ )
+    {
+      assertEquals( this.data.getValue( 100 + i ), view.getValue( i ) );
+      assertEquals( this.data.getTimestamp( 100 + i ) - this.data.getTimestamp( 100 ), view.getTimestamp( i ) );
+    }
+    view.getEdgeIndex( 0 );
+
+    assertEquals( usage, this.data.getMemoryUsage() );
+  }
+
+  /**
+   * Tests that a view on a view is a view on the original data.
+   */
+  @Test
+  public void testViewOnView()
+  {
+    final AcquisitionResultView view = new AcquisitionResultView( this.data, 100, 200, false /* aRebase */);
+    final AcquisitionResultView subView = new AcquisitionResultView( view, 10, 20, false /* aRebase */);
+
+    assertSame( this.data, subView.getParent() );
+    assertEquals( 110, subView.getOffset() );
+    assertEquals( 10, subView.getSampleCount() );
+    assertEquals( this.data.getTimestamps()[110], subView.getTimestamp( 0 ) );
+    assertEquals( this.data.getValues()[119], subView.getValue( 9 ) );
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link CaptureHistory}.
+ */
+public class CaptureHistoryTest
+{
+  // METHODS
+
+  /**
+   * Creates a mocked data set whose captured data is closeable.
+   */
+  private static DataSet createClosableDataSet()
+  {
+    final AcquisitionResult data = mock( AcquisitionResult.class, withSettings().extraInterfaces( Closeable.class ) );
+    when( data.getValues() ).thenReturn( new int[] { 0 } );
+    when( data.getTimestamps() ).thenReturn( new long[] { 0L } );
+
+    final DataSet result = mock( DataSet.class );
+    when( result.getCapturedData() ).thenReturn( data );
+    return result;
+  }
+
+  /**
+   * Creates a mocked data set with the given number of samples.
+   */
+  private static DataSet createDataSet( final int aSampleCount )
+  {
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    for ( int i = 0; i < aSampleCount; i++ )
+    {
+      builder.add( i & 0x0F, i );
+    }
+
+    final AcquisitionResult data = builder.build( 0L, 100, 4, 0x0F, aSampleCount );
+
+    final DataSet result = mock( DataSet.class );
+    when( result.getCapturedData() ).thenReturn( data );
+    return result;
+  }
+
+  /**
+   * Tests that the captured data of evicted and cleared data sets is closed.
+   */
+  @Test
+  public void testDroppedDataIsClosed() throws IOException
+  {
+    final DataSet ds1 = createClosableDataSet();
+    final DataSet ds2 = createClosableDataSet();
+    final AcquisitionResult data1 = ds1.getCapturedData();
+    final AcquisitionResult data2 = ds2.getCapturedData();
+
+    final CaptureHistory history = new CaptureHistory( 0L );
+    history.add( ds1 );
+    history.add( ds2 );
+
+    verify( ( Closeable )data1 ).close();
+    verify( ( Closeable )data2, never() ).close();
+
+    history.clear();
+
+    verify( ( Closeable )data2 ).close();
+  }
+
+  /**
+   * Tests that the latest data set is always retained, even if it exceeds the
+   * budget on its own.
+   */
+  @Test
+  public void testLatestDataSetIsAlwaysRetained()
+  {
+    final CaptureHistory history = new CaptureHistory( 0L );
+
+    final DataSet ds1 = createDataSet( 100 );
+    final DataSet ds2 = createDataSet( 100 );
+
+    history.add( ds1 );
+    history.add( ds2 );
+
+    assertEquals( 1, history.size() );
+    assertSame( ds2, history.get( 0 ) );
+    assertEquals( 0, history.getCurrentIndex() );
+    assertFalse( history.hasPrevious() );
+    assertFalse( history.hasNext() );
+  }
+
+  /**
+   * Tests that navigating through the history yields the data sets in the
+   * order in which they were added.
+   */
+  @Test
+  public void testNavigation()
+  {
+    final CaptureHistory history = new CaptureHistory( Long.MAX_VALUE );
+
+    final DataSet[] dataSets = new DataSet[20];
+    for ( int i = 0; i < dataSets.length; i++ )
+    {
+      dataSets[i] = createDataSet( 10 );
+      history.add( dataSets[i] );
+    }
+
+    assertEquals( dataSets.length, history.size() );
+    assertEquals( dataSets.length - 1, history.getCurrentIndex() );
+    assertFalse( history.hasNext() );
+    assertNull( history.next() );
+
+    for ( int i = dataSets.length - 2; i >= 0; i-- )
+    {
+      assertSame( dataSets[i], history.previous() );
+    }
+    assertFalse( history.hasPrevious() );
+    assertNull( history.previous() );
+
+    assertSame( dataSets[1], history.next() );
+
+    history.clear();
+
+    assertEquals( 0, history.size() );
+    assertEquals( -1, history.getCurrentIndex() );
+    assertEquals( 0L, history.getMemoryUsage() );
+  }
+
+  /**
+   * Tests that the oldest data sets are evicted when the budget is exceeded.
+   */
+  @Test
+  public void testOldestDataSetsAreEvicted()
+  {
+    final DataSet ds1 = createDataSet( 1000 );
+    final DataSet ds2 = createDataSet( 1000 );
+    final DataSet ds3 = createDataSet( 1000 );
+
+    final long size = CaptureHistory.getMemoryUsage( ds1.getCapturedData() );
+    assertTrue( size > 0L );
+
+    final CaptureHistory history = new CaptureHistory( 2L * size );
+    history.add( ds1 );
+    history.add( ds2 );
+
+    assertEquals( 2, history.size() );
+    assertEquals( 2L * size, history.getMemoryUsage() );
+
+    history.add( ds3 );
+
+    assertEquals( 2, history.size() );
+    assertSame( ds2, history.get( 0 ) );
+    assertSame( ds3, history.get( 1 ) );
+    assertEquals( 1, history.getCurrentIndex() );
+
+    history.setBudget( size );
+
+    assertEquals( 1, history.size() );
+    assertSame( ds3, history.get( 0 ) );
+    assertEquals( size, history.getMemoryUsage() );
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link CapturedDataBuilder}.
+ */
+public class CapturedDataBuilderTest
+{
+  // METHODS
+
+  /**
+   * Asserts that both given captured data instances are equal.
+   */
+  private static void assertCapturedDataEquals( final CapturedData aExpected, final CapturedData aActual )
+  {
+    assertArrayEquals( aExpected.getValues(), aActual.getValues() );
+    assertArrayEquals( aExpected.getTimestamps(), aActual.getTimestamps() );
+    assertEquals( aExpected.getAbsoluteLength(), aActual.getAbsoluteLength() );
+    assertEquals( aExpected.getTriggerPosition(), aActual.getTriggerPosition() );
+  }
+
+  /**
+   * Tests that the builder yields the same result as the array-based
+   * constructor of {@link CapturedData} for random data.
+   */
+  @Test
+  public void testBuildEqualsArrayConstructor()
+  {
+    final Random rnd = new Random( 42L );
+    final int size = 10000;
+
+    final int[] values = new int[size];
+    final long[] timestamps = new long[size];
+
+    // Use a small initial capacity to force the builder to grow...
+    final CapturedDataBuilder builder = new CapturedDataBuilder( 1 );
+
+    long time = 0L;
+    for ( int i = 0; i < size; i++ )
+    {
+      values[i] = rnd.nextInt( 4 );
+      timestamps[i] = time;
+      builder.add( values[i], timestamps[i] );
+
+      time += 1 + rnd.nextInt( 10 );
+    }
+
+    final CapturedData expected = new CapturedData( values, timestamps, 10L, 100, 2, 0x03, time );
+    assertCapturedDataEquals( expected, builder.build( 10L, 100, 2, 0x03, time ) );
+  }
+
+  /**
+   * Tests that the absolute length is always present as last sample (issue
+   * #167).
+   */
+  @Test
+  public void testBuildAddsAbsoluteLength()
+  {
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    builder.add( 1, 0L ).add( 1, 1L ).add( 1, 2L );
+    assertEquals( 1, builder.size() );
+
+    final CapturedData result = builder.build( Ols.NOT_AVAILABLE, 100, 1, 0x01, -1L );
+    assertArrayEquals( new int[] { 1, 1 }, result.getValues() );
+    assertArrayEquals( new long[] { 0L, 2L }, result.getTimestamps() );
+    assertEquals( 2L, result.getAbsoluteLength() );
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.lang.management.*;
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link CapturedData}.
+ */
+public class CapturedDataTest
+{
+  // CONSTANTS
+
+  private static final int SIZE = 4 * 1024 * 1024;
+  private static final int LOOKUPS = 1000000;
+
+  // METHODS
+
+  /**
+   * Returns the number of bytes allocated by the current thread, if supported
+   * by the JVM.
+   */
+  private static long getAllocatedBytes()
+  {
+    final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue( bean instanceof com.sun.management.ThreadMXBean );
+
+    final com.sun.management.ThreadMXBean sunBean = ( com.sun.management.ThreadMXBean )bean;
+    Assume.assumeTrue( sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled() );
+
+    return sunBean.getThreadAllocatedBytes( Thread.currentThread().getId() );
+  }
+
+  /**
+   * Tests that the array accessors replace the compact form of the samples,
+   * so that only a single representation is kept and writes to the returned
+   * arrays are retained.
+   */
+  @Test
+  public void testArrayAccessorsReplaceCompactForm()
+  {
+    final CapturedData data = createCapturedData( 0L );
+
+    final int[] values = data.getValues();
+    final long[] timestamps = data.getTimestamps();
+    assertEquals( ( 4L + 8L ) * SIZE, data.getMemoryUsage() );
+
+    values[1] = 3;
+    timestamps[1] = 3L;
+    assertSame( values, data.getValues() );
+    assertSame( timestamps, data.getTimestamps() );
+    assertEquals( 3, data.getValue( 1 ) );
+    assertEquals( 3L, data.getTimestamp( 1 ) );
+  }
+
+  /**
+   * Tests that indexed access, including the creation of edge indices, does not
+   * expand compactly stored samples.
+   */
+  @Test
+  public void testIndexedAccessDoesNotExpandSamples()
+  {
+    final CapturedData data = createCapturedData( 0L );
+    final long usage = data.getMemoryUsage();
+
+    long checksum = 0L;
+    for ( int i = 0; i < data.getSampleCount(); i++ )
+    {
+      checksum += data.getValue( i ) + data.getTimestamp( i );
+    }
+    assertNotNull( data.getEdgeIndex( 0 ) );
+
+    assertTrue( checksum > 0L );
+    assertEquals( usage, data.getMemoryUsage() );
+  }
+
+  /**
+   * Tests that looking up sample indexes in a large capture does not allocate
+   * any objects, for both plain and compactly stored timestamps.
+   */
+  @Test
+  public void testSampleIndexLookupIsAllocationFree()
+  {
+    assertAllocationFreeLookups( createCapturedData( 0L ) );
+    assertAllocationFreeLookups( createCapturedData( 0x1FFFFFFFFL ) );
+  }
+
+  /**
+   * Asserts that many sample index lookups do not allocate memory.
+   */
+  private void assertAllocationFreeLookups( final CapturedData aData )
+  {
+    final Random rnd = new Random( 31L );
+    final long absLength = aData.getAbsoluteLength();
+
+    final long[] keys = new long[LOOKUPS];
+    for ( int i = 0; i < keys.length; i++ )
+    {
+      keys[i] = ( long )( rnd.nextDouble() * absLength );
+    }
+
+    // Warm up, this also creates any lazily created lookup tables...
+    long checksum = 0L;
+    for ( long key : keys )
+    {
+      checksum += aData.getSampleIndex( key );
+    }
+
+    final long before = getAllocatedBytes();
+    for ( long key : keys )
+    {
+      checksum -= aData.getSampleIndex( key );
+    }
+    final long allocated = getAllocatedBytes() - before;
+
+    assertEquals( 0L, checksum );
+    // Allow for some noise, but a single object per lookup is way more...
+    assertTrue( "Allocated " + allocated + " bytes", allocated < LOOKUPS );
+  }
+
+  /**
+   * Creates a large capture with a sample on every other timestamp.
+   */
+  private CapturedData createCapturedData( final long aFinalDelta )
+  {
+    final int[] values = new int[SIZE];
+    final long[] timestamps = new long[SIZE];
+    for ( int i = 0; i < SIZE; i++ )
+    {
+      values[i] = i & 1;
+      timestamps[i] = 2L * i;
+    }
+    timestamps[SIZE - 1] += aFinalDelta;
+
+    return new CapturedData( values, timestamps, 0L, 100, 1, 0x01, timestamps[SIZE - 1] );
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import nl.lxtreme.ols.api.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link ChannelEdgeIndex}.
+ */
+public class ChannelEdgeIndexTest
+{
+  // VARIABLES
+
+  private CapturedData data;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    // channel 0: 0 -> 1 @ 10 -> 0 @ 30 -> 1 @ 50
+    // channel 1: 1 -> 0 @ 20
+    final int[] values = { 0x02, 0x03, 0x01, 0x00, 0x01, 0x01 };
+    final long[] timestamps = { 0L, 10L, 20L, 30L, 50L, 60L };
+
+    this.data = new CapturedData( values, timestamps, Ols.NOT_AVAILABLE, 100, 2, 0x03, 60L );
+  }
+
+  /**
+   * Tests that the edge index is cached by the captured data.
+   */
+  @Test
+  public void testEdgeIndexIsCached()
+  {
+    assertSame( this.data.getEdgeIndex( 0 ), this.data.getEdgeIndex( 0 ) );
+  }
+
+  /**
+   * Tests that the edges of a single channel are correctly indexed.
+   */
+  @Test
+  public void testEdgeTypes()
+  {
+    final ChannelEdgeIndex index = this.data.getEdgeIndex( 0 );
+    assertEquals( 3, index.getEdgeCount() );
+    assertEquals( Edge.RISING, index.getEdge( 0 ) );
+    assertEquals( Edge.FALLING, index.getEdge( 1 ) );
+    assertEquals( Edge.RISING, index.getEdge( 2 ) );
+
+    final ChannelEdgeIndex index1 = this.data.getEdgeIndex( 1 );
+    assertEquals( 1, index1.getEdgeCount() );
+    assertEquals( 20L, index1.getEdgeTimestamp( 0 ) );
+    assertEquals( Edge.FALLING, index1.getEdge( 0 ) );
+  }
+
+  /**
+   * Tests {@link ChannelEdgeIndex#findEdgeAfter(long, Edge)}.
+   */
+  @Test
+  public void testFindEdgeAfter()
+  {
+    final ChannelEdgeIndex index = this.data.getEdgeIndex( 0 );
+    assertEquals( 10L, index.findEdgeAfter( 0L, Edge.NONE ) );
+    assertEquals( 30L, index.findEdgeAfter( 10L, Edge.NONE ) );
+    assertEquals( 50L, index.findEdgeAfter( 10L, Edge.RISING ) );
+    assertEquals( 30L, index.findEdgeAfter( 5L, Edge.FALLING ) );
+    assertEquals( Ols.NOT_AVAILABLE, index.findEdgeAfter( 50L, Edge.NONE ) );
+    assertEquals( Ols.NOT_AVAILABLE, index.findEdgeAfter( 30L, Edge.FALLING ) );
+  }
+
+  /**
+   * Tests {@link ChannelEdgeIndex#findEdgeBefore(long, Edge)}.
+   */
+  @Test
+  public void testFindEdgeBefore()
+  {
+    final ChannelEdgeIndex index = this.data.getEdgeIndex( 0 );
+    assertEquals( 30L, index.findEdgeBefore( 50L, Edge.NONE ) );
+    assertEquals( 50L, index.findEdgeBefore( 51L, Edge.NONE ) );
+    assertEquals( 10L, index.findEdgeBefore( 50L, Edge.RISING ) );
+    assertEquals( Ols.NOT_AVAILABLE, index.findEdgeBefore( 10L, Edge.NONE ) );
+    assertEquals( Ols.NOT_AVAILABLE, index.findEdgeBefore( 30L, Edge.FALLING ) );
+  }
+
+  /**
+   * Tests {@link ChannelEdgeIndex#getEdges(long, long)}.
+   */
+  @Test
+  public void testGetEdgesInRange()
+  {
+    final ChannelEdgeIndex index = this.data.getEdgeIndex( 0 );
+    assertArrayEquals( new long[] { 10L, 30L, 50L }, index.getEdges( 0L, 60L ) );
+    assertArrayEquals( new long[] { 30L }, index.getEdges( 30L, 50L ) );
+    assertArrayEquals( new long[0], index.getEdges( 31L, 50L ) );
+  }
+
+  /**
+   * Tests {@link ChannelEdgeIndex#getLevel(long)}.
+   */
+  @Test
+  public void testGetLevel()
+  {
+    final ChannelEdgeIndex index = this.data.getEdgeIndex( 0 );
+    assertEquals( 0, index.getLevel( 0L ) );
+    assertEquals( 0, index.getLevel( 9L ) );
+    assertEquals( 1, index.getLevel( 10L ) );
+    assertEquals( 0, index.getLevel( 30L ) );
+    assertEquals( 1, index.getLevel( 60L ) );
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link MappedCapturedData}.
+ */
+public class MappedCapturedDataTest
+{
+  // VARIABLES
+
+  private CapturedData expected;
+  private MappedCapturedData mapped;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp() throws IOException
+  {
+    final Random rnd = new Random( 13L );
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    final MappedCapturedData.Writer writer = new MappedCapturedData.Writer();
+
+    long time = 0L;
+    for ( int i = 0; i < 50000; i++ )
+    {
+      final int value = rnd.nextInt( 16 );
+      builder.add( value, time );
+      writer.add( value, time );
+
+      time += 1 + rnd.nextInt( 5 );
+    }
+
+    this.expected = builder.build( 100L, 1000, 4, 0x0F, time );
+    this.mapped = writer.build( 100L, 1000, 4, 0x0F, time );
+  }
+
+  /**
+   * Tear down for each test case.
+   */
+  @After
+  public void tearDown()
+  {
+    this.mapped.close();
+  }
+
+  /**
+   * Tests that closing the mapped data removes its temporary files.
+   */
+  @Test
+  public void testCloseRemovesFiles() throws IOException
+  {
+    final File dir = File.createTempFile( "mapped", ".dir" );
+    assertTrue( dir.delete() && dir.mkdir() );
+
+    try
+    {
+      final MappedCapturedData.Writer writer = new MappedCapturedData.Writer( dir );
+      writer.add( 1, 0L ).add( 2, 1L );
+
+      final MappedCapturedData data = writer.build( 0L, 1000, 4, 0x0F, 2L );
+      assertEquals( 2, dir.list().length );
+
+      data.close();
+      assertEquals( 0, dir.list().length );
+    }
+    finally
+    {
+      dir.delete();
+    }
+  }
+
+  /**
+   * Tests that the edge index is created correctly from the mapped data.
+   */
+  @Test
+  public void testEdgeIndex()
+  {
+    for ( int i = 0; i < 4; i++ )
+    {
+      final ChannelEdgeIndex expectedIndex = this.expected.getEdgeIndex( i );
+      final ChannelEdgeIndex mappedIndex = this.mapped.getEdgeIndex( i );
+
+      assertArrayEquals( expectedIndex.getEdges( 0L, Long.MAX_VALUE ), mappedIndex.getEdges( 0L, Long.MAX_VALUE ) );
+      assertEquals( expectedIndex.getLevel( 0L ), mappedIndex.getLevel( 0L ) );
+    }
+  }
+
+  /**
+   * Tests that the indexed accessors yield the same samples as the heap-based
+   * data.
+   */
+  @Test
+  public void testIndexedAccess()
+  {
+    assertEquals( this.expected.getSampleCount(), this.mapped.getSampleCount() );
+
+    for ( int i = 0; i < this.mapped.getSampleCount(); i++ )
+    {
+      assertEquals( this.expected.getValue( i ), this.mapped.getValue( i ) );
+      assertEquals( this.expected.getTimestamp( i ), this.mapped.getTimestamp( i ) );
+    }
+  }
+
+  /**
+   * Tests that the mapped data equals the heap-based data.
+   */
+  @Test
+  public void testMappedDataEqualsCapturedData()
+  {
+    assertEquals( this.expected.getValues().length, this.mapped.getSampleCount() );
+    assertEquals( this.expected.getAbsoluteLength(), this.mapped.getAbsoluteLength() );
+    assertEquals( this.expected.getTriggerPosition(), this.mapped.getTriggerPosition() );
+
+    assertArrayEquals( this.expected.getValues(), this.mapped.getValues() );
+    assertArrayEquals( this.expected.getTimestamps(), this.mapped.getTimestamps() );
+  }
+
+  /**
+   * Tests that the sample index lookup is equal to the heap-based data.
+   */
+  @Test
+  public void testSampleIndex()
+  {
+    final long absLength = this.expected.getAbsoluteLength();
+    for ( long t = -1L; t <= ( absLength + 1L ); t += 7L )
+    {
+      assertEquals( this.expected.getSampleIndex( t ), this.mapped.getSampleIndex( t ) );
+    }
+  }
+}
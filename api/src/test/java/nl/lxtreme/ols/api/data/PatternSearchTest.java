@@ -0,0 +1,146 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link PatternSearch} and {@link SamplePattern}.
+ */
+public class PatternSearchTest
+{
+  // METHODS
+
+  /**
+   * Finds all matches by comparing each sample with its predecessor.
+   */
+  private static long[] findAll( final int[] aValues, final long[] aTimestamps, final SamplePattern aPattern )
+  {
+    final List<Long> result = new ArrayList<Long>();
+    for ( int i = 0; i < aValues.length; i++ )
+    {
+      final boolean match = ( i == 0 ) ? aPattern.matchesFirst( aValues[0] ) : aPattern.matches( aValues[i - 1],
+          aValues[i] );
+      if ( match )
+      {
+        result.add( Long.valueOf( aTimestamps[i] ) );
+      }
+    }
+
+    final long[] array = new long[result.size()];
+    for ( int i = 0; i < array.length; i++ )
+    {
+      array[i] = result.get( i ).longValue();
+    }
+    return array;
+  }
+
+  /**
+   * Tests that searching in chunks yields the same matches as searching in a
+   * single pass.
+   */
+  @Test
+  public void testChunkedSearchEqualsSinglePass()
+  {
+    final Random rnd = new Random( 37L );
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    for ( int i = 0; i < 100000; i++ )
+    {
+      builder.add( rnd.nextInt( 1024 ), i );
+    }
+    final CapturedData data = builder.build( 0L, 100, 10, 0x3FF, 100000L );
+
+    final SamplePattern pattern = SamplePattern.parse( "XR 0101 1010" );
+    final long[] expected = findAll( data.getValues(), data.getTimestamps(), pattern );
+    assertTrue( expected.length > 0 );
+
+    for ( int chunks = 1; chunks < 9; chunks++ )
+    {
+      assertArrayEquals( expected, new PatternSearch( data, pattern, chunks ).getMatches() );
+    }
+  }
+
+  /**
+   * Tests that the matches can be navigated.
+   */
+  @Test
+  public void testFindMatchAfterAndBefore()
+  {
+    final int[] values = { 0x00, 0x5A, 0x00, 0x5A, 0x5B };
+    final long[] timestamps = { 0L, 10L, 20L, 30L, 40L };
+    final CapturedData data = new CapturedData( values, timestamps, 0L, 100, 8, 0xFF, 50L );
+
+    final PatternSearch search = new PatternSearch( data, SamplePattern.parse( "01011010" ) );
+    assertArrayEquals( new long[] { 10L, 30L }, search.getMatches() );
+
+    assertEquals( 10L, search.findMatchAfter( 0L ) );
+    assertEquals( 30L, search.findMatchAfter( 10L ) );
+    assertEquals( Ols.NOT_AVAILABLE, search.findMatchAfter( 30L ) );
+    assertEquals( 10L, search.findMatchBefore( 30L ) );
+    assertEquals( Ols.NOT_AVAILABLE, search.findMatchBefore( 10L ) );
+  }
+
+  /**
+   * Tests that patterns are parsed correctly.
+   */
+  @Test
+  public void testParsePattern()
+  {
+    final SamplePattern pattern = SamplePattern.parse( "x_f_r 1010" );
+    assertEquals( 0x0F, pattern.getMask() );
+    assertEquals( 0x0A, pattern.getValue() );
+    assertEquals( 0x10, pattern.getRisingEdges() );
+    assertEquals( 0x20, pattern.getFallingEdges() );
+    assertEquals( "FR1010", pattern.toString() );
+  }
+
+  /**
+   * Tests that invalid patterns are rejected.
+   */
+  @Test( expected = IllegalArgumentException.class )
+  public void testParseInvalidPattern()
+  {
+    SamplePattern.parse( "10Z1" );
+  }
+
+  /**
+   * Tests that a pattern with an edge only matches when the edge occurs.
+   */
+  @Test
+  public void testPatternWithEdge()
+  {
+    final SamplePattern pattern = SamplePattern.parse( "R1" );
+
+    assertTrue( pattern.matches( 0x01, 0x03 ) );
+    assertFalse( pattern.matches( 0x03, 0x03 ) );
+    assertFalse( pattern.matches( 0x00, 0x02 ) );
+    assertFalse( pattern.matchesFirst( 0x03 ) );
+  }
+}
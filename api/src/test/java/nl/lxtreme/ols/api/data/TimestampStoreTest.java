@@ -0,0 +1,153 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link TimestampStore}.
+ */
+public class TimestampStoreTest
+{
+  // METHODS
+
+  /**
+   * Creates a sequence of timestamps with the given maximum delta.
+   */
+  private static long[] createTimestamps( final int aCount, final long aStart, final int aMaxDelta,
+      final long aFinalDelta )
+  {
+    final Random rnd = new Random( 17L );
+
+    final long[] result = new long[aCount];
+    result[0] = aStart;
+    for ( int i = 1; i < aCount; i++ )
+    {
+      result[i] = result[i - 1] + 1 + rnd.nextInt( aMaxDelta );
+    }
+    result[aCount - 1] += aFinalDelta;
+    return result;
+  }
+
+  /**
+   * Tests that timestamps with a large range, but small deltas are delta
+   * encoded.
+   */
+  @Test
+  public void testBlockDeltaStore()
+  {
+    final long[] timestamps = createTimestamps( 10000, 0L, 100, 0x1FFFFFFFFL );
+
+    final TimestampStore store = TimestampStore.create( timestamps );
+    assertTrue( store instanceof TimestampStore.BlockDeltaStore );
+    assertStoreEquals( timestamps, store );
+  }
+
+  /**
+   * Tests that timestamps within a 32-bit range are stored as offsets.
+   */
+  @Test
+  public void testIntStore()
+  {
+    final long[] timestamps = createTimestamps( 10000, 0x100000000L, 100000, 0L );
+
+    final TimestampStore store = TimestampStore.create( timestamps );
+    assertTrue( store instanceof TimestampStore.IntStore );
+    assertStoreEquals( timestamps, store );
+  }
+
+  /**
+   * Tests that timestamps with large deltas are stored as-is.
+   */
+  @Test
+  public void testLongStore()
+  {
+    final long[] timestamps = { 0L, 0x100000000L, 0x200000000L, 0x300000000L };
+
+    final TimestampStore store = TimestampStore.create( timestamps );
+    assertSame( timestamps, store.asArray() );
+    assertStoreEquals( timestamps, store );
+  }
+
+  /**
+   * Tests that searching works for all kinds of stores, across multiple skip
+   * table entries.
+   */
+  @Test
+  public void testSearch()
+  {
+    assertSearchEquals( createTimestamps( 20000, 0L, 10, 0x1FFFFFFFFL ) );
+    assertSearchEquals( createTimestamps( 20000, 0L, 10, 0L ) );
+    assertSearchEquals( new long[] { 0L, 0x100000000L, 0x200000000L, 0x300000000L } );
+    assertSearchEquals( new long[] { 10L } );
+  }
+
+  /**
+   * Asserts that searching the store created for the given timestamps yields
+   * the same results as {@link Arrays#binarySearch(long[], long)}.
+   */
+  private void assertSearchEquals( final long[] aTimestamps )
+  {
+    final TimestampStore store = TimestampStore.create( aTimestamps );
+
+    final long last = aTimestamps[aTimestamps.length - 1];
+    for ( long t = aTimestamps[0] - 2L; t < Math.min( last, aTimestamps[0] + 250000L ); t++ )
+    {
+      assertEquals( "Timestamp " + t, expectedIndex( aTimestamps, t ), store.search( t ) );
+    }
+    for ( long t = last - 10L; t < ( last + 10L ); t++ )
+    {
+      assertEquals( "Timestamp " + t, expectedIndex( aTimestamps, t ), store.search( t ) );
+    }
+  }
+
+  /**
+   * Returns the index of the given key, or the (clamped) insertion point.
+   */
+  private int expectedIndex( final long[] aTimestamps, final long aKey )
+  {
+    int idx = Arrays.binarySearch( aTimestamps, aKey );
+    if ( idx < 0 )
+    {
+      idx = -idx - 1;
+    }
+    return Math.min( idx, aTimestamps.length - 1 );
+  }
+
+  /**
+   * Asserts that the given store contains the given timestamps.
+   */
+  private void assertStoreEquals( final long[] aExpected, final TimestampStore aStore )
+  {
+    assertEquals( aExpected.length, aStore.size() );
+    for ( int i = 0; i < aExpected.length; i++ )
+    {
+      assertEquals( aExpected[i], aStore.get( i ) );
+    }
+    assertArrayEquals( aExpected, aStore.toArray() );
+  }
+}
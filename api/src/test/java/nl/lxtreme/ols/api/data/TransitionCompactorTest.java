@@ -0,0 +1,129 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+
+/**
+ * Test cases for {@link TransitionCompactor}.
+ */
+public class TransitionCompactorTest
+{
+  // METHODS
+
+  /**
+   * Creates sample values with runs of equal values.
+   */
+  private static int[] createValues( final int aCount )
+  {
+    final Random rnd = new Random( 29L );
+
+    final int[] result = new int[aCount];
+    for ( int i = 0; i < aCount; i++ )
+    {
+      result[i] = ( ( i > 0 ) && rnd.nextInt( 4 ) > 0 ) ? result[i - 1] : rnd.nextInt( 4 );
+    }
+    return result;
+  }
+
+  /**
+   * Tests that compacting in chunks yields the same result as compacting in a
+   * single pass.
+   */
+  @Test
+  public void testChunkedCompactionEqualsSinglePass()
+  {
+    final int[] values = createValues( 10007 );
+    final long[] timestamps = new long[values.length];
+    for ( int i = 0; i < timestamps.length; i++ )
+    {
+      timestamps[i] = 3L * i;
+    }
+
+    final TransitionCompactor expected = new TransitionCompactor( values, 1 );
+    final int[] expectedValues = new int[expected.getCount()];
+    final long[] expectedTimestamps = new long[expected.getCount()];
+    expected.copyTo( expectedValues, expectedTimestamps, timestamps );
+
+    for ( int chunks = 2; chunks < 17; chunks++ )
+    {
+      final TransitionCompactor actual = new TransitionCompactor( values, chunks );
+      assertEquals( expected.getCount(), actual.getCount() );
+      assertEquals( expected.getLastTransitionIndex(), actual.getLastTransitionIndex() );
+
+      final int[] actualValues = new int[actual.getCount()];
+      final long[] actualTimestamps = new long[actual.getCount()];
+      actual.copyTo( actualValues, actualTimestamps, timestamps );
+
+      assertArrayEquals( expectedValues, actualValues );
+      assertArrayEquals( expectedTimestamps, actualTimestamps );
+    }
+  }
+
+  /**
+   * Tests that large captures are compacted identically to the sequential
+   * compaction of {@link CapturedDataBuilder}.
+   */
+  @Test
+  public void testLargeCapturedData()
+  {
+    final int[] values = createValues( TransitionCompactor.PARALLEL_THRESHOLD + 12345 );
+    final long[] timestamps = new long[values.length];
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    for ( int i = 0; i < values.length; i++ )
+    {
+      timestamps[i] = i;
+      builder.add( values[i], i );
+    }
+
+    final CapturedData expected = builder.build( 0L, 100, 2, 0x03, values.length );
+    final CapturedData actual = new CapturedData( values, timestamps, 0L, 100, 2, 0x03, values.length );
+    final CapturedData actualRaw = new CapturedData( values, 0L, 100, 2, 0x03 );
+
+    assertArrayEquals( expected.getValues(), actual.getValues() );
+    assertArrayEquals( expected.getTimestamps(), actual.getTimestamps() );
+    assertEquals( expected.getAbsoluteLength(), actual.getAbsoluteLength() );
+
+    // The raw constructor does not add the absolute length as extra sample...
+    final int rawCount = actualRaw.getSampleCount();
+    assertArrayEquals( Arrays.copyOf( expected.getValues(), rawCount ), actualRaw.getValues() );
+    assertArrayEquals( Arrays.copyOf( expected.getTimestamps(), rawCount ), actualRaw.getTimestamps() );
+  }
+
+  /**
+   * Tests that a single value is compacted correctly.
+   */
+  @Test
+  public void testSingleValue()
+  {
+    final TransitionCompactor compactor = new TransitionCompactor( new int[] { 5 }, 4 );
+    assertEquals( 1, compactor.getCount() );
+    assertEquals( 0, compactor.getLastTransitionIndex() );
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link ValueStore}.
+ */
+public class ValueStoreTest
+{
+  // METHODS
+
+  /**
+   * Creates random sample values with the given mask.
+   */
+  private static int[] createValues( final int aCount, final int aMask )
+  {
+    final Random rnd = new Random( 19L );
+
+    final int[] result = new int[aCount];
+    for ( int i = 0; i < aCount; i++ )
+    {
+      result[i] = rnd.nextInt() & aMask;
+    }
+    return result;
+  }
+
+  /**
+   * Tests that 8-channel captures are stored as bytes.
+   */
+  @Test
+  public void testByteStore()
+  {
+    final int[] values = createValues( 1000, 0xFF );
+
+    final ValueStore store = ValueStore.create( values, 0xFF );
+    assertTrue( store instanceof ValueStore.ByteStore );
+    assertStoreEquals( values, store );
+  }
+
+  /**
+   * Tests that 32-channel captures are stored as-is.
+   */
+  @Test
+  public void testIntStore()
+  {
+    final int[] values = createValues( 1000, 0xFFFFFFFF );
+
+    final ValueStore store = ValueStore.create( values, 0xFFFFFFFF );
+    assertSame( values, store.asArray() );
+    assertStoreEquals( values, store );
+  }
+
+  /**
+   * Tests that values with bits outside the enabled channels are not
+   * truncated.
+   */
+  @Test
+  public void testNoTruncationOfDisabledChannels()
+  {
+    final int[] values = createValues( 1000, 0x1FF );
+
+    final ValueStore store = ValueStore.create( values, 0xFF );
+    assertSame( values, store.asArray() );
+  }
+
+  /**
+   * Tests that 16-channel captures are stored as shorts.
+   */
+  @Test
+  public void testShortStore()
+  {
+    final int[] values = createValues( 1000, 0xFFFF );
+
+    final ValueStore store = ValueStore.create( values, 0xFF00 );
+    assertTrue( store instanceof ValueStore.ShortStore );
+    assertStoreEquals( values, store );
+  }
+
+  /**
+   * Asserts that the given store contains the given values.
+   */
+  private void assertStoreEquals( final int[] aExpected, final ValueStore aStore )
+  {
+    assertEquals( aExpected.length, aStore.size() );
+    for ( int i = 0; i < aExpected.length; i++ )
+    {
+      assertEquals( aExpected[i], aStore.get( i ) );
+    }
+    assertArrayEquals( aExpected, aStore.toArray() );
+  }
+}
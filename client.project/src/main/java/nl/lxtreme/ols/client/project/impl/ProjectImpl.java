@@ -30,6 +30,7 @@ import javax.swing.*;
 
 import nl.lxtreme.ols.api.*;
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.project.*;
 
 
@@ -213,6 +214,33 @@ public final class ProjectImpl implements Project, ProjectProperties, PropertyCh
     this.propertyChangeSupport.firePropertyChange( PROPERTY_CHANGED, old, aChanged );
   }
 
+  /**
+   * Sets the data set in a single shot.
+   * 
+   * @param aDataSet
+   *          the data set to set, cannot be <code>null</code>.
+   */
+  @Override
+  public final void setDataSet( final DataSet aDataSet )
+  {
+    if ( !( aDataSet instanceof DataSetImpl ) )
+    {
+      throw new IllegalArgumentException();
+    }
+    if ( this.dataSet != null )
+    {
+      this.dataSet.removePropertyChangeListener( this );
+    }
+
+    final DataSetImpl old = this.dataSet;
+
+    this.dataSet = ( DataSetImpl )aDataSet;
+
+    this.dataSet.addPropertyChangeListener( this );
+
+    this.propertyChangeSupport.firePropertyChange( PROPERTY_CAPTURED_DATA, old, this.dataSet );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.project.Project#setFilename(java.io.File)
    */
@@ -332,30 +360,4 @@ public final class ProjectImpl implements Project, ProjectProperties, PropertyCh
   {
     return this.propertyChangeSupport.getPropertyChangeListeners();
   }
-
-  /**
-   * Sets the data set in a single shot.
-   * 
-   * @param aDataSet
-   *          the data set to set, cannot be <code>null</code>.
-   */
-  final void setDataSet( final DataSetImpl aDataSet )
-  {
-    if ( aDataSet == null )
-    {
-      throw new IllegalArgumentException();
-    }
-    if ( this.dataSet != null )
-    {
-      this.dataSet.removePropertyChangeListener( this );
-    }
-
-    final DataSetImpl old = this.dataSet;
-
-    this.dataSet = aDataSet;
-
-    this.dataSet.addPropertyChangeListener( this );
-
-    this.propertyChangeSupport.firePropertyChange( PROPERTY_CAPTURED_DATA, old, this.dataSet );
-  }
 }
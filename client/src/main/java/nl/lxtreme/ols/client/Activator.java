@@ -224,6 +224,9 @@ public class Activator extends DependencyActivatorBase
         .add( createServiceDependency() //
             .setService( DataAcquisitionService.class ) //
             .setRequired( true ) ) //
+        .add( createServiceDependency() //
+            .setService( AcquisitionMetricsService.class ) //
+            .setRequired( false ) ) //
         .add( createServiceDependency() //
             .setService( UIColorSchemeManager.class ) //
             .setRequired( true ) ) //
@@ -47,6 +47,7 @@ import nl.lxtreme.ols.client.action.*;
 import nl.lxtreme.ols.client.actionmanager.*;
 import nl.lxtreme.ols.client.osgi.*;
 import nl.lxtreme.ols.client.signaldisplay.*;
+import nl.lxtreme.ols.client.signaldisplay.laf.*;
 import nl.lxtreme.ols.util.*;
 import nl.lxtreme.ols.util.swing.*;
 import nl.lxtreme.ols.util.swing.component.*;
@@ -283,9 +284,11 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
 
   private final ProgressUpdatingRunnable progressAccumulatingRunnable;
   private final AccumulatingRepaintingRunnable repaintAccumulatingRunnable;
+  private final CaptureHistory captureHistory;
 
   private volatile ProjectManager projectManager;
   private volatile DataAcquisitionService dataAcquisitionService;
+  private volatile AcquisitionMetricsService acquisitionMetricsService;
   private volatile MainFrame mainFrame;
   private volatile HostProperties hostProperties;
   private volatile UIColorSchemeManager colorSchemeManager;
@@ -313,6 +316,7 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
     this.exporters = new ConcurrentHashMap<String, Exporter>();
 
     this.actionManager = new ActionManager();
+    this.captureHistory = new CaptureHistory( 0L );
 
     this.signalDiagramController = new SignalDiagramController( this.actionManager );
 
@@ -341,7 +345,19 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
   {
     try
     {
-      getCurrentProject().setCapturedData( aData );
+      final Project project = getCurrentProject();
+      project.setCapturedData( aData );
+
+      // Keep the new data set, including its annotations, in the history so
+      // it can be shown again after subsequent captures...
+      this.captureHistory.setBudget( getCaptureHistoryBudget() );
+      this.captureHistory.add( project.getDataSet() );
+
+      final AcquisitionMetricsService metricsService = this.acquisitionMetricsService;
+      if ( ( metricsService != null ) && ( this.mainFrame != null ) )
+      {
+        this.mainFrame.setAcquisitionMetrics( metricsService.getLastMetrics() );
+      }
     }
     catch ( Exception exception )
     {
@@ -560,6 +576,42 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
     }
   }
 
+  /**
+   * Starts capturing data back-to-back with the current device settings, until
+   * the capture is cancelled.
+   */
+  public void captureDataContinuously()
+  {
+    final DataAcquisitionService acquisitionService = getDataAcquisitionService();
+    final Device devCtrl = getDevice();
+
+    if ( ( devCtrl == null ) || ( acquisitionService == null ) )
+    {
+      return;
+    }
+
+    try
+    {
+      setStatusOnEDT( "Continuous capture from {0} started at {1,date,medium} {1,time,medium} ...",
+          devCtrl.getName(), new Date() );
+
+      acquisitionService.acquireDataContinuously( devCtrl );
+    }
+    catch ( final IOException exception )
+    {
+      setStatusOnEDT( "I/O problem: " + exception.getMessage() );
+
+      LOG.log( Level.WARNING, "Continuous capture failed!", exception );
+
+      // Make sure to handle IO-interrupted exceptions properly!
+      HostUtils.handleInterruptedException( exception );
+    }
+    finally
+    {
+      updateActionsOnEDT();
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -592,6 +644,7 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
   public void createNewProject()
   {
     this.projectManager.createNewProject();
+    this.captureHistory.clear();
 
     if ( this.mainFrame != null )
     {
@@ -1042,6 +1095,7 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
       fis = new FileInputStream( aFile );
 
       this.projectManager.loadProject( fis );
+      this.captureHistory.clear();
 
       final Project project = getCurrentProject();
       project.setFilename( aFile );
@@ -1309,6 +1363,14 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
     }
   }
 
+  /**
+   * Shows the next data set of the capture history, if any.
+   */
+  public void showNextCapture()
+  {
+    showCaptureFromHistory( this.captureHistory.next() );
+  }
+
   /**
    * Shows the global preferences dialog.
    *
@@ -1348,6 +1410,14 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
     dm.add( comp );
   }
 
+  /**
+   * Shows the previous data set of the capture history, if any.
+   */
+  public void showPreviousCapture()
+  {
+    showCaptureFromHistory( this.captureHistory.previous() );
+  }
+
   /**
    * Called by the dependency manager when this component is about to be
    * started.
@@ -1611,6 +1681,11 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
         getAction( CaptureAction.ID ).setEnabled( deviceControllerSet );
         getAction( CancelCaptureAction.ID ).setEnabled( deviceCapturing );
         getAction( RepeatCaptureAction.ID ).setEnabled( deviceSetup );
+        getAction( ContinuousCaptureAction.ID ).setEnabled( deviceSetup );
+        getAction( ShowCaptureHistoryAction.getPreviousID() ).setEnabled(
+            !deviceCapturing && ClientController.this.captureHistory.hasPrevious() );
+        getAction( ShowCaptureHistoryAction.getNextID() ).setEnabled(
+            !deviceCapturing && ClientController.this.captureHistory.hasNext() );
 
         final boolean projectChanged = isProjectChanged();
         final boolean projectSavedBefore = !isAnonymousProject();
@@ -1631,6 +1706,7 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
 
         getAction( SmartJumpAction.getJumpLeftID() ).setEnabled( dataAvailable );
         getAction( SmartJumpAction.getJumpRightID() ).setEnabled( dataAvailable );
+        getAction( FindPatternAction.ID ).setEnabled( dataAvailable );
 
         boolean anyCursorSet = false;
         for ( int c = 0; c < Ols.MAX_CURSORS; c++ )
@@ -1797,7 +1873,7 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
 
     if ( capturedData != null )
     {
-      final int dataLength = capturedData.getValues().length;
+      final int dataLength = AcquisitionResultAdapter.adapt( capturedData ).getSampleCount();
       if ( areCursorsEnabled() )
       {
         if ( isCursorSet( 0 ) )
@@ -1827,6 +1903,16 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
     return new DefaultToolContext( startOfDecode, endOfDecode, dataSet );
   }
 
+  /**
+   * Returns the memory budget for the capture history.
+   *
+   * @return a memory budget, in bytes, >= 0.
+   */
+  private long getCaptureHistoryBudget()
+  {
+    return Math.max( 0, UIManager.getInt( UIManagerKeys.CAPTURE_HISTORY_BUDGET ) ) * 1024L * 1024L;
+  }
+
   /**
    * Returns the {@link Channel} with the given index.
    *
@@ -1971,4 +2057,31 @@ AcquisitionDataListener, AnnotationListener, PlatformCallback
       }
     }
   }
+
+  /**
+   * Shows the given data set of the capture history.
+   *
+   * @param aDataSet
+   *          the data set to show, can be <code>null</code> in which case
+   *          nothing is shown.
+   */
+  private void showCaptureFromHistory( final DataSet aDataSet )
+  {
+    try
+    {
+      if ( aDataSet != null )
+      {
+        final Project project = getCurrentProject();
+        project.setDataSet( aDataSet );
+        project.setChanged( true );
+
+        setStatusOnEDT( "Showing capture {0} of {1} ...", Integer.valueOf( this.captureHistory.getCurrentIndex() + 1 ),
+            Integer.valueOf( this.captureHistory.size() ) );
+      }
+    }
+    finally
+    {
+      updateActionsOnEDT();
+    }
+  }
 }
@@ -28,6 +28,7 @@ import java.util.concurrent.atomic.*;
 
 import javax.swing.*;
 
+import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.client.signaldisplay.*;
 import nl.lxtreme.ols.client.signaldisplay.laf.*;
 import nl.lxtreme.ols.client.signaldisplay.view.*;
@@ -194,6 +195,19 @@ public class DockController implements IMeasurementListener
     tweakToolWindow( tw );
   }
 
+  /**
+   * @param aMetrics
+   *          the metrics of the last acquisition to show, can be
+   *          <code>null</code>.
+   */
+  public void setAcquisitionMetrics( final AcquisitionMetrics aMetrics )
+  {
+    if ( this.captureDetails != null )
+    {
+      this.captureDetails.setAcquisitionMetrics( aMetrics );
+    }
+  }
+
   /**
    * @param aComponent
    *          the main content to set, should not be <code>null</code>.
@@ -34,6 +34,7 @@ import javax.swing.event.*;
 import javax.swing.plaf.*;
 
 import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.Cursor;
 import nl.lxtreme.ols.api.data.project.*;
@@ -898,6 +899,17 @@ public final class MainFrame extends JFrame implements Closeable, PropertyChange
     this.controller.selectDevice( aSettings.get( "selectedDevice", "OpenBench LogicSniffer" ) );
   }
 
+  /**
+   * Shows the metrics of the last acquisition.
+   *
+   * @param aMetrics
+   *          the acquisition metrics to show, can be <code>null</code>.
+   */
+  public void setAcquisitionMetrics( final AcquisitionMetrics aMetrics )
+  {
+    this.dockController.setAcquisitionMetrics( aMetrics );
+  }
+
   /**
    * Updates the progress bar to the given percentage.
    *
@@ -1047,8 +1059,12 @@ public final class MainFrame extends JFrame implements Closeable, PropertyChange
 
     captureMenu.add( this.controller.getAction( CaptureAction.ID ) );
     captureMenu.add( this.controller.getAction( RepeatCaptureAction.ID ) );
+    captureMenu.add( this.controller.getAction( ContinuousCaptureAction.ID ) );
     captureMenu.add( this.controller.getAction( CancelCaptureAction.ID ) );
     captureMenu.addSeparator();
+    captureMenu.add( this.controller.getAction( ShowCaptureHistoryAction.getPreviousID() ) );
+    captureMenu.add( this.controller.getAction( ShowCaptureHistoryAction.getNextID() ) );
+    captureMenu.addSeparator();
     captureMenu.add( this.deviceMenu );
 
     final JMenu diagramMenu = bar.add( new JMenu( "Diagram" ) );
@@ -1060,6 +1076,7 @@ public final class MainFrame extends JFrame implements Closeable, PropertyChange
     diagramMenu.add( this.controller.getAction( ZoomAllAction.ID ) );
     diagramMenu.addSeparator();
     diagramMenu.add( this.controller.getAction( GotoTriggerAction.ID ) );
+    diagramMenu.add( this.controller.getAction( FindPatternAction.ID ) );
     diagramMenu.addSeparator();
     diagramMenu.add( new JCheckBoxMenuItem( this.controller.getAction( SetCursorModeAction.ID ) ) );
     diagramMenu.add( new JCheckBoxMenuItem( this.controller.getAction( SetCursorSnapModeAction.ID ) ) );
@@ -148,6 +148,7 @@ public class PreferencesDialog extends JDialog implements StatusAwareCloseableDi
   private final JCheckBox showToolWindows;
   private final JCheckBox showChannelIndexes;
   private final JCheckBox retainAnnotations;
+  private final JSpinner captureHistoryBudget;
   private final JCheckBox autoCenterCapture;
   private final JComboBox annotationAlignment;
   private final JComboBox signalAlignment;
@@ -192,6 +193,9 @@ public class PreferencesDialog extends JDialog implements StatusAwareCloseableDi
     this.retainAnnotations = new JCheckBox();
     this.retainAnnotations.setToolTipText( "Whether or not annotations should be retained after a recapture. Will be applied immediately." );
 
+    this.captureHistoryBudget = new JSpinner( new SpinnerNumberModel( 256, 0, 65536, 16 ) );
+    this.captureHistoryBudget.setToolTipText( "The amount of memory (in MB) used to keep previous captures, or 0 to keep only the last capture. Will be applied after an acquisition." );
+
     this.showToolWindows = new JCheckBox();
     this.showToolWindows.setToolTipText( "Whether or not the tool windows are shown by default. Will be applied after a restart." );
     
@@ -279,6 +283,7 @@ public class PreferencesDialog extends JDialog implements StatusAwareCloseableDi
     this.showAnalogScope.setSelected( getBoolean( properties.get( ANALOG_SCOPE_VISIBLE_DEFAULT ) ) );
     this.showChannelIndexes.setSelected( getBoolean( properties.get( CHANNELLABELS_SHOW_CHANNEL_INDEX ) ) );
     this.retainAnnotations.setSelected( getBoolean( properties.get( RETAIN_ANNOTATIONS_WITH_RECAPTURE ) ) );
+    this.captureHistoryBudget.setValue( Integer.valueOf( getInteger( properties.get( CAPTURE_HISTORY_BUDGET ) ) ) );
     this.showToolWindows.setSelected( getBoolean( properties.get( SHOW_TOOL_WINDOWS_DEFAULT ) ) );
     this.autoCenterCapture.setSelected( getBoolean( properties.get( AUTO_CENTER_TO_TRIGGER_AFTER_CAPTURE ) ) );
 
@@ -341,6 +346,7 @@ public class PreferencesDialog extends JDialog implements StatusAwareCloseableDi
     properties.put( SHOW_TOOL_WINDOWS_DEFAULT, Boolean.toString( this.showToolWindows.isSelected() ) );
     properties.put( CHANNELLABELS_SHOW_CHANNEL_INDEX, Boolean.toString( this.showChannelIndexes.isSelected() ) );
     properties.put( RETAIN_ANNOTATIONS_WITH_RECAPTURE, Boolean.toString( this.retainAnnotations.isSelected() ) );
+    properties.put( CAPTURE_HISTORY_BUDGET, String.valueOf( this.captureHistoryBudget.getValue() ) );
     properties.put( AUTO_CENTER_TO_TRIGGER_AFTER_CAPTURE, Boolean.toString( this.autoCenterCapture.isSelected() ) );
 
     properties.put( SIGNALVIEW_SIGNAL_ALIGNMENT, String.valueOf( this.signalAlignment.getSelectedItem() ) );
@@ -408,6 +414,9 @@ public class PreferencesDialog extends JDialog implements StatusAwareCloseableDi
     pane.add( createRightAlignedLabel( "Retain annotations?" ) );
     pane.add( this.retainAnnotations );
 
+    pane.add( createRightAlignedLabel( "Capture history (MB)" ) );
+    pane.add( this.captureHistoryBudget );
+
     pane.add( createRightAlignedLabel( "Show tool windows?" ) );
     pane.add( this.showToolWindows );
 
@@ -446,6 +455,29 @@ public class PreferencesDialog extends JDialog implements StatusAwareCloseableDi
     return Boolean.parseBoolean( String.valueOf( aValue ) );
   }
 
+  /**
+   * Returns the integer value for the given value representation.
+   *
+   * @param aValue
+   *          the value to parse as integer, can be <code>null</code>.
+   * @return an integer representation for the given value, defaults to 0.
+   */
+  private int getInteger( final Object aValue )
+  {
+    if ( aValue instanceof Number )
+    {
+      return ( ( Number )aValue ).intValue();
+    }
+    try
+    {
+      return Integer.parseInt( String.valueOf( aValue ).trim() );
+    }
+    catch ( NumberFormatException exception )
+    {
+      return 0;
+    }
+  }
+
   /**
    * Returns the {@link SignalAlignment} for the given value representation.
    *
@@ -0,0 +1,171 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.action;
+
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.concurrent.*;
+import java.util.logging.*;
+
+import javax.swing.*;
+
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.client.*;
+import nl.lxtreme.ols.client.signaldisplay.*;
+import nl.lxtreme.ols.client.signaldisplay.model.*;
+import nl.lxtreme.ols.client.signaldisplay.model.SignalDiagramModel.PatternSearchWorker;
+import nl.lxtreme.ols.util.swing.*;
+
+
+/**
+ * Provides an action to search the captured data for a pattern of channel
+ * levels and edges, and to jump to its first match. Subsequent matches can be
+ * navigated by means of the smart jump actions.
+ */
+public class FindPatternAction extends BaseAction
+{
+  // INNER TYPES
+
+  /**
+   * Searches the captured data for the search pattern asynchronously from the
+   * UI, and jumps to its first match.
+   */
+  final class FindPatternWorker extends PatternSearchWorker
+  {
+    // VARIABLES
+
+    private final Window owner;
+    private final SignalDiagramController controller;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link FindPatternWorker} instance.
+     *
+     * @param aOwner
+     *          the owning window of the dialogs to show;
+     * @param aController
+     *          the signal diagram controller to use.
+     */
+    public FindPatternWorker( final Window aOwner, final SignalDiagramController aController )
+    {
+      super( aController.getViewModel() );
+
+      this.owner = aOwner;
+      this.controller = aController;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void done()
+    {
+      try
+      {
+        final PatternSearch search = get();
+        if ( ( search == null ) || ( search.getMatchCount() == 0 ) )
+        {
+          JOptionPane.showMessageDialog( this.owner, "Pattern not found!", "Find pattern",
+              JOptionPane.INFORMATION_MESSAGE );
+          return;
+        }
+
+        this.controller.scrollToTimestamp( search.findMatchAfter( Long.MIN_VALUE ) );
+      }
+      catch ( InterruptedException exception )
+      {
+        Thread.currentThread().interrupt();
+      }
+      catch ( ExecutionException exception )
+      {
+        LOG.log( Level.WARNING, "Pattern search failed!", exception.getCause() );
+      }
+    }
+  }
+
+  // CONSTANTS
+
+  private static final long serialVersionUID = 1L;
+
+  private static final Logger LOG = Logger.getLogger( FindPatternAction.class.getName() );
+
+  public static final String ID = "FindPattern";
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new FindPatternAction instance.
+   * 
+   * @param aController
+   *          the controller to use.
+   */
+  public FindPatternAction( final ClientController aController )
+  {
+    super( ID, aController, "Find pattern...",
+        "Searches the captured data for a pattern of channel levels and edges." );
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void actionPerformed( final ActionEvent aEvent )
+  {
+    final Window owner = SwingComponentUtils.getOwningWindow( aEvent );
+
+    final SignalDiagramController controller = getController().getSignalDiagramController();
+    final SignalDiagramModel model = controller.getViewModel();
+
+    final SamplePattern current = model.getSearchPattern();
+    final Object input = JOptionPane.showInputDialog( owner, "<html>Enter the pattern to search for, one character "
+        + "per channel, most significant channel first.<br/>Use 0 (low), 1 (high), X (don't care), R (rising edge) "
+        + "or F (falling edge).<br/>Use META+left/right to jump to the previous/next match.</html>", "Find pattern",
+        JOptionPane.QUESTION_MESSAGE, null /* icon */, null /* selectionValues */,
+        ( current == null ) ? "" : current.toString() );
+    if ( input == null )
+    {
+      // Cancelled...
+      return;
+    }
+
+    final SamplePattern pattern;
+    try
+    {
+      pattern = SamplePattern.parse( String.valueOf( input ) );
+    }
+    catch ( IllegalArgumentException exception )
+    {
+      JOptionPane.showMessageDialog( owner, exception.getMessage(), "Invalid pattern", JOptionPane.ERROR_MESSAGE );
+      return;
+    }
+
+    model.setSearchPattern( pattern );
+
+    // Searching large captures can take a while, so do not block the UI...
+    new FindPatternWorker( owner, controller ).execute();
+  }
+}
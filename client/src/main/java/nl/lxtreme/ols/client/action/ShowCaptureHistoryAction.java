@@ -0,0 +1,105 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.action;
+
+
+import java.awt.event.*;
+
+import nl.lxtreme.ols.client.*;
+
+
+/**
+ * Provides an action to show the previous or next capture of the capture
+ * history.
+ */
+public class ShowCaptureHistoryAction extends BaseAction
+{
+  // CONSTANTS
+
+  private static final long serialVersionUID = 1L;
+
+  // VARIABLES
+
+  private final boolean previous;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new ShowCaptureHistoryAction instance.
+   * 
+   * @param aPrevious
+   *          <code>true</code> to show the previous capture,
+   *          <code>false</code> to show the next capture;
+   * @param aController
+   *          the controller to use.
+   */
+  public ShowCaptureHistoryAction( final boolean aPrevious, final ClientController aController )
+  {
+    super( getID( aPrevious ), aController, aPrevious ? "Show previous capture" : "Show next capture",
+        aPrevious ? "Shows the previous capture of the capture history."
+            : "Shows the next capture of the capture history." );
+
+    this.previous = aPrevious;
+  }
+
+  // METHODS
+
+  /**
+   * @return the ID of the action showing the next capture.
+   */
+  public static String getNextID()
+  {
+    return getID( false );
+  }
+
+  /**
+   * @return the ID of the action showing the previous capture.
+   */
+  public static String getPreviousID()
+  {
+    return getID( true );
+  }
+
+  /**
+   * @param aPrevious
+   * @return
+   */
+  private static String getID( final boolean aPrevious )
+  {
+    return aPrevious ? "ShowPreviousCapture" : "ShowNextCapture";
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void actionPerformed( final ActionEvent aEvent )
+  {
+    if ( this.previous )
+    {
+      getController().showPreviousCapture();
+    }
+    else
+    {
+      getController().showNextCapture();
+    }
+  }
+}
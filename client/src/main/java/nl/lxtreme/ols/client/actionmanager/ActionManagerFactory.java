@@ -69,6 +69,9 @@ public final class ActionManagerFactory
     aActionManager.add( new CaptureAction( aController ) ).setEnabled( false );
     aActionManager.add( new CancelCaptureAction( aController ) ).setEnabled( false );
     aActionManager.add( new RepeatCaptureAction( aController ) ).setEnabled( false );
+    aActionManager.add( new ContinuousCaptureAction( aController ) ).setEnabled( false );
+    aActionManager.add( new ShowCaptureHistoryAction( true /* aPrevious */, aController ) ).setEnabled( false );
+    aActionManager.add( new ShowCaptureHistoryAction( false /* aPrevious */, aController ) ).setEnabled( false );
 
     aActionManager.add( new ZoomInAction( signalDiagramController ) ).setEnabled( false );
     aActionManager.add( new ZoomOutAction( signalDiagramController ) ).setEnabled( false );
@@ -77,6 +80,7 @@ public final class ActionManagerFactory
 
     aActionManager.add( new SmartJumpAction( JumpDirection.LEFT, aController ) ).setEnabled( false );
     aActionManager.add( new SmartJumpAction( JumpDirection.RIGHT, aController ) ).setEnabled( false );
+    aActionManager.add( new FindPatternAction( aController ) ).setEnabled( false );
 
     aActionManager.add( new GotoTriggerAction( aController ) ).setEnabled( false );
     for ( int c = 0; c < Ols.MAX_CURSORS; c++ )
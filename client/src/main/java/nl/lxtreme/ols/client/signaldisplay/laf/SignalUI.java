@@ -26,6 +26,7 @@ import javax.swing.*;
 import javax.swing.plaf.*;
 
 import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.api.data.annotation.*;
 import nl.lxtreme.ols.client.signaldisplay.*;
 import nl.lxtreme.ols.client.signaldisplay.model.*;
@@ -234,8 +235,8 @@ public class SignalUI extends ComponentUI
   private void paintAnnotations( final Graphics2D aCanvas, final SignalViewModel aModel,
       final IUIElement[] aSignalElements )
   {
-    final long[] timestamps = aModel.getTimestamps();
-    if ( ( timestamps == null ) || ( timestamps.length == 0 ) || ( aSignalElements.length == 0 ) )
+    final IndexedAcquisitionResult data = aModel.getCapturedData();
+    if ( ( data == null ) || ( data.getSampleCount() == 0 ) || ( aSignalElements.length == 0 ) )
     {
       // Nothing to do...
       return;
@@ -243,10 +244,10 @@ public class SignalUI extends ComponentUI
 
     final Rectangle clip = aCanvas.getClipBounds();
     final int startIdx = aModel.getStartIndex( clip );
-    final int endIdx = aModel.getEndIndex( clip, timestamps.length );
+    final int endIdx = aModel.getEndIndex( clip, data.getSampleCount() );
 
-    final long startTimestamp = timestamps[startIdx];
-    final long endTimestamp = timestamps[endIdx];
+    final long startTimestamp = data.getTimestamp( startIdx );
+    final long endTimestamp = data.getTimestamp( endIdx );
 
     final double zoomFactor = aModel.getZoomFactor();
 
@@ -425,23 +426,28 @@ public class SignalUI extends ComponentUI
    */
   private void paintSignals( final Graphics2D aCanvas, final SignalViewModel aModel, final IUIElement[] aElements )
   {
-    final int[] values = aModel.getDataValues();
-    final long[] timestamps = aModel.getTimestamps();
+    final IndexedAcquisitionResult data = aModel.getCapturedData();
 
     final Rectangle clip = aCanvas.getClipBounds();
 
     aCanvas.setBackground( aModel.getBackgroundColor() );
     aCanvas.clearRect( clip.x, clip.y, clip.width, clip.height );
 
+    if ( data == null )
+    {
+      // Nothing to do...
+      return;
+    }
+
     final int startIdx = aModel.getStartIndex( clip );
-    final int endIdx = aModel.getEndIndex( clip, values.length );
+    final int endIdx = aModel.getEndIndex( clip, data.getSampleCount() );
 
     final double zoomFactor = aModel.getZoomFactor();
 
     if ( aModel.hasTriggerData() )
     {
       final long triggerOffset = aModel.getTriggerOffset();
-      if ( ( timestamps[startIdx] <= triggerOffset ) && ( timestamps[endIdx] >= triggerOffset ) )
+      if ( ( data.getTimestamp( startIdx ) <= triggerOffset ) && ( data.getTimestamp( endIdx ) >= triggerOffset ) )
       {
         // Draw a line denoting the trigger position...
         final int x = ( int )Math.round( triggerOffset * zoomFactor ) - 1;
@@ -457,6 +463,14 @@ public class SignalUI extends ComponentUI
     final boolean enableSloppyScopePainting = aModel.isSloppyScopeRenderingAllowed();
     int lastP = 0;
 
+    // When zoomed out and more samples are visible than there are pixels, use
+    // the signal overview to paint each pixel column in constant time...
+    final SignalOverview overview = aModel.getSignalOverview();
+    final double timePerPixel = 1.0 / zoomFactor;
+    final boolean useOverview = ( overview != null ) && ( ( endIdx - startIdx ) > clip.width )
+        && ( timePerPixel >= overview.getBucketWidth() );
+    final int[] summary = new int[2];
+
     for ( IUIElement element : aElements )
     {
       if ( element instanceof ElementGroup )
@@ -488,14 +502,63 @@ public class SignalUI extends ComponentUI
           // Forced zero'd channel is *very* easy to draw...
           aCanvas.drawLine( clip.x, signalHeight, clip.x + clip.width, signalHeight );
         }
+        else if ( useOverview )
+        {
+          // Huge data set; draw a summary for each pixel column...
+          final int mask = signalElement.getMask();
+
+          int p = 0;
+          for ( int xPos = clip.x; ( xPos < ( clip.x + clip.width ) ) && ( p < ( POINT_COUNT - 2 ) ); xPos++ )
+          {
+            final long startTime = ( long )Math.ceil( xPos * timePerPixel );
+            final long endTime = ( long )Math.ceil( ( xPos + 1 ) * timePerPixel );
+            if ( !overview.summarize( startTime, endTime, summary ) )
+            {
+              continue;
+            }
+
+            final boolean high = ( summary[0] & mask ) != 0;
+            final boolean low = ( summary[1] & mask ) != 0;
+
+            if ( high && low )
+            {
+              // Signal toggles in this column; draw a vertical line...
+              final int yValue = ( p > 0 ) ? y[p - 1] : signalHeight;
+
+              x[p] = xPos;
+              y[p] = yValue;
+              p++;
+
+              x[p] = xPos;
+              y[p] = ( yValue == 0 ) ? signalHeight : 0;
+              p++;
+            }
+            else
+            {
+              final int yValue = high ? 0 : signalHeight;
+              if ( ( p > 0 ) && ( y[p - 1] != yValue ) )
+              {
+                x[p] = xPos;
+                y[p] = y[p - 1];
+                p++;
+              }
+
+              x[p] = xPos;
+              y[p] = yValue;
+              p++;
+            }
+          }
+
+          aCanvas.drawPolyline( x, y, p );
+        }
         else
         {
           // "Normal" data set; draw as accurate as possible...
           final int mask = signalElement.getMask();
 
           // Make sure we always start with time 0...
-          long timestamp = timestamps[startIdx];
-          int prevSampleValue = ( values[startIdx] & mask );
+          long timestamp = data.getTimestamp( startIdx );
+          int prevSampleValue = ( data.getValue( startIdx ) & mask );
 
           int xValue = ( int )( zoomFactor * timestamp );
           int yValue = ( prevSampleValue == 0 ? signalHeight : 0 );
@@ -506,8 +569,8 @@ public class SignalUI extends ComponentUI
 
           for ( int sampleIdx = startIdx + 1; ( p < POINT_COUNT ) && ( sampleIdx <= endIdx ); sampleIdx++ )
           {
-            timestamp = timestamps[sampleIdx];
-            int sampleValue = ( values[sampleIdx] & mask );
+            timestamp = data.getTimestamp( sampleIdx );
+            int sampleValue = ( data.getValue( sampleIdx ) & mask );
 
             xValue = ( int )( zoomFactor * timestamp );
 
@@ -535,7 +598,9 @@ public class SignalUI extends ComponentUI
       }
 
       int sampleIncr = 1;
-      if ( enableSloppyScopePainting && ( lastP > SLOPPY_DRAW_THRESHOLD ) )
+      // When the overview is used, there are more samples than pixels, so the
+      // group summary and scope are always drawn sloppy (if allowed)...
+      if ( enableSloppyScopePainting && ( useOverview || ( lastP > SLOPPY_DRAW_THRESHOLD ) ) )
       {
         sampleIncr = ( int )Math.max( 1.0, ( 1.0 / zoomFactor ) );
       }
@@ -549,8 +614,8 @@ public class SignalUI extends ComponentUI
 
         int padding = aModel.getGroupSummaryPadding();
 
-        int prevSampleValue = values[startIdx] & mask;
-        int prevX = ( int )( zoomFactor * timestamps[startIdx] );
+        int prevSampleValue = data.getValue( startIdx ) & mask;
+        int prevX = ( int )( zoomFactor * data.getTimestamp( startIdx ) );
 
         aCanvas.setFont( aModel.getGroupSummaryTextFont() );
 
@@ -559,11 +624,11 @@ public class SignalUI extends ComponentUI
 
         for ( int sampleIdx = startIdx + 1; sampleIdx < endIdx; sampleIdx += sampleIncr )
         {
-          int sampleValue = ( values[sampleIdx] & mask );
+          int sampleValue = ( data.getValue( sampleIdx ) & mask );
 
           if ( sampleValue != prevSampleValue )
           {
-            int x = ( int )( zoomFactor * timestamps[sampleIdx] );
+            int x = ( int )( zoomFactor * data.getTimestamp( sampleIdx ) );
 
             String text = String.format( "%02X", Integer.valueOf( signalElement.getValue( prevSampleValue ) ) );
 
@@ -615,13 +680,13 @@ public class SignalUI extends ComponentUI
         {
           for ( int sampleIdx = startIdx; ( p < POINT_COUNT ) && ( sampleIdx < endIdx ); sampleIdx += sampleIncr )
           {
-            long timestamp = timestamps[sampleIdx];
+            long timestamp = data.getTimestamp( sampleIdx );
 
-            int sampleValue = ( int )( ( values[sampleIdx] & mask ) >> trailingZeros );
+            int sampleValue = ( int )( ( data.getValue( sampleIdx ) & mask ) >> trailingZeros );
             final int i_max = Math.min( endIdx, ( sampleIdx + sampleIncr ) - 1 );
             for ( int i = sampleIdx + 1; i < i_max; i++ )
             {
-              sampleValue += ( ( values[i] & mask ) >> trailingZeros );
+              sampleValue += ( ( data.getValue( i ) & mask ) >> trailingZeros );
             }
             sampleValue = ( int )( maxValue - ( sampleValue / ( double )sampleIncr ) );
 
@@ -48,6 +48,11 @@ public interface UIManagerKeys
    * recapture.
    */
   String RETAIN_ANNOTATIONS_WITH_RECAPTURE = "ols.retain.annotations.boolean";
+  /**
+   * The amount of memory, in MB, used to keep previous captures; 0 to keep
+   * only the last capture.
+   */
+  String CAPTURE_HISTORY_BUDGET = "ols.capture.history.budget";
   /**
    * Disables the sloppy drawing of scopes (and group summary) when too many
    * transitions are shown.
@@ -54,6 +54,43 @@ public class SignalDiagramModel
     TOP, CENTER, BOTTOM;
   }
 
+  /**
+   * Provides a {@link SwingWorker} that (re)builds the search for the current
+   * search pattern in the background, as this can take a while for large
+   * captures.
+   */
+  public static class PatternSearchWorker extends SwingWorker<PatternSearch, Void>
+  {
+    // VARIABLES
+
+    private final SignalDiagramModel model;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link PatternSearchWorker} instance.
+     *
+     * @param aModel
+     *          the model to build the pattern search for, cannot be
+     *          <code>null</code>.
+     */
+    public PatternSearchWorker( final SignalDiagramModel aModel )
+    {
+      this.model = aModel;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected PatternSearch doInBackground() throws Exception
+    {
+      return this.model.getPatternSearch();
+    }
+  }
+
   // CONSTANTS
 
   private static final int SNAP_CURSOR_MODE = ( 1 << 0 );
@@ -66,7 +103,12 @@ public class SignalDiagramModel
   private volatile int mode;
   private volatile int selectedChannelIndex;
   private volatile DataSet dataSet;
+  private volatile SignalOverview signalOverview;
+  private volatile SamplePattern searchPattern;
+  private volatile PatternSearch patternSearch;
+  private volatile PatternSearchWorker patternSearchWorker;
 
+  private final Object patternSearchLock = new Object();
   private final ZoomController zoomController;
   private final SignalElementManager channelGroupManager;
   private final SignalDiagramController controller;
@@ -237,73 +279,95 @@ public class SignalDiagramModel
   }
 
   /**
+   * Finds the first edge of the channel with the given index that occurs
+   * after the given timestamp.
+   *
    * @param aChannelIdx
+   *          the index of the channel to find the edge for;
    * @param aTimestamp
-   * @return
+   *          the timestamp to start searching from.
+   * @return the timestamp of the found edge, or the last timestamp in case no
+   *         such edge was found.
    */
   public final long findEdgeAfter( final int aChannelIdx, final long aTimestamp )
   {
-    final long[] timestamps = getTimestamps();
-    final int[] values = getValues();
-
-    int refIdx = Arrays.binarySearch( timestamps, aTimestamp );
-    if ( refIdx < 0 )
-    {
-      refIdx = -( refIdx + 1 ) - 1;
-    }
-
-    if ( ( refIdx < 0 ) || ( refIdx >= values.length ) )
+    final IndexedAcquisitionResult capturedData = getCapturedData();
+    if ( capturedData == null )
     {
-      return timestamps[0];
+      return aTimestamp;
     }
 
-    // find the reference time value; which is the "timestamp" under the
-    // cursor...
-    final int mask = ( 1 << aChannelIdx );
-    final int refValue = ( values[refIdx] & mask );
-
-    do
+    final long result = capturedData.getEdgeIndex( aChannelIdx ).findEdgeAfter( aTimestamp, Edge.NONE );
+    if ( result < 0L )
     {
-      refIdx++;
+      return capturedData.getTimestamp( capturedData.getSampleCount() - 1 );
     }
-    while ( ( refIdx < ( values.length - 1 ) ) && ( ( values[refIdx] & mask ) == refValue ) );
-
-    return timestamps[refIdx];
+    return result;
   }
 
   /**
+   * Finds the last edge of the channel with the given index that occurs before
+   * the given timestamp.
+   *
    * @param aChannelIdx
+   *          the index of the channel to find the edge for;
    * @param aTimestamp
-   * @return
+   *          the timestamp to start searching from.
+   * @return the timestamp of the found edge, or the first timestamp in case no
+   *         such edge was found.
    */
   public final long findEdgeBefore( final int aChannelIdx, final long aTimestamp )
   {
-    final long[] timestamps = getTimestamps();
-    final int[] values = getValues();
-
-    int refIdx = Arrays.binarySearch( timestamps, aTimestamp );
-    if ( refIdx < 0 )
+    final IndexedAcquisitionResult capturedData = getCapturedData();
+    if ( capturedData == null )
     {
-      refIdx = -( refIdx + 1 ) - 1;
+      return aTimestamp;
     }
 
-    if ( ( refIdx < 0 ) || ( refIdx >= values.length ) )
+    final long result = capturedData.getEdgeIndex( aChannelIdx ).findEdgeBefore( aTimestamp, Edge.NONE );
+    if ( result < 0L )
     {
-      return timestamps[0];
+      return capturedData.getTimestamp( 0 );
     }
+    return result;
+  }
 
-    // find the reference time value; which is the "timestamp" under the
-    // cursor...
-    final int mask = ( 1 << aChannelIdx );
-    final int refValue = ( values[refIdx] & mask );
-
-    do
+  /**
+   * Finds the first match of the current search pattern that occurs after the
+   * given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to start searching from.
+   * @return the timestamp of the found match, or -1L in case no such match
+   *         was found, or the search is not (yet) available.
+   */
+  public final long findPatternMatchAfter( final long aTimestamp )
+  {
+    final PatternSearch search = getAvailablePatternSearch();
+    if ( search == null )
     {
-      refIdx--;
+      return -1L;
     }
-    while ( ( refIdx > 0 ) && ( ( values[refIdx] & mask ) == refValue ) );
+    return search.findMatchAfter( aTimestamp );
+  }
 
-    return timestamps[Math.max( 0, refIdx )];
+  /**
+   * Finds the last match of the current search pattern that occurs before the
+   * given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to start searching from.
+   * @return the timestamp of the found match, or -1L in case no such match
+   *         was found, or the search is not (yet) available.
+   */
+  public final long findPatternMatchBefore( final long aTimestamp )
+  {
+    final PatternSearch search = getAvailablePatternSearch();
+    if ( search == null )
+    {
+      return -1L;
+    }
+    return search.findMatchBefore( aTimestamp );
   }
 
   /**
@@ -355,15 +419,13 @@ public class SignalDiagramModel
   }
 
   /**
-   * @return
+   * Returns the current captured data.
+   *
+   * @return the captured data, or <code>null</code> if no data is available.
    */
-  public AcquisitionResult getCapturedData()
+  public IndexedAcquisitionResult getCapturedData()
   {
-    if ( this.dataSet == null )
-    {
-      return null;
-    }
-    return this.dataSet.getCapturedData();
+    return AcquisitionResultAdapter.adapt( getRawCapturedData() );
   }
 
   /**
@@ -482,6 +544,21 @@ public class SignalDiagramModel
     return getSignalElementManager().calculateScreenHeight();
   }
 
+  /**
+   * Returns the number of samples of the current captured data.
+   *
+   * @return a sample count, >= 0.
+   */
+  public int getSampleCount()
+  {
+    final IndexedAcquisitionResult capturedData = getCapturedData();
+    if ( capturedData == null )
+    {
+      return 0;
+    }
+    return capturedData.getSampleCount();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -583,7 +660,8 @@ public class SignalDiagramModel
       return new MeasurementInfo( aSignalElement, refTime );
     }
 
-    final long[] timestamps = getTimestamps();
+    final IndexedAcquisitionResult data = getCapturedData();
+    final int sampleCount = getSampleCount();
 
     long ts = -1L;
     long tm = -1L;
@@ -592,47 +670,46 @@ public class SignalDiagramModel
 
     // find the reference time value; which is the "timestamp" under the
     // cursor...
-    final int[] values = getValues();
-    if ( ( refIdx >= 0 ) && ( refIdx < values.length ) )
+    if ( ( refIdx >= 0 ) && ( refIdx < sampleCount ) )
     {
       final int mask = channel.getMask();
-      final int refValue = ( values[refIdx] & mask );
+      final int refValue = ( data.getValue( refIdx ) & mask );
 
       int idx = refIdx;
       do
       {
         idx--;
       }
-      while ( ( idx >= 0 ) && ( ( values[idx] & mask ) == refValue ) );
+      while ( ( idx >= 0 ) && ( ( data.getValue( idx ) & mask ) == refValue ) );
 
       // convert the found index back to "screen" values...
       final int tm_idx = Math.max( 0, idx + 1 );
-      tm = ( tm_idx == 0 ) ? 0 : timestamps[tm_idx];
+      tm = ( tm_idx == 0 ) ? 0 : data.getTimestamp( tm_idx );
 
       // Search for the original value again, to complete the pulse...
       do
       {
         idx--;
       }
-      while ( ( idx >= 0 ) && ( ( values[idx] & mask ) != refValue ) );
+      while ( ( idx >= 0 ) && ( ( data.getValue( idx ) & mask ) != refValue ) );
 
       // convert the found index back to "screen" values...
       final int ts_idx = Math.max( 0, idx + 1 );
-      ts = ( ts_idx == 0 ) ? 0 : timestamps[ts_idx];
+      ts = ( ts_idx == 0 ) ? 0 : data.getTimestamp( ts_idx );
 
       idx = refIdx;
       do
       {
         idx++;
       }
-      while ( ( idx < values.length ) && ( ( values[idx] & mask ) == refValue ) );
+      while ( ( idx < sampleCount ) && ( ( data.getValue( idx ) & mask ) == refValue ) );
 
       // convert the found index back to "screen" values...
-      final int te_idx = Math.min( idx, timestamps.length - 1 );
-      te = ( te_idx == 0 ) ? 0 : timestamps[te_idx];
+      final int te_idx = Math.min( idx, sampleCount - 1 );
+      te = ( te_idx == 0 ) ? 0 : data.getTimestamp( te_idx );
 
       // Determine the width of the "high" part...
-      if ( ( values[ts_idx] & mask ) != 0 )
+      if ( ( data.getValue( ts_idx ) & mask ) != 0 )
       {
         th = Math.abs( tm - ts );
       }
@@ -782,45 +859,89 @@ public class SignalDiagramModel
   }
 
   /**
-   * {@inheritDoc}
+   * Returns the overview of the current captured data, used for painting the
+   * signals when zoomed out.
+   *
+   * @return the signal overview, or <code>null</code> if no captured data is
+   *         available.
    */
-  public long[] getTimestamps()
+  public SignalOverview getSignalOverview()
   {
-    final AcquisitionResult capturedData = getCapturedData();
+    final AcquisitionResult capturedData = getRawCapturedData();
     if ( capturedData == null )
     {
-      return new long[0];
+      return null;
+    }
+
+    SignalOverview result = this.signalOverview;
+    if ( ( result == null ) || ( result.getData() != capturedData ) )
+    {
+      // Created once for each new captured data...
+      result = new SignalOverview( capturedData );
+      this.signalOverview = result;
     }
-    return capturedData.getTimestamps();
+    return result;
   }
 
   /**
-   * Returns the trigger position, if available.
+   * Returns the search for the current search pattern in the current captured
+   * data, building it if necessary.
+   * <p>
+   * Building the search can take a while for large captures, so this method
+   * should not be called on the EDT; use a {@link PatternSearchWorker} instead.
+   * </p>
    *
-   * @return a trigger position, as timestamp, or <code>null</code> if no
-   *         trigger is used/present.
+   * @return the pattern search, or <code>null</code> if no search pattern is
+   *         set or no captured data is available.
    */
-  public Long getTriggerPosition()
+  public PatternSearch getPatternSearch()
   {
-    AcquisitionResult capturedData = getCapturedData();
-    if ( ( capturedData == null ) || !capturedData.hasTriggerData() )
+    final AcquisitionResult capturedData = getRawCapturedData();
+    final SamplePattern pattern = this.searchPattern;
+    if ( ( capturedData == null ) || ( pattern == null ) )
     {
       return null;
     }
-    return Long.valueOf( capturedData.getTriggerPosition() );
+
+    // Do not build the same search concurrently...
+    synchronized ( this.patternSearchLock )
+    {
+      PatternSearch result = this.patternSearch;
+      if ( ( result == null ) || ( result.getData() != capturedData ) || ( result.getPattern() != pattern ) )
+      {
+        // Created once for each new captured data or pattern...
+        result = new PatternSearch( capturedData, pattern );
+        this.patternSearch = result;
+      }
+      return result;
+    }
   }
 
   /**
-   * {@inheritDoc}
+   * Returns the current search pattern.
+   *
+   * @return the search pattern, or <code>null</code> if no search pattern is
+   *         set.
    */
-  public int[] getValues()
+  public SamplePattern getSearchPattern()
   {
-    final AcquisitionResult capturedData = getCapturedData();
-    if ( capturedData == null )
+    return this.searchPattern;
+  }
+
+  /**
+   * Returns the trigger position, if available.
+   *
+   * @return a trigger position, as timestamp, or <code>null</code> if no
+   *         trigger is used/present.
+   */
+  public Long getTriggerPosition()
+  {
+    AcquisitionResult capturedData = getCapturedData();
+    if ( ( capturedData == null ) || !capturedData.hasTriggerData() )
     {
-      return new int[0];
+      return null;
     }
-    return capturedData.getValues();
+    return Long.valueOf( capturedData.getTriggerPosition() );
   }
 
   /**
@@ -1222,6 +1343,13 @@ public class SignalDiagramModel
 
     this.dataSet = aDataSet;
 
+    // Rebuild the search for the new data in the background...
+    this.patternSearch = null;
+    if ( this.searchPattern != null )
+    {
+      startPatternSearch();
+    }
+
     final IDataModelChangeListener[] listeners = this.eventListeners.getListeners( IDataModelChangeListener.class );
     for ( IDataModelChangeListener listener : listeners )
     {
@@ -1257,6 +1385,18 @@ public class SignalDiagramModel
     }
   }
 
+  /**
+   * Sets the pattern to search for in the captured data.
+   *
+   * @param aPattern
+   *          the pattern to search for, can be <code>null</code> to clear the
+   *          current search pattern.
+   */
+  public void setSearchPattern( final SamplePattern aPattern )
+  {
+    this.searchPattern = aPattern;
+  }
+
   /**
    * Sets the selected channel index to the given value.
    *
@@ -1305,10 +1445,59 @@ public class SignalDiagramModel
   }
 
   /**
-   * {@inheritDoc}
+   * Returns the search for the current search pattern in the current captured
+   * data, without building it.
+   * <p>
+   * In case the search is not yet built, or is outdated, it is (re)built in
+   * the background.
+   * </p>
+   *
+   * @return the pattern search, or <code>null</code> if no search pattern is
+   *         set, no captured data is available, or the search is still being
+   *         built.
    */
-  private int getSampleCount()
+  private PatternSearch getAvailablePatternSearch()
   {
-    return getValues().length;
+    final AcquisitionResult capturedData = getRawCapturedData();
+    final SamplePattern pattern = this.searchPattern;
+    if ( ( capturedData == null ) || ( pattern == null ) )
+    {
+      return null;
+    }
+
+    final PatternSearch result = this.patternSearch;
+    if ( ( result == null ) || ( result.getData() != capturedData ) || ( result.getPattern() != pattern ) )
+    {
+      startPatternSearch();
+      return null;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the current captured data as provided by the data set, used to
+   * determine whether cached information is still valid.
+   */
+  private AcquisitionResult getRawCapturedData()
+  {
+    if ( this.dataSet == null )
+    {
+      return null;
+    }
+    return this.dataSet.getCapturedData();
+  }
+
+  /**
+   * Starts (re)building the pattern search in the background, unless this is
+   * already in progress.
+   */
+  private synchronized void startPatternSearch()
+  {
+    final PatternSearchWorker worker = this.patternSearchWorker;
+    if ( ( worker == null ) || worker.isDone() )
+    {
+      this.patternSearchWorker = new PatternSearchWorker( this );
+      this.patternSearchWorker.execute();
+    }
   }
 }
@@ -0,0 +1,221 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010-2012 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.model;
+
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides a multi-resolution overview of all channels of an acquisition
+ * result, used to paint signals when zoomed out.
+ * <p>
+ * The time line is divided into buckets of equal width. For each bucket, the
+ * overview keeps two bit masks: one with all channels that were high somewhere
+ * in that bucket, and one with all channels that were low somewhere in that
+ * bucket. A channel that is present in both masks toggled in that bucket. Each
+ * next level of the overview has buckets that are twice as wide as the
+ * previous level, allowing any time range to be summarized by looking at only
+ * a few buckets.
+ * </p>
+ */
+public final class SignalOverview
+{
+  // CONSTANTS
+
+  /** The maximum number of buckets on the first level. */
+  private static final int MAX_BUCKETS = 1 << 20;
+
+  // VARIABLES
+
+  private final AcquisitionResult data;
+  private final int bucketShift;
+  private final long absoluteLength;
+  private final int[][] highMasks;
+  private final int[][] lowMasks;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SignalOverview instance.
+   *
+   * @param aData
+   *          the acquisition result to create the overview for, cannot be
+   *          <code>null</code>.
+   */
+  public SignalOverview( final AcquisitionResult aData )
+  {
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( aData );
+    final int sampleCount = data.getSampleCount();
+
+    this.data = aData;
+    long absLength = Math.max( 0L, aData.getAbsoluteLength() );
+    if ( sampleCount > 0 )
+    {
+      absLength = Math.max( absLength, data.getTimestamp( sampleCount - 1 ) );
+    }
+    this.absoluteLength = absLength;
+
+    int shift = 0;
+    while ( ( ( this.absoluteLength + 1L ) >> shift ) > MAX_BUCKETS )
+    {
+      shift++;
+    }
+    this.bucketShift = shift;
+
+    int levels = 1;
+    long count = ( this.absoluteLength >> shift ) + 1L;
+    while ( count > 1L )
+    {
+      count = ( count + 1L ) >> 1;
+      levels++;
+    }
+
+    this.highMasks = new int[levels][];
+    this.lowMasks = new int[levels][];
+
+    // Level 0: fill each bucket with all values that are present in it...
+    final int bucketCount = ( int )( ( this.absoluteLength >> shift ) + 1L );
+    final int[] highs = new int[bucketCount];
+    final int[] lows = new int[bucketCount];
+
+    long next = ( sampleCount > 0 ) ? data.getTimestamp( 0 ) : 0L;
+    for ( int i = 0; i < sampleCount; i++ )
+    {
+      final long timestamp = next;
+      next = ( i < ( sampleCount - 1 ) ) ? data.getTimestamp( i + 1 ) : 0L;
+
+      final long start = Math.max( 0L, timestamp );
+      final long end = ( i < ( sampleCount - 1 ) ) ? next - 1L : this.absoluteLength;
+      if ( end < 0L )
+      {
+        continue;
+      }
+
+      final int value = data.getValue( i );
+      final int firstBucket = ( int )( start >> shift );
+      final int lastBucket = ( int )( Math.max( start, end ) >> shift );
+      for ( int b = firstBucket; b <= lastBucket; b++ )
+      {
+        highs[b] |= value;
+        lows[b] |= ~value;
+      }
+    }
+
+    this.highMasks[0] = highs;
+    this.lowMasks[0] = lows;
+
+    // Level n: combine two adjacent buckets of level n - 1...
+    for ( int level = 1; level < levels; level++ )
+    {
+      final int[] prevHighs = this.highMasks[level - 1];
+      final int[] prevLows = this.lowMasks[level - 1];
+
+      final int size = ( prevHighs.length + 1 ) >> 1;
+      final int[] newHighs = new int[size];
+      final int[] newLows = new int[size];
+
+      for ( int b = 0; b < prevHighs.length; b++ )
+      {
+        newHighs[b >> 1] |= prevHighs[b];
+        newLows[b >> 1] |= prevLows[b];
+      }
+
+      this.highMasks[level] = newHighs;
+      this.lowMasks[level] = newLows;
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Returns the width of a single bucket on the first level.
+   *
+   * @return a bucket width, in number of samples, >= 1.
+   */
+  public long getBucketWidth()
+  {
+    return 1L << this.bucketShift;
+  }
+
+  /**
+   * Returns the acquisition result this overview is created for.
+   *
+   * @return the acquisition result, never <code>null</code>.
+   */
+  public AcquisitionResult getData()
+  {
+    return this.data;
+  }
+
+  /**
+   * Summarizes the given time range.
+   * <p>
+   * The summary might include a small amount of time before and after the
+   * given range, depending on the width of the buckets used.
+   * </p>
+   *
+   * @param aStartTime
+   *          the start time (inclusive) of the range to summarize;
+   * @param aEndTime
+   *          the end time (exclusive) of the range to summarize;
+   * @param aResult
+   *          the array to store the summary in, should have at least two
+   *          elements. The first element will contain all channels that are
+   *          high, the second element all channels that are low somewhere in
+   *          the given range.
+   * @return <code>true</code> if the given range contains data,
+   *         <code>false</code> otherwise.
+   */
+  public boolean summarize( final long aStartTime, final long aEndTime, final int[] aResult )
+  {
+    final long start = Math.max( 0L, aStartTime );
+    final long end = Math.min( this.absoluteLength + 1L, aEndTime );
+    if ( start >= end )
+    {
+      return false;
+    }
+
+    // Use the coarsest level whose buckets are not wider than the given range...
+    final long width = end - start;
+    int level = 0;
+    while ( ( ( level + 1 ) < this.highMasks.length ) && ( ( 1L << ( this.bucketShift + level + 1 ) ) <= width ) )
+    {
+      level++;
+    }
+
+    final int shift = this.bucketShift + level;
+    final int[] highs = this.highMasks[level];
+    final int[] lows = this.lowMasks[level];
+
+    int high = 0;
+    int low = 0;
+    for ( int b = ( int )( start >> shift ), last = ( int )( ( end - 1L ) >> shift ); b <= last; b++ )
+    {
+      high |= highs[b];
+      low |= lows[b];
+    }
+
+    aResult[0] = high;
+    aResult[1] = low;
+    return true;
+  }
+}
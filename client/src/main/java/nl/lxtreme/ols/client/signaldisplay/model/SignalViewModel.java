@@ -26,6 +26,7 @@ import java.awt.*;
 
 import javax.swing.*;
 
+import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.client.signaldisplay.*;
 import nl.lxtreme.ols.client.signaldisplay.model.SignalDiagramModel.*;
 import nl.lxtreme.ols.client.signaldisplay.view.*;
@@ -118,6 +119,16 @@ public class SignalViewModel extends AbstractViewModel
     return color;
   }
 
+  /**
+   * Returns the current captured data.
+   *
+   * @return the captured data, or <code>null</code> if no data is available.
+   */
+  public IndexedAcquisitionResult getCapturedData()
+  {
+    return this.controller.getViewModel().getCapturedData();
+  }
+
   /**
    * Returns the font for the cursor flags.
    * 
@@ -133,14 +144,6 @@ public class SignalViewModel extends AbstractViewModel
     return font;
   }
 
-  /**
-   * @return
-   */
-  public int[] getDataValues()
-  {
-    return this.controller.getViewModel().getValues();
-  }
-
   /**
    * @param aClip
    * @return
@@ -208,22 +211,25 @@ public class SignalViewModel extends AbstractViewModel
   }
 
   /**
-   * @param aClip
-   * @return
+   * Returns the overview of the current captured data.
+   *
+   * @return the signal overview, or <code>null</code> if no captured data is
+   *         available.
    */
-  public int getStartIndex( final Rectangle aClip )
+  public SignalOverview getSignalOverview()
   {
-    final Point location = aClip.getLocation();
-    int index = locationToSampleIndex( location );
-    return Math.max( index - 1, 0 );
+    return this.controller.getViewModel().getSignalOverview();
   }
 
   /**
+   * @param aClip
    * @return
    */
-  public long[] getTimestamps()
+  public int getStartIndex( final Rectangle aClip )
   {
-    return this.controller.getViewModel().getTimestamps();
+    final Point location = aClip.getLocation();
+    int index = locationToSampleIndex( location );
+    return Math.max( index - 1, 0 );
   }
 
   /**
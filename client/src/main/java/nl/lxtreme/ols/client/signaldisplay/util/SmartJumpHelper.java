@@ -79,6 +79,11 @@ public final class SmartJumpHelper
    */
   public long getSmartJumpPosition( final int aChannelIndex )
   {
+    if ( this.type == JumpType.PATTERN )
+    {
+      return getPatternJumpPosition();
+    }
+
     Rectangle viewSize = this.controller.getViewComponent().getVisibleRect();
 
     SignalElement signalElement = getSignalDiagramModel().getSignalElementManager().getDigitalSignalByChannelIndex(
@@ -105,6 +110,24 @@ public final class SmartJumpHelper
     return -1L;
   }
 
+  /**
+   * Returns the position of the next or previous match of the current search
+   * pattern, relative to the center of the view.
+   * <p>
+   * Unlike other jumps, pattern matches do not need a selected channel, as
+   * patterns can span multiple channels.
+   * </p>
+   *
+   * @return the timestamp of the found match, or -1L if no match is found.
+   */
+  private long getPatternJumpPosition()
+  {
+    Rectangle viewSize = this.controller.getViewComponent().getVisibleRect();
+    Point refPoint = new Point( ( int )Math.round( viewSize.getCenterX() ), 0 );
+
+    return getPatternJumpPosition( locationToTimestamp( refPoint ) );
+  }
+
   /**
    * @param signalElement
    * @param refTimestamp
@@ -177,6 +200,20 @@ public final class SmartJumpHelper
     return -1L;
   }
 
+  /**
+   * @param refTimestamp
+   * @return
+   */
+  private long getPatternJumpPosition( final long refTimestamp )
+  {
+    SignalDiagramModel model = getSignalDiagramModel();
+    if ( this.direction.isLeft() )
+    {
+      return model.findPatternMatchBefore( refTimestamp );
+    }
+    return model.findPatternMatchAfter( refTimestamp );
+  }
+
   /**
    * @return
    */
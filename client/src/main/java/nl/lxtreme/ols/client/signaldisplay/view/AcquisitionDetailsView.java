@@ -24,11 +24,14 @@ import static nl.lxtreme.ols.client.signaldisplay.view.ViewUtils.*;
 
 import java.awt.*;
 import java.text.*;
+import java.util.List;
 
 import javax.swing.*;
 
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.acquisition.AcquisitionMetrics.Phase;
 import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.api.util.*;
 import nl.lxtreme.ols.client.signaldisplay.*;
 import nl.lxtreme.ols.client.signaldisplay.ZoomController.ZoomEvent;
 import nl.lxtreme.ols.client.signaldisplay.ZoomController.ZoomListener;
@@ -59,6 +62,12 @@ public class AcquisitionDetailsView extends AbstractViewLayer implements IToolWi
   private final JLabel displayedTime;
   private final JLabel secondsPerPixel;
   private final JLabel unitOfTime;
+  private final JLabel setupTime;
+  private final JLabel triggerTime;
+  private final JLabel transferTime;
+  private final JLabel transferRate;
+  private final JLabel processingTime;
+  private final JLabel acquisitionTime;
 
   // CONSTRUCTORS
 
@@ -80,6 +89,12 @@ public class AcquisitionDetailsView extends AbstractViewLayer implements IToolWi
     this.displayedTime = new JLabel( "-" );
     this.secondsPerPixel = new JLabel( "-" );
     this.unitOfTime = new JLabel( "-" );
+    this.setupTime = new JLabel( "-" );
+    this.triggerTime = new JLabel( "-" );
+    this.transferTime = new JLabel( "-" );
+    this.transferRate = new JLabel( "-" );
+    this.processingTime = new JLabel( "-" );
+    this.acquisitionTime = new JLabel( "-" );
   }
 
   // METHODS
@@ -117,7 +132,7 @@ public class AcquisitionDetailsView extends AbstractViewLayer implements IToolWi
 
     if ( ( aDataSet != null ) && ( aDataSet.getCapturedData() != null ) )
     {
-      final AcquisitionResult model = aDataSet.getCapturedData();
+      final IndexedAcquisitionResult model = AcquisitionResultAdapter.adapt( aDataSet.getCapturedData() );
 
       if ( model.hasTimingData() )
       {
@@ -133,7 +148,7 @@ public class AcquisitionDetailsView extends AbstractViewLayer implements IToolWi
         twText = "n/a";
       }
 
-      scText = new DecimalFormat().format( model.getValues().length );
+      scText = new DecimalFormat().format( model.getSampleCount() );
 
     }
     else
@@ -240,6 +255,102 @@ public class AcquisitionDetailsView extends AbstractViewLayer implements IToolWi
     } );
   }
 
+  /**
+   * Shows the timings of the given acquisition metrics.
+   *
+   * @param aMetrics
+   *          the metrics of the last acquisition, can be <code>null</code> in
+   *          which case no timings are shown.
+   */
+  public void setAcquisitionMetrics( final AcquisitionMetrics aMetrics )
+  {
+    final String setupText;
+    final String triggerText;
+    final String transferText;
+    final String rateText;
+    final String processingText;
+    final String totalText;
+
+    if ( aMetrics != null )
+    {
+      long setup = 0L;
+      long trigger = 0L;
+      long processing = 0L;
+      Phase transfer = null;
+
+      final List<Phase> phases = aMetrics.getPhases();
+      for ( Phase phase : phases )
+      {
+        final String name = phase.getName();
+        if ( AcquisitionMetrics.PHASE_TRANSFER.equals( name ) )
+        {
+          transfer = phase;
+        }
+        else if ( AcquisitionMetrics.PHASE_TRIGGER.equals( name ) )
+        {
+          trigger += phase.getDuration();
+        }
+        else if ( AcquisitionMetrics.PHASE_NORMALIZE.equals( name ) || AcquisitionMetrics.PHASE_DECODE.equals( name )
+            || AcquisitionMetrics.PHASE_BUILD.equals( name ) )
+        {
+          processing += phase.getDuration();
+        }
+        else
+        {
+          setup += phase.getDuration();
+        }
+      }
+
+      setupText = formatNanos( setup );
+      triggerText = formatNanos( trigger );
+      processingText = formatNanos( processing );
+      totalText = formatNanos( aMetrics.getTotalTime() );
+
+      if ( ( transfer != null ) && ( transfer.getThroughput() > 0.0 ) )
+      {
+        transferText = formatNanos( transfer.getDuration() );
+        rateText = Unit.SizeSI.format( transfer.getThroughput() ) + "/s";
+      }
+      else
+      {
+        transferText = "n/a";
+        rateText = "n/a";
+      }
+    }
+    else
+    {
+      setupText = "-";
+      triggerText = "-";
+      transferText = "-";
+      rateText = "-";
+      processingText = "-";
+      totalText = "-";
+    }
+
+    SwingComponentUtils.invokeOnEDT( new Runnable()
+    {
+      public void run()
+      {
+        AcquisitionDetailsView.this.setupTime.setText( setupText );
+        AcquisitionDetailsView.this.triggerTime.setText( triggerText );
+        AcquisitionDetailsView.this.transferTime.setText( transferText );
+        AcquisitionDetailsView.this.transferRate.setText( rateText );
+        AcquisitionDetailsView.this.processingTime.setText( processingText );
+        AcquisitionDetailsView.this.acquisitionTime.setText( totalText );
+
+        repaint( 25L );
+      };
+    } );
+  }
+
+  /**
+   * Formats a duration given in nanoseconds as time.
+   */
+  private static String formatNanos( final long aDuration )
+  {
+    return formatTime( Double.valueOf( aDuration / 1.0e9 ) );
+  }
+
   /**
    * Initializes this component.
    */
@@ -277,6 +388,26 @@ public class AcquisitionDetailsView extends AbstractViewLayer implements IToolWi
     panel.add( SwingComponentUtils.createRightAlignedLabel( "Unit of time:" ) );
     panel.add( this.unitOfTime );
 
+    SpringLayoutUtils.addSeparator( panel, "Last acquisition" );
+
+    panel.add( SwingComponentUtils.createRightAlignedLabel( "Setup time:" ) );
+    panel.add( this.setupTime );
+
+    panel.add( SwingComponentUtils.createRightAlignedLabel( "Trigger wait:" ) );
+    panel.add( this.triggerTime );
+
+    panel.add( SwingComponentUtils.createRightAlignedLabel( "Transfer time:" ) );
+    panel.add( this.transferTime );
+
+    panel.add( SwingComponentUtils.createRightAlignedLabel( "Transfer rate:" ) );
+    panel.add( this.transferRate );
+
+    panel.add( SwingComponentUtils.createRightAlignedLabel( "Processing time:" ) );
+    panel.add( this.processingTime );
+
+    panel.add( SwingComponentUtils.createRightAlignedLabel( "Total time:" ) );
+    panel.add( this.acquisitionTime );
+
     SpringLayoutUtils.makeEditorGrid( panel, 10, 10 );
 
     add( panel, BorderLayout.NORTH );
@@ -215,7 +215,7 @@ ICursorChangeListener, IMeasurementListener
   {
     // VARIABLES
 
-    private final AcquisitionResult result;
+    private final IndexedAcquisitionResult result;
     private final int mask;
     private final long startTimestamp;
     private final long endTimestamp;
@@ -228,7 +228,7 @@ ICursorChangeListener, IMeasurementListener
     public SignalMeasurer( final AcquisitionResult aResult, final int aIndex, final long aStartTimestamp,
         final long aEndTimestamp )
     {
-      this.result = aResult;
+      this.result = AcquisitionResultAdapter.adapt( aResult );
       this.mask = ( 1 << aIndex );
       this.startTimestamp = aStartTimestamp;
       this.endTimestamp = aEndTimestamp;
@@ -250,27 +250,25 @@ ICursorChangeListener, IMeasurementListener
 
       final boolean hasTimingData = this.result.hasTimingData();
 
-      final int[] values = this.result.getValues();
-      final long[] timestamps = this.result.getTimestamps();
-
       int fallingEdgeCount = 0;
       long highTime = 0;
       int risingEdgeCount = 0;
       long lowTime = 0;
 
       int i = startIdx;
-      long lastTransition = timestamps[i];
-      int lastBitValue = values[i++] & this.mask;
+      long lastTransition = this.result.getTimestamp( i );
+      int lastBitValue = this.result.getValue( i++ ) & this.mask;
 
       for ( ; !Thread.currentThread().isInterrupted() && ( i <= endIdx ); i++ )
       {
-        final int bitValue = values[i] & this.mask;
+        final int bitValue = this.result.getValue( i ) & this.mask;
         final Edge edge = Edge.toEdge( lastBitValue, bitValue );
 
         if ( !edge.isNone() )
         {
-          final long periodTime = timestamps[i] - lastTransition;
-          lastTransition = timestamps[i];
+          final long timestamp = this.result.getTimestamp( i );
+          final long periodTime = timestamp - lastTransition;
+          lastTransition = timestamp;
 
           if ( edge.isRising() )
           {
@@ -342,7 +340,7 @@ ICursorChangeListener, IMeasurementListener
       long start = this.startTimestamp;
       if ( start < 0L )
       {
-        start = model.getTimestamps()[0];
+        start = model.getCapturedData().getTimestamp( 0 );
       }
       long end = this.endTimestamp;
       if ( end < 0L )
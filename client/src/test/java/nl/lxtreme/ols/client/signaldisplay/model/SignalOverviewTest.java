@@ -0,0 +1,108 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010-2012 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.model;
+
+
+import static org.junit.Assert.*;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.data.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SignalOverview}.
+ */
+public class SignalOverviewTest
+{
+  // CONSTANTS
+
+  private static final long ABS_LENGTH = 16L * 1024L * 1024L;
+  private static final long GLITCH_TIME = 5000001L;
+
+  // VARIABLES
+
+  private CapturedData data;
+  private long memoryUsage;
+  private SignalOverview overview;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    // channel 0 has a single sample glitch, channel 1 is always high...
+    final int[] values = { 0x02, 0x03, 0x02 };
+    final long[] timestamps = { 0L, GLITCH_TIME, GLITCH_TIME + 1L };
+
+    this.data = new CapturedData( values, timestamps, Ols.NOT_AVAILABLE, 100, 2, 0x03, ABS_LENGTH );
+    this.memoryUsage = this.data.getMemoryUsage();
+    this.overview = new SignalOverview( this.data );
+  }
+
+  /**
+   * Tests that a single sample glitch is visible in the overview of the whole
+   * time line.
+   */
+  @Test
+  public void testGlitchVisibleWhenZoomedOut()
+  {
+    assertTrue( this.overview.getBucketWidth() > 1L );
+
+    final int[] summary = new int[2];
+    assertTrue( this.overview.summarize( 0L, ABS_LENGTH, summary ) );
+    assertEquals( 0x03, summary[0] & 0x03 );
+    assertEquals( 0x01, summary[1] & 0x03 );
+
+    assertTrue( this.overview.summarize( GLITCH_TIME - 100L, GLITCH_TIME + 100L, summary ) );
+    assertEquals( 0x03, summary[0] & 0x03 );
+  }
+
+  /**
+   * Tests that creating the overview does not expand the compactly stored
+   * samples to arrays.
+   */
+  @Test
+  public void testOverviewDoesNotExpandSamples()
+  {
+    assertEquals( this.memoryUsage, this.data.getMemoryUsage() );
+    // A single byte per value and a 32-bit offset per timestamp...
+    assertEquals( 5L * this.data.getSampleCount(), this.data.getMemoryUsage() );
+  }
+
+  /**
+   * Tests that ranges without glitch do not report a toggle.
+   */
+  @Test
+  public void testNoGlitchOutsideRange()
+  {
+    final int[] summary = new int[2];
+    assertTrue( this.overview.summarize( 0L, 1024L * 1024L, summary ) );
+    assertEquals( 0x02, summary[0] & 0x03 );
+    assertEquals( 0x01, summary[1] & 0x03 );
+
+    assertFalse( this.overview.summarize( ABS_LENGTH + 1L, ABS_LENGTH + 100L, summary ) );
+  }
+}
@@ -27,6 +27,7 @@ import java.net.*;
 import java.util.*;
 
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.tools.*;
 import nl.lxtreme.ols.client.signaldisplay.view.MeasurementView.PulseCountInfo;
 import nl.lxtreme.ols.test.*;
@@ -51,6 +52,8 @@ public class MeasurementViewTest
   private final double realFrequency;
 
   private volatile PulseCountInfo result;
+  private volatile long memoryUsageBefore;
+  private volatile long memoryUsageAfter;
 
   // CONSTRUCTORS
 
@@ -106,11 +109,16 @@ public class MeasurementViewTest
 
     int channel = 0;
 
+    final CapturedData capturedData = ( CapturedData )container;
+    this.memoryUsageBefore = capturedData.getMemoryUsage();
+
     MeasurementView.SignalMeasurer worker = new MeasurementView.SignalMeasurer( container, channel, 0L, toolContext
         .getData().getAbsoluteLength() );
 
     this.result = worker.run();
     assertNotNull( this.result );
+
+    this.memoryUsageAfter = capturedData.getMemoryUsage();
   }
 
   /**
@@ -131,4 +139,14 @@ public class MeasurementViewTest
         this.realFrequency, error );
 
   }
+
+  /**
+   * Tests that measuring a signal does not expand the compactly stored samples
+   * to arrays.
+   */
+  @Test
+  public void testMeasurementDoesNotExpandSamples() throws Exception
+  {
+    assertEquals( this.memoryUsageBefore, this.memoryUsageAfter );
+  }
 }
@@ -0,0 +1,79 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.emulator;
+
+
+import java.util.*;
+import java.util.logging.*;
+
+import org.apache.felix.dm.*;
+import org.osgi.framework.*;
+
+
+/**
+ * Bundle activator, that starts the SUMP emulator when the
+ * {@value EmulatorConfig#PORT} property is set.
+ */
+public class Activator extends DependencyActivatorBase
+{
+  // CONSTANTS
+
+  private static final Logger LOG = Logger.getLogger( Activator.class.getName() );
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void destroy( final BundleContext aContext, final DependencyManager aManager ) throws Exception
+  {
+    // No-op
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void init( final BundleContext aContext, final DependencyManager aManager ) throws Exception
+  {
+    final Properties properties = new Properties();
+    for ( String key : EmulatorConfig.KEYS )
+    {
+      final String value = aContext.getProperty( key );
+      if ( value != null )
+      {
+        properties.setProperty( key, value );
+      }
+    }
+
+    if ( !properties.containsKey( EmulatorConfig.PORT ) )
+    {
+      LOG.fine( "No emulator port configured; SUMP emulator not started..." );
+      return;
+    }
+
+    // The emulator's start/stop methods are called by the dependency manager...
+    aManager.add( createComponent() //
+        .setImplementation( new SumpEmulator( new EmulatorConfig( properties ) ) ) //
+        );
+  }
+}
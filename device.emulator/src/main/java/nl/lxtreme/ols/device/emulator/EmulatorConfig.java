@@ -0,0 +1,293 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.emulator;
+
+
+import java.util.*;
+
+
+/**
+ * Provides the (immutable) configuration of the {@link SumpEmulator}.
+ * <p>
+ * All settings are read from properties prefixed with
+ * {@value #PROPERTY_PREFIX}, for example
+ * <tt>nl.lxtreme.ols.emulator.port=5678</tt>.
+ * </p>
+ */
+public final class EmulatorConfig
+{
+  // INNER TYPES
+
+  /**
+   * The synthetic sample patterns the emulator can serve.
+   */
+  public static enum Pattern
+  {
+    /** Every sample has the same (configured) value. */
+    CONSTANT,
+    /** Every sample has the value of its index. */
+    COUNTER,
+    /** Every sample has a pseudo random, but reproducible, value. */
+    RANDOM;
+  }
+
+  // CONSTANTS
+
+  /** The prefix of all emulator properties. */
+  public static final String PROPERTY_PREFIX = "nl.lxtreme.ols.emulator.";
+
+  /** The TCP port to listen on; the emulator is only started when set. */
+  public static final String PORT = PROPERTY_PREFIX + "port";
+  /** The address to bind to, defaults to the loopback address. */
+  public static final String ADDRESS = PROPERTY_PREFIX + "address";
+  /** The sample pattern to serve, see {@link Pattern}. */
+  public static final String PATTERN = PROPERTY_PREFIX + "pattern";
+  /** The sample value used by the {@link Pattern#CONSTANT} pattern. */
+  public static final String VALUE = PROPERTY_PREFIX + "value";
+  /** The number of samples each RLE-count represents. */
+  public static final String RUN_LENGTH = PROPERTY_PREFIX + "runLength";
+  /** The maximum transfer rate, in bytes per second, 0 = unlimited. */
+  public static final String TRICKLE_RATE = PROPERTY_PREFIX + "trickleRate";
+  /** The time, in milliseconds, between arming and the first sample. */
+  public static final String TRIGGER_DELAY = PROPERTY_PREFIX + "triggerDelay";
+  /** The sample memory, in bytes, reported in the metadata. */
+  public static final String SAMPLE_MEMORY = PROPERTY_PREFIX + "sampleMemory";
+  /** The device name reported in the metadata. */
+  public static final String DEVICE_NAME = PROPERTY_PREFIX + "deviceName";
+
+  /** All known property keys. */
+  static final String[] KEYS = { PORT, ADDRESS, PATTERN, VALUE, RUN_LENGTH, TRICKLE_RATE, TRIGGER_DELAY,
+      SAMPLE_MEMORY, DEVICE_NAME };
+
+  static final int DEFAULT_PORT = 5678;
+  static final String DEFAULT_DEVICE_NAME = "OLS Emulator";
+  static final int DEFAULT_SAMPLE_MEMORY = 24 * 1024 * 1024;
+
+  // VARIABLES
+
+  private final int port;
+  private final String address;
+  private final Pattern pattern;
+  private final int value;
+  private final int runLength;
+  private final int trickleRate;
+  private final int triggerDelay;
+  private final int sampleMemory;
+  private final String deviceName;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new EmulatorConfig instance with all default settings.
+   */
+  public EmulatorConfig()
+  {
+    this( new Properties() );
+  }
+
+  /**
+   * Creates a new EmulatorConfig instance.
+   *
+   * @param aProperties
+   *          the properties to read the settings from, cannot be
+   *          <code>null</code>.
+   * @throws IllegalArgumentException
+   *           in case one of the given properties has an invalid value.
+   */
+  public EmulatorConfig( final Properties aProperties )
+  {
+    this.port = getInt( aProperties, PORT, DEFAULT_PORT, 0 );
+    this.address = aProperties.getProperty( ADDRESS );
+    this.pattern = getPattern( aProperties );
+    this.value = ( int )getLong( aProperties, VALUE, 0xAA55AA55L );
+    this.runLength = getInt( aProperties, RUN_LENGTH, 16, 1 );
+    this.trickleRate = getInt( aProperties, TRICKLE_RATE, 0, 0 );
+    this.triggerDelay = getInt( aProperties, TRIGGER_DELAY, 0, 0 );
+    this.sampleMemory = getInt( aProperties, SAMPLE_MEMORY, DEFAULT_SAMPLE_MEMORY, 1 );
+
+    final String name = aProperties.getProperty( DEVICE_NAME );
+    this.deviceName = ( ( name == null ) || "".equals( name.trim() ) ) ? DEFAULT_DEVICE_NAME : name.trim();
+  }
+
+  // METHODS
+
+  /**
+   * Returns an integer property value.
+   */
+  private static int getInt( final Properties aProperties, final String aKey, final int aDefault, final int aMinimum )
+  {
+    final long result = getLong( aProperties, aKey, aDefault );
+    if ( ( result < aMinimum ) || ( result > Integer.MAX_VALUE ) )
+    {
+      throw new IllegalArgumentException( "Invalid value for " + aKey + ": " + result + "!" );
+    }
+    return ( int )result;
+  }
+
+  /**
+   * Returns a long property value, which can be given in decimal or, when
+   * prefixed with "0x", in hexadecimal notation.
+   */
+  private static long getLong( final Properties aProperties, final String aKey, final long aDefault )
+  {
+    final String value = aProperties.getProperty( aKey );
+    if ( ( value == null ) || "".equals( value.trim() ) )
+    {
+      return aDefault;
+    }
+
+    final String trimmed = value.trim();
+    try
+    {
+      if ( trimmed.startsWith( "0x" ) || trimmed.startsWith( "0X" ) )
+      {
+        return Long.parseLong( trimmed.substring( 2 ), 16 );
+      }
+      return Long.parseLong( trimmed );
+    }
+    catch ( NumberFormatException exception )
+    {
+      throw new IllegalArgumentException( "Invalid value for " + aKey + ": " + value + "!" );
+    }
+  }
+
+  /**
+   * Returns the pattern property value.
+   */
+  private static Pattern getPattern( final Properties aProperties )
+  {
+    final String value = aProperties.getProperty( PATTERN );
+    if ( ( value == null ) || "".equals( value.trim() ) )
+    {
+      return Pattern.COUNTER;
+    }
+
+    try
+    {
+      return Pattern.valueOf( value.trim().toUpperCase( Locale.ENGLISH ) );
+    }
+    catch ( IllegalArgumentException exception )
+    {
+      throw new IllegalArgumentException( "Invalid value for " + PATTERN + ": " + value + "!" );
+    }
+  }
+
+  /**
+   * Returns the address to bind to.
+   *
+   * @return a host name or address, or <code>null</code> to bind to the
+   *         loopback address.
+   */
+  public String getAddress()
+  {
+    return this.address;
+  }
+
+  /**
+   * Returns the device name reported in the metadata.
+   *
+   * @return a device name, never <code>null</code>.
+   */
+  public String getDeviceName()
+  {
+    return this.deviceName;
+  }
+
+  /**
+   * Returns the sample pattern to serve.
+   *
+   * @return a pattern, never <code>null</code>.
+   */
+  public Pattern getPattern()
+  {
+    return this.pattern;
+  }
+
+  /**
+   * Returns the TCP port to listen on.
+   *
+   * @return a port number, >= 0, where 0 means any free port.
+   */
+  public int getPort()
+  {
+    return this.port;
+  }
+
+  /**
+   * Returns the number of samples each RLE-count represents.
+   *
+   * @return a run length, >= 1.
+   */
+  public int getRunLength()
+  {
+    return this.runLength;
+  }
+
+  /**
+   * Returns the sample memory reported in the metadata.
+   *
+   * @return a sample memory size, in bytes, > 0.
+   */
+  public int getSampleMemory()
+  {
+    return this.sampleMemory;
+  }
+
+  /**
+   * Returns the maximum transfer rate.
+   *
+   * @return a transfer rate, in bytes per second, or 0 if unlimited.
+   */
+  public int getTrickleRate()
+  {
+    return this.trickleRate;
+  }
+
+  /**
+   * Returns the time between arming the emulator and the first sample.
+   *
+   * @return a delay, in milliseconds, >= 0.
+   */
+  public int getTriggerDelay()
+  {
+    return this.triggerDelay;
+  }
+
+  /**
+   * Returns the sample value used by the {@link Pattern#CONSTANT} pattern.
+   *
+   * @return a sample value.
+   */
+  public int getValue()
+  {
+    return this.value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return "port=" + this.port + ", pattern=" + this.pattern + ", runLength=" + this.runLength + ", trickleRate="
+        + this.trickleRate + ", triggerDelay=" + this.triggerDelay;
+  }
+}
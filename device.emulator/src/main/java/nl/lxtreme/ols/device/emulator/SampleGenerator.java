@@ -0,0 +1,145 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.emulator;
+
+
+import nl.lxtreme.ols.device.emulator.EmulatorConfig.Pattern;
+
+
+/**
+ * Generates the synthetic samples served by the emulator.
+ * <p>
+ * Samples are computed from their index alone, so arbitrary large sample
+ * counts can be served without buffering them.
+ * </p>
+ */
+final class SampleGenerator
+{
+  // VARIABLES
+
+  private final Pattern pattern;
+  private final int value;
+  private final int runLength;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SampleGenerator instance.
+   *
+   * @param aConfig
+   *          the emulator configuration to use, cannot be <code>null</code>.
+   */
+  public SampleGenerator( final EmulatorConfig aConfig )
+  {
+    this.pattern = aConfig.getPattern();
+    this.value = aConfig.getValue();
+    this.runLength = aConfig.getRunLength();
+  }
+
+  // METHODS
+
+  /**
+   * Returns the mask for samples of the given width.
+   */
+  static int getDataMask( final int aWidth )
+  {
+    return ( aWidth >= 4 ) ? 0xFFFFFFFF : ( ( 1 << ( 8 * aWidth ) ) - 1 );
+  }
+
+  /**
+   * Returns the sample at the given position of the acquisition.
+   * <p>
+   * In RLE-mode, the samples alternate between a sample value (with the most
+   * significant bit cleared) and a RLE-count (with the most significant bit
+   * set), as sent by a real device. In DDR-mode, a RLE-count spans two
+   * samples, of which only the first one has its most significant bit set.
+   * </p>
+   *
+   * @param aIndex
+   *          the (chronological) index of the sample, >= 0;
+   * @param aWidth
+   *          the width of a sample, in bytes, 1..4;
+   * @param aRleMode
+   *          <code>true</code> to return RLE-encoded samples,
+   *          <code>false</code> to return plain samples;
+   * @param aDdrMode
+   *          <code>true</code> if the samples are taken in DDR-mode,
+   *          <code>false</code> otherwise.
+   * @return the sample value, masked to the given width.
+   */
+  public int getSample( final int aIndex, final int aWidth, final boolean aRleMode, final boolean aDdrMode )
+  {
+    final int dataMask = getDataMask( aWidth );
+    if ( !aRleMode )
+    {
+      return getValue( aIndex ) & dataMask;
+    }
+
+    final int rleFlag = ( dataMask >>> 1 ) + 1;
+    if ( aDdrMode )
+    {
+      // Value, upper half of the count, lower half of the count; each count
+      // represents two samples...
+      final int position = aIndex % 3;
+      if ( position == 1 )
+      {
+        return rleFlag;
+      }
+      else if ( position == 2 )
+      {
+        return ( ( this.runLength - 1 ) >>> 1 ) & dataMask;
+      }
+      return getValue( aIndex / 3 ) & ( rleFlag - 1 );
+    }
+
+    if ( ( aIndex & 1 ) != 0 )
+    {
+      // A count always follows the value it applies to...
+      return rleFlag | ( ( this.runLength - 1 ) & ( rleFlag - 1 ) );
+    }
+    return getValue( aIndex >>> 1 ) & ( rleFlag - 1 );
+  }
+
+  /**
+   * Returns the unmasked value for the given index.
+   */
+  private int getValue( final int aIndex )
+  {
+    switch ( this.pattern )
+    {
+      case CONSTANT:
+        return this.value;
+
+      case RANDOM:
+        // Finalizer of MurmurHash3; cheap and reproducible...
+        int h = aIndex * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return h ^ ( h >>> 16 );
+
+      case COUNTER:
+      default:
+        return aIndex;
+    }
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.emulator;
+
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+import java.util.logging.*;
+
+
+/**
+ * Provides a headless SUMP/OLS device emulator, that serves synthetic samples
+ * to clients connecting through a TCP socket, for example by using
+ * <tt>socket://localhost:5678</tt> as connection URI.
+ * <p>
+ * Each client connection is served by its own thread. The emulator can also be
+ * started outside OSGi, see {@link #main(String[])}.
+ * </p>
+ */
+public class SumpEmulator implements Runnable
+{
+  // CONSTANTS
+
+  private static final Logger LOG = Logger.getLogger( SumpEmulator.class.getName() );
+
+  // VARIABLES
+
+  private final EmulatorConfig config;
+  private final List<SumpSession> sessions;
+
+  private volatile ServerSocket serverSocket;
+  private volatile Thread acceptThread;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SumpEmulator instance.
+   *
+   * @param aConfig
+   *          the emulator configuration to use, cannot be <code>null</code>.
+   */
+  public SumpEmulator( final EmulatorConfig aConfig )
+  {
+    if ( aConfig == null )
+    {
+      throw new IllegalArgumentException( "Config cannot be null!" );
+    }
+    this.config = aConfig;
+    this.sessions = new ArrayList<SumpSession>();
+  }
+
+  // METHODS
+
+  /**
+   * Starts the emulator from the command line. All arguments are of the form
+   * <tt>key=value</tt>, in which the key can be given with or without the
+   * {@value EmulatorConfig#PROPERTY_PREFIX} prefix; system properties are used
+   * as well.
+   *
+   * @param aArgs
+   *          the command line arguments.
+   */
+  public static void main( final String[] aArgs ) throws IOException, InterruptedException
+  {
+    final Properties properties = new Properties();
+    for ( String key : EmulatorConfig.KEYS )
+    {
+      final String value = System.getProperty( key );
+      if ( value != null )
+      {
+        properties.setProperty( key, value );
+      }
+    }
+
+    for ( String arg : aArgs )
+    {
+      final int idx = arg.indexOf( '=' );
+      if ( idx <= 0 )
+      {
+        System.err.println( "Usage: SumpEmulator [key=value]...; keys: port, address, pattern, value, runLength, "
+            + "trickleRate, triggerDelay, sampleMemory, deviceName." );
+        System.exit( 1 );
+      }
+
+      String key = arg.substring( 0, idx );
+      if ( !key.startsWith( EmulatorConfig.PROPERTY_PREFIX ) )
+      {
+        key = EmulatorConfig.PROPERTY_PREFIX + key;
+      }
+      properties.setProperty( key, arg.substring( idx + 1 ) );
+    }
+
+    final SumpEmulator emulator = new SumpEmulator( new EmulatorConfig( properties ) );
+    emulator.start();
+    System.out.println( "SUMP emulator listening on port " + emulator.getPort() + "..." );
+
+    // Keep running until killed...
+    emulator.acceptThread.join();
+  }
+
+  /**
+   * Returns the port this emulator is listening on.
+   *
+   * @return a port number, or -1 if this emulator is not started.
+   */
+  public int getPort()
+  {
+    final ServerSocket socket = this.serverSocket;
+    return ( socket == null ) ? -1 : socket.getLocalPort();
+  }
+
+  /**
+   * Accepts client connections until this emulator is stopped.
+   */
+  @Override
+  public void run()
+  {
+    final ServerSocket socket = this.serverSocket;
+
+    while ( !socket.isClosed() )
+    {
+      try
+      {
+        final Socket client = socket.accept();
+        client.setTcpNoDelay( true );
+
+        final SumpSession session = new SumpSession( client, this.config );
+        addSession( session );
+
+        final Thread thread = new Thread( new Runnable()
+        {
+          @Override
+          public void run()
+          {
+            try
+            {
+              session.run();
+            }
+            finally
+            {
+              removeSession( session );
+            }
+          }
+        }, "SUMP emulator session " + client.getRemoteSocketAddress() );
+        thread.setDaemon( true );
+        thread.start();
+      }
+      catch ( IOException exception )
+      {
+        if ( !socket.isClosed() )
+        {
+          LOG.log( Level.WARNING, "Failed to accept client connection!", exception );
+        }
+      }
+    }
+  }
+
+  /**
+   * Starts this emulator by binding to the configured address and port.
+   *
+   * @throws IOException
+   *           in case binding failed;
+   * @throws IllegalStateException
+   *           in case this emulator is already started.
+   */
+  public synchronized void start() throws IOException
+  {
+    if ( this.serverSocket != null )
+    {
+      throw new IllegalStateException( "Emulator already started!" );
+    }
+
+    final String address = this.config.getAddress();
+    final InetAddress bindAddress = InetAddress.getByName( address );
+
+    this.serverSocket = new ServerSocket( this.config.getPort(), 1, bindAddress );
+
+    this.acceptThread = new Thread( this, "SUMP emulator" );
+    this.acceptThread.setDaemon( true );
+    this.acceptThread.start();
+
+    LOG.log( Level.INFO, "SUMP emulator listening on {0} ({1})...",
+        new Object[] { this.serverSocket.getLocalSocketAddress(), this.config } );
+  }
+
+  /**
+   * Stops this emulator, closing all client connections.
+   */
+  public synchronized void stop()
+  {
+    final ServerSocket socket = this.serverSocket;
+    if ( socket == null )
+    {
+      return;
+    }
+
+    try
+    {
+      socket.close();
+    }
+    catch ( IOException exception )
+    {
+      // Ignore...
+    }
+
+    synchronized ( this.sessions )
+    {
+      for ( SumpSession session : this.sessions )
+      {
+        session.close();
+      }
+      this.sessions.clear();
+    }
+
+    try
+    {
+      this.acceptThread.join( 1000L );
+    }
+    catch ( InterruptedException exception )
+    {
+      Thread.currentThread().interrupt();
+    }
+
+    this.serverSocket = null;
+    this.acceptThread = null;
+
+    LOG.info( "SUMP emulator stopped..." );
+  }
+
+  /**
+   * Registers a client session.
+   */
+  final void addSession( final SumpSession aSession )
+  {
+    synchronized ( this.sessions )
+    {
+      this.sessions.add( aSession );
+    }
+  }
+
+  /**
+   * Unregisters a client session.
+   */
+  final void removeSession( final SumpSession aSession )
+  {
+    synchronized ( this.sessions )
+    {
+      this.sessions.remove( aSession );
+    }
+  }
+}
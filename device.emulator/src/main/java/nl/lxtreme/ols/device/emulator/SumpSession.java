@@ -0,0 +1,372 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.emulator;
+
+
+import java.io.*;
+import java.net.*;
+import java.util.logging.*;
+
+
+/**
+ * Speaks the SUMP protocol with a single client connection.
+ */
+final class SumpSession implements Runnable
+{
+  // CONSTANTS
+
+  static final int CMD_RESET = 0x00;
+  static final int CMD_RUN = 0x01;
+  static final int CMD_ID = 0x02;
+  static final int CMD_SELFTEST = 0x03;
+  static final int CMD_METADATA = 0x04;
+  static final int CMD_RLE_FINISH_NOW = 0x05;
+  static final int CMD_XON = 0x11;
+  static final int CMD_XOFF = 0x13;
+  static final int CMD_SET_DIVIDER = 0x80;
+  static final int CMD_SET_SIZE = 0x81;
+  static final int CMD_SET_FLAGS = 0x82;
+  static final int CMD_SET_DELAY_COUNT = 0x83;
+  static final int CMD_SET_READ_COUNT = 0x84;
+
+  static final int FLAG_DEMUX = 0x00000001;
+  static final int FLAG_GROUPS_DISABLED = 0x0000003C;
+  static final int FLAG_RLE = 0x00000100;
+
+  /** The maximum number of bytes sent in one go. */
+  static final int CHUNK_SIZE = 64 * 1024;
+
+  private static final Logger LOG = Logger.getLogger( SumpSession.class.getName() );
+
+  // VARIABLES
+
+  private final Socket socket;
+  private final EmulatorConfig config;
+  private final SampleGenerator generator;
+
+  private int sizeValue;
+  private int extendedReadCount;
+  private int flags;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SumpSession instance.
+   *
+   * @param aSocket
+   *          the client connection, cannot be <code>null</code>;
+   * @param aConfig
+   *          the emulator configuration to use, cannot be <code>null</code>.
+   */
+  public SumpSession( final Socket aSocket, final EmulatorConfig aConfig )
+  {
+    this.socket = aSocket;
+    this.config = aConfig;
+    this.generator = new SampleGenerator( aConfig );
+
+    this.extendedReadCount = -1;
+  }
+
+  // METHODS
+
+  /**
+   * Writes a zero-terminated metadata string.
+   */
+  private static void writeMetadata( final OutputStream aOs, final int aKey, final String aValue ) throws IOException
+  {
+    aOs.write( aKey );
+    aOs.write( aValue.getBytes( "US-ASCII" ) );
+    aOs.write( 0x00 );
+  }
+
+  /**
+   * Writes a 32-bit (big endian) metadata value.
+   */
+  private static void writeMetadata( final OutputStream aOs, final int aKey, final int aValue ) throws IOException
+  {
+    aOs.write( aKey );
+    aOs.write( ( aValue >>> 24 ) & 0xFF );
+    aOs.write( ( aValue >>> 16 ) & 0xFF );
+    aOs.write( ( aValue >>> 8 ) & 0xFF );
+    aOs.write( aValue & 0xFF );
+  }
+
+  /**
+   * Returns the number of samples the client asked for.
+   *
+   * @return a sample count, >= 0.
+   */
+  final int getReadCount()
+  {
+    final int shift = isDdrMode() ? 3 : 2;
+    if ( this.extendedReadCount >= 0 )
+    {
+      return this.extendedReadCount << shift;
+    }
+    return ( ( this.sizeValue & 0xFFFF ) + 1 ) << shift;
+  }
+
+  /**
+   * Returns the number of bytes per sample the client expects.
+   *
+   * @return a sample width, 0..4.
+   */
+  final int getSampleWidth()
+  {
+    final int width = 4 - Integer.bitCount( this.flags & FLAG_GROUPS_DISABLED );
+    return isDdrMode() ? ( width >> 1 ) : width;
+  }
+
+  /**
+   * Handles the command with the given opcode.
+   *
+   * @return <code>true</code> if the command was handled, <code>false</code>
+   *         if it is unknown.
+   */
+  final boolean handleCommand( final int aCommand, final int aValue, final OutputStream aOs ) throws IOException,
+      InterruptedException
+  {
+    switch ( aCommand )
+    {
+      case CMD_RESET:
+        this.extendedReadCount = -1;
+        return true;
+
+      case CMD_RUN:
+        respondWithSampleData( aOs );
+        return true;
+
+      case CMD_ID:
+        // Respond with '1ALS'...
+        aOs.write( new byte[] { 0x31, 0x41, 0x4c, 0x53 } );
+        aOs.flush();
+        return true;
+
+      case CMD_METADATA:
+        respondWithDeviceMetadata( aOs );
+        return true;
+
+      case CMD_SELFTEST:
+      case CMD_RLE_FINISH_NOW:
+      case CMD_XON:
+      case CMD_XOFF:
+      case CMD_SET_DIVIDER:
+        // Nothing to do...
+        return true;
+
+      case CMD_SET_SIZE:
+        this.sizeValue = aValue;
+        this.extendedReadCount = -1;
+        return true;
+
+      case CMD_SET_FLAGS:
+        this.flags = aValue;
+        return true;
+
+      case CMD_SET_DELAY_COUNT:
+        // The delay only affects the trigger position, which is irrelevant for
+        // synthetic samples...
+        return true;
+
+      case CMD_SET_READ_COUNT:
+        this.extendedReadCount = aValue & 0x7FFFFFFF;
+        return true;
+
+      default:
+        // Trigger configuration (0xC0..0xCF) is accepted, but not used...
+        return ( aCommand >= 0xC0 ) && ( aCommand <= 0xCF );
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void run()
+  {
+    final String client = String.valueOf( this.socket.getRemoteSocketAddress() );
+    LOG.log( Level.INFO, "Client {0} connected...", client );
+
+    try
+    {
+      final InputStream is = new BufferedInputStream( this.socket.getInputStream() );
+      final OutputStream os = new BufferedOutputStream( this.socket.getOutputStream(), CHUNK_SIZE );
+
+      int command;
+      while ( ( command = is.read() ) >= 0 )
+      {
+        int value = 0;
+        if ( ( command & 0x80 ) != 0 )
+        {
+          // Long command, followed by a 32-bit little endian value...
+          for ( int i = 0; i < 4; i++ )
+          {
+            final int b = is.read();
+            if ( b < 0 )
+            {
+              throw new EOFException( "Incomplete command 0x" + Integer.toHexString( command ) + "!" );
+            }
+            value |= ( b << ( 8 * i ) );
+          }
+        }
+
+        if ( !handleCommand( command, value, os ) )
+        {
+          LOG.log( Level.FINE, "Ignoring unknown command: 0x{0}...", Integer.toHexString( command ) );
+        }
+      }
+    }
+    catch ( InterruptedException exception )
+    {
+      Thread.currentThread().interrupt();
+    }
+    catch ( IOException exception )
+    {
+      // Typically, the client went away during a transfer...
+      LOG.log( Level.FINE, "I/O problem with client " + client + "!", exception );
+    }
+    finally
+    {
+      close();
+      LOG.log( Level.INFO, "Client {0} disconnected...", client );
+    }
+  }
+
+  /**
+   * Closes the client connection, causing {@link #run()} to terminate.
+   */
+  final void close()
+  {
+    try
+    {
+      this.socket.close();
+    }
+    catch ( IOException exception )
+    {
+      // Ignore...
+    }
+  }
+
+  /**
+   * @return <code>true</code> if the client enabled the DDR/demux-mode.
+   */
+  private boolean isDdrMode()
+  {
+    return ( this.flags & FLAG_DEMUX ) != 0;
+  }
+
+  /**
+   * @return <code>true</code> if the client enabled the RLE-mode.
+   */
+  private boolean isRleMode()
+  {
+    return ( this.flags & FLAG_RLE ) != 0;
+  }
+
+  /**
+   * Sends the metadata of the emulated device.
+   */
+  private void respondWithDeviceMetadata( final OutputStream aOs ) throws IOException
+  {
+    writeMetadata( aOs, 0x01, this.config.getDeviceName() );
+    writeMetadata( aOs, 0x02, "Emulated FPGA" );
+    writeMetadata( aOs, 0x03, "Emulated" );
+    // Number of usable probes...
+    writeMetadata( aOs, 0x20, 32 );
+    // Amount of sample memory available (bytes)...
+    writeMetadata( aOs, 0x21, this.config.getSampleMemory() );
+    // Amount of dynamic memory available (bytes)...
+    writeMetadata( aOs, 0x22, 0 );
+    // Maximum sample rate (Hz)...
+    writeMetadata( aOs, 0x23, 200000000 );
+    // Protocol version...
+    writeMetadata( aOs, 0x24, 2 );
+    // End of metadata...
+    aOs.write( 0x00 );
+    aOs.flush();
+  }
+
+  /**
+   * Sends the samples, last sample first, like a real device does.
+   */
+  private void respondWithSampleData( final OutputStream aOs ) throws IOException, InterruptedException
+  {
+    final int width = getSampleWidth();
+    final int count = getReadCount();
+    final boolean rleMode = isRleMode();
+    final boolean ddrMode = isDdrMode();
+    final int trickleRate = this.config.getTrickleRate();
+
+    LOG.log( Level.FINE, "Sending {0} samples of {1} bytes...",
+        new Object[] { Integer.valueOf( count ), Integer.valueOf( width ) } );
+
+    if ( this.config.getTriggerDelay() > 0 )
+    {
+      Thread.sleep( this.config.getTriggerDelay() );
+    }
+    if ( width <= 0 )
+    {
+      return;
+    }
+
+    // When trickling, send about ten chunks per second...
+    int chunkSize = CHUNK_SIZE;
+    if ( trickleRate > 0 )
+    {
+      chunkSize = Math.max( width, Math.min( chunkSize, trickleRate / 10 ) );
+    }
+    final byte[] chunk = new byte[( chunkSize / width ) * width];
+
+    final long start = System.nanoTime();
+    long sent = 0L;
+    int offset = 0;
+
+    for ( int i = count - 1; i >= 0; i-- )
+    {
+      int sample = this.generator.getSample( i, width, rleMode, ddrMode );
+      for ( int b = 0; b < width; b++ )
+      {
+        chunk[offset++] = ( byte )sample;
+        sample >>>= 8;
+      }
+
+      if ( ( offset == chunk.length ) || ( i == 0 ) )
+      {
+        aOs.write( chunk, 0, offset );
+        sent += offset;
+        offset = 0;
+
+        if ( trickleRate > 0 )
+        {
+          aOs.flush();
+
+          final long due = start + ( ( sent * 1000000000L ) / trickleRate );
+          final long wait = ( due - System.nanoTime() ) / 1000000L;
+          if ( wait > 0L )
+          {
+            Thread.sleep( wait );
+          }
+        }
+      }
+    }
+    aOs.flush();
+  }
+}
@@ -0,0 +1,257 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.emulator;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SumpEmulator}.
+ */
+public class SumpEmulatorTest
+{
+  // VARIABLES
+
+  private SumpEmulator emulator;
+  private Socket socket;
+  private DataInputStream is;
+  private OutputStream os;
+
+  // METHODS
+
+  /**
+   * Starts an emulator with the given properties and connects to it.
+   */
+  private void connect( final String... aProperties ) throws IOException
+  {
+    final Properties properties = new Properties();
+    properties.setProperty( EmulatorConfig.PORT, "0" );
+    for ( int i = 0; i < aProperties.length; i += 2 )
+    {
+      properties.setProperty( aProperties[i], aProperties[i + 1] );
+    }
+
+    this.emulator = new SumpEmulator( new EmulatorConfig( properties ) );
+    this.emulator.start();
+
+    this.socket = new Socket( InetAddress.getByName( null ), this.emulator.getPort() );
+    this.socket.setSoTimeout( 5000 );
+    this.is = new DataInputStream( new BufferedInputStream( this.socket.getInputStream() ) );
+    this.os = this.socket.getOutputStream();
+  }
+
+  /**
+   * Reads the given number of little endian samples.
+   */
+  private int[] readSamples( final int aCount, final int aWidth ) throws IOException
+  {
+    final int[] result = new int[aCount];
+    for ( int i = 0; i < aCount; i++ )
+    {
+      int value = 0;
+      for ( int b = 0; b < aWidth; b++ )
+      {
+        value |= this.is.readUnsignedByte() << ( 8 * b );
+      }
+      result[i] = value;
+    }
+    return result;
+  }
+
+  /**
+   * Sends a long command.
+   */
+  private void sendCommand( final int aOpcode, final int aValue ) throws IOException
+  {
+    this.os.write( new byte[] { ( byte )aOpcode, ( byte )aValue, ( byte )( aValue >> 8 ), ( byte )( aValue >> 16 ),
+        ( byte )( aValue >> 24 ) } );
+    this.os.flush();
+  }
+
+  /**
+   * Tears down the test case.
+   */
+  @After
+  public void tearDown() throws IOException
+  {
+    if ( this.socket != null )
+    {
+      this.socket.close();
+    }
+    if ( this.emulator != null )
+    {
+      this.emulator.stop();
+    }
+  }
+
+  /**
+   * Tests that the emulator identifies itself as SUMP device.
+   */
+  @Test( timeout = 10000 )
+  public void testDeviceId() throws IOException
+  {
+    connect();
+
+    this.os.write( new byte[] { 0x00, 0x00, 0x00, 0x00, 0x00, 0x02 } );
+    this.os.flush();
+
+    final byte[] id = new byte[4];
+    this.is.readFully( id );
+    assertEquals( "1ALS", new String( id, "US-ASCII" ) );
+  }
+
+  /**
+   * Tests that the metadata starts with the configured device name.
+   */
+  @Test( timeout = 10000 )
+  public void testMetadata() throws IOException
+  {
+    connect( EmulatorConfig.DEVICE_NAME, "My Emulator" );
+
+    this.os.write( 0x04 );
+    this.os.flush();
+
+    assertEquals( 0x01, this.is.readUnsignedByte() );
+    final StringBuilder name = new StringBuilder();
+    int ch;
+    while ( ( ch = this.is.readUnsignedByte() ) != 0 )
+    {
+      name.append( ( char )ch );
+    }
+    assertEquals( "My Emulator", name.toString() );
+  }
+
+  /**
+   * Tests that a 32-bit read count is honoured.
+   */
+  @Test( timeout = 10000 )
+  public void testExtendedReadCount() throws IOException
+  {
+    connect( EmulatorConfig.PATTERN, "counter" );
+
+    // One group enabled, 4 * 0x20000 = 512K samples...
+    sendCommand( 0x82, 0x38 );
+    sendCommand( 0x84, 0x20000 );
+    this.os.write( 0x01 );
+    this.os.flush();
+
+    final int[] samples = readSamples( 512 * 1024, 1 );
+    assertEquals( 0xFF, samples[0] );
+    assertEquals( 0x00, samples[samples.length - 1] );
+  }
+
+  /**
+   * Tests that the samples are sent last sample first, in the requested width.
+   */
+  @Test( timeout = 10000 )
+  public void testRunCounterPattern() throws IOException
+  {
+    connect( EmulatorConfig.PATTERN, "counter" );
+
+    // All groups enabled, 4 * (0x3F + 1) = 256 samples...
+    sendCommand( 0x82, 0x00 );
+    sendCommand( 0x81, 0x3F );
+    this.os.write( 0x01 );
+    this.os.flush();
+
+    final int[] samples = readSamples( 256, 4 );
+    for ( int i = 0; i < samples.length; i++ )
+    {
+      assertEquals( 255 - i, samples[i] );
+    }
+  }
+
+  /**
+   * Tests that DDR-mode halves the sample width and doubles the sample count.
+   */
+  @Test( timeout = 10000 )
+  public void testRunDdrMode() throws IOException
+  {
+    connect( EmulatorConfig.PATTERN, "constant", EmulatorConfig.VALUE, "0x12345678" );
+
+    // DDR, all groups enabled, 8 * (0x0F + 1) = 128 samples of 2 bytes...
+    sendCommand( 0x82, 0x01 );
+    sendCommand( 0x81, 0x0F );
+    this.os.write( 0x01 );
+    this.os.write( 0x02 );
+    this.os.flush();
+
+    final int[] samples = readSamples( 128, 2 );
+    for ( int sample : samples )
+    {
+      assertEquals( 0x5678, sample );
+    }
+
+    // The next command should be handled after all samples are sent...
+    final byte[] id = new byte[4];
+    this.is.readFully( id );
+    assertEquals( "1ALS", new String( id, "US-ASCII" ) );
+  }
+
+  /**
+   * Tests that RLE-mode alternates between sample values and counts.
+   */
+  @Test( timeout = 10000 )
+  public void testRunRleMode() throws IOException
+  {
+    connect( EmulatorConfig.PATTERN, "constant", EmulatorConfig.VALUE, "0xFF", EmulatorConfig.RUN_LENGTH, "10" );
+
+    // RLE, two groups enabled, 4 * (0x00 + 1) = 4 samples...
+    sendCommand( 0x82, 0x130 );
+    sendCommand( 0x81, 0x00 );
+    this.os.write( 0x01 );
+    this.os.flush();
+
+    // Last sample first, so first the count, then the value...
+    final int[] samples = readSamples( 4, 2 );
+    assertArrayEquals( new int[] { 0x8009, 0x00FF, 0x8009, 0x00FF }, samples );
+  }
+
+  /**
+   * Tests that the trickle mode limits the transfer rate.
+   */
+  @Test( timeout = 10000 )
+  public void testRunTrickleMode() throws IOException
+  {
+    connect( EmulatorConfig.TRICKLE_RATE, "8192" );
+
+    // One group enabled, 4 * (0x3FF + 1) = 4096 samples...
+    sendCommand( 0x82, 0x38 );
+    sendCommand( 0x81, 0x3FF );
+
+    final long start = System.nanoTime();
+    this.os.write( 0x01 );
+    this.os.flush();
+
+    readSamples( 4096, 1 );
+    final long duration = ( System.nanoTime() - start ) / 1000000L;
+    // 4096 bytes at 8K/s should take about half a second, the last chunk is
+    // sent without waiting...
+    assertTrue( "Transfer took only " + duration + " ms", duration >= 300L );
+  }
+}
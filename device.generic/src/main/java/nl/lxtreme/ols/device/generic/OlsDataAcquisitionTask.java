@@ -36,7 +36,7 @@ public final class OlsDataAcquisitionTask implements AcquisitionTask
 {
   // VARIABLES
 
-  private final AcquisitionProgressListener progressListener;
+  private final ThrottledProgressListener progressListener;
   private final GenericDeviceConfigDialog deviceConfig;
 
   // CONSTRUCTORS
@@ -53,7 +53,7 @@ public final class OlsDataAcquisitionTask implements AcquisitionTask
       final AcquisitionProgressListener aProgressListener )
   {
     this.deviceConfig = aDeviceConfig;
-    this.progressListener = aProgressListener;
+    this.progressListener = new ThrottledProgressListener( aProgressListener );
 
   }
 
@@ -33,7 +33,12 @@ import nl.lxtreme.ols.api.data.*;
 
 
 /**
- * Helper class that is capable of reading & writing OLS data files.
+ * Helper class that is capable of reading OLS data files.
+ * <p>
+ * The data is parsed while it is read, without buffering the textual data:
+ * sample lines (<tt>value@timestamp</tt>) are decoded directly into primitive
+ * arrays, making it suitable for reading large captures from pipes.
+ * </p>
  * <p>
  * TODO this class is copied from <tt>client.project</tt>! It should be moved to
  * the API!
@@ -46,172 +51,373 @@ final class OlsDataHelper
 
   /** The regular expression used to parse an (OLS-datafile) instruction. */
   private static final Pattern OLS_INSTRUCTION_PATTERN = Pattern.compile( "^;([^:]+):\\s+([^\r\n]+)$" );
-  /** The regular expression used to parse an (OLS-datafile) data value. */
-  private static final Pattern OLS_DATA_PATTERN = Pattern.compile( "^([0-9a-fA-F]+)@(\\d+)$" );
+
+  /** The number of characters read at once. */
+  private static final int BUFFER_SIZE = 8192;
+  /** The initial number of samples to reserve room for. */
+  private static final int INITIAL_CAPACITY = 1024;
+  /** The maximum number of samples to reserve room for upfront. */
+  private static final int MAX_INITIAL_CAPACITY = 16 * 1024 * 1024;
+
+  private static final int STATE_LINE_START = 0;
+  private static final int STATE_VALUE = 1;
+  private static final int STATE_TIMESTAMP = 2;
+  private static final int STATE_INSTRUCTION = 3;
+  private static final int STATE_SKIP = 4;
+
+  // VARIABLES
+
+  private final StringBuilder instruction;
+
+  private int[] values;
+  private long[] timestamps;
+  private int count;
+
+  private int size;
+  private Integer rate;
+  private Integer channels;
+  private Integer enabledChannels;
+  private long triggerPos;
+  private long absLen;
+  // assume 'new' file format is in use, don't support uncompressed ones...
+  private boolean compressed;
+
+  private int state;
+  private boolean hasDigits;
+  private long value;
+  private long timestamp;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new OlsDataHelper instance.
+   */
+  private OlsDataHelper()
+  {
+    this.instruction = new StringBuilder();
+
+    this.values = new int[INITIAL_CAPACITY];
+    this.timestamps = new long[INITIAL_CAPACITY];
+    this.count = 0;
+
+    this.size = -1;
+    this.triggerPos = -1L;
+    this.absLen = -1L;
+    this.compressed = true;
+
+    this.state = STATE_LINE_START;
+  }
 
   // METHODS
 
   /**
    * Reads the data from a given reader.
    *
-   * @param aProject
-   *          the project to read the settings to;
    * @param aReader
    *          the reader to read the data from, cannot be <code>null</code>.
+   * @return the read acquisition result, never <code>null</code>.
    * @throws IOException
    *           in case of I/O problems.
    */
-  @SuppressWarnings( "boxing" )
   public static AcquisitionResult read( final Reader aReader ) throws IOException
   {
-    int size = -1;
-    Integer rate = null, channels = null, enabledChannels = null;
-    long triggerPos = -1L;
-    long absLen = -1L;
-
-    // assume 'new' file format is in use, don't support uncompressed ones...
-    boolean compressed = true;
-
-    final BufferedReader br = new BufferedReader( aReader );
     if ( LOG.isLoggable( Level.INFO ) )
     {
       LOG.info( "Parsing OLS captured data from stream..." );
     }
 
-    final List<String[]> dataValues = new ArrayList<String[]>();
+    final OlsDataHelper helper = new OlsDataHelper();
 
-    String line;
-    while ( ( line = br.readLine() ) != null )
+    final char[] buffer = new char[BUFFER_SIZE];
+    int read;
+    while ( ( read = aReader.read( buffer ) ) >= 0 )
     {
-      // Determine whether the line is an instruction, or data...
-      final Matcher instructionMatcher = OLS_INSTRUCTION_PATTERN.matcher( line );
-      final Matcher dataMatcher = OLS_DATA_PATTERN.matcher( line );
+      helper.parse( buffer, read );
+    }
+    // Make sure the last line is processed as well...
+    helper.endOfLine();
 
-      if ( dataMatcher.matches() )
-      {
-        final String[] dataPair = new String[] { dataMatcher.group( 1 ), dataMatcher.group( 2 ) };
-        dataValues.add( dataPair );
-      }
-      else if ( instructionMatcher.matches() )
-      {
-        // Ok; found an instruction...
-        final String instrKey = instructionMatcher.group( 1 );
-        final String instrValue = instructionMatcher.group( 2 );
-
-        if ( "Size".equals( instrKey ) )
-        {
-          size = safeParseInt( instrValue );
-        }
-        else if ( "Rate".equals( instrKey ) )
-        {
-          rate = safeParseInt( instrValue );
-        }
-        else if ( "Channels".equals( instrKey ) )
-        {
-          channels = safeParseInt( instrValue );
-        }
-        else if ( "TriggerPosition".equals( instrKey ) )
-        {
-          triggerPos = Long.parseLong( instrValue );
-        }
-        else if ( "EnabledChannels".equals( instrKey ) )
-        {
-          enabledChannels = safeParseInt( instrValue );
-        }
-        else if ( "CursorEnabled".equals( instrKey ) )
-        {
-          // XXX
-        }
-        else if ( "Compressed".equals( instrKey ) )
-        {
-          compressed = Boolean.parseBoolean( instrValue );
-        }
-        else if ( "AbsoluteLength".equals( instrKey ) )
-        {
-          absLen = Long.parseLong( instrValue );
-        }
-        else if ( "CursorA".equals( instrKey ) )
-        {
-          final long value = safeParseLong( instrValue );
-          if ( value > Long.MIN_VALUE )
-          {
-            // XXX
-          }
-        }
-        else if ( "CursorB".equals( instrKey ) )
-        {
-          final long value = safeParseLong( instrValue );
-          if ( value > Long.MIN_VALUE )
-          {
-            // XXX
-          }
-        }
-        else if ( instrKey.startsWith( "Cursor" ) )
-        {
-          final long pos = Long.parseLong( instrValue );
-          if ( pos > Long.MIN_VALUE )
-          {
-            // final int idx = safeParseInt( instrKey.substring( 6 ) );
-            // XXX
-          }
-        }
-      }
+    return helper.createResult();
+  }
+
+  /**
+   * Returns the value of the given hexadecimal digit.
+   *
+   * @return the digit value, or -1 if the given character is not a hexadecimal
+   *         digit.
+   */
+  private static int hexDigit( final char aChar )
+  {
+    if ( ( aChar >= '0' ) && ( aChar <= '9' ) )
+    {
+      return aChar - '0';
+    }
+    if ( ( aChar >= 'a' ) && ( aChar <= 'f' ) )
+    {
+      return aChar - 'a' + 10;
+    }
+    if ( ( aChar >= 'A' ) && ( aChar <= 'F' ) )
+    {
+      return aChar - 'A' + 10;
+    }
+    return -1;
+  }
+
+  /**
+   * Adds a sample value with its timestamp.
+   */
+  private void addSample( final int aValue, final long aTimestamp )
+  {
+    if ( this.count == this.values.length )
+    {
+      ensureCapacity( this.count + 1 );
     }
 
+    this.values[this.count] = aValue;
+    this.timestamps[this.count] = aTimestamp;
+    this.count++;
+  }
+
+  /**
+   * Performs some sanity checks on the parsed data and creates the acquisition
+   * result for it.
+   */
+  @SuppressWarnings( "boxing" )
+  private AcquisitionResult createResult() throws IOException
+  {
     // Perform some sanity checks, make it not possible to import invalid
     // data...
-    if ( dataValues.isEmpty() )
+    if ( this.count == 0 )
     {
       throw new IOException( "Data file does not contain any sample data!" );
     }
-    if ( !compressed )
+    if ( !this.compressed )
     {
       throw new IOException( "Uncompressed data file found! Please send this file to the OLS developers!" );
     }
     // In case the size is not provided (as of 0.9.4 no longer mandatory),
     // take the length of the data values as size indicator...
-    if ( size < 0 )
+    if ( this.size < 0 )
     {
-      size = dataValues.size();
+      this.size = this.count;
     }
-    if ( size != dataValues.size() )
+    if ( this.size != this.count )
     {
       throw new IOException( "Data file is corrupt?! Data size does not match sample count!" );
     }
-    if ( rate == null )
+    if ( this.rate == null )
     {
       throw new IOException( "Data file is corrupt?! Sample rate is not provided!" );
     }
-    if ( ( channels == null ) || ( channels <= 0 ) || ( channels > 32 ) )
+    if ( ( this.channels == null ) || ( this.channels <= 0 ) || ( this.channels > 32 ) )
     {
       throw new IOException( "Data file is corrupt?! Channel count is not provided!" );
     }
     // Make sure the enabled channels are defined; if not defined, all channels
     // are enabled...
-    if ( enabledChannels == null )
+    if ( this.enabledChannels == null )
     {
-      enabledChannels = -1; // = 0xffffffff
+      this.enabledChannels = -1; // = 0xffffffff
     }
 
-    int[] values = new int[size];
-    long[] timestamps = new long[size];
+    final int[] resultValues = ( this.count == this.values.length ) ? this.values : Arrays.copyOf( this.values,
+        this.count );
+    final long[] resultTimestamps = ( this.count == this.timestamps.length ) ? this.timestamps : Arrays.copyOf(
+        this.timestamps, this.count );
 
-    try
+    // Finally set the captured data, and notify all event listeners...
+    return new CapturedData( resultValues, resultTimestamps, this.triggerPos, this.rate, this.channels,
+        this.enabledChannels, this.absLen );
+  }
+
+  /**
+   * Finishes the current line, adding its sample or handling its instruction.
+   */
+  private void endOfLine()
+  {
+    if ( ( this.state == STATE_TIMESTAMP ) && this.hasDigits )
+    {
+      addSample( ( int )this.value, this.timestamp );
+    }
+    else if ( this.state == STATE_INSTRUCTION )
+    {
+      handleInstruction( this.instruction.toString() );
+    }
+
+    this.state = STATE_LINE_START;
+  }
+
+  /**
+   * Grows the sample arrays to hold at least the given number of samples.
+   */
+  private void ensureCapacity( final int aMinCapacity )
+  {
+    final int oldCapacity = this.values.length;
+    if ( aMinCapacity <= oldCapacity )
     {
-      for ( int i = 0; i < size; i++ )
+      return;
+    }
+
+    long newCapacity = Math.max( aMinCapacity, ( oldCapacity * 3L ) / 2L + 1L );
+    if ( newCapacity > Integer.MAX_VALUE )
+    {
+      newCapacity = Integer.MAX_VALUE;
+    }
+
+    this.values = Arrays.copyOf( this.values, ( int )newCapacity );
+    this.timestamps = Arrays.copyOf( this.timestamps, ( int )newCapacity );
+  }
+
+  /**
+   * Handles a single instruction line.
+   */
+  @SuppressWarnings( "boxing" )
+  private void handleInstruction( final String aLine )
+  {
+    final Matcher instructionMatcher = OLS_INSTRUCTION_PATTERN.matcher( aLine );
+    if ( !instructionMatcher.matches() )
+    {
+      return;
+    }
+
+    // Ok; found an instruction...
+    final String instrKey = instructionMatcher.group( 1 );
+    final String instrValue = instructionMatcher.group( 2 );
+
+    if ( "Size".equals( instrKey ) )
+    {
+      this.size = safeParseInt( instrValue );
+      // Reserve room for all samples at once, if possible...
+      ensureCapacity( Math.min( this.size, MAX_INITIAL_CAPACITY ) );
+    }
+    else if ( "Rate".equals( instrKey ) )
+    {
+      this.rate = safeParseInt( instrValue );
+    }
+    else if ( "Channels".equals( instrKey ) )
+    {
+      this.channels = safeParseInt( instrValue );
+    }
+    else if ( "TriggerPosition".equals( instrKey ) )
+    {
+      this.triggerPos = Long.parseLong( instrValue );
+    }
+    else if ( "EnabledChannels".equals( instrKey ) )
+    {
+      this.enabledChannels = safeParseInt( instrValue );
+    }
+    else if ( "Compressed".equals( instrKey ) )
+    {
+      this.compressed = Boolean.parseBoolean( instrValue );
+    }
+    else if ( "AbsoluteLength".equals( instrKey ) )
+    {
+      this.absLen = Long.parseLong( instrValue );
+    }
+    // Cursors are not used by the generic device...
+  }
+
+  /**
+   * Parses the given characters.
+   */
+  private void parse( final char[] aBuffer, final int aLength ) throws IOException
+  {
+    for ( int i = 0; i < aLength; i++ )
+    {
+      final char ch = aBuffer[i];
+      if ( ( ch == '\n' ) || ( ch == '\r' ) )
       {
-        final String[] dataPair = dataValues.get( i );
+        endOfLine();
+        continue;
+      }
+
+      switch ( this.state )
+      {
+        case STATE_LINE_START:
+          if ( ch == ';' )
+          {
+            this.instruction.setLength( 0 );
+            this.instruction.append( ch );
+            this.state = STATE_INSTRUCTION;
+          }
+          else
+          {
+            this.value = 0L;
+            this.hasDigits = false;
+            this.state = STATE_VALUE;
+
+            parseValue( ch );
+          }
+          break;
+
+        case STATE_VALUE:
+          parseValue( ch );
+          break;
 
-        values[i] = ( int )Long.parseLong( dataPair[0], 16 );
-        timestamps[i] = Long.parseLong( dataPair[1], 10 ) & Long.MAX_VALUE;
+        case STATE_TIMESTAMP:
+          parseTimestamp( ch );
+          break;
+
+        case STATE_INSTRUCTION:
+          this.instruction.append( ch );
+          break;
+
+        default:
+          // Ignore the remainder of this line...
+          break;
       }
     }
-    catch ( final NumberFormatException exception )
+  }
+
+  /**
+   * Parses a single character of a decimal timestamp.
+   */
+  private void parseTimestamp( final char aChar ) throws IOException
+  {
+    if ( ( aChar >= '0' ) && ( aChar <= '9' ) )
     {
-      throw new IOException( "Invalid data encountered.", exception );
+      final int digit = aChar - '0';
+      if ( this.timestamp > ( ( Long.MAX_VALUE - digit ) / 10L ) )
+      {
+        throw new IOException( "Invalid data encountered." );
+      }
+
+      this.timestamp = ( this.timestamp * 10L ) + digit;
+      this.hasDigits = true;
+    }
+    else
+    {
+      // Not a valid sample line...
+      this.state = STATE_SKIP;
     }
+  }
 
-    // Finally set the captured data, and notify all event listeners...
-    return new CapturedData( values, timestamps, triggerPos, rate, channels, enabledChannels, absLen );
+  /**
+   * Parses a single character of a hexadecimal sample value.
+   */
+  private void parseValue( final char aChar ) throws IOException
+  {
+    final int digit = hexDigit( aChar );
+    if ( digit >= 0 )
+    {
+      if ( this.value > ( Long.MAX_VALUE >> 4 ) )
+      {
+        throw new IOException( "Invalid data encountered." );
+      }
+
+      this.value = ( this.value << 4 ) | digit;
+      this.hasDigits = true;
+    }
+    else if ( ( aChar == '@' ) && this.hasDigits )
+    {
+      this.timestamp = 0L;
+      this.hasDigits = false;
+      this.state = STATE_TIMESTAMP;
+    }
+    else
+    {
+      // Not a valid sample line...
+      this.state = STATE_SKIP;
+    }
   }
 }
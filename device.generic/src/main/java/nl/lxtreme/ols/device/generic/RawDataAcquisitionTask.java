@@ -40,13 +40,17 @@ public final class RawDataAcquisitionTask implements AcquisitionTask
 
   private static final Logger LOG = Logger.getLogger( RawDataAcquisitionTask.class.getName() );
 
+  /**
+   * The sample depth above which the samples are stored in memory-mapped files
+   * instead of on the heap.
+   */
+  private static final int MAPPED_THRESHOLD = 16 * 1024 * 1024;
+
   // VARIABLES
 
-  private final AcquisitionProgressListener progressListener;
+  private final ThrottledProgressListener progressListener;
   private final GenericDeviceConfigDialog deviceConfig;
 
-  private InputStream inputStream;
-
   // CONSTRUCTORS
 
   /**
@@ -61,7 +65,7 @@ public final class RawDataAcquisitionTask implements AcquisitionTask
       final AcquisitionProgressListener aProgressListener )
   {
     this.deviceConfig = aDeviceConfig;
-    this.progressListener = aProgressListener;
+    this.progressListener = new ThrottledProgressListener( aProgressListener );
 
   }
 
@@ -78,76 +82,80 @@ public final class RawDataAcquisitionTask implements AcquisitionTask
     final int rate = this.deviceConfig.getSampleRate();
     final int channels = this.deviceConfig.getChannelCount();
 
-    final int count = depth * width;
-
-    final int[] values = new int[count];
-    final long[] timestamps = new long[count];
+    final RawSampleReader reader = new RawSampleReader( new File( this.deviceConfig.getDevicePath() ), width, depth );
 
-    this.inputStream = new FileInputStream( this.deviceConfig.getDevicePath() );
+    MappedCapturedData.Writer writer = null;
+    CapturedDataBuilder builder = null;
 
+    boolean success = false;
     try
     {
+      // Large captures are kept off the heap, the caller is expected to close
+      // the resulting captured data once it is no longer used...
+      if ( depth > MAPPED_THRESHOLD )
+      {
+        writer = new MappedCapturedData.Writer();
+      }
+      else
+      {
+        builder = new CapturedDataBuilder();
+      }
+
       int idx = 0;
-      while ( !Thread.currentThread().isInterrupted() && ( idx < count ) )
+      while ( !Thread.currentThread().isInterrupted() && ( idx < depth ) )
       {
-        final int sample = readSample( width );
+        final int read;
+        if ( writer != null )
+        {
+          read = reader.read( writer, idx, depth - idx );
+        }
+        else
+        {
+          read = reader.read( builder, idx, depth - idx );
+        }
 
-        if ( LOG.isLoggable( Level.FINE ) )
+        // Any timeouts/interrupts occurred?
+        if ( read < 0 )
         {
-          LOG.log( Level.FINE, "Read: 0x{0}", Integer.toHexString( sample ) );
+          throw new EOFException( "Data readout interrupted: EOF." );
         }
 
-        values[idx] = sample;
-        timestamps[idx] = idx;
+        idx += read;
 
         // Update the progress...
-        this.progressListener.acquisitionInProgress( ( int )( ( idx++ * 100.0 ) / count ) );
+        this.progressListener.acquisitionInProgress( ( int )( ( idx * 100.0 ) / depth ) );
       }
 
-      final long absLength = timestamps[idx - 1];
+      this.progressListener.flush();
+
+      final int transitions = ( writer != null ) ? writer.size() : builder.size();
+      LOG.log( Level.FINE, "{0} samples read, {1} transitions.",
+          new Object[] { Integer.valueOf( idx ), Integer.valueOf( transitions ) } );
+
+      final long absLength = idx - 1;
       final int enabledChannels = ( 1 << channels ) - 1;
 
-      return new CapturedData( values, timestamps, Ols.NOT_AVAILABLE, rate, channels, enabledChannels, absLength );
-    }
-    catch ( IOException exception )
-    {
-      // Rethrow the caught exception...
-      throw exception;
+      final AcquisitionResult result;
+      if ( writer != null )
+      {
+        result = writer.build( Ols.NOT_AVAILABLE, rate, channels, enabledChannels, absLength );
+      }
+      else
+      {
+        result = builder.build( Ols.NOT_AVAILABLE, rate, channels, enabledChannels, absLength );
+      }
+
+      success = true;
+      return result;
     }
     finally
     {
-      HostUtils.closeResource( this.inputStream );
-    }
-  }
+      HostUtils.closeResource( reader );
 
-  /**
-   * Reads <code>channels</code> / 8 bytes from stream and compiles them into a
-   * single integer.
-   * 
-   * @param aChannelCount
-   *          number of channels to read (must be multiple of 8)
-   * @return integer containing four bytes read
-   * @throws IOException
-   *           if stream reading fails
-   */
-  private int readSample( final int aSampleWidth ) throws IOException
-  {
-    int v, value = 0;
-
-    for ( int i = 0; !Thread.currentThread().isInterrupted() && ( i < aSampleWidth ); i++ )
-    {
-      v = this.inputStream.read();
-
-      // Any timeouts/interrupts occurred?
-      if ( v < 0 )
+      if ( !success && ( writer != null ) )
       {
-        throw new EOFException( "Data readout interrupted: EOF." );
+        writer.abort();
       }
-
-      value |= v << ( 8 * i );
     }
-
-    return value;
   }
-
 }
@@ -0,0 +1,257 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.generic;
+
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.util.*;
+
+
+/**
+ * Provides a bulk reader for raw samples of 1 to 4 bytes wide, stored in
+ * little-endian order.
+ * <p>
+ * Regular files are mapped into memory; other sources, like FIFOs or character
+ * devices, are read in large blocks into a reusable direct buffer.
+ * </p>
+ * <p>
+ * This class is <b>not</b> thread-safe.
+ * </p>
+ */
+final class RawSampleReader implements Closeable
+{
+  // CONSTANTS
+
+  /** The number of bytes read at once from sources that cannot be mapped. */
+  private static final int BUFFER_SIZE = 64 * 1024;
+  /** The maximum number of samples decoded at once. */
+  private static final int BLOCK_SIZE = 16 * 1024;
+
+  // VARIABLES
+
+  private final FileInputStream stream;
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private final int[] block;
+  private final boolean mapped;
+  private final int sampleWidth;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new RawSampleReader instance.
+   *
+   * @param aFile
+   *          the file to read the samples from, cannot be <code>null</code>;
+   * @param aSampleWidth
+   *          the width of a single sample, in bytes, >= 1 && <= 4;
+   * @param aSampleCount
+   *          the (maximum) number of samples that will be read, >= 0.
+   * @throws IOException
+   *           in case the given file could not be opened or mapped.
+   */
+  public RawSampleReader( final File aFile, final int aSampleWidth, final int aSampleCount ) throws IOException
+  {
+    if ( ( aSampleWidth < 1 ) || ( aSampleWidth > 4 ) )
+    {
+      throw new IllegalArgumentException( "Sample width must be between 1 and 4 bytes!" );
+    }
+
+    this.sampleWidth = aSampleWidth;
+    this.stream = new FileInputStream( aFile );
+    this.channel = this.stream.getChannel();
+
+    final long length = ( long )aSampleCount * aSampleWidth;
+
+    ByteBuffer buf;
+    try
+    {
+      if ( aFile.isFile() && ( length <= Integer.MAX_VALUE ) )
+      {
+        // Regular files can be mapped directly into memory...
+        buf = this.channel.map( FileChannel.MapMode.READ_ONLY, 0L, Math.min( length, this.channel.size() ) );
+      }
+      else
+      {
+        buf = ByteBuffer.allocateDirect( BUFFER_SIZE );
+        buf.limit( 0 );
+      }
+    }
+    catch ( IOException exception )
+    {
+      HostUtils.closeResource( this.stream );
+      throw exception;
+    }
+
+    this.buffer = buf.order( ByteOrder.LITTLE_ENDIAN );
+    this.block = new int[BLOCK_SIZE];
+    this.mapped = ( buf instanceof MappedByteBuffer );
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void close() throws IOException
+  {
+    this.stream.close();
+  }
+
+  /**
+   * Reads the next block of samples and adds them to the given builder.
+   *
+   * @param aBuilder
+   *          the builder to add the samples to, cannot be <code>null</code>;
+   * @param aTimestamp
+   *          the timestamp of the first sample read, >= 0;
+   * @param aMaxCount
+   *          the maximum number of samples to read, > 0.
+   * @return the number of samples read, or -1 if the end of the file is
+   *         reached.
+   * @throws IOException
+   *           in case of I/O problems, or when interrupted while reading.
+   */
+  public int read( final CapturedDataBuilder aBuilder, final long aTimestamp, final int aMaxCount )
+      throws IOException
+  {
+    final int count = decode( aMaxCount );
+    for ( int i = 0; i < count; i++ )
+    {
+      aBuilder.add( this.block[i], aTimestamp + i );
+    }
+    return count;
+  }
+
+  /**
+   * Reads the next block of samples and writes them to the given writer.
+   *
+   * @param aWriter
+   *          the writer to write the samples to, cannot be <code>null</code>;
+   * @param aTimestamp
+   *          the timestamp of the first sample read, >= 0;
+   * @param aMaxCount
+   *          the maximum number of samples to read, > 0.
+   * @return the number of samples read, or -1 if the end of the file is
+   *         reached.
+   * @throws IOException
+   *           in case of I/O problems, or when interrupted while reading.
+   */
+  public int read( final MappedCapturedData.Writer aWriter, final long aTimestamp, final int aMaxCount )
+      throws IOException
+  {
+    final int count = decode( aMaxCount );
+    for ( int i = 0; i < count; i++ )
+    {
+      aWriter.add( this.block[i], aTimestamp + i );
+    }
+    return count;
+  }
+
+  /**
+   * Decodes the next block of samples from the buffer.
+   *
+   * @return the number of samples decoded, or -1 if the end of the file is
+   *         reached.
+   */
+  private int decode( final int aMaxCount ) throws IOException
+  {
+    if ( ( this.buffer.remaining() < this.sampleWidth ) && ( this.mapped || !fill() ) )
+    {
+      return -1;
+    }
+
+    final ByteBuffer buf = this.buffer;
+    final int[] values = this.block;
+    final int count = Math.min( Math.min( aMaxCount, values.length ), buf.remaining() / this.sampleWidth );
+
+    switch ( this.sampleWidth )
+    {
+      case 1:
+        for ( int i = 0; i < count; i++ )
+        {
+          values[i] = buf.get() & 0xFF;
+        }
+        break;
+
+      case 2:
+        for ( int i = 0; i < count; i++ )
+        {
+          values[i] = buf.getShort() & 0xFFFF;
+        }
+        break;
+
+      case 3:
+        for ( int i = 0; i < count; i++ )
+        {
+          values[i] = ( buf.get() & 0xFF ) | ( ( buf.get() & 0xFF ) << 8 ) | ( ( buf.get() & 0xFF ) << 16 );
+        }
+        break;
+
+      default:
+        for ( int i = 0; i < count; i++ )
+        {
+          values[i] = buf.getInt();
+        }
+        break;
+    }
+
+    return count;
+  }
+
+  /**
+   * Refills the buffer with at least a single sample, keeping any remaining
+   * bytes of a partially read sample.
+   *
+   * @return <code>true</code> if at least one sample is available,
+   *         <code>false</code> if the end of the file is reached.
+   */
+  private boolean fill() throws IOException
+  {
+    this.buffer.compact();
+    try
+    {
+      while ( this.buffer.position() < this.sampleWidth )
+      {
+        if ( this.channel.read( this.buffer ) < 0 )
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+    catch ( ClosedByInterruptException exception )
+    {
+      final InterruptedIOException result = new InterruptedIOException( "Reading samples interrupted!" );
+      result.initCause( exception );
+      throw result;
+    }
+    finally
+    {
+      this.buffer.flip();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.generic;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link OlsDataHelper}.
+ */
+public class OlsDataHelperTest
+{
+  // METHODS
+
+  /**
+   * Tests that a capture without sample data is refused.
+   */
+  @Test( expected = IOException.class )
+  public void testReadWithoutSamplesFails() throws IOException
+  {
+    OlsDataHelper.read( new StringReader( ";Rate: 100\n;Channels: 8\n" ) );
+  }
+
+  /**
+   * Tests that a mismatch between the size and the actual samples is refused.
+   */
+  @Test( expected = IOException.class )
+  public void testReadWithInvalidSizeFails() throws IOException
+  {
+    OlsDataHelper.read( new StringReader( ";Size: 3\n;Rate: 100\n;Channels: 8\n00@0\n01@1\n" ) );
+  }
+
+  /**
+   * Tests that a too large sample value is refused.
+   */
+  @Test( expected = IOException.class )
+  public void testReadWithInvalidValueFails() throws IOException
+  {
+    OlsDataHelper.read( new StringReader( ";Rate: 100\n;Channels: 8\n10000000000000000@0\n" ) );
+  }
+
+  /**
+   * Tests that a capture is parsed correctly, even when it arrives in small
+   * chunks and uses different line endings.
+   */
+  @Test
+  public void testReadCapture() throws IOException
+  {
+    final String data = ";Size: 3\r\n;Rate: 1000000\r\n;Channels: 32\n;EnabledChannels: 255\n"
+        + ";TriggerPosition: 1\n;Compressed: true\n;AbsoluteLength: 20\n;CursorA: 5\n" //
+        + "00@0\nignored line\r\nfFfFfFfF@10\n000000a5@20";
+
+    // Deliver the data in very small chunks, as a pipe might do...
+    final Reader reader = new Reader()
+    {
+      private final Reader delegate = new StringReader( data );
+
+      @Override
+      public void close() throws IOException
+      {
+        this.delegate.close();
+      }
+
+      @Override
+      public int read( final char[] aBuffer, final int aOffset, final int aLength ) throws IOException
+      {
+        return this.delegate.read( aBuffer, aOffset, Math.min( 3, aLength ) );
+      }
+    };
+
+    final AcquisitionResult result = OlsDataHelper.read( reader );
+
+    assertArrayEquals( new int[] { 0x00, 0xffffffff, 0xa5 }, result.getValues() );
+    assertArrayEquals( new long[] { 0L, 10L, 20L }, result.getTimestamps() );
+    assertEquals( 1000000, result.getSampleRate() );
+    assertEquals( 32, result.getChannels() );
+    assertEquals( 255, result.getEnabledChannels() );
+    assertEquals( 1L, result.getTriggerPosition() );
+    assertEquals( 20L, result.getAbsoluteLength() );
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.device.generic;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link RawSampleReader}.
+ */
+public class RawSampleReaderTest
+{
+  // VARIABLES
+
+  private File file;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp() throws IOException
+  {
+    this.file = File.createTempFile( "rawsamples", ".bin" );
+    this.file.deleteOnExit();
+  }
+
+  /**
+   * Tear down for each test case.
+   */
+  @After
+  public void tearDown()
+  {
+    this.file.delete();
+  }
+
+  /**
+   * Tests that reading beyond the end of the file is reported.
+   */
+  @Test
+  public void testReadBeyondEndOfFile() throws IOException
+  {
+    writeFile( new byte[] { 1, 2, 3, 4, 5 } );
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    final RawSampleReader reader = new RawSampleReader( this.file, 2, 10 );
+    try
+    {
+      assertEquals( 2, reader.read( builder, 0L, 10 ) );
+      assertEquals( -1, reader.read( builder, 2L, 8 ) );
+    }
+    finally
+    {
+      HostUtils.closeResource( reader );
+    }
+  }
+
+  /**
+   * Tests that samples of all supported widths are decoded in little-endian
+   * order.
+   */
+  @Test
+  public void testReadSampleWidths() throws IOException
+  {
+    final byte[] data = { 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0a, 0x0b, 0x0c };
+    writeFile( data );
+
+    assertArrayEquals( new int[] { 0x01, 0x02, 0x03, 0x04 }, readValues( 1, 4 ) );
+    assertArrayEquals( new int[] { 0x0201, 0x0403, 0x0605 }, readValues( 2, 3 ) );
+    assertArrayEquals( new int[] { 0x030201, 0x060504, 0x090807 }, readValues( 3, 3 ) );
+    assertArrayEquals( new int[] { 0x04030201, 0x08070605 }, readValues( 4, 2 ) );
+  }
+
+  /**
+   * Tests that consecutive equal samples are stored as a single transition.
+   */
+  @Test
+  public void testReadCompactsSamples() throws IOException
+  {
+    writeFile( new byte[] { 1, 1, 1, 2, 2, 1 } );
+
+    final AcquisitionResult result = read( 1, 6 );
+    assertArrayEquals( new int[] { 1, 2, 1 }, result.getValues() );
+    assertArrayEquals( new long[] { 0L, 3L, 5L }, result.getTimestamps() );
+  }
+
+  /**
+   * Tests that samples can be written to memory-mapped captured data.
+   */
+  @Test
+  public void testReadIntoMappedData() throws IOException
+  {
+    writeFile( new byte[] { 1, 1, 1, 2, 2, 1 } );
+
+    final MappedCapturedData.Writer writer = new MappedCapturedData.Writer();
+    final RawSampleReader reader = new RawSampleReader( this.file, 1, 6 );
+    try
+    {
+      assertEquals( 6, reader.read( writer, 0L, 6 ) );
+    }
+    finally
+    {
+      HostUtils.closeResource( reader );
+    }
+
+    final MappedCapturedData result = writer.build( 0L, 1, 8, -1, 5L );
+    try
+    {
+      assertArrayEquals( new int[] { 1, 2, 1 }, result.getValues() );
+      assertArrayEquals( new long[] { 0L, 3L, 5L }, result.getTimestamps() );
+    }
+    finally
+    {
+      result.close();
+    }
+  }
+
+  /**
+   * Reads the given number of samples from the test file.
+   */
+  private AcquisitionResult read( final int aWidth, final int aCount ) throws IOException
+  {
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    final RawSampleReader reader = new RawSampleReader( this.file, aWidth, aCount );
+    try
+    {
+      int idx = 0;
+      while ( idx < aCount )
+      {
+        final int read = reader.read( builder, idx, aCount - idx );
+        assertTrue( read > 0 );
+        idx += read;
+      }
+      return builder.build( 0L, 1, 8 * aWidth, -1, aCount - 1 );
+    }
+    finally
+    {
+      HostUtils.closeResource( reader );
+    }
+  }
+
+  /**
+   * Reads the given number of distinct samples from the test file.
+   */
+  private int[] readValues( final int aWidth, final int aCount ) throws IOException
+  {
+    final int[] values = read( aWidth, aCount ).getValues();
+    // Builder always appends the absolute length as last transition...
+    final int[] result = new int[aCount];
+    System.arraycopy( values, 0, result, 0, aCount );
+    return result;
+  }
+
+  /**
+   * Writes the given data to the test file.
+   */
+  private void writeFile( final byte[] aData ) throws IOException
+  {
+    final FileOutputStream fos = new FileOutputStream( this.file );
+    try
+    {
+      fos.write( aData );
+    }
+    finally
+    {
+      HostUtils.closeResource( fos );
+    }
+  }
+}
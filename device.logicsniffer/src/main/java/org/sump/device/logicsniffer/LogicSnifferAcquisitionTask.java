@@ -22,7 +22,6 @@ package org.sump.device.logicsniffer;
 
 
 import java.io.*;
-import java.util.*;
 import java.util.logging.*;
 
 import javax.microedition.io.*;
@@ -48,16 +47,22 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
 
   private static final Logger LOG = Logger.getLogger( LogicSnifferAcquisitionTask.class.getName() );
 
+  /** The maximum number of bytes read from the device at once. */
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+
   // VARIABLES
 
   private final DeviceProfileManager deviceProfileManager;
-  private final AcquisitionProgressListener acquisitionProgressListener;
+  private final ThrottledProgressListener acquisitionProgressListener;
   private final LogicSnifferConfig config;
 
   private StreamConnection connection;
   private SumpResultReader inputStream;
   private SumpCommandWriter outputStream;
   private int trigcount;
+  private boolean armed;
+  private volatile boolean rearm;
+  private long armTime;
 
   // CONSTRUCTORS
 
@@ -70,7 +75,7 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
     this.config = aConfig;
     this.connection = aConnection;
     this.deviceProfileManager = aDeviceProfileManager;
-    this.acquisitionProgressListener = aProgressListener;
+    this.acquisitionProgressListener = new ThrottledProgressListener( aProgressListener );
   }
 
   // METHODS
@@ -79,6 +84,11 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
    * Sends the configuration to the device, starts it, reads the captured data
    * and returns a CapturedData object containing the data read as well as
    * device configuration information.
+   * <p>
+   * In case the device was re-armed after the previous call (see
+   * {@link #setRearm(boolean)}), the device is neither detected nor configured
+   * again, and the samples of the pending capture are read directly.
+   * </p>
    * 
    * @return the captured results, never <code>null</code>.
    * @throws IOException
@@ -92,42 +102,47 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
   {
     LOG.info( "Starting capture ..." );
 
-    // Opens the device...
-    open();
-
-    // First try to find the logic sniffer itself...
-    detectDevice();
+    final int sampleCount = this.config.getSampleCount();
 
-    // check if data needs to be multiplexed
-    final int channelCount = this.config.getChannelCount();
-    if ( channelCount <= 0 )
+    if ( this.armed )
     {
-      throw new InternalError( "Internal error: did not obtain correct number of channels (" + channelCount + ")?!" );
+      // The device is already capturing with the current configuration...
+      LOG.fine( "Device already armed by previous capture ..." );
     }
-
-    final int sampleCount = this.config.getSampleCount();
-    if ( sampleCount <= 0 )
+    else
     {
-      throw new InternalError( "Internal error: did not obtain correct number of samples (" + sampleCount + ")?!" );
-    }
+      long time = System.nanoTime();
 
-    // Setup/configure the device with the UI-settings...
-    configureAndArmDevice();
+      // Opens the device...
+      open();
 
-    // read all samples
-    int[] samples = readSamples( this.config.getEnabledGroupCount(), sampleCount );
+      time = reportPhase( AcquisitionMetrics.PHASE_OPEN, time, 0L );
 
-    if ( samples.length < sampleCount )
-    {
-      LOG.log( Level.INFO, "Only {0} samples read!", Integer.valueOf( samples.length ) );
-    }
-    else
-    {
-      LOG.log( Level.FINE, "{0} samples read. Starting post processing...", Integer.valueOf( sampleCount ) );
+      // First try to find the logic sniffer itself...
+      detectDevice();
+
+      time = reportPhase( AcquisitionMetrics.PHASE_DETECT, time, 0L );
+
+      // check if data needs to be multiplexed
+      final int channelCount = this.config.getChannelCount();
+      if ( channelCount <= 0 )
+      {
+        throw new InternalError( "Internal error: did not obtain correct number of channels (" + channelCount
+            + ")?!" );
+      }
+
+      if ( sampleCount <= 0 )
+      {
+        throw new InternalError( "Internal error: did not obtain correct number of samples (" + sampleCount + ")?!" );
+      }
+
+      // Setup/configure the device with the UI-settings...
+      configureAndArmDevice();
+
+      reportPhase( AcquisitionMetrics.PHASE_CONFIGURE, time, 0L );
     }
 
-    final List<Integer> values = new ArrayList<Integer>();
-    final List<Long> timestamps = new ArrayList<Long>();
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
 
     // collect additional information for CapturedData; we use arrays here,
     // as their values are to be filled from anonymous inner classes...
@@ -139,8 +154,7 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
     {
       public void addValue( final int aSampleValue, final long aTimestamp )
       {
-        values.add( Integer.valueOf( aSampleValue ) );
-        timestamps.add( Long.valueOf( aTimestamp ) );
+        builder.add( aSampleValue, aTimestamp );
       }
 
       public void ready( final long aAbsoluteLength, final long aTriggerPosition )
@@ -152,16 +166,30 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
         }
       }
     };
-    // Process the actual samples...
-    createSampleProcessor( sampleCount, samples, callback ).process();
 
-    // Close the connection...
-    close();
+    // read & process all samples...
+    readSamples( this.config.getEnabledGroupCount(), sampleCount, createSampleProcessor( sampleCount, callback ) );
+
+    LOG.log( Level.FINE, "{0} samples read and processed.", Integer.valueOf( sampleCount ) );
+
+    long time = System.nanoTime();
+
+    if ( !this.armed )
+    {
+      // Close the connection...
+      close();
+
+      time = reportPhase( AcquisitionMetrics.PHASE_CLOSE, time, 0L );
+    }
 
     // Issue #98: use the *enabled* channel count, not the total channel
     // count...
-    return new CapturedData( values, timestamps, triggerPos[0], rate, this.config.getEnabledChannelsCount(),
+    final AcquisitionResult result = builder.build( triggerPos[0], rate, this.config.getEnabledChannelsCount(),
         this.config.getEnabledChannelsMask(), absoluteLength[0] );
+
+    reportPhase( AcquisitionMetrics.PHASE_BUILD, time, 0L );
+
+    return result;
   }
 
   /**
@@ -179,9 +207,25 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
     this.trigcount = this.outputStream.writeDeviceConfiguration();
 
     // We're ready to process the samples from the device...
+    this.armTime = System.nanoTime();
     this.outputStream.writeCmdRun();
   }
 
+  /**
+   * Sets whether the device should be re-armed directly after the samples of a
+   * capture are read, allowing back-to-back captures with the same
+   * configuration without closing the connection in between.
+   *
+   * @param aRearm
+   *          <code>true</code> to re-arm the device after each capture,
+   *          <code>false</code> to reset it and close the connection (the
+   *          default).
+   */
+  final void setRearm( final boolean aRearm )
+  {
+    this.rearm = aRearm;
+  }
+
   /**
    * Factory method to create a sample procesor for the given numer of samples
    * and sample values.
@@ -235,6 +279,7 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
           this.connection = null;
           this.outputStream = null;
           this.inputStream = null;
+          this.armed = false;
         }
       }
     }
@@ -316,25 +361,22 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
   /**
    * @param aSampleCount
    *          the actual number of samples to process;
-   * @param aSampleValues
-   *          the sample values to process;
    * @param aCallback
    *          the processor callback to use.
    * @return a sample processor instance, never <code>null</code>.
    */
-  private SampleProcessor createSampleProcessor( final int aSampleCount, final int[] aSampleValues,
-      final SampleProcessorCallback aCallback )
+  private SampleProcessor createSampleProcessor( final int aSampleCount, final SampleProcessorCallback aCallback )
   {
     final SampleProcessor processor;
     if ( this.config.isRleEnabled() )
     {
       LOG.log( Level.INFO, "Decoding Run Length Encoded data, sample count: {0}", Integer.valueOf( aSampleCount ) );
-      processor = new RleDecoder( this.config, aSampleValues, this.trigcount, aCallback );
+      processor = new RleDecoder( this.config, aSampleCount, this.trigcount, aCallback );
     }
     else
     {
       LOG.log( Level.INFO, "Decoding unencoded data, sample count: {0}", Integer.valueOf( aSampleCount ) );
-      processor = new EqualityFilter( this.config, aSampleValues, this.trigcount, aCallback );
+      processor = new EqualityFilter( this.config, this.trigcount, aCallback );
     }
     return processor;
   }
@@ -398,42 +440,153 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
   }
 
   /**
-   * Reads all (or as many as possible) samples from the OLS device.
+   * Reads all (or as many as possible) samples from the OLS device, and
+   * processes them with the given sample processor.
+   * <p>
+   * In case the device sends its samples in chronological order, the samples
+   * are processed on a separate thread while the remaining samples are still
+   * being read. Otherwise, the first sample received is the last sample in
+   * time, so processing can only start after all samples are read; in that
+   * case only the normalization of the samples is done while reading.
+   * </p>
    * 
    * @param aEnabledGroupCount
    *          the number of enabled groups (denotes the number of bytes for one sample);
    * @param aSampleCount
-   *          the number of samples to read.
-   * @return the read samples, normalized to match the layout of the enabled groups.
+   *          the number of samples to read;
+   * @param aProcessor
+   *          the sample processor to process the read samples with.
    * @throws IOException
    *           in case of I/O problems;
    * @throws InterruptedException
    *           in case the current thread was interrupted.
    */
-  private int[] readSamples( final int aEnabledGroupCount, int aSampleCount ) throws IOException, InterruptedException
+  private void readSamples( final int aEnabledGroupCount, final int aSampleCount, final SampleProcessor aProcessor )
+      throws IOException, InterruptedException
+  {
+    final int length = aEnabledGroupCount * aSampleCount;
+    final int rawLength = Math.min( length, READ_BUFFER_SIZE );
+
+    // All buffers are taken from the pool, as they are only needed until all
+    // samples are processed; note that they can be larger than requested...
+    final BufferPool bufferPool = BufferPool.getInstance();
+    final byte[] rawData = bufferPool.acquireBytes( rawLength );
+    final int[] block = bufferPool.acquireInts( rawLength / Math.max( 1, aEnabledGroupCount ) );
+
+    // In case the device sends its samples in "reverse" order, it actually
+    // sends them in chronological order...
+    final SampleProcessorPipeline pipeline;
+    final int[] samples;
+    if ( this.config.isSamplesInReverseOrder() && ( length > 0 ) )
+    {
+      pipeline = new SampleProcessorPipeline( aProcessor );
+      pipeline.start();
+      samples = null;
+    }
+    else
+    {
+      pipeline = null;
+      samples = bufferPool.acquireInts( aSampleCount );
+    }
+
+    try
+    {
+      readSamples( rawData, rawLength, block, samples, pipeline, aEnabledGroupCount, aSampleCount, aProcessor );
+    }
+    finally
+    {
+      bufferPool.release( rawData );
+      bufferPool.release( block );
+      bufferPool.release( samples );
+    }
+  }
+
+  /**
+   * Reads all samples from the OLS device into the given buffers, and
+   * processes them with either the given pipeline or the given processor.
+   * 
+   * @param aRawData
+   *          the buffer for the raw sample data;
+   * @param aRawLength
+   *          the number of bytes of the raw data buffer to use;
+   * @param aBlock
+   *          the buffer for the samples of a single read;
+   * @param aSamples
+   *          the buffer for all samples, only used when there's no pipeline;
+   * @param aPipeline
+   *          the pipeline to process the samples with while reading, can be
+   *          <code>null</code>;
+   * @param aEnabledGroupCount
+   *          the number of enabled groups;
+   * @param aSampleCount
+   *          the number of samples to read;
+   * @param aProcessor
+   *          the sample processor to process the read samples with.
+   */
+  private void readSamples( final byte[] aRawData, final int aRawLength, final int[] aBlock, final int[] aSamples,
+      final SampleProcessorPipeline aPipeline, final int aEnabledGroupCount, final int aSampleCount,
+      final SampleProcessor aProcessor ) throws IOException, InterruptedException
   {
+    final SampleUnpacker unpacker = new SampleUnpacker( this.config );
     final int length = aEnabledGroupCount * aSampleCount;
-    final byte[] rawData = new byte[length];
 
+    boolean completed = false;
+    long transferStart = this.armTime;
+    long transferEnd = this.armTime;
+    long normalizeTime = 0L;
     try
     {
       int offset = 0;
-      int count = length;
+      int sampleIdx = aSampleCount;
+      int remaining = 0;
       while ( !Thread.currentThread().isInterrupted() && ( offset >= 0 ) && ( offset < length ) )
       {
-        int read = this.inputStream.readRawData( rawData, offset, count );
+        int read = this.inputStream.readRawData( aRawData, remaining,
+            Math.min( aRawLength - remaining, length - offset ) );
         if ( read < 0 )
         {
           throw new EOFException();
         }
-        else
+
+        if ( offset == 0 )
         {
-          count -= read;
-          offset += read;
+          // The first read only returns after the device is triggered...
+          transferStart = reportPhase( AcquisitionMetrics.PHASE_TRIGGER, this.armTime, 0L );
         }
 
+        final long normalizeStart = System.nanoTime();
+
+        // Normalize the raw data into the sample data, as expected; a sample
+        // can be split across two reads, so keep its first bytes for the next
+        // read...
+        final int available = remaining + read;
+        final int count = unpacker.unpack( aRawData, 0, available, aBlock );
+        remaining = available - ( count * aEnabledGroupCount );
+        System.arraycopy( aRawData, available - remaining, aRawData, 0, remaining );
+
+        if ( aPipeline == null )
+        {
+          // The first sample received is the last sample in time...
+          for ( int i = 0; i < count; i++ )
+          {
+            aSamples[--sampleIdx] = aBlock[i];
+          }
+        }
+
+        normalizeTime += System.nanoTime() - normalizeStart;
+
+        if ( aPipeline != null )
+        {
+          aPipeline.add( aBlock, count );
+        }
+
+        offset += read;
+
         this.acquisitionProgressListener.acquisitionInProgress( ( 100 * offset ) / length );
       }
+
+      transferEnd = System.nanoTime();
+      completed = true;
     }
     catch ( IOException exception )
     {
@@ -445,40 +598,105 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
     }
     finally
     {
-      // Make sure we leave the device in a correct state...
-      this.outputStream.writeCmdReset();
+      if ( ( aPipeline != null ) && ( !completed || Thread.currentThread().isInterrupted() ) )
+      {
+        aPipeline.cancel();
+      }
+
+      // For back-to-back captures, re-arm the device right away, so it can
+      // capture while we're still processing the samples we've just read...
+      this.armed = completed && this.rearm && !Thread.currentThread().isInterrupted();
+
+      // Make sure we leave the device in a correct state; a failing reset
+      // should not hide the samples we've already read...
+      try
+      {
+        if ( this.armed )
+        {
+          this.armTime = System.nanoTime();
+          this.outputStream.writeCmdRun();
+        }
+        else
+        {
+          this.outputStream.writeCmdReset();
+        }
+      }
+      catch ( IOException exception )
+      {
+        this.armed = false;
+
+        // Make sure to handle IO-interrupted exceptions properly!
+        if ( !HostUtils.handleInterruptedException( exception ) )
+        {
+          LOG.log( Level.WARNING, "Failed to reset or re-arm device!", exception );
+        }
+      }
 
       this.acquisitionProgressListener.acquisitionInProgress( 100 );
     }
-    
+
     if ( Thread.currentThread().isInterrupted() )
     {
       // We're interrupted while read samples, do not proceed...
       throw new InterruptedException();
     }
-    
-    final int groupCount = this.config.getGroupCount();
-    
-    // Normalize the raw data into the sample data, as expected...
-    int[] samples = new int[aSampleCount];
-    for ( int i = samples.length - 1, j = 0; i >= 0; i-- )
+
+    // The time spent on normalizing the samples is not part of the transfer...
+    reportPhase( AcquisitionMetrics.PHASE_TRANSFER, transferStart + normalizeTime, transferEnd, length );
+    reportPhase( AcquisitionMetrics.PHASE_NORMALIZE, 0L, normalizeTime, 0L );
+
+    final long decodeStart = System.nanoTime();
+
+    if ( aPipeline != null )
+    {
+      // Wait until the remaining samples are processed...
+      aPipeline.finish();
+    }
+    else
     {
-      for ( int g = 0; g < groupCount; g++ )
+      for ( int i = 0; i < aSampleCount; i++ )
       {
-        if ( this.config.isGroupEnabled( g ) )
-        {
-          samples[i] |= ( ( rawData[j++] & 0xff ) << ( 8 * g ) );
-        }
+        aProcessor.processSample( aSamples[i] );
       }
+      aProcessor.finish();
     }
 
-    // In case the device sends its samples in "reverse" order, we need to
-    // revert it now, before processing them further...
-    if ( this.config.isSamplesInReverseOrder() )
-    {
-      HostUtils.reverse( samples );
-    }
+    reportPhase( AcquisitionMetrics.PHASE_DECODE, decodeStart, 0L );
+  }
+
+  /**
+   * Reports the timing of a phase of the acquisition to the progress listener.
+   *
+   * @param aPhase
+   *          the name of the phase;
+   * @param aStartTime
+   *          the start time of the phase, in nanoseconds;
+   * @param aEndTime
+   *          the end time of the phase, in nanoseconds;
+   * @param aByteCount
+   *          the number of bytes transferred during the phase.
+   */
+  private void reportPhase( final String aPhase, final long aStartTime, final long aEndTime, final long aByteCount )
+  {
+    this.acquisitionProgressListener.acquisitionPhaseCompleted( aPhase, Math.max( 0L, aEndTime - aStartTime ),
+        aByteCount );
+  }
 
-    return samples;
+  /**
+   * Reports the timing of a phase of the acquisition that ends now.
+   *
+   * @param aPhase
+   *          the name of the phase;
+   * @param aStartTime
+   *          the start time of the phase, in nanoseconds;
+   * @param aByteCount
+   *          the number of bytes transferred during the phase.
+   * @return the end time of the phase, in nanoseconds.
+   */
+  private long reportPhase( final String aPhase, final long aStartTime, final long aByteCount )
+  {
+    final long now = System.nanoTime();
+    reportPhase( aPhase, aStartTime, now, aByteCount );
+    return now;
   }
 }
@@ -21,6 +21,8 @@
 package org.sump.device.logicsniffer;
 
 
+import java.util.*;
+
 import nl.lxtreme.ols.api.*;
 
 import org.sump.device.logicsniffer.profile.*;
@@ -97,6 +99,51 @@ public final class LogicSnifferConfig
 
   // METHODS
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean equals( final Object aObject )
+  {
+    if ( this == aObject )
+    {
+      return true;
+    }
+    if ( ( aObject == null ) || !( aObject instanceof LogicSnifferConfig ) )
+    {
+      return false;
+    }
+
+    final LogicSnifferConfig other = ( LogicSnifferConfig )aObject;
+    if ( ( this.clockSource != other.clockSource ) || ( this.filterEnabled != other.filterEnabled )
+        || ( this.triggerEnabled != other.triggerEnabled ) || ( this.rleEnabled != other.rleEnabled )
+        || ( this.altNumberSchemeEnabled != other.altNumberSchemeEnabled )
+        || ( this.testModeEnabled != other.testModeEnabled ) )
+    {
+      return false;
+    }
+    if ( ( this.enabledChannels != other.enabledChannels ) || ( this.size != other.size )
+        || ( Double.compare( this.ratio, other.ratio ) != 0 ) || ( this.rleDataWidth != other.rleDataWidth )
+        || ( this.sampleRate != other.sampleRate ) )
+    {
+      return false;
+    }
+    if ( !Arrays.equals( this.triggerMask, other.triggerMask )
+        || !Arrays.equals( this.triggerValue, other.triggerValue )
+        || !Arrays.equals( this.triggerConfig, other.triggerConfig )
+        || !Arrays.equals( this.enabledGroups, other.enabledGroups ) )
+    {
+      return false;
+    }
+    if ( ( this.deviceProfile == null ) ? ( other.deviceProfile != null ) : !this.deviceProfile
+        .equals( other.deviceProfile ) )
+    {
+      return false;
+    }
+    return ( this.connectionURI == null ) ? ( other.connectionURI == null ) : this.connectionURI
+        .equals( other.connectionURI );
+  }
+
   /**
    * Returns the number of <em>available</em> channels in current configuration.
    * 
@@ -422,6 +469,28 @@ public final class LogicSnifferConfig
     return this.triggerValue[aStage];
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int hashCode()
+  {
+    final int prime = 31;
+    int result = 1;
+    result = ( prime * result ) + ( ( this.clockSource == null ) ? 0 : this.clockSource.hashCode() );
+    result = ( prime * result ) + ( ( this.connectionURI == null ) ? 0 : this.connectionURI.hashCode() );
+    result = ( prime * result ) + ( ( this.deviceProfile == null ) ? 0 : this.deviceProfile.hashCode() );
+    result = ( prime * result ) + this.enabledChannels;
+    result = ( prime * result ) + Arrays.hashCode( this.enabledGroups );
+    result = ( prime * result ) + ( this.rleEnabled ? 1231 : 1237 );
+    result = ( prime * result ) + this.sampleRate;
+    result = ( prime * result ) + this.size;
+    result = ( prime * result ) + Arrays.hashCode( this.triggerConfig );
+    result = ( prime * result ) + Arrays.hashCode( this.triggerMask );
+    result = ( prime * result ) + Arrays.hashCode( this.triggerValue );
+    return result;
+  }
+
   /**
    * Returns whether the alternative number scheme for the probes is to be used.
    * 
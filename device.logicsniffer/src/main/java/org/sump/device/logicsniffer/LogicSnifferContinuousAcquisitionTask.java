@@ -0,0 +1,132 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer;
+
+
+import java.io.*;
+import java.util.logging.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.devices.*;
+
+
+/**
+ * Provides a continuous acquisition task for the LogicSniffer device.
+ * <p>
+ * The device is only detected and configured for the first acquisition, and is
+ * re-armed directly after the samples of each acquisition are read. Only when
+ * the configuration of the device changes in between two acquisitions, the
+ * connection is reopened and the device is detected and configured again.
+ * </p>
+ */
+final class LogicSnifferContinuousAcquisitionTask implements ContinuousAcquisitionTask
+{
+  // CONSTANTS
+
+  private static final Logger LOG = Logger.getLogger( LogicSnifferContinuousAcquisitionTask.class.getName() );
+
+  // VARIABLES
+
+  private final LogicSnifferDevice device;
+  private final AcquisitionProgressListener progressListener;
+
+  private volatile LogicSnifferAcquisitionTask task;
+  private volatile boolean stopped;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new LogicSnifferContinuousAcquisitionTask instance.
+   *
+   * @param aDevice
+   *          the device to acquire the data from, cannot be <code>null</code>;
+   * @param aProgressListener
+   *          the progress listener to report the progress of each acquisition
+   *          to, cannot be <code>null</code>.
+   */
+  public LogicSnifferContinuousAcquisitionTask( final LogicSnifferDevice aDevice,
+      final AcquisitionProgressListener aProgressListener )
+  {
+    this.device = aDevice;
+    this.progressListener = aProgressListener;
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AcquisitionResult call() throws Exception
+  {
+    final LogicSnifferConfig config = this.device.getConfig();
+
+    LogicSnifferAcquisitionTask current = this.task;
+    if ( ( current != null ) && !config.equals( current.getConfig() ) )
+    {
+      LOG.info( "Device configuration changed; reconfiguring device ..." );
+
+      close();
+      current = null;
+    }
+
+    if ( current == null )
+    {
+      current = this.device.createAcquisitionTask( config, this.progressListener );
+      this.task = current;
+    }
+
+    current.setRearm( !this.stopped );
+    return current.call();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void close() throws IOException
+  {
+    final LogicSnifferAcquisitionTask current = this.task;
+    this.task = null;
+
+    if ( current != null )
+    {
+      // Resets the device in case it is still armed...
+      current.close();
+    }
+    this.device.close();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void stop()
+  {
+    this.stopped = true;
+
+    final LogicSnifferAcquisitionTask current = this.task;
+    if ( current != null )
+    {
+      current.setRearm( false );
+    }
+  }
+}
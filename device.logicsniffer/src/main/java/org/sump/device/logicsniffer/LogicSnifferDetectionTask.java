@@ -84,6 +84,22 @@ public class LogicSnifferDetectionTask implements Task<LogicSnifferMetadata>, Su
       inputStream = connection.openDataInputStream();
       outputStream = connection.openDataOutputStream();
 
+      // In case we've detected this device before, we only need to verify it
+      // is still there...
+      final LogicSnifferMetadataCache metadataCache = this.device.getMetadataCache();
+      final LogicSnifferMetadata cachedMetadata = metadataCache.get( this.connectionURI );
+      if ( cachedMetadata != null )
+      {
+        if ( verifyDeviceId( inputStream, outputStream ) )
+        {
+          LOG.log( Level.INFO, "Using cached metadata for device type: {0}", cachedMetadata.getName() );
+          return cachedMetadata;
+        }
+
+        LOG.log( Level.INFO, "Previously detected device did not respond; detecting device again ..." );
+        metadataCache.invalidate( this.connectionURI );
+      }
+
       final LogicSnifferMetadata metadata = new LogicSnifferMetadata();
       int tries = 3;
 
@@ -117,6 +133,8 @@ public class LogicSnifferDetectionTask implements Task<LogicSnifferMetadata>, Su
           // Determine the device profile based on the information of the
           // metadata; it will be placed in the given metadata object...
           metadata.setDeviceProfile( getDeviceProfile( metadata.getName() ) );
+
+          metadataCache.put( this.connectionURI, metadata );
         }
       }
       while ( !Thread.currentThread().isInterrupted() && !gotResponse && ( tries-- > 0 ) );
@@ -162,8 +180,14 @@ public class LogicSnifferDetectionTask implements Task<LogicSnifferMetadata>, Su
   {
     if ( aResource != null )
     {
-      while ( ( aResource.available() > 0 ) && ( aResource.read() >= 0 ) )
+      int available;
+      while ( ( available = aResource.available() ) > 0 )
       {
+        // Skip in bulk, rather than reading byte-by-byte...
+        if ( aResource.skip( available ) <= 0 )
+        {
+          break;
+        }
       }
     }
   }
@@ -319,6 +343,41 @@ public class LogicSnifferDetectionTask implements Task<LogicSnifferMetadata>, Su
     return sb.toString();
   }
 
+  /**
+   * Verifies that the attached device still responds with a valid device ID,
+   * using a single device ID query.
+   * 
+   * @return <code>true</code> if the device responded with a valid device ID,
+   *         <code>false</code> otherwise.
+   * @throws IOException
+   *           in case the current thread was interrupted, or in case of other
+   *           I/O problems.
+   */
+  private boolean verifyDeviceId( final DataInputStream aInputStream, final DataOutputStream aOutputStream )
+      throws IOException
+  {
+    // Make sure nothing is left in our input buffer...
+    flushInputStream( aInputStream );
+
+    writeCmdReset( aOutputStream );
+    writeCmdGetDeviceId( aOutputStream );
+
+    try
+    {
+      return readDeviceId( aInputStream ) == SLA_V1;
+    }
+    catch ( IOException exception )
+    {
+      if ( Thread.currentThread().isInterrupted() )
+      {
+        throw exception;
+      }
+
+      LOG.log( Level.FINE, "Failed to verify device ID!", exception );
+      return false;
+    }
+  }
+
   /**
    * @param aOutputStream
    * @throws IOException
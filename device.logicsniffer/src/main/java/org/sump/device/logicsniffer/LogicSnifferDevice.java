@@ -44,7 +44,7 @@ import org.sump.device.logicsniffer.profile.*;
  * 
  * @author J.W. Janssen
  */
-public class LogicSnifferDevice implements Device
+public class LogicSnifferDevice implements ContinuousAcquisitionDevice
 {
   // CONSTANTS
 
@@ -54,6 +54,8 @@ public class LogicSnifferDevice implements Device
 
   // VARIABLES
 
+  private final LogicSnifferMetadataCache metadataCache = new LogicSnifferMetadataCache();
+
   private LogicSnifferConfig config;
 
   private volatile DependencyManager dependencyManager;
@@ -84,8 +86,7 @@ public class LogicSnifferDevice implements Device
   public AcquisitionTask createAcquisitionTask( final AcquisitionProgressListener aProgressListener )
       throws IOException
   {
-    return new LogicSnifferAcquisitionTask( this.config, getStreamConnection(), getDeviceProfileManager(),
-        aProgressListener );
+    return createAcquisitionTask( this.config, aProgressListener );
   }
 
   /**
@@ -102,6 +103,16 @@ public class LogicSnifferDevice implements Device
     return null;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ContinuousAcquisitionTask createContinuousAcquisitionTask( final AcquisitionProgressListener aProgressListener )
+      throws IOException
+  {
+    return new LogicSnifferContinuousAcquisitionTask( this, aProgressListener );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.devices.Device#getName()
    */
@@ -149,6 +160,24 @@ public class LogicSnifferDevice implements Device
     }
   }
 
+  /**
+   * Creates a new acquisition task for the given configuration.
+   *
+   * @param aConfig
+   *          the configuration to use, cannot be <code>null</code>;
+   * @param aProgressListener
+   *          the progress listener to use, cannot be <code>null</code>.
+   * @return a new acquisition task, never <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems creating the stream connection.
+   */
+  final LogicSnifferAcquisitionTask createAcquisitionTask( final LogicSnifferConfig aConfig,
+      final AcquisitionProgressListener aProgressListener ) throws IOException
+  {
+    return new LogicSnifferAcquisitionTask( aConfig, getStreamConnection(), getDeviceProfileManager(),
+        aProgressListener );
+  }
+
   /**
    * @param uri
    * @return
@@ -159,6 +188,17 @@ public class LogicSnifferDevice implements Device
     return ( StreamConnection )this.connectorService.open( uri, ConnectorService.READ_WRITE, true /* timeouts */);
   }
 
+  /**
+   * Returns the current configuration of this device.
+   *
+   * @return the device configuration, can be <code>null</code> if this device
+   *         is not set up.
+   */
+  final LogicSnifferConfig getConfig()
+  {
+    return this.config;
+  }
+
   /**
    * Returns the default device profile.
    * 
@@ -179,12 +219,24 @@ public class LogicSnifferDevice implements Device
     return ( DeviceProfileManager )this.deviceProfileManagerServiceFactory;
   }
 
+  /**
+   * Returns the cache of the metadata of detected devices.
+   *
+   * @return a metadata cache, never <code>null</code>.
+   */
+  final LogicSnifferMetadataCache getMetadataCache()
+  {
+    return this.metadataCache;
+  }
+
   /**
    * Called when this class is unregistered as OSGi service.
    */
   protected void destroy( final Component aComponent )
   {
     disposeConfigDialog();
+
+    this.metadataCache.clear();
   }
 
   /**
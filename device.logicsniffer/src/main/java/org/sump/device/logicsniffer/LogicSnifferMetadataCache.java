@@ -0,0 +1,167 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer;
+
+
+import java.util.*;
+
+
+/**
+ * Caches the metadata, and the device profile matched with it, of detected
+ * devices per port.
+ * <p>
+ * An entry is only returned for the exact connection URI it was stored with;
+ * when the connection settings of a port change, its entry is dropped. Callers
+ * are expected to validate a returned entry (for example, by querying the
+ * device ID) and to invalidate it when the device no longer responds.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+final class LogicSnifferMetadataCache
+{
+  // INNER TYPES
+
+  /**
+   * Denotes a single cached entry.
+   */
+  static final class Entry
+  {
+    // VARIABLES
+
+    final String connectionURI;
+    final LogicSnifferMetadata metadata;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new Entry instance.
+     */
+    Entry( final String aConnectionURI, final LogicSnifferMetadata aMetadata )
+    {
+      this.connectionURI = aConnectionURI;
+      this.metadata = aMetadata;
+    }
+  }
+
+  // VARIABLES
+
+  private final Map<String, Entry> entries;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new LogicSnifferMetadataCache instance.
+   */
+  public LogicSnifferMetadataCache()
+  {
+    this.entries = new HashMap<String, Entry>();
+  }
+
+  // METHODS
+
+  /**
+   * Returns the port name of the given connection URI, that is, the URI
+   * without any of its options.
+   *
+   * @param aConnectionURI
+   *          the connection URI to get the port name for, cannot be
+   *          <code>null</code>.
+   * @return a port name, never <code>null</code>.
+   */
+  static String getPortName( final String aConnectionURI )
+  {
+    final int idx = aConnectionURI.indexOf( ';' );
+    return ( idx < 0 ) ? aConnectionURI : aConnectionURI.substring( 0, idx );
+  }
+
+  /**
+   * Removes all cached entries.
+   */
+  public synchronized void clear()
+  {
+    this.entries.clear();
+  }
+
+  /**
+   * Returns the cached metadata for the given connection URI.
+   *
+   * @param aConnectionURI
+   *          the connection URI to get the metadata for, can be
+   *          <code>null</code>.
+   * @return the cached metadata, or <code>null</code> if no metadata is cached
+   *         for the given connection URI.
+   */
+  public synchronized LogicSnifferMetadata get( final String aConnectionURI )
+  {
+    if ( aConnectionURI == null )
+    {
+      return null;
+    }
+
+    final String portName = getPortName( aConnectionURI );
+
+    final Entry entry = this.entries.get( portName );
+    if ( entry == null )
+    {
+      return null;
+    }
+    if ( !entry.connectionURI.equals( aConnectionURI ) )
+    {
+      // The port settings are changed; we can no longer trust our entry...
+      this.entries.remove( portName );
+      return null;
+    }
+    return entry.metadata;
+  }
+
+  /**
+   * Invalidates the cached metadata for the port of the given connection URI.
+   *
+   * @param aConnectionURI
+   *          the connection URI to invalidate the metadata for, can be
+   *          <code>null</code>.
+   */
+  public synchronized void invalidate( final String aConnectionURI )
+  {
+    if ( aConnectionURI != null )
+    {
+      this.entries.remove( getPortName( aConnectionURI ) );
+    }
+  }
+
+  /**
+   * Caches the given metadata for the port of the given connection URI,
+   * replacing any existing entry for that port.
+   *
+   * @param aConnectionURI
+   *          the connection URI to cache the metadata for, cannot be
+   *          <code>null</code>;
+   * @param aMetadata
+   *          the metadata to cache, including the matched device profile,
+   *          cannot be <code>null</code>.
+   */
+  public synchronized void put( final String aConnectionURI, final LogicSnifferMetadata aMetadata )
+  {
+    this.entries.put( getPortName( aConnectionURI ), new Entry( aConnectionURI, aMetadata ) );
+  }
+}
@@ -68,14 +68,23 @@ public class SumpResultReader implements Closeable, SumpProtocolConstants
   }
 
   /**
+   * Discards all data that is available without blocking.
+   * 
    * @throws IOException
+   *           in case of I/O problems.
    */
   public void flush() throws IOException
   {
     if ( this.inputStream != null )
     {
-      while ( ( this.inputStream.available() > 0 ) && ( this.inputStream.read() >= 0 ) )
+      int available;
+      while ( ( available = this.inputStream.available() ) > 0 )
       {
+        // Skip in bulk, rather than reading byte-by-byte...
+        if ( this.inputStream.skip( available ) <= 0 )
+        {
+          break;
+        }
       }
     }
   }
@@ -176,15 +185,42 @@ public class SumpResultReader implements Closeable, SumpProtocolConstants
 
   /**
    * Reads raw data from the contained input stream.
+   * <p>
+   * This method blocks until at least one byte is read, and then continues
+   * reading as long as data is available without blocking, so that a single
+   * call can fill (a large part of) the given buffer.
+   * </p>
    * 
-   * @return the integer sample value containing up to four read bytes, not
-   *         aligned.
+   * @param aBuffer
+   *          the buffer to read the raw data into, cannot be <code>null</code>;
+   * @param aOffset
+   *          the offset in the buffer to start reading into, >= 0;
+   * @param aCount
+   *          the maximum number of bytes to read, >= 0.
+   * @return the number of bytes read, or -1 if the end of the stream is
+   *         reached.
    * @throws IOException
    *           if stream reading fails.
    */
-  public int readRawData( byte[] aBuffer, int aOffset, int aCount ) throws IOException
+  public int readRawData( final byte[] aBuffer, final int aOffset, final int aCount ) throws IOException
   {
-    return this.inputStream.read( aBuffer, aOffset, aCount );
+    int count = this.inputStream.read( aBuffer, aOffset, aCount );
+    if ( count <= 0 )
+    {
+      return count;
+    }
+
+    int available;
+    while ( ( count < aCount ) && ( ( available = this.inputStream.available() ) > 0 ) )
+    {
+      final int read = this.inputStream.read( aBuffer, aOffset + count, Math.min( available, aCount - count ) );
+      if ( read <= 0 )
+      {
+        break;
+      }
+      count += read;
+    }
+    return count;
   }
 
   /**
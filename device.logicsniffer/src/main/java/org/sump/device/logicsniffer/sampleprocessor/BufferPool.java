@@ -0,0 +1,230 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import java.lang.ref.*;
+import java.util.*;
+
+
+/**
+ * Provides a pool of reusable byte- and integer-arrays, as used during the
+ * acquisition of samples.
+ * <p>
+ * Arrays are handed out in size classes of powers of two, so an acquired array
+ * can be larger than requested. Released arrays are only softly referenced,
+ * allowing them to be reclaimed when memory gets scarce.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+public final class BufferPool
+{
+  // CONSTANTS
+
+  /** The smallest size class, in number of elements (2^10). */
+  private static final int MIN_SHIFT = 10;
+  /** The largest size class that is pooled, in number of elements (2^24). */
+  private static final int MAX_SHIFT = 24;
+  /** The maximum number of arrays retained per size class. */
+  private static final int MAX_POOLED = 32;
+
+  private static final BufferPool INSTANCE = new BufferPool();
+
+  // VARIABLES
+
+  private final List<Deque<SoftReference<byte[]>>> bytePool;
+  private final List<Deque<SoftReference<int[]>>> intPool;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new BufferPool instance.
+   */
+  BufferPool()
+  {
+    this.bytePool = new ArrayList<Deque<SoftReference<byte[]>>>();
+    this.intPool = new ArrayList<Deque<SoftReference<int[]>>>();
+
+    for ( int i = MIN_SHIFT; i <= MAX_SHIFT; i++ )
+    {
+      this.bytePool.add( new ArrayDeque<SoftReference<byte[]>>() );
+      this.intPool.add( new ArrayDeque<SoftReference<int[]>>() );
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Returns the buffer pool shared by all acquisitions.
+   *
+   * @return a buffer pool, never <code>null</code>.
+   */
+  public static BufferPool getInstance()
+  {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the size class for an array of the given length.
+   *
+   * @return a size class, as power of two, or -1 if arrays of the given length
+   *         are not pooled.
+   */
+  private static int getSizeClass( final int aLength )
+  {
+    if ( aLength <= ( 1 << MIN_SHIFT ) )
+    {
+      return MIN_SHIFT;
+    }
+
+    final int shift = 32 - Integer.numberOfLeadingZeros( aLength - 1 );
+    return ( shift <= MAX_SHIFT ) ? shift : -1;
+  }
+
+  /**
+   * Returns the size class of a released array.
+   *
+   * @return a size class, as power of two, or -1 if the array does not belong
+   *         to this pool.
+   */
+  private static int getReleasedSizeClass( final int aLength )
+  {
+    if ( Integer.bitCount( aLength ) != 1 )
+    {
+      return -1;
+    }
+
+    final int shift = Integer.numberOfTrailingZeros( aLength );
+    return ( ( shift >= MIN_SHIFT ) && ( shift <= MAX_SHIFT ) ) ? shift : -1;
+  }
+
+  /**
+   * Takes an array from the given pool, if any is available.
+   */
+  private static <T> T take( final Deque<SoftReference<T>> aPool )
+  {
+    synchronized ( aPool )
+    {
+      SoftReference<T> ref;
+      while ( ( ref = aPool.pollFirst() ) != null )
+      {
+        final T result = ref.get();
+        if ( result != null )
+        {
+          return result;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Returns an array to the given pool, if the pool is not yet full.
+   */
+  private static <T> void put( final Deque<SoftReference<T>> aPool, final T aArray )
+  {
+    synchronized ( aPool )
+    {
+      if ( aPool.size() < MAX_POOLED )
+      {
+        aPool.addFirst( new SoftReference<T>( aArray ) );
+      }
+    }
+  }
+
+  /**
+   * Acquires a byte-array of at least the given length.
+   * <p>
+   * The contents of the returned array are undefined.
+   * </p>
+   *
+   * @param aLength
+   *          the minimal length of the array, >= 0.
+   * @return a byte-array, never <code>null</code>.
+   */
+  public byte[] acquireBytes( final int aLength )
+  {
+    final int sizeClass = getSizeClass( aLength );
+    if ( sizeClass < 0 )
+    {
+      return new byte[aLength];
+    }
+
+    final byte[] result = take( this.bytePool.get( sizeClass - MIN_SHIFT ) );
+    return ( result != null ) ? result : new byte[1 << sizeClass];
+  }
+
+  /**
+   * Acquires an integer-array of at least the given length.
+   * <p>
+   * The contents of the returned array are undefined.
+   * </p>
+   *
+   * @param aLength
+   *          the minimal length of the array, >= 0.
+   * @return an integer-array, never <code>null</code>.
+   */
+  public int[] acquireInts( final int aLength )
+  {
+    final int sizeClass = getSizeClass( aLength );
+    if ( sizeClass < 0 )
+    {
+      return new int[aLength];
+    }
+
+    final int[] result = take( this.intPool.get( sizeClass - MIN_SHIFT ) );
+    return ( result != null ) ? result : new int[1 << sizeClass];
+  }
+
+  /**
+   * Returns the given byte-array to this pool. The array should no longer be
+   * used by the caller afterwards.
+   *
+   * @param aArray
+   *          the array to release, may be <code>null</code>.
+   */
+  public void release( final byte[] aArray )
+  {
+    final int sizeClass = ( aArray == null ) ? -1 : getReleasedSizeClass( aArray.length );
+    if ( sizeClass >= 0 )
+    {
+      put( this.bytePool.get( sizeClass - MIN_SHIFT ), aArray );
+    }
+  }
+
+  /**
+   * Returns the given integer-array to this pool. The array should no longer
+   * be used by the caller afterwards.
+   *
+   * @param aArray
+   *          the array to release, may be <code>null</code>.
+   */
+  public void release( final int[] aArray )
+  {
+    final int sizeClass = ( aArray == null ) ? -1 : getReleasedSizeClass( aArray.length );
+    if ( sizeClass >= 0 )
+    {
+      put( this.intPool.get( sizeClass - MIN_SHIFT ), aArray );
+    }
+  }
+}
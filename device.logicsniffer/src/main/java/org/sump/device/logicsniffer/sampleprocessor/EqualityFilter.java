@@ -36,6 +36,9 @@ public final class EqualityFilter implements SampleProcessor
   private final int trigCount;
   private final SampleProcessorCallback callback;
 
+  private long time;
+  private int lastSample; // first value doesn't really matter
+
   // CONSTRUCTORS
 
   /**
@@ -62,37 +65,38 @@ public final class EqualityFilter implements SampleProcessor
     this.callback = aCallback;
   }
 
+  /**
+   * Creates a new EqualityFilter instance for processing samples one by one
+   * using {@link #processSample(int)}.
+   * 
+   * @param aConfig
+   *          the configuration to use;
+   * @param aTrigCount
+   *          the trigcount value;
+   * @param aCallback
+   *          the callback to use.
+   */
+  public EqualityFilter( final LogicSnifferConfig aConfig, final int aTrigCount,
+      final SampleProcessorCallback aCallback )
+  {
+    this.config = aConfig;
+    this.buffer = null;
+    this.trigCount = aTrigCount;
+    this.callback = aCallback;
+  }
+
   // METHODS
 
   /**
-   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#process()
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#finish()
    */
   @Override
-  public final void process()
+  public final void finish()
   {
-    long time = 0;
-
-    final int samples = this.buffer.length;
-
-    int lastSample = 0; // first value doesn't really matter
-    for ( int i = 0; i < samples; i++ )
-    {
-      final int newSample = this.buffer[i];
-
-      if ( ( i == 0 ) || ( lastSample != newSample ) )
-      {
-        // add the read sample & add a timestamp value as well...
-        this.callback.addValue( newSample, time );
-      }
-
-      lastSample = newSample;
-      time++;
-    }
-
     // Ensure the last sample is shown as well (even if there was a lot of time
     // between the last real sample and the end of the capture; i.e., constant
     // data)...
-    this.callback.addValue( lastSample, time );
+    this.callback.addValue( this.lastSample, this.time );
 
     // XXX JaWi: why is this correction needed?
     int correction = 2;
@@ -102,6 +106,41 @@ public final class EqualityFilter implements SampleProcessor
     }
 
     // Take the last seen time value as "absolete" length of this trace...
-    this.callback.ready( time, ( this.trigCount - correction ) );
+    this.callback.ready( this.time, ( this.trigCount - correction ) );
+  }
+
+  /**
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#process()
+   */
+  @Override
+  public final void process()
+  {
+    if ( this.buffer == null )
+    {
+      throw new IllegalStateException( "No buffer to process!" );
+    }
+
+    for ( int i = 0; i < this.buffer.length; i++ )
+    {
+      processSample( this.buffer[i] );
+    }
+
+    finish();
+  }
+
+  /**
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#processSample(int)
+   */
+  @Override
+  public final void processSample( final int aSampleValue )
+  {
+    if ( ( this.time == 0L ) || ( this.lastSample != aSampleValue ) )
+    {
+      // add the read sample & add a timestamp value as well...
+      this.callback.addValue( aSampleValue, this.time );
+    }
+
+    this.lastSample = aSampleValue;
+    this.time++;
   }
 }
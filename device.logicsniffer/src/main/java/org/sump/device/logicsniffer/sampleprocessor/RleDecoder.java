@@ -38,12 +38,24 @@ public final class RleDecoder implements SampleProcessor
   // VARIABLES
 
   private final LogicSnifferConfig config;
+  private final SampleUnpacker unpacker;
   private final int[] buffer;
+  private final int sampleCount;
   private final int trigCount;
   private final SampleProcessorCallback callback;
 
   private final int rleCountValue;
   private final int rleCountMask;
+  // shiftBits needs to be 8 if 8 bit selected and 16 if 16 bit selected
+  private final int rleShiftBits;
+  private final boolean ddrMode;
+
+  private int index;
+  private long time;
+  private long rleTrigPos;
+  private int lastSample;
+  private boolean ddrCountPending;
+  private long ddrCount;
 
   // CONSTRUCTORS
 
@@ -58,13 +70,43 @@ public final class RleDecoder implements SampleProcessor
   public RleDecoder( final LogicSnifferConfig aConfig, final int[] aBuffer, final int aTrigCount,
       final SampleProcessorCallback aCallback )
   {
+    this( aConfig, aBuffer, ( aBuffer == null ) ? 0 : aBuffer.length, aTrigCount, aCallback );
+
     if ( aBuffer == null )
     {
       throw new IllegalArgumentException( "Buffer cannot be null!" );
     }
+  }
 
+  /**
+   * Creates a new RleDecoder instance for decoding samples one by one using
+   * {@link #processSample(int)}.
+   * 
+   * @param aConfig
+   *          the configuration to use;
+   * @param aSampleCount
+   *          the total number of samples that will be decoded;
+   * @param aTrigCount
+   *          the trigcount value;
+   * @param aCallback
+   *          the callback to use.
+   */
+  public RleDecoder( final LogicSnifferConfig aConfig, final int aSampleCount, final int aTrigCount,
+      final SampleProcessorCallback aCallback )
+  {
+    this( aConfig, null, aSampleCount, aTrigCount, aCallback );
+  }
+
+  /**
+   * Creates a new RleDecoder instance.
+   */
+  private RleDecoder( final LogicSnifferConfig aConfig, final int[] aBuffer, final int aSampleCount,
+      final int aTrigCount, final SampleProcessorCallback aCallback )
+  {
     this.config = aConfig;
+    this.unpacker = new SampleUnpacker( aConfig );
     this.buffer = aBuffer;
+    this.sampleCount = aSampleCount;
     this.trigCount = aTrigCount;
     this.callback = aCallback;
 
@@ -91,112 +133,122 @@ public final class RleDecoder implements SampleProcessor
       default:
         throw new IllegalArgumentException( "Illegal RLE width! Should be 8, 16, 24 or 32!" );
     }
+
+    this.rleShiftBits = width;
+    this.ddrMode = this.config.isDoubleDataRateEnabled();
+
+    this.lastSample = -1;
   }
 
   // METHODS
 
+  /**
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#finish()
+   */
+  public void finish()
+  {
+    // Ensure the last sample is shown as well (even if there was a lot of time
+    // between the last real sample and the end of the capture; i.e., constant
+    // data)...
+    this.callback.addValue( this.lastSample, this.time );
+
+    // Take the last seen time value as "absolete" length of this trace...
+    this.callback.ready( this.time, this.rleTrigPos - 1 );
+  }
+
   /**
    * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#process()
    */
   public void process()
   {
-    long time = 0;
-    long rleTrigPos = 0;
-    int lastSample = -1;
+    if ( this.buffer == null )
+    {
+      throw new IllegalStateException( "No buffer to process!" );
+    }
+
+    for ( int i = 0; i < this.buffer.length; i++ )
+    {
+      processSample( this.buffer[i] );
+    }
+
+    finish();
+  }
 
+  /**
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#processSample(int)
+   */
+  public void processSample( final int aSampleValue )
+  {
     // if msb set increment time by the count value
     // else save sample check trigger pos and increment time by 1
     // this should work for either dogsbody or rasmus bitstreams
 
-    final int samples = this.buffer.length;
-
-    // shiftBits needs to be 8 if 8 bit selected and 16 if 16 bit selected
-    final int rleShiftBits = this.config.getRLEDataWidth();
-    final boolean ddrMode = this.config.isDoubleDataRateEnabled();
+    final int i = this.index++;
+    final int normalizedSampleValue = this.unpacker.compact( aSampleValue );
 
-    for ( int i = 0; i < samples; i++ )
+    if ( this.ddrCountPending )
     {
-      final int sampleValue = this.buffer[i];
-      final int normalizedSampleValue = normalizeSampleValue( sampleValue );
+      // In case of "double data rate", the RLE-counts are encoded as 16-
+      // resp. 32-bit values, so we need to take two samples for each
+      // count (as they are 8- or 16-bits in DDR mode).
+      // This should also solve issue #31...
 
-      // if a count just add it to the time
-      if ( ( normalizedSampleValue & this.rleCountValue ) != 0 )
-      {
-        long count = ( normalizedSampleValue & this.rleCountMask );
-        if ( ddrMode && ( i < ( samples - 1 ) ) )
-        {
-          // In case of "double data rate", the RLE-counts are encoded as 16-
-          // resp. 32-bit values, so we need to take two samples for each
-          // count (as they are 8- or 16-bits in DDR mode).
-          // This should also solve issue #31...
-
-          // Issue #55: double the RLE-count as we're using DDR mode which
-          // takes two samples in one time period...
-          long ddrCount = ( ( count << rleShiftBits ) | normalizeSampleValue( this.buffer[++i] ) );
-          count = 2L * ddrCount;
-        }
+      // Issue #55: double the RLE-count as we're using DDR mode which
+      // takes two samples in one time period...
+      final long count = ( this.ddrCount << this.rleShiftBits ) | normalizedSampleValue;
 
-        if ( lastSample >= 0 )
-        {
-          time += count;
-        }
-        else
-        {
-          LOG.warning( "Ignoring RLE count without preceeding sample value: " + Long.toHexString( count ) );
-        }
+      this.ddrCountPending = false;
+      addCount( 2L * count );
+    }
+    // if a count just add it to the time
+    else if ( ( normalizedSampleValue & this.rleCountValue ) != 0 )
+    {
+      final long count = ( normalizedSampleValue & this.rleCountMask );
+      if ( this.ddrMode && ( i < ( this.sampleCount - 1 ) ) )
+      {
+        // The remainder of the count is in the next sample...
+        this.ddrCount = count;
+        this.ddrCountPending = true;
       }
       else
       {
-        // this is a data value only save data if different to last
-        if ( sampleValue != lastSample )
+        addCount( count );
+      }
+    }
+    else
+    {
+      // this is a data value only save data if different to last
+      if ( aSampleValue != this.lastSample )
+      {
+        // set the trigger position as a time value
+        if ( ( i >= this.trigCount ) && ( this.rleTrigPos == 0 ) )
         {
-          // set the trigger position as a time value
-          if ( ( i >= this.trigCount ) && ( rleTrigPos == 0 ) )
-          {
-            rleTrigPos = time;
-          }
-
-          // add the read sample & add a timestamp value as well...
-          this.callback.addValue( sampleValue, time );
-          lastSample = sampleValue;
+          this.rleTrigPos = this.time;
         }
-        time++;
+
+        // add the read sample & add a timestamp value as well...
+        this.callback.addValue( aSampleValue, this.time );
+        this.lastSample = aSampleValue;
       }
+      this.time++;
     }
-
-    // Ensure the last sample is shown as well (even if there was a lot of time
-    // between the last real sample and the end of the capture; i.e., constant
-    // data)...
-    this.callback.addValue( lastSample, time );
-
-    // Take the last seen time value as "absolete" length of this trace...
-    this.callback.ready( time, rleTrigPos - 1 );
   }
 
   /**
-   * Normalizes the given sample value to mask out the unused channel groups and
-   * get a sample value in the correct width.
+   * Adds the given RLE-count to the current time.
    * 
-   * @param aSampleValue
-   *          the original sample to normalize.
-   * @return the normalized sample value.
+   * @param aCount
+   *          the RLE-count to add.
    */
-  private int normalizeSampleValue( final int aSampleValue )
+  private void addCount( final long aCount )
   {
-    int groupCount = this.config.getGroupCount();
-    int compdata = 0;
-
-    // to enable non contiguous channel groups
-    // need to remove zero data from unused groups
-    int indata = aSampleValue;
-    for ( int j = 0, outcount = 0; j < groupCount; j++ )
+    if ( this.lastSample >= 0 )
     {
-      if ( this.config.isGroupEnabled( j ) )
-      {
-        compdata |= ( ( indata & 0xff ) << ( 8 * outcount++ ) );
-      }
-      indata >>= 8;
+      this.time += aCount;
+    }
+    else
+    {
+      LOG.warning( "Ignoring RLE count without preceeding sample value: " + Long.toHexString( aCount ) );
     }
-    return compdata;
   }
 }
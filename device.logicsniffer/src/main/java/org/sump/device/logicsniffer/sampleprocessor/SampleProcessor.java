@@ -27,8 +27,24 @@ package org.sump.device.logicsniffer.sampleprocessor;
  */
 public interface SampleProcessor
 {
+  /**
+   * Signals that all samples are passed to {@link #processSample(int)}, and
+   * finishes the processing.
+   */
+  void finish();
+
   /**
    * Processes the samples.
    */
   void process();
+
+  /**
+   * Processes a single sample, allowing samples to be processed while they are
+   * still being read from the device.
+   * 
+   * @param aSampleValue
+   *          the sample value to process, samples should be passed in
+   *          chronological order.
+   */
+  void processSample( int aSampleValue );
 }
@@ -0,0 +1,256 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2011 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import java.util.concurrent.*;
+
+
+/**
+ * Runs a {@link SampleProcessor} on a separate thread, allowing samples to be
+ * processed while the next samples are still being read from the device.
+ * <p>
+ * Samples are handed over in blocks through a bounded queue, so a slow
+ * processor will eventually block the reading thread instead of buffering an
+ * unlimited amount of samples. The blocks are recycled once processed, and
+ * their arrays are taken from, and returned to, the {@link BufferPool}.
+ * </p>
+ */
+public final class SampleProcessorPipeline implements Runnable
+{
+  // INNER TYPES
+
+  /**
+   * Provides a reusable block of samples.
+   */
+  static final class Block
+  {
+    // VARIABLES
+
+    int[] samples;
+    int count;
+  }
+
+  // CONSTANTS
+
+  /** The maximum number of blocks that can be queued for processing. */
+  private static final int QUEUE_SIZE = 16;
+
+  /** Marks the end of the sample data. */
+  private static final Block END_OF_DATA = new Block();
+
+  // VARIABLES
+
+  private final SampleProcessor processor;
+  private final BufferPool bufferPool;
+  private final Block[] blocks;
+  private final BlockingQueue<Block> queue;
+  private final BlockingQueue<Block> freeBlocks;
+  private final Thread thread;
+
+  private volatile RuntimeException failure;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SampleProcessorPipeline instance.
+   * 
+   * @param aProcessor
+   *          the sample processor to run, cannot be <code>null</code>.
+   */
+  public SampleProcessorPipeline( final SampleProcessor aProcessor )
+  {
+    if ( aProcessor == null )
+    {
+      throw new IllegalArgumentException( "Processor cannot be null!" );
+    }
+
+    this.processor = aProcessor;
+    this.bufferPool = BufferPool.getInstance();
+
+    // The number of blocks bounds the number of queued samples; the queues
+    // themselves have room for all blocks and the end-of-data marker...
+    this.blocks = new Block[QUEUE_SIZE];
+    this.queue = new ArrayBlockingQueue<Block>( QUEUE_SIZE + 1 );
+    this.freeBlocks = new ArrayBlockingQueue<Block>( QUEUE_SIZE + 1 );
+    for ( int i = 0; i < this.blocks.length; i++ )
+    {
+      this.blocks[i] = new Block();
+      this.freeBlocks.add( this.blocks[i] );
+    }
+
+    this.thread = new Thread( this, "SampleProcessor" );
+    this.thread.setDaemon( true );
+  }
+
+  // METHODS
+
+  /**
+   * Adds the given samples to this pipeline for processing.
+   * 
+   * @param aSamples
+   *          the samples to add, in chronological order, cannot be
+   *          <code>null</code>. The samples are copied, so the given array can
+   *          be reused by the caller;
+   * @param aCount
+   *          the number of samples of the given array to add.
+   * @throws InterruptedException
+   *           in case the calling thread is interrupted while waiting for a
+   *           free block.
+   */
+  public void add( final int[] aSamples, final int aCount ) throws InterruptedException
+  {
+    checkFailure();
+
+    if ( aCount > 0 )
+    {
+      final Block block = this.freeBlocks.take();
+      if ( ( block.samples == null ) || ( block.samples.length < aCount ) )
+      {
+        this.bufferPool.release( block.samples );
+        block.samples = this.bufferPool.acquireInts( aCount );
+      }
+      System.arraycopy( aSamples, 0, block.samples, 0, aCount );
+      block.count = aCount;
+
+      this.queue.put( block );
+    }
+  }
+
+  /**
+   * Cancels this pipeline, discarding all pending samples. Does nothing if
+   * this pipeline is already finished.
+   */
+  public void cancel()
+  {
+    this.thread.interrupt();
+    this.queue.clear();
+
+    try
+    {
+      this.thread.join();
+    }
+    catch ( InterruptedException exception )
+    {
+      // Make sure our interrupted state is retained...
+      Thread.currentThread().interrupt();
+    }
+
+    releaseBuffers();
+  }
+
+  /**
+   * Signals that all samples are added, and waits until the processor is
+   * finished.
+   * 
+   * @throws InterruptedException
+   *           in case the calling thread is interrupted while waiting for the
+   *           processor to finish.
+   */
+  public void finish() throws InterruptedException
+  {
+    try
+    {
+      checkFailure();
+
+      this.queue.put( END_OF_DATA );
+      this.thread.join();
+
+      checkFailure();
+    }
+    finally
+    {
+      releaseBuffers();
+    }
+  }
+
+  /**
+   * Processes all queued samples, until the end of the data is signalled.
+   */
+  @Override
+  public void run()
+  {
+    try
+    {
+      Block block;
+      while ( ( block = this.queue.take() ) != END_OF_DATA )
+      {
+        final int[] samples = block.samples;
+        for ( int i = 0; i < block.count; i++ )
+        {
+          this.processor.processSample( samples[i] );
+        }
+
+        this.freeBlocks.add( block );
+      }
+
+      this.processor.finish();
+    }
+    catch ( InterruptedException exception )
+    {
+      // Cancelled; stop processing...
+    }
+    catch ( RuntimeException exception )
+    {
+      this.failure = exception;
+      // Make sure the producer does not wait forever for a free block...
+      this.queue.drainTo( this.freeBlocks );
+    }
+  }
+
+  /**
+   * Starts this pipeline.
+   */
+  public void start()
+  {
+    this.thread.start();
+  }
+
+  /**
+   * Rethrows the failure of the processor, if any.
+   */
+  private void checkFailure()
+  {
+    final RuntimeException exception = this.failure;
+    if ( exception != null )
+    {
+      throw exception;
+    }
+  }
+
+  /**
+   * Returns the arrays of all blocks to the buffer pool, provided that the
+   * processing thread is no longer using them.
+   */
+  private void releaseBuffers()
+  {
+    if ( this.thread.isAlive() )
+    {
+      return;
+    }
+
+    for ( Block block : this.blocks )
+    {
+      this.bufferPool.release( block.samples );
+      block.samples = null;
+    }
+  }
+}
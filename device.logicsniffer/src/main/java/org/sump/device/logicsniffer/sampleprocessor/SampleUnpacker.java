@@ -0,0 +1,230 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2011 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import nl.lxtreme.ols.api.*;
+
+import org.sump.device.logicsniffer.*;
+
+
+/**
+ * Converts between the raw bytes sent by the device and sample values, for a
+ * particular layout of enabled channel groups.
+ * <p>
+ * The device only sends one byte for each enabled channel group. Unpacking
+ * places each byte at the position of its channel group, while compacting
+ * removes the gaps of disabled channel groups again, as needed for
+ * interpreting RLE-counts. Both operations are derived once from the
+ * configuration as a fixed sequence of shifts and masks, instead of
+ * determining the enabled groups for each sample.
+ * </p>
+ */
+public final class SampleUnpacker
+{
+  // VARIABLES
+
+  private final int sampleWidth;
+  private final int[] shifts;
+
+  private final int compactShift0;
+  private final int compactMask0;
+  private final int compactShift1;
+  private final int compactMask1;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SampleUnpacker instance.
+   * 
+   * @param aConfig
+   *          the configuration to create the unpacker for, cannot be
+   *          <code>null</code>.
+   */
+  public SampleUnpacker( final LogicSnifferConfig aConfig )
+  {
+    // Important: #getGroupCount take care of DDR-mode for us...
+    final int groupCount = aConfig.getGroupCount();
+
+    final int[] groupShifts = new int[Ols.MAX_BLOCKS];
+    final int[] runShifts = new int[Ols.MAX_BLOCKS];
+    final int[] runMasks = new int[Ols.MAX_BLOCKS];
+
+    int count = 0;
+    int runs = 0;
+    for ( int g = 0; g < groupCount; g++ )
+    {
+      if ( aConfig.isGroupEnabled( g ) )
+      {
+        groupShifts[count] = 8 * g;
+
+        // All consecutive enabled groups are moved by the same distance when
+        // compacting, so they can be moved with a single shift & mask...
+        final int shift = 8 * ( g - count );
+        if ( ( runs == 0 ) || ( runShifts[runs - 1] != shift ) )
+        {
+          runShifts[runs++] = shift;
+        }
+        runMasks[runs - 1] |= ( 0xFF << ( 8 * count ) );
+
+        count++;
+      }
+    }
+
+    // With at most four groups, at most two distinct shifts are needed...
+    if ( runs > 2 )
+    {
+      throw new IllegalArgumentException( "Unsupported channel group layout!" );
+    }
+
+    this.sampleWidth = count;
+    this.shifts = new int[count];
+    System.arraycopy( groupShifts, 0, this.shifts, 0, count );
+
+    this.compactShift0 = runShifts[0];
+    this.compactMask0 = runMasks[0];
+    this.compactShift1 = runShifts[1];
+    this.compactMask1 = runMasks[1];
+  }
+
+  // METHODS
+
+  /**
+   * Compacts the given sample value by removing the disabled channel groups,
+   * yielding a sample value that is as wide as the number of enabled groups.
+   * 
+   * @param aSampleValue
+   *          the (unpacked) sample value to compact.
+   * @return the compacted sample value.
+   */
+  public int compact( final int aSampleValue )
+  {
+    return ( ( aSampleValue >>> this.compactShift0 ) & this.compactMask0 )
+        | ( ( aSampleValue >>> this.compactShift1 ) & this.compactMask1 );
+  }
+
+  /**
+   * Returns the number of bytes the device sends for each sample.
+   * 
+   * @return the sample width, in bytes, equal to the number of enabled channel
+   *         groups.
+   */
+  public int getSampleWidth()
+  {
+    return this.sampleWidth;
+  }
+
+  /**
+   * Unpacks the given raw data into sample values.
+   * <p>
+   * Only complete samples are unpacked, any remaining bytes are left
+   * untouched.
+   * </p>
+   * 
+   * @param aRawData
+   *          the raw data, as sent by the device, cannot be <code>null</code>;
+   * @param aOffset
+   *          the offset in the raw data to start unpacking;
+   * @param aLength
+   *          the number of bytes of raw data to unpack;
+   * @param aSamples
+   *          the array to store the sample values in, should be large enough
+   *          to contain all unpacked samples.
+   * @return the number of unpacked samples, >= 0.
+   */
+  public int unpack( final byte[] aRawData, final int aOffset, final int aLength, final int[] aSamples )
+  {
+    if ( this.sampleWidth == 0 )
+    {
+      return 0;
+    }
+
+    final int count = aLength / this.sampleWidth;
+
+    int j = aOffset;
+    switch ( this.sampleWidth )
+    {
+      case 1:
+      {
+        final int s0 = this.shifts[0];
+        for ( int i = 0; i < count; i++ )
+        {
+          aSamples[i] = ( aRawData[j++] & 0xff ) << s0;
+        }
+        break;
+      }
+
+      case 2:
+      {
+        final int s0 = this.shifts[0];
+        final int s1 = this.shifts[1];
+        for ( int i = 0; i < count; i++ )
+        {
+          aSamples[i] = ( ( aRawData[j++] & 0xff ) << s0 ) | ( ( aRawData[j++] & 0xff ) << s1 );
+        }
+        break;
+      }
+
+      case 3:
+      {
+        final int s0 = this.shifts[0];
+        final int s1 = this.shifts[1];
+        final int s2 = this.shifts[2];
+        for ( int i = 0; i < count; i++ )
+        {
+          aSamples[i] = ( ( aRawData[j++] & 0xff ) << s0 ) | ( ( aRawData[j++] & 0xff ) << s1 )
+              | ( ( aRawData[j++] & 0xff ) << s2 );
+        }
+        break;
+      }
+
+      case 4:
+      {
+        final int s0 = this.shifts[0];
+        final int s1 = this.shifts[1];
+        final int s2 = this.shifts[2];
+        final int s3 = this.shifts[3];
+        for ( int i = 0; i < count; i++ )
+        {
+          aSamples[i] = ( ( aRawData[j++] & 0xff ) << s0 ) | ( ( aRawData[j++] & 0xff ) << s1 )
+              | ( ( aRawData[j++] & 0xff ) << s2 ) | ( ( aRawData[j++] & 0xff ) << s3 );
+        }
+        break;
+      }
+
+      default:
+      {
+        for ( int i = 0; i < count; i++ )
+        {
+          int sample = 0;
+          for ( int g = 0; g < this.sampleWidth; g++ )
+          {
+            sample |= ( aRawData[j++] & 0xff ) << this.shifts[g];
+          }
+          aSamples[i] = sample;
+        }
+        break;
+      }
+    }
+
+    return count;
+  }
+}
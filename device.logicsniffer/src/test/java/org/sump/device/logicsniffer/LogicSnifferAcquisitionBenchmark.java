@@ -0,0 +1,403 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2012 J.W. Janssen, www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.lang.management.*;
+import java.util.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+import org.junit.*;
+import org.junit.runner.*;
+import org.junit.runners.*;
+import org.junit.runners.Parameterized.Parameters;
+import org.sump.device.logicsniffer.VirtualLogicSnifferDevice.SampleProvider;
+import org.sump.device.logicsniffer.profile.*;
+import org.sump.device.logicsniffer.profile.DeviceProfile.CaptureClockSource;
+
+
+/**
+ * Benchmarks the complete acquisition path of
+ * {@link LogicSnifferAcquisitionTask} using a {@link VirtualLogicSnifferDevice}
+ * , reporting the number of samples per second and the number of bytes
+ * allocated per sample.
+ * <p>
+ * The allocated bytes are counted for all threads, including the sample
+ * processing pipeline and the virtual device itself. As the JVM only reports
+ * the allocations of live threads, these are polled while the benchmark runs;
+ * the allocations a thread makes in the last poll interval before it ends are
+ * not counted.
+ * </p>
+ * <p>
+ * This benchmark is not run as part of the normal build; use the
+ * <tt>benchmark</tt> profile to run it. The number of iterations can be
+ * tweaked with the <tt>benchmark.warmup</tt> and
+ * <tt>benchmark.iterations</tt> system properties. When the
+ * <tt>benchmark.minSamplesPerSecond</tt> system property is set, the
+ * benchmark fails for each configuration that is slower.
+ * </p>
+ */
+@RunWith( Parameterized.class )
+public class LogicSnifferAcquisitionBenchmark
+{
+  // INNER TYPES
+
+  /**
+   * Counts the bytes allocated by all threads, by polling the allocated bytes
+   * of each live thread.
+   */
+  static final class AllocationCounter extends Thread
+  {
+    // CONSTANTS
+
+    private static final long POLL_INTERVAL = 1L;
+
+    // VARIABLES
+
+    private final com.sun.management.ThreadMXBean bean;
+    private final Map<Long, long[]> threads;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new AllocationCounter instance.
+     */
+    AllocationCounter( final com.sun.management.ThreadMXBean aBean )
+    {
+      super( "Allocation counter" );
+      setDaemon( true );
+
+      this.bean = aBean;
+      this.threads = new HashMap<Long, long[]>();
+    }
+
+    // METHODS
+
+    /**
+     * Creates a new allocation counter, if the JVM supports it.
+     *
+     * @return a new allocation counter, or <code>null</code> if the allocated
+     *         bytes cannot be determined.
+     */
+    static AllocationCounter create()
+    {
+      final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if ( bean instanceof com.sun.management.ThreadMXBean )
+      {
+        return new AllocationCounter( ( com.sun.management.ThreadMXBean )bean );
+      }
+      return null;
+    }
+
+    /**
+     * Returns the number of bytes allocated by all threads so far.
+     *
+     * @return a byte count, >= 0.
+     */
+    synchronized long getAllocatedBytes()
+    {
+      long result = 0L;
+      for ( long[] counts : this.threads.values() )
+      {
+        result += counts[1] - counts[0];
+      }
+      return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run()
+    {
+      try
+      {
+        while ( !isInterrupted() )
+        {
+          poll( false );
+          Thread.sleep( POLL_INTERVAL );
+        }
+      }
+      catch ( InterruptedException exception )
+      {
+        // Stopped...
+      }
+    }
+
+    /**
+     * Starts counting the allocated bytes.
+     */
+    void startCounting()
+    {
+      poll( true );
+      start();
+    }
+
+    /**
+     * Stops counting the allocated bytes.
+     */
+    void stopCounting() throws InterruptedException
+    {
+      interrupt();
+      join();
+      poll( false );
+    }
+
+    /**
+     * Polls the allocated bytes of all live threads, except this one.
+     */
+    private synchronized void poll( final boolean aInitial )
+    {
+      final long[] ids = this.bean.getAllThreadIds();
+      final long[] allocated = this.bean.getThreadAllocatedBytes( ids );
+      for ( int i = 0; i < ids.length; i++ )
+      {
+        if ( ( ids[i] == getId() ) || ( allocated[i] < 0L ) )
+        {
+          continue;
+        }
+
+        final Long id = Long.valueOf( ids[i] );
+        long[] counts = this.threads.get( id );
+        if ( counts == null )
+        {
+          // Threads started while counting have allocated everything since...
+          counts = new long[] { aInitial ? allocated[i] : 0L, 0L };
+          this.threads.put( id, counts );
+        }
+        counts[1] = allocated[i];
+      }
+    }
+  }
+
+  /**
+   * Provides varying samples, written in large blocks to keep the overhead of
+   * the virtual device as low as possible.
+   */
+  static final class BlockSampleProvider implements SampleProvider
+  {
+    // CONSTANTS
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final OutputStream aOs, final int aSampleWidth, final int aSampleCount, final boolean aRleMode,
+        final boolean aDdrMode ) throws IOException
+    {
+      // In RLE-mode, the MSB of each sample denotes a run-length...
+      final int mask = aRleMode ? 0x7F : 0xFF;
+
+      final int samplesPerBlock = BLOCK_SIZE / aSampleWidth;
+      final byte[] block = new byte[samplesPerBlock * aSampleWidth];
+
+      int i = 0;
+      while ( i < aSampleCount )
+      {
+        final int count = Math.min( samplesPerBlock, aSampleCount - i );
+        for ( int j = 0, offset = 0; j < count; j++, i++ )
+        {
+          // Change the sample value once every four samples...
+          final int value = i >> 2;
+          for ( int k = 0; k < aSampleWidth; k++ )
+          {
+            block[offset++] = ( byte )( ( value >> ( 8 * k ) ) & mask );
+          }
+        }
+
+        aOs.write( block, 0, count * aSampleWidth );
+        aOs.flush();
+      }
+    }
+  }
+
+  // VARIABLES
+
+  private final String name;
+  private final int enabledChannelsMask;
+  private final int sampleRate;
+  private final boolean useRLE;
+  private final int sampleCount;
+
+  private VirtualLogicSnifferDevice device;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new LogicSnifferAcquisitionBenchmark instance.
+   */
+  public LogicSnifferAcquisitionBenchmark( final String aName, final int aEnabledChannelsMask, final int aSampleRate,
+      final boolean aUseRLE, final int aSampleCount )
+  {
+    this.name = aName;
+    this.enabledChannelsMask = aEnabledChannelsMask;
+    this.sampleRate = aSampleRate;
+    this.useRLE = aUseRLE;
+    this.sampleCount = aSampleCount;
+  }
+
+  // METHODS
+
+  /**
+   * @return a collection of benchmark configurations.
+   */
+  @Parameters
+  @SuppressWarnings( "boxing" )
+  public static Collection<Object[]> getBenchmarkData()
+  {
+    final Object[][] configs = { //
+        // { name, enabled channels mask, sample rate, rle? }
+        { "8-bit", 0x000000FF, 100000000, false }, //
+        { "16-bit", 0x0000FFFF, 100000000, false }, //
+        { "32-bit", 0xFFFFFFFF, 100000000, false }, //
+        { "8-bit RLE", 0x000000FF, 100000000, true }, //
+        { "32-bit RLE", 0xFFFFFFFF, 100000000, true }, //
+        { "16-bit DDR", 0x0000FFFF, 200000000, false }, //
+    };
+    // The SUMP read counter allows for at most 256K samples...
+    final int[] sampleCounts = { 4096, 65536, 262144 };
+
+    final List<Object[]> result = new ArrayList<Object[]>();
+    for ( Object[] config : configs )
+    {
+      for ( int sampleCount : sampleCounts )
+      {
+        result.add( new Object[] { config[0], config[1], config[2], config[3], sampleCount } );
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Set up for each benchmark.
+   */
+  @Before
+  public void setUp() throws Exception
+  {
+    LogicSnifferConfig config = new LogicSnifferConfig();
+    this.device = new VirtualLogicSnifferDevice( config, new BlockSampleProvider() );
+
+    final DeviceProfile deviceProfile = this.device.addDeviceProfile( "VirtualLS", "\"Virtual LogicSniffer\"" );
+    config.setDeviceProfile( deviceProfile );
+
+    config.setAltNumberSchemeEnabled( false );
+    config.setClockSource( CaptureClockSource.INTERNAL );
+    config.setFilterEnabled( true );
+    config.setTestModeEnabled( false );
+    config.setEnabledChannels( this.enabledChannelsMask );
+    config.setRatio( 1.0 );
+    config.setRleEnabled( this.useRLE );
+    config.setSampleCount( this.sampleCount );
+    config.setSampleRate( this.sampleRate );
+    config.setTriggerEnabled( true );
+  }
+
+  /**
+   * Tear down for each benchmark.
+   */
+  @After
+  public void tearDown() throws Exception
+  {
+    this.device.close();
+  }
+
+  /**
+   * Runs the acquisition benchmark for the current configuration.
+   */
+  @Test
+  public void benchmarkAcquisition() throws Exception
+  {
+    final int warmup = Integer.getInteger( "benchmark.warmup", 3 ).intValue();
+    final int iterations = Math.max( 1, Integer.getInteger( "benchmark.iterations", 10 ).intValue() );
+
+    // Keep the device armed between acquisitions, except for the last one, so
+    // the device does not need to be detected for each acquisition...
+    for ( int i = 0; i < warmup; i++ )
+    {
+      acquire( true );
+    }
+
+    final AcquisitionResult[] results = new AcquisitionResult[iterations];
+
+    final AllocationCounter allocationCounter = AllocationCounter.create();
+    if ( allocationCounter != null )
+    {
+      allocationCounter.startCounting();
+    }
+    final long startTime = System.nanoTime();
+
+    for ( int i = 0; i < iterations; i++ )
+    {
+      results[i] = acquire( i < ( iterations - 1 ) );
+    }
+
+    final long duration = System.nanoTime() - startTime;
+    if ( allocationCounter != null )
+    {
+      allocationCounter.stopCounting();
+    }
+
+    // Verify the results outside the measured region...
+    for ( AcquisitionResult result : results )
+    {
+      assertNotNull( result );
+      assertTrue( AcquisitionResultAdapter.adapt( result ).getSampleCount() > 1 );
+    }
+
+    final double totalSamples = ( double )this.sampleCount * iterations;
+    final double samplesPerSecond = ( totalSamples * 1.0e9 ) / duration;
+
+    final StringBuilder sb = new StringBuilder();
+    sb.append( String.format( "%-12s %8d samples: %8.2f Msamples/s", this.name, Integer.valueOf( this.sampleCount ),
+        Double.valueOf( samplesPerSecond / 1.0e6 ) ) );
+    if ( allocationCounter != null )
+    {
+      final long allocated = allocationCounter.getAllocatedBytes();
+      sb.append( String.format( ", %8.2f bytes/sample allocated", Double.valueOf( allocated / totalSamples ) ) );
+    }
+    System.out.println( sb );
+
+    final String minRate = System.getProperty( "benchmark.minSamplesPerSecond" );
+    if ( minRate != null )
+    {
+      assertTrue( this.name + " with " + this.sampleCount + " samples too slow: " + samplesPerSecond
+          + " samples/s!", samplesPerSecond >= Double.parseDouble( minRate ) );
+    }
+  }
+
+  /**
+   * Performs a single acquisition.
+   */
+  private AcquisitionResult acquire( final boolean aRearm ) throws Exception
+  {
+    this.device.setRearm( aRearm );
+
+    return this.device.call();
+  }
+}
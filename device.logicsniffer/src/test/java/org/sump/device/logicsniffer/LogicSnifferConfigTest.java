@@ -55,6 +55,28 @@ public class LogicSnifferConfigTest
     device.close();
   }
 
+  /**
+   * Test method for {@link LogicSnifferConfig#equals(Object)}.
+   */
+  @Test
+  public void testEquals()
+  {
+    final LogicSnifferConfig other = new LogicSnifferConfig();
+    other.setDeviceProfile( this.profile );
+
+    assertEquals( this.config, other );
+    assertEquals( this.config.hashCode(), other.hashCode() );
+
+    other.setParallelTrigger( 0, 0x01, 0x01, 0, 0, false );
+    assertFalse( this.config.equals( other ) );
+
+    this.config.setParallelTrigger( 0, 0x01, 0x01, 0, 0, false );
+    assertEquals( this.config, other );
+
+    other.setSampleCount( 1024 );
+    assertFalse( this.config.equals( other ) );
+  }
+
   /**
    * Test method for {@link LogicSnifferConfig#getChannelCount()}.
    */
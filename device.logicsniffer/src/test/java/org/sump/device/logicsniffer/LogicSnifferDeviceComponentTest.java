@@ -145,6 +145,27 @@ public class LogicSnifferDeviceComponentTest
     this.device.close();
   }
 
+  /**
+   * Tests that back-to-back captures only detect and configure the device
+   * once, and yield the same data for each capture.
+   */
+  @Test( timeout = 1000000 )
+  public void testBackToBackCaptures() throws Exception
+  {
+    this.device.setRearm( true );
+
+    final AcquisitionResult result1 = this.device.call();
+
+    // Do not re-arm after the second capture...
+    this.device.setRearm( false );
+
+    final AcquisitionResult result2 = this.device.call();
+
+    this.device.assertDeviceIdRequestCount( 1 );
+    this.device.assertConstantDataStream( result1, this.expectedSampleValue, this.readCounter );
+    this.device.assertConstantDataStream( result2, this.expectedSampleValue, this.readCounter );
+  }
+
   /**
    * Test method for
    * {@link org.sump.device.logicsniffer.LogicSnifferAcquisitionTask#doInBackground()}
@@ -0,0 +1,113 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer;
+
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link LogicSnifferMetadataCache}.
+ */
+public class LogicSnifferMetadataCacheTest
+{
+  // CONSTANTS
+
+  private static final String URI = "comm:ttyACM0;baudrate=115200;bitsperchar=8";
+
+  // VARIABLES
+
+  private LogicSnifferMetadataCache cache;
+  private LogicSnifferMetadata metadata;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.cache = new LogicSnifferMetadataCache();
+    this.metadata = new LogicSnifferMetadata();
+
+    this.cache.put( URI, this.metadata );
+  }
+
+  /**
+   * Tests that the metadata is returned for the same connection URI.
+   */
+  @Test
+  public void testGetSameURI()
+  {
+    assertSame( this.metadata, this.cache.get( URI ) );
+    assertNull( this.cache.get( "comm:ttyACM1;baudrate=115200;bitsperchar=8" ) );
+    assertNull( this.cache.get( null ) );
+  }
+
+  /**
+   * Tests that changing the settings of a port invalidates its metadata.
+   */
+  @Test
+  public void testGetChangedPortSettings()
+  {
+    assertNull( this.cache.get( "comm:ttyACM0;baudrate=9600;bitsperchar=8" ) );
+    // Should be invalidated...
+    assertNull( this.cache.get( URI ) );
+  }
+
+  /**
+   * Tests the determination of the port name.
+   */
+  @Test
+  public void testGetPortName()
+  {
+    assertEquals( "comm:ttyACM0", LogicSnifferMetadataCache.getPortName( URI ) );
+    assertEquals( "socket://localhost:5678", LogicSnifferMetadataCache.getPortName( "socket://localhost:5678" ) );
+  }
+
+  /**
+   * Tests that the metadata of a port can be invalidated.
+   */
+  @Test
+  public void testInvalidate()
+  {
+    this.cache.invalidate( "comm:ttyACM0" );
+    assertNull( this.cache.get( URI ) );
+  }
+
+  /**
+   * Tests that only one entry per port is cached.
+   */
+  @Test
+  public void testPutReplacesEntryOfPort()
+  {
+    final LogicSnifferMetadata other = new LogicSnifferMetadata();
+    final String otherURI = "comm:ttyACM0;baudrate=921600;bitsperchar=8";
+
+    this.cache.put( otherURI, other );
+
+    assertSame( other, this.cache.get( otherURI ) );
+    assertNull( this.cache.get( URI ) );
+  }
+}
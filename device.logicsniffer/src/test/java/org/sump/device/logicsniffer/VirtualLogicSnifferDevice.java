@@ -227,6 +227,8 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
      */
     final void respondWithDeviceID() throws IOException
     {
+      VirtualLogicSnifferDevice.this.deviceIdRequests++;
+
       // Respond with '1ALS'...
       this.os.write( new byte[] { 0x31, 0x41, 0x4c, 0x53 } );
       this.os.flush();
@@ -368,6 +370,7 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
   private volatile int delayCount;
   private volatile int readCount;
   private volatile int flags;
+  private volatile int deviceIdRequests;
 
   // CONSTRUCTORS
 
@@ -403,6 +406,20 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
 
   // METHODS
 
+  /**
+   * Sets the device profile of the given configuration, allowing tests in
+   * other packages to configure a device profile.
+   *
+   * @param aConfig
+   *          the configuration to update;
+   * @param aDeviceProfile
+   *          the device profile to set.
+   */
+  public static void setDeviceProfile( final LogicSnifferConfig aConfig, final DeviceProfile aDeviceProfile )
+  {
+    aConfig.setDeviceProfile( aDeviceProfile );
+  }
+
   /**
    * @return
    */
@@ -463,6 +480,14 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
     assertEquals( "Absolute length not equal?!", aExpectedLength, aResult.getAbsoluteLength() );
   }
 
+  /**
+   * @param aExpectedCount
+   */
+  public void assertDeviceIdRequestCount( final int aExpectedCount )
+  {
+    assertEquals( "Device ID request count not as expected!", aExpectedCount, this.deviceIdRequests );
+  }
+
   /**
    * @param aFlagMask
    * @param aExpectedState
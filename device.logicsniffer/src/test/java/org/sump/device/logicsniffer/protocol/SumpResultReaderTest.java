@@ -0,0 +1,100 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.protocol;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SumpResultReader}.
+ */
+public class SumpResultReaderTest
+{
+  // INNER TYPES
+
+  /**
+   * Provides an input stream that returns at most a given number of bytes per
+   * read, like a serial port does.
+   */
+  static final class ChunkedInputStream extends ByteArrayInputStream
+  {
+    private final int chunkSize;
+
+    public ChunkedInputStream( final byte[] aData, final int aChunkSize )
+    {
+      super( aData );
+      this.chunkSize = aChunkSize;
+    }
+
+    @Override
+    public synchronized int read( final byte[] aBuffer, final int aOffset, final int aLength )
+    {
+      return super.read( aBuffer, aOffset, Math.min( this.chunkSize, aLength ) );
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Tests that flushing discards all available data.
+   */
+  @Test
+  public void testFlushDiscardsAvailableData() throws IOException
+  {
+    final InputStream is = new ChunkedInputStream( new byte[10000], 100 );
+    final SumpResultReader reader = new SumpResultReader( new DataInputStream( is ) );
+
+    reader.flush();
+
+    assertEquals( 0, is.available() );
+    assertEquals( -1, is.read() );
+  }
+
+  /**
+   * Tests that reading raw data continues while data is available.
+   */
+  @Test
+  public void testReadRawDataFillsBuffer() throws IOException
+  {
+    final byte[] data = new byte[1000];
+    for ( int i = 0; i < data.length; i++ )
+    {
+      data[i] = ( byte )i;
+    }
+
+    final SumpResultReader reader = new SumpResultReader( new DataInputStream( new ChunkedInputStream( data, 64 ) ) );
+
+    final byte[] buffer = new byte[800];
+    assertEquals( 800, reader.readRawData( buffer, 0, buffer.length ) );
+    for ( int i = 0; i < buffer.length; i++ )
+    {
+      assertEquals( data[i], buffer[i] );
+    }
+
+    assertEquals( 200, reader.readRawData( buffer, 0, buffer.length ) );
+    assertEquals( -1, reader.readRawData( buffer, 0, buffer.length ) );
+  }
+}
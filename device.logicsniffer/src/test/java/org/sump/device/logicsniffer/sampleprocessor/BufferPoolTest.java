@@ -0,0 +1,82 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link BufferPool}.
+ */
+public class BufferPoolTest
+{
+  // METHODS
+
+  /**
+   * Tests that acquired arrays are at least as large as requested, rounded up
+   * to a power of two.
+   */
+  @Test
+  public void testAcquireRoundsUpToSizeClass()
+  {
+    final BufferPool pool = BufferPool.getInstance();
+
+    assertEquals( 1024, pool.acquireBytes( 0 ).length );
+    assertEquals( 1024, pool.acquireBytes( 1000 ).length );
+    assertEquals( 2048, pool.acquireInts( 1025 ).length );
+    assertEquals( 65536, pool.acquireInts( 65536 ).length );
+  }
+
+  /**
+   * Tests that released arrays are handed out again.
+   */
+  @Test
+  public void testReleasedArraysAreReused()
+  {
+    final BufferPool pool = BufferPool.getInstance();
+
+    final byte[] bytes = pool.acquireBytes( 3000 );
+    final int[] ints = pool.acquireInts( 3000 );
+    pool.release( bytes );
+    pool.release( ints );
+
+    assertSame( bytes, pool.acquireBytes( 4096 ) );
+    assertSame( ints, pool.acquireInts( 2049 ) );
+  }
+
+  /**
+   * Tests that arrays not handed out by the pool are not pooled.
+   */
+  @Test
+  public void testForeignArraysAreNotReused()
+  {
+    final BufferPool pool = BufferPool.getInstance();
+
+    final int[] ints = new int[3000];
+    pool.release( ints );
+    pool.release( ( int[] )null );
+
+    assertNotSame( ints, pool.acquireInts( 3000 ) );
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2011 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+import org.sump.device.logicsniffer.*;
+import org.sump.device.logicsniffer.profile.*;
+import org.sump.device.logicsniffer.profile.DeviceProfile.CaptureClockSource;
+
+
+/**
+ * Test cases for {@link SampleProcessorPipeline}.
+ */
+public class SampleProcessorPipelineTest
+{
+  // INNER TYPES
+
+  /**
+   * Records all callbacks of a sample processor.
+   */
+  static final class RecordingCallback implements SampleProcessorCallback
+  {
+    // VARIABLES
+
+    final List<Long> events = new ArrayList<Long>();
+
+    // METHODS
+
+    public void addValue( final int aSampleValue, final long aTimestamp )
+    {
+      this.events.add( Long.valueOf( aSampleValue ) );
+      this.events.add( Long.valueOf( aTimestamp ) );
+    }
+
+    public void ready( final long aAbsoluteLength, final long aTriggerPosition )
+    {
+      this.events.add( Long.valueOf( aAbsoluteLength ) );
+      this.events.add( Long.valueOf( aTriggerPosition ) );
+    }
+  }
+
+  // CONSTANTS
+
+  private static final int SAMPLE_COUNT = 10000;
+
+  // VARIABLES
+
+  private VirtualLogicSnifferDevice device;
+  private LogicSnifferConfig config;
+  private int[] samples;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp() throws Exception
+  {
+    this.config = new LogicSnifferConfig();
+    this.device = new VirtualLogicSnifferDevice( this.config );
+
+    final DeviceProfile deviceProfile = this.device.addDeviceProfile( "VirtualLS", "\"Virtual LogicSniffer\"" );
+    VirtualLogicSnifferDevice.setDeviceProfile( this.config, deviceProfile );
+
+    this.config.setClockSource( CaptureClockSource.INTERNAL );
+    this.config.setEnabledChannels( 0xFF );
+    this.config.setRleEnabled( true );
+
+    // Random RLE-encoded data, in which roughly one out of four samples is a
+    // RLE-count...
+    final Random rnd = new Random( 42L );
+    this.samples = new int[SAMPLE_COUNT];
+    for ( int i = 0; i < SAMPLE_COUNT; i++ )
+    {
+      this.samples[i] = rnd.nextInt( 4 ) == 0 ? ( 0x80 | rnd.nextInt( 0x80 ) ) : rnd.nextInt( 0x80 );
+    }
+  }
+
+  /**
+   * Tear down for each test case.
+   */
+  @After
+  public void tearDown() throws Exception
+  {
+    this.device.close();
+  }
+
+  /**
+   * Tests that pipelined processing of unencoded samples yields the same
+   * result as processing all samples at once.
+   */
+  @Test
+  public void testEqualityFilterPipelined() throws Exception
+  {
+    this.config.setRleEnabled( false );
+    this.config.setSampleRate( 100000000 );
+
+    final RecordingCallback expected = new RecordingCallback();
+    new EqualityFilter( this.config, this.samples, 100, expected ).process();
+
+    final RecordingCallback actual = new RecordingCallback();
+    runPipeline( new EqualityFilter( this.config, 100, actual ) );
+
+    assertEquals( expected.events, actual.events );
+  }
+
+  /**
+   * Tests that pipelined RLE-decoding yields the same result as decoding all
+   * samples at once.
+   */
+  @Test
+  public void testRleDecoderPipelined() throws Exception
+  {
+    this.config.setSampleRate( 100000000 );
+
+    final RecordingCallback expected = new RecordingCallback();
+    new RleDecoder( this.config, this.samples, 100, expected ).process();
+
+    final RecordingCallback actual = new RecordingCallback();
+    runPipeline( new RleDecoder( this.config, SAMPLE_COUNT, 100, actual ) );
+
+    assertEquals( expected.events, actual.events );
+  }
+
+  /**
+   * Tests that pipelined RLE-decoding in DDR mode, in which RLE-counts span two
+   * samples, yields the same result as decoding all samples at once.
+   */
+  @Test
+  public void testRleDecoderPipelinedInDdrMode() throws Exception
+  {
+    this.config.setSampleRate( 200000000 );
+    assertTrue( this.config.isDoubleDataRateEnabled() );
+
+    final RecordingCallback expected = new RecordingCallback();
+    new RleDecoder( this.config, this.samples, 100, expected ).process();
+
+    final RecordingCallback actual = new RecordingCallback();
+    runPipeline( new RleDecoder( this.config, SAMPLE_COUNT, 100, actual ) );
+
+    assertEquals( expected.events, actual.events );
+  }
+
+  /**
+   * Feeds all samples to the given processor through a pipeline, in blocks of
+   * an odd size, so RLE-counts in DDR mode are split across blocks.
+   */
+  private void runPipeline( final SampleProcessor aProcessor ) throws InterruptedException
+  {
+    final SampleProcessorPipeline pipeline = new SampleProcessorPipeline( aProcessor );
+    pipeline.start();
+
+    final int[] block = new int[333];
+    for ( int i = 0; i < SAMPLE_COUNT; i += block.length )
+    {
+      final int count = Math.min( block.length, SAMPLE_COUNT - i );
+      System.arraycopy( this.samples, i, block, 0, count );
+      pipeline.add( block, count );
+    }
+
+    pipeline.finish();
+  }
+}
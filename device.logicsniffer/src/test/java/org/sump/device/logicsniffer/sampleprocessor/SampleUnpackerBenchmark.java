@@ -0,0 +1,312 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2011 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+import org.junit.runner.*;
+import org.junit.runners.*;
+import org.junit.runners.Parameterized.Parameters;
+import org.sump.device.logicsniffer.*;
+import org.sump.device.logicsniffer.profile.*;
+import org.sump.device.logicsniffer.profile.DeviceProfile.CaptureClockSource;
+
+
+/**
+ * Benchmarks the throughput of {@link SampleUnpacker} against the
+ * group-by-group loops it replaces, reporting the number of samples per second
+ * of both.
+ * <p>
+ * This benchmark is not run as part of the normal build; use the
+ * <tt>benchmark</tt> profile to run it. The number of iterations can be
+ * tweaked with the <tt>benchmark.warmup</tt> and
+ * <tt>benchmark.iterations</tt> system properties. When the
+ * <tt>benchmark.minSpeedup</tt> system property is set, the benchmark fails
+ * for each configuration in which the unpacker is not at least that many times
+ * faster than the group-by-group loop.
+ * </p>
+ */
+@RunWith( Parameterized.class )
+public class SampleUnpackerBenchmark
+{
+  // CONSTANTS
+
+  private static final int SAMPLE_COUNT = 1024 * 1024;
+
+  // VARIABLES
+
+  private final String name;
+  private final int enabledChannelsMask;
+  private final int sampleRate;
+
+  private VirtualLogicSnifferDevice device;
+  private LogicSnifferConfig config;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SampleUnpackerBenchmark instance.
+   */
+  public SampleUnpackerBenchmark( final String aName, final int aEnabledChannelsMask, final int aSampleRate )
+  {
+    this.name = aName;
+    this.enabledChannelsMask = aEnabledChannelsMask;
+    this.sampleRate = aSampleRate;
+  }
+
+  // METHODS
+
+  /**
+   * @return a collection of benchmark configurations.
+   */
+  @Parameters
+  @SuppressWarnings( "boxing" )
+  public static Collection<Object[]> getBenchmarkData()
+  {
+    return Arrays.asList( new Object[][] { //
+        // { name, enabled channels mask, sample rate }
+        { "8-bit", 0x000000FF, 100000000 }, //
+        { "16-bit", 0x0000FFFF, 100000000 }, //
+        { "16-bit gap", 0xFF00FF00, 100000000 }, //
+        { "32-bit", 0xFFFFFFFF, 100000000 }, //
+        { "16-bit DDR", 0x0000FFFF, 200000000 }, //
+        } );
+  }
+
+  /**
+   * Compacts all given sample values group-by-group, as the RLE decoder did
+   * before the unpacker was introduced.
+   */
+  private static int compactLoop( final int[] aValues, final boolean[] aEnabled )
+  {
+    int result = 0;
+    for ( int value : aValues )
+    {
+      int compdata = 0;
+      int indata = value;
+      for ( int j = 0, outcount = 0; j < aEnabled.length; j++ )
+      {
+        if ( aEnabled[j] )
+        {
+          compdata |= ( ( indata & 0xff ) << ( 8 * outcount++ ) );
+        }
+        indata >>= 8;
+      }
+      result ^= compdata;
+    }
+    return result;
+  }
+
+  /**
+   * Compacts all given sample values with the given unpacker.
+   */
+  private static int compactUnpacker( final int[] aValues, final SampleUnpacker aUnpacker )
+  {
+    int result = 0;
+    for ( int value : aValues )
+    {
+      result ^= aUnpacker.compact( value );
+    }
+    return result;
+  }
+
+  /**
+   * Unpacks the given raw data byte-by-byte, as the acquisition task did
+   * before the unpacker was introduced.
+   */
+  private static int unpackLoop( final byte[] aRawData, final int[] aShifts, final int[] aSamples )
+  {
+    int count = 0;
+    int sample = 0;
+    int group = 0;
+    for ( int i = 0; i < aRawData.length; i++ )
+    {
+      sample |= ( ( aRawData[i] & 0xff ) << aShifts[group++] );
+      if ( group == aShifts.length )
+      {
+        aSamples[count++] = sample;
+        sample = 0;
+        group = 0;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Set up for each benchmark.
+   */
+  @Before
+  public void setUp() throws Exception
+  {
+    this.config = new LogicSnifferConfig();
+    this.device = new VirtualLogicSnifferDevice( this.config );
+
+    final DeviceProfile deviceProfile = this.device.addDeviceProfile( "VirtualLS", "\"Virtual LogicSniffer\"" );
+    VirtualLogicSnifferDevice.setDeviceProfile( this.config, deviceProfile );
+
+    this.config.setClockSource( CaptureClockSource.INTERNAL );
+    this.config.setSampleRate( this.sampleRate );
+    this.config.setEnabledChannels( this.enabledChannelsMask );
+  }
+
+  /**
+   * Tear down for each benchmark.
+   */
+  @After
+  public void tearDown() throws Exception
+  {
+    this.device.close();
+  }
+
+  /**
+   * Runs the compaction benchmark for the current configuration.
+   */
+  @Test
+  public void benchmarkCompact()
+  {
+    final SampleUnpacker unpacker = new SampleUnpacker( this.config );
+
+    final int[] values = new int[SAMPLE_COUNT];
+    final Random rnd = new Random( this.enabledChannelsMask );
+    for ( int i = 0; i < values.length; i++ )
+    {
+      values[i] = rnd.nextInt();
+    }
+
+    final int groupCount = this.config.getGroupCount();
+    final boolean[] enabled = new boolean[groupCount];
+    for ( int g = 0; g < groupCount; g++ )
+    {
+      enabled[g] = this.config.isGroupEnabled( g );
+    }
+
+    final int warmup = Integer.getInteger( "benchmark.warmup", 3 ).intValue();
+    final int iterations = Math.max( 1, Integer.getInteger( "benchmark.iterations", 10 ).intValue() );
+
+    int loopResult = 0;
+    int unpackerResult = 0;
+    for ( int i = 0; i < warmup; i++ )
+    {
+      loopResult += compactLoop( values, enabled );
+      unpackerResult += compactUnpacker( values, unpacker );
+    }
+
+    long start = System.nanoTime();
+    for ( int i = 0; i < iterations; i++ )
+    {
+      loopResult += compactLoop( values, enabled );
+    }
+    final long loopDuration = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for ( int i = 0; i < iterations; i++ )
+    {
+      unpackerResult += compactUnpacker( values, unpacker );
+    }
+    final long unpackerDuration = System.nanoTime() - start;
+
+    // Also ensures the results are used, so the loops are not optimized away...
+    assertEquals( loopResult, unpackerResult );
+
+    report( "compact", iterations, loopDuration, unpackerDuration );
+  }
+
+  /**
+   * Runs the unpacking benchmark for the current configuration.
+   */
+  @Test
+  public void benchmarkUnpack()
+  {
+    final SampleUnpacker unpacker = new SampleUnpacker( this.config );
+    final int width = unpacker.getSampleWidth();
+
+    final byte[] rawData = new byte[SAMPLE_COUNT * width];
+    new Random( this.enabledChannelsMask ).nextBytes( rawData );
+
+    // The shift for each byte of a sample, as used by the acquisition task
+    // before the unpacker was introduced...
+    final int[] shifts = new int[width];
+    for ( int g = 0, i = 0; g < this.config.getGroupCount(); g++ )
+    {
+      if ( this.config.isGroupEnabled( g ) )
+      {
+        shifts[i++] = 8 * g;
+      }
+    }
+
+    final int[] loopSamples = new int[SAMPLE_COUNT];
+    final int[] unpackerSamples = new int[SAMPLE_COUNT];
+
+    final int warmup = Integer.getInteger( "benchmark.warmup", 3 ).intValue();
+    final int iterations = Math.max( 1, Integer.getInteger( "benchmark.iterations", 10 ).intValue() );
+
+    for ( int i = 0; i < warmup; i++ )
+    {
+      unpackLoop( rawData, shifts, loopSamples );
+      unpacker.unpack( rawData, 0, rawData.length, unpackerSamples );
+    }
+
+    long start = System.nanoTime();
+    for ( int i = 0; i < iterations; i++ )
+    {
+      unpackLoop( rawData, shifts, loopSamples );
+    }
+    final long loopDuration = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for ( int i = 0; i < iterations; i++ )
+    {
+      unpacker.unpack( rawData, 0, rawData.length, unpackerSamples );
+    }
+    final long unpackerDuration = System.nanoTime() - start;
+
+    assertArrayEquals( loopSamples, unpackerSamples );
+
+    report( "unpack", iterations, loopDuration, unpackerDuration );
+  }
+
+  /**
+   * Reports the throughput of both implementations.
+   */
+  private void report( final String aOperation, final int aIterations, final long aLoopDuration,
+      final long aUnpackerDuration )
+  {
+    final double totalSamples = ( double )SAMPLE_COUNT * aIterations;
+    final double loopRate = ( totalSamples * 1.0e9 ) / aLoopDuration;
+    final double unpackerRate = ( totalSamples * 1.0e9 ) / aUnpackerDuration;
+    final double speedup = unpackerRate / loopRate;
+
+    System.out.println( String.format( "%-12s %-8s loop: %8.2f Msamples/s, unpacker: %8.2f Msamples/s (%.2fx)",
+        this.name, aOperation, Double.valueOf( loopRate / 1.0e6 ), Double.valueOf( unpackerRate / 1.0e6 ),
+        Double.valueOf( speedup ) ) );
+
+    final String minSpeedup = System.getProperty( "benchmark.minSpeedup" );
+    if ( minSpeedup != null )
+    {
+      assertTrue( this.name + " " + aOperation + " speedup too low: " + speedup,
+          speedup >= Double.parseDouble( minSpeedup ) );
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2011 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+import org.junit.runner.*;
+import org.junit.runners.*;
+import org.junit.runners.Parameterized.Parameters;
+import org.sump.device.logicsniffer.*;
+import org.sump.device.logicsniffer.profile.*;
+import org.sump.device.logicsniffer.profile.DeviceProfile.CaptureClockSource;
+
+
+/**
+ * Test cases for {@link SampleUnpacker}, comparing it against the generic
+ * group-by-group conversion for all group layouts in plain, DDR and RLE mode.
+ */
+@RunWith( Parameterized.class )
+public class SampleUnpackerTest
+{
+  // VARIABLES
+
+  private final int groupMask;
+  private final boolean ddrMode;
+  private final boolean rleMode;
+
+  private VirtualLogicSnifferDevice device;
+  private LogicSnifferConfig config;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SampleUnpackerTest instance.
+   */
+  public SampleUnpackerTest( final int aGroupMask, final boolean aDdrMode, final boolean aRleMode )
+  {
+    this.groupMask = aGroupMask;
+    this.ddrMode = aDdrMode;
+    this.rleMode = aRleMode;
+  }
+
+  // METHODS
+
+  /**
+   * @return a collection of test data.
+   */
+  @Parameters
+  @SuppressWarnings( "boxing" )
+  public static Collection<Object[]> getTestData()
+  {
+    final List<Object[]> result = new ArrayList<Object[]>();
+    for ( int mask = 0x1; mask <= 0xF; mask++ )
+    {
+      result.add( new Object[] { mask, false, false } ); // plain
+      result.add( new Object[] { mask, true, false } ); // DDR
+      result.add( new Object[] { mask, false, true } ); // RLE
+      result.add( new Object[] { mask, true, true } ); // DDR + RLE
+    }
+    return result;
+  }
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp() throws Exception
+  {
+    this.config = new LogicSnifferConfig();
+    this.device = new VirtualLogicSnifferDevice( this.config );
+
+    final DeviceProfile deviceProfile = this.device.addDeviceProfile( "VirtualLS", "\"Virtual LogicSniffer\"" );
+    VirtualLogicSnifferDevice.setDeviceProfile( this.config, deviceProfile );
+
+    int channelMask = 0;
+    for ( int g = 0; g < 4; g++ )
+    {
+      if ( ( this.groupMask & ( 1 << g ) ) != 0 )
+      {
+        channelMask |= 0xFF << ( 8 * g );
+      }
+    }
+
+    this.config.setClockSource( CaptureClockSource.INTERNAL );
+    this.config.setSampleRate( this.ddrMode ? 200000000 : 100000000 );
+    this.config.setEnabledChannels( channelMask );
+    this.config.setRleEnabled( this.rleMode );
+  }
+
+  /**
+   * Tear down for each test case.
+   */
+  @After
+  public void tearDown() throws Exception
+  {
+    this.device.close();
+  }
+
+  /**
+   * Tests that compacting a sample value equals the group-by-group compaction.
+   */
+  @Test
+  public void testCompact()
+  {
+    final SampleUnpacker unpacker = new SampleUnpacker( this.config );
+    final Random rnd = new Random( this.groupMask );
+
+    for ( int i = 0; i < 10000; i++ )
+    {
+      final int value = ( i < 2 ) ? ( i == 0 ? 0 : -1 ) : rnd.nextInt();
+      assertEquals( Integer.toHexString( value ), compact( value ), unpacker.compact( value ) );
+    }
+  }
+
+  /**
+   * Tests that unpacking raw data equals the group-by-group conversion, and
+   * that only complete samples are unpacked.
+   */
+  @Test
+  public void testUnpack()
+  {
+    final SampleUnpacker unpacker = new SampleUnpacker( this.config );
+    final int width = unpacker.getSampleWidth();
+    assertEquals( this.config.getEnabledGroupCount(), width );
+
+    if ( width == 0 )
+    {
+      // In DDR mode, the upper two groups are not available at all...
+      assertEquals( 0, unpacker.unpack( new byte[10], 0, 10, new int[10] ) );
+      return;
+    }
+
+    final byte[] rawData = new byte[( 1000 * width ) + width - 1];
+    new Random( this.groupMask ).nextBytes( rawData );
+
+    final int[] samples = new int[1000];
+    assertEquals( 1000, unpacker.unpack( rawData, 0, rawData.length, samples ) );
+
+    for ( int i = 0, j = 0; i < samples.length; i++ )
+    {
+      int expected = 0;
+      for ( int g = 0; g < this.config.getGroupCount(); g++ )
+      {
+        if ( this.config.isGroupEnabled( g ) )
+        {
+          expected |= ( ( rawData[j++] & 0xff ) << ( 8 * g ) );
+        }
+      }
+      assertEquals( "sample " + i, expected, samples[i] );
+    }
+  }
+
+  /**
+   * Compacts the given sample value group-by-group.
+   */
+  private int compact( final int aSampleValue )
+  {
+    int groupCount = this.config.getGroupCount();
+    int compdata = 0;
+
+    int indata = aSampleValue;
+    for ( int j = 0, outcount = 0; j < groupCount; j++ )
+    {
+      if ( this.config.isGroupEnabled( j ) )
+      {
+        compdata |= ( ( indata & 0xff ) << ( 8 * outcount++ ) );
+      }
+      indata >>= 8;
+    }
+    return compdata;
+  }
+}
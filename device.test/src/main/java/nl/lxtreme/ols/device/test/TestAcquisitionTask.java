@@ -39,7 +39,7 @@ public class TestAcquisitionTask implements AcquisitionTask
   // VARIABLES
 
   private final TestDeviceDialog configDialog;
-  private final AcquisitionProgressListener progressListener;
+  private final ThrottledProgressListener progressListener;
 
   // CONSTRUCTORS
 
@@ -52,7 +52,7 @@ public class TestAcquisitionTask implements AcquisitionTask
   public TestAcquisitionTask( final TestDeviceDialog aConfigDialog, final AcquisitionProgressListener aProgressListener )
   {
     this.configDialog = aConfigDialog;
-    this.progressListener = aProgressListener;
+    this.progressListener = new ThrottledProgressListener( aProgressListener );
   }
 
   // METHODS
@@ -148,6 +148,8 @@ public class TestAcquisitionTask implements AcquisitionTask
         this.progressListener.acquisitionInProgress( ( int )( ( i * 100.0 ) / data.length ) );
       }
 
+      this.progressListener.flush();
+
       trigger = ( int )( data.length * 0.25 );
     }
 
@@ -69,17 +69,17 @@ public class CsvExporter implements Exporter
 
       final Channel[] channels = aDataSet.getChannels();
 
-      final AcquisitionResult capturedData = aDataSet.getCapturedData();
+      final IndexedAcquisitionResult capturedData = AcquisitionResultAdapter.adapt( aDataSet.getCapturedData() );
       final int sampleRate = capturedData.getSampleRate();
-      final int[] values = capturedData.getValues();
-      final long[] timestamps = capturedData.getTimestamps();
+      final int sampleCount = capturedData.getSampleCount();
       final long triggerPos = capturedData.getTriggerPosition();
 
       // Write data...
-      for ( int i = 0; i < values.length; i++ )
+      for ( int i = 0; i < sampleCount; i++ )
       {
         // Write data row...
-        writeDataRow( stream, timestamps[i], triggerPos, sampleRate, values[i], channels );
+        writeDataRow( stream, capturedData.getTimestamp( i ), triggerPos, sampleRate, capturedData.getValue( i ),
+            channels );
       }
     }
     finally
@@ -95,16 +95,15 @@ public class ValueChangeDumpExporter implements Exporter
    */
   protected void writeDataDump( final PrintWriter aWriter, final AcquisitionResult aCapturedData, final double aTimebase )
   {
-    final int[] values = aCapturedData.getValues();
-    final long[] timestamps = aCapturedData.getTimestamps();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( aCapturedData );
     final int channelCount = aCapturedData.getChannels();
     final int channelMask = aCapturedData.getEnabledChannels();
 
     int oldValue = -1;
-    for ( int i = 0, size = values.length; i < size; i++ )
+    for ( int i = 0, size = data.getSampleCount(); i < size; i++ )
     {
-      final int value = values[i];
-      final long timestamp = timestamps[i];
+      final int value = data.getValue( i );
+      final long timestamp = data.getTimestamp( i );
 
       final int time = ( int )( timestamp / ( aCapturedData.getSampleRate() * aTimebase ) );
 
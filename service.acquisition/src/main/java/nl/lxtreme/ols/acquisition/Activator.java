@@ -52,7 +52,7 @@ public class Activator extends DependencyActivatorBase
   public void init( final BundleContext aContext, final DependencyManager aManager ) throws Exception
   {
     final String[] interfaces = new String[] { DataAcquisitionService.class.getName(),
-        TaskStatusListener.class.getName() };
+        AcquisitionMetricsService.class.getName(), TaskStatusListener.class.getName() };
 
     aManager.add( createComponent() //
         .setInterface( interfaces, null ) //
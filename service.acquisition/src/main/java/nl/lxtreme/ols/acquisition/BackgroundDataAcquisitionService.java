@@ -37,8 +37,130 @@ import nl.lxtreme.ols.api.task.*;
  * Provides a {@link DataAcquisitionService} that performs the acquisition in
  * the background.
  */
-public class BackgroundDataAcquisitionService implements DataAcquisitionService, TaskStatusListener
+public class BackgroundDataAcquisitionService implements DataAcquisitionService, AcquisitionMetricsService,
+    TaskStatusListener
 {
+  // INNER TYPES
+
+  /**
+   * Performs back-to-back acquisitions until stopped, reporting the result of
+   * each acquisition but the last one directly to all acquisition data
+   * listeners. The last result is reported as result of this task.
+   */
+  final class ContinuousTask implements Task<AcquisitionResult>
+  {
+    // VARIABLES
+
+    private final ContinuousAcquisitionTask innerTask;
+
+    private volatile boolean stopped;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new ContinuousTask instance.
+     */
+    public ContinuousTask( final ContinuousAcquisitionTask aInnerTask )
+    {
+      this.innerTask = aInnerTask;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AcquisitionResult call() throws Exception
+    {
+      try
+      {
+        AcquisitionResult result = acquire( this.innerTask );
+        while ( !this.stopped && !Thread.currentThread().isInterrupted() )
+        {
+          fireAcquisitionCompleteEvent( result );
+
+          result = acquire( this.innerTask );
+        }
+        return result;
+      }
+      finally
+      {
+        // The inner task owns the connection to the device...
+        this.innerTask.close();
+      }
+    }
+
+    /**
+     * Stops this task after the acquisition currently in progress.
+     */
+    public void stop()
+    {
+      this.stopped = true;
+      this.innerTask.stop();
+    }
+  }
+
+  /**
+   * Provides a {@link ContinuousAcquisitionTask} for devices that do not
+   * support continuous acquisitions natively by performing a "normal"
+   * acquisition for each call.
+   */
+  static final class RepeatingAcquisitionTask implements ContinuousAcquisitionTask
+  {
+    // VARIABLES
+
+    private final Device device;
+    private final AcquisitionProgressListener progressListener;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new RepeatingAcquisitionTask instance.
+     */
+    public RepeatingAcquisitionTask( final Device aDevice, final AcquisitionProgressListener aProgressListener )
+    {
+      this.device = aDevice;
+      this.progressListener = aProgressListener;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AcquisitionResult call() throws Exception
+    {
+      try
+      {
+        return this.device.createAcquisitionTask( this.progressListener ).call();
+      }
+      finally
+      {
+        this.device.close();
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+      // Nothing to do; the device is closed after each acquisition...
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop()
+    {
+      // Nothing to do; each acquisition is a complete one...
+    }
+  }
+
   // CONSTANTS
 
   private static final Logger LOG = Logger.getLogger( BackgroundDataAcquisitionService.class.getName() );
@@ -52,6 +174,8 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
   private volatile TaskExecutionService taskExecutionService;
   private volatile Future<?> acquisitionFutureTask;
   private volatile Task<AcquisitionResult> acquisitionTask;
+  private volatile AcquisitionMetrics currentMetrics;
+  private volatile AcquisitionMetrics lastMetrics;
 
   // CONSTRUCTORS
 
@@ -73,14 +197,7 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
   @Override
   public void acquireData( final Device aDevice ) throws IOException
   {
-    final AcquisitionTask innerTask = aDevice.createAcquisitionTask( new AcquisitionProgressListener()
-    {
-      @Override
-      public void acquisitionInProgress( final int aPercentage )
-      {
-        fireAcquisitionInProgressEvent( aPercentage );
-      }
-    } );
+    final AcquisitionTask innerTask = aDevice.createAcquisitionTask( createProgressListener() );
 
     // Wrap the actual acquisition task in order to get a kind of "auto"
     // closable behavior...
@@ -91,7 +208,7 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
       {
         try
         {
-          return innerTask.call();
+          return acquire( innerTask );
         }
         finally
         {
@@ -103,6 +220,56 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
     this.acquisitionFutureTask = this.taskExecutionService.execute( this.acquisitionTask );
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void acquireDataContinuously( final Device aDevice ) throws IOException
+  {
+    final AcquisitionProgressListener progressListener = createProgressListener();
+
+    final ContinuousAcquisitionTask innerTask;
+    if ( aDevice instanceof ContinuousAcquisitionDevice )
+    {
+      innerTask = ( ( ContinuousAcquisitionDevice )aDevice ).createContinuousAcquisitionTask( progressListener );
+    }
+    else
+    {
+      innerTask = new RepeatingAcquisitionTask( aDevice, progressListener );
+    }
+
+    this.acquisitionTask = new ContinuousTask( innerTask );
+
+    this.acquisitionFutureTask = this.taskExecutionService.execute( this.acquisitionTask );
+  }
+
+  /**
+   * Performs a single acquisition with the given task, and keeps the metrics
+   * of it when it succeeds.
+   *
+   * @param aTask
+   *          the acquisition task to call, cannot be <code>null</code>.
+   * @return the acquisition result, never <code>null</code>.
+   * @throws Exception
+   *           in case the acquisition failed.
+   */
+  final AcquisitionResult acquire( final AcquisitionTask aTask ) throws Exception
+  {
+    final AcquisitionMetrics metrics = new AcquisitionMetrics();
+    final long startTime = System.nanoTime();
+
+    this.currentMetrics = metrics;
+
+    final AcquisitionResult result = aTask.call();
+
+    metrics.setTotalTime( System.nanoTime() - startTime );
+    this.lastMetrics = metrics;
+
+    LOG.log( Level.FINE, "Acquisition metrics: {0}", metrics );
+
+    return result;
+  }
+
   /**
    * Adds a new {@link AcquisitionDataListener} to the list of listeners.
    * <p>
@@ -156,6 +323,13 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
       throw new IllegalStateException( "No acquisition in progress!" );
     }
 
+    final Task<AcquisitionResult> task = this.acquisitionTask;
+    if ( task instanceof ContinuousTask )
+    {
+      // Make sure no new acquisition is started after the current one...
+      ( ( ContinuousTask )task ).stop();
+    }
+
     final CancelTask cancelTask = aDevice.createCancelTask();
     if ( cancelTask != null )
     {
@@ -168,6 +342,15 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AcquisitionMetrics getLastMetrics()
+  {
+    return this.lastMetrics;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -287,6 +470,34 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
     }
   }
 
+  /**
+   * Creates a progress listener that reports the progress of an acquisition
+   * to all acquisition progress listeners.
+   *
+   * @return a new progress listener, never <code>null</code>.
+   */
+  AcquisitionProgressListener createProgressListener()
+  {
+    return new AcquisitionMetricsListener()
+    {
+      @Override
+      public void acquisitionInProgress( final int aPercentage )
+      {
+        fireAcquisitionInProgressEvent( aPercentage );
+      }
+
+      @Override
+      public void acquisitionPhaseCompleted( final String aPhase, final long aDuration, final long aByteCount )
+      {
+        final AcquisitionMetrics metrics = BackgroundDataAcquisitionService.this.currentMetrics;
+        if ( metrics != null )
+        {
+          metrics.addPhase( aPhase, aDuration, aByteCount );
+        }
+      }
+    };
+  }
+
   /**
    * @param result
    */
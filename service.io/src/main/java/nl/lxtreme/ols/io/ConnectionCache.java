@@ -0,0 +1,784 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.io;
+
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.*;
+
+import javax.microedition.io.*;
+
+
+/**
+ * Keeps stream connections open for a while after they are closed, so they can
+ * be reused by a next open of the same URI, without the (possibly expensive)
+ * opening of the underlying port.
+ * <p>
+ * Connections are kept per port, together with the options they were opened
+ * with. As ports, like serial ports, are often opened exclusively, idle
+ * connections of a port are closed as soon as that port is opened with
+ * different options.
+ * </p>
+ * <p>
+ * Cached connections are handed out as exclusive leases: as long as a lease is
+ * not closed, the connection is not handed out again. Closing the leased
+ * connection returns it to the cache, unless an I/O error occurred while it
+ * was leased. Closing the streams of a leased connection does <em>not</em>
+ * release the lease, as these are typically closed before the connection
+ * itself. An idle connection is closed when it is not leased again within its
+ * idle timeout, and is checked for its health before it is leased again.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ */
+final class ConnectionCache
+{
+  // INNER TYPES
+
+  /**
+   * Denotes a single (real) connection in this cache.
+   */
+  final class Entry
+  {
+    // VARIABLES
+
+    final String port;
+    final String options;
+    final StreamConnection connection;
+    final long idleTimeout;
+
+    volatile boolean broken;
+    // Guarded by the cache...
+    Lease lease;
+    ScheduledFuture<?> eviction;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new Entry instance.
+     */
+    Entry( final String aPort, final String aOptions, final StreamConnection aConnection, final long aIdleTimeout )
+    {
+      this.port = aPort;
+      this.options = aOptions;
+      this.connection = aConnection;
+      this.idleTimeout = aIdleTimeout;
+    }
+  }
+
+  /**
+   * Provides a single lease of a cached connection, which intercepts the calls
+   * to close the connection, releasing the lease, and wraps its streams so
+   * these cannot close the connection.
+   */
+  final class Lease implements InvocationHandler
+  {
+    // VARIABLES
+
+    final Entry entry;
+
+    private volatile boolean released;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new Lease instance.
+     */
+    Lease( final Entry aEntry )
+    {
+      this.entry = aEntry;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object invoke( final Object aProxy, final Method aMethod, final Object[] aArgs ) throws Throwable
+    {
+      final String name = aMethod.getName();
+      if ( "close".equals( name ) && ( aMethod.getParameterTypes().length == 0 ) )
+      {
+        if ( !this.released )
+        {
+          this.released = true;
+          release( this );
+        }
+        return null;
+      }
+      if ( aMethod.getDeclaringClass() == Object.class )
+      {
+        if ( "equals".equals( name ) )
+        {
+          return Boolean.valueOf( aProxy == aArgs[0] );
+        }
+        else if ( "hashCode".equals( name ) )
+        {
+          return Integer.valueOf( System.identityHashCode( aProxy ) );
+        }
+        return "Lease of " + this.entry.connection;
+      }
+
+      checkLeased();
+
+      if ( "openInputStream".equals( name ) )
+      {
+        return new LeasedInputStream( this, this.entry.connection.openInputStream() );
+      }
+      else if ( "openDataInputStream".equals( name ) )
+      {
+        return new DataInputStream( new LeasedInputStream( this, this.entry.connection.openInputStream() ) );
+      }
+      else if ( "openOutputStream".equals( name ) )
+      {
+        return new LeasedOutputStream( this, this.entry.connection.openOutputStream() );
+      }
+      else if ( "openDataOutputStream".equals( name ) )
+      {
+        return new DataOutputStream( new LeasedOutputStream( this, this.entry.connection.openOutputStream() ) );
+      }
+
+      try
+      {
+        return aMethod.invoke( this.entry.connection, aArgs );
+      }
+      catch ( InvocationTargetException exception )
+      {
+        final Throwable cause = exception.getCause();
+        if ( cause instanceof IOException )
+        {
+          failed( ( IOException )cause );
+        }
+        throw cause;
+      }
+    }
+
+    /**
+     * Verifies that this lease is not yet released.
+     *
+     * @throws IOException
+     *           in case this lease is already released.
+     */
+    void checkLeased() throws IOException
+    {
+      if ( this.released )
+      {
+        throw new IOException( "Connection is closed!" );
+      }
+    }
+
+    /**
+     * Marks the leased connection as broken in case of I/O errors other than
+     * timeouts and interrupts.
+     *
+     * @param aException
+     *          the I/O exception that occurred, cannot be <code>null</code>.
+     */
+    void failed( final IOException aException )
+    {
+      if ( !( aException instanceof InterruptedIOException ) )
+      {
+        this.entry.broken = true;
+      }
+    }
+  }
+
+  /**
+   * Provides an input stream that cannot close the leased connection; closing
+   * it does not release the lease either.
+   */
+  static final class LeasedInputStream extends FilterInputStream
+  {
+    // VARIABLES
+
+    private final Lease lease;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new LeasedInputStream instance.
+     */
+    LeasedInputStream( final Lease aLease, final InputStream aStream )
+    {
+      super( aStream );
+      this.lease = aLease;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available() throws IOException
+    {
+      this.lease.checkLeased();
+      try
+      {
+        return super.available();
+      }
+      catch ( IOException exception )
+      {
+        this.lease.failed( exception );
+        throw exception;
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+      // Do not close the underlying stream; the connection is to be reused...
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException
+    {
+      this.lease.checkLeased();
+      try
+      {
+        return super.read();
+      }
+      catch ( IOException exception )
+      {
+        this.lease.failed( exception );
+        throw exception;
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read( final byte[] aBuffer, final int aOffset, final int aLength ) throws IOException
+    {
+      this.lease.checkLeased();
+      try
+      {
+        return super.read( aBuffer, aOffset, aLength );
+      }
+      catch ( IOException exception )
+      {
+        this.lease.failed( exception );
+        throw exception;
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip( final long aCount ) throws IOException
+    {
+      this.lease.checkLeased();
+      try
+      {
+        return super.skip( aCount );
+      }
+      catch ( IOException exception )
+      {
+        this.lease.failed( exception );
+        throw exception;
+      }
+    }
+  }
+
+  /**
+   * Provides an output stream that cannot close the leased connection; closing
+   * it only flushes it, and does not release the lease either.
+   */
+  static final class LeasedOutputStream extends FilterOutputStream
+  {
+    // VARIABLES
+
+    private final Lease lease;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new LeasedOutputStream instance.
+     */
+    LeasedOutputStream( final Lease aLease, final OutputStream aStream )
+    {
+      super( aStream );
+      this.lease = aLease;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+      // Do not close the underlying stream; the connection is to be reused...
+      if ( !this.lease.released )
+      {
+        flush();
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException
+    {
+      this.lease.checkLeased();
+      try
+      {
+        this.out.flush();
+      }
+      catch ( IOException exception )
+      {
+        this.lease.failed( exception );
+        throw exception;
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final byte[] aBuffer, final int aOffset, final int aLength ) throws IOException
+    {
+      this.lease.checkLeased();
+      try
+      {
+        this.out.write( aBuffer, aOffset, aLength );
+      }
+      catch ( IOException exception )
+      {
+        this.lease.failed( exception );
+        throw exception;
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final int aByte ) throws IOException
+    {
+      this.lease.checkLeased();
+      try
+      {
+        this.out.write( aByte );
+      }
+      catch ( IOException exception )
+      {
+        this.lease.failed( exception );
+        throw exception;
+      }
+    }
+  }
+
+  // CONSTANTS
+
+  private static final Logger LOG = Logger.getLogger( ConnectionCache.class.getName() );
+
+  // VARIABLES
+
+  private final Map<String, List<Entry>> entries;
+
+  private ScheduledExecutorService scheduler;
+  private boolean shutdown;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new ConnectionCache instance.
+   */
+  public ConnectionCache()
+  {
+    this.entries = new HashMap<String, List<Entry>>();
+  }
+
+  // METHODS
+
+  /**
+   * Closes the given connection, ignoring any I/O problems.
+   */
+  private static void closeQuietly( final Connection aConnection )
+  {
+    try
+    {
+      aConnection.close();
+    }
+    catch ( IOException exception )
+    {
+      LOG.log( Level.FINE, "I/O exception closing cached connection!", exception );
+    }
+  }
+
+  /**
+   * Returns whether the given connection appears to be usable.
+   */
+  private static boolean isHealthy( final StreamConnection aConnection )
+  {
+    try
+    {
+      return aConnection.openInputStream().available() >= 0;
+    }
+    catch ( IOException exception )
+    {
+      return false;
+    }
+    catch ( RuntimeException exception )
+    {
+      return false;
+    }
+  }
+
+  /**
+   * Leases an idle, healthy, connection for the given port and options. Idle
+   * connections of the same port with other options are closed.
+   *
+   * @param aPort
+   *          the port of the connection, cannot be <code>null</code>;
+   * @param aOptions
+   *          the options of the connection, like its URI and mode, cannot be
+   *          <code>null</code>.
+   * @return a leased connection, or <code>null</code> if no idle connection is
+   *         available for the given port and options.
+   */
+  public Connection acquire( final String aPort, final String aOptions )
+  {
+    evictIdle( aPort, aOptions );
+
+    while ( true )
+    {
+      final Entry entry;
+      synchronized ( this )
+      {
+        entry = findIdleEntry( aPort, aOptions );
+        if ( entry == null )
+        {
+          return null;
+        }
+
+        if ( entry.eviction != null )
+        {
+          entry.eviction.cancel( false /* mayInterruptIfRunning */);
+          entry.eviction = null;
+        }
+        // Reserve it, while we're checking its health...
+        entry.lease = new Lease( entry );
+      }
+
+      if ( !entry.broken && isHealthy( entry.connection ) )
+      {
+        LOG.log( Level.FINE, "Reusing cached connection for {0}...", aPort );
+        return createProxy( entry.lease );
+      }
+
+      LOG.log( Level.FINE, "Discarding unhealthy cached connection for {0}...", aPort );
+      remove( entry );
+      closeQuietly( entry.connection );
+    }
+  }
+
+  /**
+   * Closes the idle connections of the given port that are opened with other
+   * options than the given options.
+   *
+   * @param aPort
+   *          the port to close the idle connections for, cannot be
+   *          <code>null</code>;
+   * @param aOptions
+   *          the options of the connections to keep, or <code>null</code> to
+   *          close all idle connections of the given port.
+   */
+  public void evictIdle( final String aPort, final String aOptions )
+  {
+    final List<Entry> idle = new ArrayList<Entry>();
+    synchronized ( this )
+    {
+      final List<Entry> list = this.entries.get( aPort );
+      if ( list != null )
+      {
+        for ( Entry entry : list )
+        {
+          if ( ( entry.lease == null ) && !entry.options.equals( aOptions ) )
+          {
+            idle.add( entry );
+          }
+        }
+      }
+
+      for ( Entry entry : idle )
+      {
+        if ( entry.eviction != null )
+        {
+          entry.eviction.cancel( false /* mayInterruptIfRunning */);
+          entry.eviction = null;
+        }
+        remove( entry );
+      }
+    }
+
+    for ( Entry entry : idle )
+    {
+      LOG.log( Level.FINE, "Closing idle cached connection for {0}...", aPort );
+      closeQuietly( entry.connection );
+    }
+  }
+
+  /**
+   * Adds a new connection to this cache, and leases it directly.
+   *
+   * @param aPort
+   *          the port of the connection, cannot be <code>null</code>;
+   * @param aOptions
+   *          the options of the connection, like its URI and mode, cannot be
+   *          <code>null</code>;
+   * @param aConnection
+   *          the connection to add, cannot be <code>null</code>;
+   * @param aIdleTimeout
+   *          the time, in milliseconds, the connection is kept open while not
+   *          leased, > 0.
+   * @return a leased connection, never <code>null</code>.
+   */
+  public Connection lease( final String aPort, final String aOptions, final StreamConnection aConnection,
+      final long aIdleTimeout )
+  {
+    final Entry entry = new Entry( aPort, aOptions, aConnection, aIdleTimeout );
+    synchronized ( this )
+    {
+      entry.lease = new Lease( entry );
+
+      List<Entry> list = this.entries.get( aPort );
+      if ( list == null )
+      {
+        list = new ArrayList<Entry>( 1 );
+        this.entries.put( aPort, list );
+      }
+      list.add( entry );
+    }
+    return createProxy( entry.lease );
+  }
+
+  /**
+   * Closes all idle connections, and ensures leased connections are closed
+   * when their lease is released.
+   */
+  public void shutdown()
+  {
+    final List<Entry> idle = new ArrayList<Entry>();
+    synchronized ( this )
+    {
+      this.shutdown = true;
+
+      for ( List<Entry> list : this.entries.values() )
+      {
+        for ( Entry entry : list )
+        {
+          if ( entry.lease == null )
+          {
+            idle.add( entry );
+          }
+        }
+      }
+      this.entries.clear();
+
+      if ( this.scheduler != null )
+      {
+        this.scheduler.shutdownNow();
+        this.scheduler = null;
+      }
+    }
+
+    for ( Entry entry : idle )
+    {
+      closeQuietly( entry.connection );
+    }
+  }
+
+  /**
+   * Returns the number of connections in this cache, leased or not.
+   *
+   * @return a connection count, >= 0.
+   */
+  synchronized int size()
+  {
+    int result = 0;
+    for ( List<Entry> list : this.entries.values() )
+    {
+      result += list.size();
+    }
+    return result;
+  }
+
+  /**
+   * Evicts the given entry, if it is still idle.
+   */
+  final void evict( final Entry aEntry )
+  {
+    synchronized ( this )
+    {
+      if ( ( aEntry.lease != null ) || !remove( aEntry ) )
+      {
+        return;
+      }
+    }
+
+    LOG.log( Level.FINE, "Closing idle cached connection for {0}...", aEntry.port );
+    closeQuietly( aEntry.connection );
+  }
+
+  /**
+   * Releases the given lease, returning its connection to the cache.
+   */
+  final void release( final Lease aLease )
+  {
+    final Entry entry = aLease.entry;
+
+    boolean close;
+    synchronized ( this )
+    {
+      if ( entry.lease != aLease )
+      {
+        return;
+      }
+      entry.lease = null;
+
+      close = this.shutdown || entry.broken;
+      if ( close )
+      {
+        remove( entry );
+      }
+      else
+      {
+        entry.eviction = getScheduler().schedule( new Runnable()
+        {
+          @Override
+          public void run()
+          {
+            evict( entry );
+          }
+        }, entry.idleTimeout, TimeUnit.MILLISECONDS );
+      }
+    }
+
+    if ( close )
+    {
+      closeQuietly( entry.connection );
+    }
+  }
+
+  /**
+   * Creates a proxy for the given lease, implementing all connection
+   * interfaces of the leased connection.
+   */
+  private Connection createProxy( final Lease aLease )
+  {
+    final Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+    Class<?> type = aLease.entry.connection.getClass();
+    while ( type != null )
+    {
+      for ( Class<?> iface : type.getInterfaces() )
+      {
+        if ( Connection.class.isAssignableFrom( iface ) )
+        {
+          interfaces.add( iface );
+        }
+      }
+      type = type.getSuperclass();
+    }
+
+    return ( Connection )Proxy.newProxyInstance( getClass().getClassLoader(),
+        interfaces.toArray( new Class<?>[interfaces.size()] ), aLease );
+  }
+
+  /**
+   * Returns the first idle entry for the given port and options. Should be
+   * called while holding the lock on this cache.
+   */
+  private Entry findIdleEntry( final String aPort, final String aOptions )
+  {
+    final List<Entry> list = this.entries.get( aPort );
+    if ( list != null )
+    {
+      for ( Entry entry : list )
+      {
+        if ( ( entry.lease == null ) && entry.options.equals( aOptions ) )
+        {
+          return entry;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the scheduler for evicting idle connections. Should be called
+   * while holding the lock on this cache.
+   */
+  private ScheduledExecutorService getScheduler()
+  {
+    if ( this.scheduler == null )
+    {
+      this.scheduler = Executors.newSingleThreadScheduledExecutor( new ThreadFactory()
+      {
+        @Override
+        public Thread newThread( final Runnable aRunnable )
+        {
+          final Thread thread = new Thread( aRunnable, "Connection cache evictor" );
+          thread.setDaemon( true );
+          return thread;
+        }
+      } );
+    }
+    return this.scheduler;
+  }
+
+  /**
+   * Removes the given entry. Should be called while holding the lock on this
+   * cache.
+   *
+   * @return <code>true</code> if the entry was removed, <code>false</code> if
+   *         it was not part of this cache.
+   */
+  private boolean remove( final Entry aEntry )
+  {
+    final List<Entry> list = this.entries.get( aEntry.port );
+    if ( ( list == null ) || !list.remove( aEntry ) )
+    {
+      return false;
+    }
+    if ( list.isEmpty() )
+    {
+      this.entries.remove( aEntry.port );
+    }
+    return true;
+  }
+}
@@ -24,6 +24,8 @@ package nl.lxtreme.ols.io;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.util.regex.*;
+
 import javax.microedition.io.*;
 
 import org.osgi.framework.*;
@@ -33,13 +35,35 @@ import org.osgi.service.log.*;
 
 /**
  * Provides a implementation of the connector service.
+ * <p>
+ * Stream connections can optionally be cached, by adding a
+ * <tt>;cache=&lt;ms&gt;</tt> option to their URI, or by setting the
+ * {@value #PROPERTY_CACHE_IDLE_TIMEOUT} system property. When closed, a cached
+ * connection is kept open for the given number of milliseconds, and is reused
+ * by a next open of the same URI, mode and timeouts. The <tt>cache</tt> option
+ * itself is not passed on to the connection factories. Opening a port with
+ * other options closes the idle cached connections of that port first.
+ * </p>
  */
 public class ConnectorServiceImpl implements ConnectorService
 {
+  // CONSTANTS
+
+  /**
+   * The system property that defines the default idle timeout, in
+   * milliseconds, of cached connections; when not set, or zero, connections are
+   * only cached when their URI contains a <tt>cache</tt> option.
+   */
+  public static final String PROPERTY_CACHE_IDLE_TIMEOUT = "nl.lxtreme.ols.io.cacheIdleTimeout";
+
+  private static final Pattern CACHE_OPTION = Pattern.compile( ";cache=(\\d+)" );
+
   // VARIABLES
 
   private final BundleContext context;
   private final List<Connection> openConnections;
+  private final ConnectionCache connectionCache;
+  private final long defaultIdleTimeout;
 
   // Injected by DependencyManager...
   private volatile LogService logService;
@@ -56,6 +80,8 @@ public class ConnectorServiceImpl implements ConnectorService
   {
     this.context = aContext;
     this.openConnections = new ArrayList<Connection>();
+    this.connectionCache = new ConnectionCache();
+    this.defaultIdleTimeout = Long.getLong( PROPERTY_CACHE_IDLE_TIMEOUT, 0L ).longValue();
   }
 
   // METHODS
@@ -89,6 +115,20 @@ public class ConnectorServiceImpl implements ConnectorService
     return protocol;
   }
 
+  /**
+   * Returns the port of the given URI, that is, the URI without any of its
+   * options.
+   * 
+   * @param aName
+   *          the URI to get the port for, cannot be <code>null</code>.
+   * @return a port name, never <code>null</code>.
+   */
+  static final String getPortName( final String aName )
+  {
+    final int idx = aName.indexOf( ';' );
+    return ( idx < 0 ) ? aName : aName.substring( 0, idx );
+  }
+
   /**
    * Locates the connection factory service instance through OSGi.
    * 
@@ -151,18 +191,50 @@ public class ConnectorServiceImpl implements ConnectorService
   @Override
   public Connection open( final String aName, final int aMode, final boolean aTimeouts ) throws IOException
   {
-    final ConnectionFactory cf = getConnectionFactory( this.context, aName );
+    String name = aName;
+    long idleTimeout = this.defaultIdleTimeout;
+
+    final Matcher matcher = CACHE_OPTION.matcher( name );
+    if ( matcher.find() )
+    {
+      idleTimeout = Long.parseLong( matcher.group( 1 ) );
+      name = name.substring( 0, matcher.start() ).concat( name.substring( matcher.end() ) );
+    }
+
+    final String port = getPortName( name );
+    final String options = name.concat( "|" ).concat( Integer.toString( aMode ) ).concat( "|" )
+        .concat( Boolean.toString( aTimeouts ) );
+    if ( idleTimeout > 0L )
+    {
+      final Connection cached = this.connectionCache.acquire( port, options );
+      if ( cached != null )
+      {
+        return cached;
+      }
+    }
+    else
+    {
+      // Make sure no idle cached connection keeps the port occupied...
+      this.connectionCache.evictIdle( port, null );
+    }
+
+    final ConnectionFactory cf = getConnectionFactory( this.context, name );
     if ( cf == null )
     {
-      throw new ConnectionNotFoundException( "No connection for: " + aName );
+      throw new ConnectionNotFoundException( "No connection for: " + name );
     }
 
-    final Connection connection = cf.createConnection( aName, aMode, aTimeouts );
+    final Connection connection = cf.createConnection( name, aMode, aTimeouts );
     synchronized ( this.openConnections )
     {
       this.openConnections.add( connection );
     }
 
+    if ( ( idleTimeout > 0L ) && ( connection instanceof StreamConnection ) )
+    {
+      return this.connectionCache.lease( port, options, ( StreamConnection )connection, idleTimeout );
+    }
+
     return connection;
   }
 
@@ -207,6 +279,8 @@ public class ConnectorServiceImpl implements ConnectorService
    */
   public void shutdown()
   {
+    this.connectionCache.shutdown();
+
     final List<Connection> connections;
     synchronized ( this.openConnections )
     {
@@ -80,13 +80,22 @@ public class CommConnectionFactory implements ConnectionFactory
         // A receive timeout allows us to better control blocking I/O, such as
         // read() from the serial port...
         port.enableReceiveTimeout( options.getReceiveTimeout() );
+
+        // A receive threshold allows bulk reads to return in larger chunks,
+        // while the timeout ensures they still return at the end of a
+        // transfer...
+        final int threshold = options.getReceiveThreshold();
+        if ( threshold > 0 )
+        {
+          port.enableReceiveThreshold( threshold );
+        }
       }
       // Taken from
       // <http://mailman.qbang.org/pipermail/rxtx/2010-September/7821768.html>
       port.setRTS( true );
       port.setDTR( options.isDTR() );
 
-      final CommConnectionImpl connection = new CommConnectionImpl( port );
+      final CommConnectionImpl connection = new CommConnectionImpl( port, options.getReceiveBufferSize() );
 
       // Some devices need some time to initialize after being opened for the
       // first time, see issue #34.
@@ -44,6 +44,8 @@ final class CommConnectionImpl implements CommConnection
 
   // VARIABLES
 
+  private final int bufferSize;
+
   private volatile InputStream is;
   private volatile OutputStream os;
 
@@ -55,17 +57,25 @@ final class CommConnectionImpl implements CommConnection
    * Creates a new SerialConnection instance.
    * 
    * @param aPort
-   *          the serial port to wrap, cannot be <code>null</code>.
+   *          the serial port to wrap, cannot be <code>null</code>;
+   * @param aBufferSize
+   *          the size of the input buffer, in bytes, > 0.
    * @throws IllegalArgumentException
-   *           in case the given port was <code>null</code>.
+   *           in case the given port was <code>null</code>, or the given
+   *           buffer size was invalid.
    */
-  public CommConnectionImpl( final SerialPort aPort ) throws IllegalArgumentException
+  public CommConnectionImpl( final SerialPort aPort, final int aBufferSize ) throws IllegalArgumentException
   {
     if ( aPort == null )
     {
       throw new IllegalArgumentException( "Port cannot be null!" );
     }
+    if ( aBufferSize <= 0 )
+    {
+      throw new IllegalArgumentException( "Buffer size must be positive!" );
+    }
     this.port = aPort;
+    this.bufferSize = aBufferSize;
   }
 
   // METHODS
@@ -171,6 +181,11 @@ final class CommConnectionImpl implements CommConnection
   }
 
   /**
+   * Returns a buffered input stream for the serial port. Single byte reads,
+   * such as used for the device ID and metadata, are served from the buffer,
+   * while large reads go directly to the serial port and continue as long as
+   * data is available.
+   * 
    * @see javax.microedition.io.InputConnection#openInputStream()
    */
   @Override
@@ -180,7 +195,7 @@ final class CommConnectionImpl implements CommConnection
     {
       return this.is;
     }
-    return this.is = this.port.getInputStream();
+    return this.is = new BufferedInputStream( this.port.getInputStream(), this.bufferSize );
   }
 
   /**
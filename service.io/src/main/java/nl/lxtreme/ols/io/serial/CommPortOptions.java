@@ -102,16 +102,33 @@ import purejavacomm.*;
  * manipulated. Greater values give slower hardware more time to push out their
  * data.</td>
  * </tr>
+ * <tr>
+ * <td>recv_threshold</td>
+ * <td>0</td>
+ * <td>(<b>OLS-specific addition!</b>) If &gt; 0, a read waits until this many
+ * bytes are received, or the receive timeout expires. Larger values reduce the
+ * number of wake-ups on fast links. Only used together with a receive timeout.
+ * If 0 (the default), a read returns as soon as any data is received.</td>
+ * </tr>
+ * <tr>
+ * <td>recv_buffer</td>
+ * <td>16384</td>
+ * <td>(<b>OLS-specific addition!</b>) The size of the input buffer, in bytes,
+ * used to read from the serial port in bulk.</td>
+ * </tr>
  * </table>
  */
 final class CommPortOptions
 {
   // CONSTANTS
 
+  /** The default size of the input buffer, in bytes. */
+  static final int DEFAULT_RECV_BUFFER_SIZE = 16 * 1024;
+
   private static final Pattern SCHEMA_REGEX = Pattern.compile( "^comm:([^;]+)(?:;([^\r\n]+))*$" );
   private static final Pattern OPTION_REGEX = Pattern
       .compile(
-          "(baudrate|bitsperchar|stopbits|parity|blocking|autocts|autorts|flowcontrol|dtr|delay|recv_timeout)=([\\.\\d\\w_-]+)",
+          "(baudrate|bitsperchar|stopbits|parity|blocking|autocts|autorts|flowcontrol|dtr|delay|recv_timeout|recv_threshold|recv_buffer)=([\\.\\d\\w_-]+)",
           Pattern.CASE_INSENSITIVE );
 
   // VARIABLES
@@ -126,6 +143,8 @@ final class CommPortOptions
   private boolean dtr;
   private int openDelay;
   private int recvTimeout;
+  private int recvThreshold;
+  private int recvBufferSize;
 
   // CONSTRUCTORS
 
@@ -167,6 +186,12 @@ final class CommPortOptions
     // Default to a small delay of 100ms...
     this.recvTimeout = 100;
 
+    // Default to no receive threshold...
+    this.recvThreshold = 0;
+
+    // Default to a buffer of 16KB...
+    this.recvBufferSize = DEFAULT_RECV_BUFFER_SIZE;
+
     parseURI( aURI );
   }
 
@@ -220,6 +245,23 @@ final class CommPortOptions
     return this.portName;
   }
 
+  /**
+   * @return the size of the input buffer, in bytes, > 0.
+   */
+  public int getReceiveBufferSize()
+  {
+    return this.recvBufferSize;
+  }
+
+  /**
+   * @return the receive threshold, in bytes, or 0 if no threshold is to be
+   *         used.
+   */
+  public int getReceiveThreshold()
+  {
+    return this.recvThreshold;
+  }
+
   /**
    * @return the receive timeout, in milliseconds.
    */
@@ -363,6 +405,24 @@ final class CommPortOptions
     return -1;
   }
 
+  /**
+   * @param aStr
+   * @return the parsed size, or -1 if the given string was not a valid size.
+   */
+  private int parseSize( final String aStr )
+  {
+    int result;
+    try
+    {
+      result = Integer.parseInt( aStr );
+    }
+    catch ( NumberFormatException exception )
+    {
+      result = -1;
+    }
+    return result;
+  }
+
   /**
    * @param aStr
    * @return
@@ -508,6 +568,22 @@ final class CommPortOptions
       {
         this.recvTimeout = parseRecvTimeout( value );
       }
+      else if ( "recv_threshold".equals( key ) )
+      {
+        int parsedValue = parseSize( value );
+        if ( parsedValue >= 0 )
+        {
+          this.recvThreshold = parsedValue;
+        }
+      }
+      else if ( "recv_buffer".equals( key ) )
+      {
+        int parsedValue = parseSize( value );
+        if ( parsedValue > 0 )
+        {
+          this.recvBufferSize = parsedValue;
+        }
+      }
     }
   }
 }
@@ -0,0 +1,469 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.io.socket;
+
+
+import java.io.*;
+import java.net.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import javax.microedition.io.*;
+
+
+/**
+ * Provides a {@link SocketConnection} implementation for remote socket
+ * connections, based on a non-blocking {@link SocketChannel}.
+ * <p>
+ * Incoming data is read in bulk into a direct buffer, from which it is copied
+ * directly into the buffers given to the input stream. A single read on the
+ * input stream returns all data that is available at that moment, up to the
+ * requested length, and only blocks (up to the timeout) when no data is
+ * available at all. Likewise, {@link InputStream#available()} also reports the
+ * data that is pending in the socket, not only the data that is buffered.
+ * </p>
+ */
+final class SocketChannelConnectionImpl implements SocketConnection
+{
+  // INNER TYPES
+
+  /**
+   * Provides an input stream reading from the direct buffer.
+   */
+  final class ChannelInputStream extends InputStream
+  {
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available() throws IOException
+    {
+      final ByteBuffer buffer = SocketChannelConnectionImpl.this.readBuffer;
+      if ( !buffer.hasRemaining() )
+      {
+        // Take the data still pending in the socket into account as well...
+        fill( false /* aBlock */);
+      }
+      return buffer.remaining();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+      SocketChannelConnectionImpl.this.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException
+    {
+      final ByteBuffer buffer = SocketChannelConnectionImpl.this.readBuffer;
+      if ( !buffer.hasRemaining() && ( fill( true /* aBlock */) < 0 ) )
+      {
+        return -1;
+      }
+      return buffer.get() & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read( final byte[] aBuffer, final int aOffset, final int aLength ) throws IOException
+    {
+      if ( ( aOffset < 0 ) || ( aLength < 0 ) || ( aLength > ( aBuffer.length - aOffset ) ) )
+      {
+        throw new IndexOutOfBoundsException();
+      }
+      if ( aLength == 0 )
+      {
+        return 0;
+      }
+
+      final ByteBuffer buffer = SocketChannelConnectionImpl.this.readBuffer;
+
+      int count = 0;
+      while ( count < aLength )
+      {
+        if ( !buffer.hasRemaining() )
+        {
+          // Only block when nothing is read yet...
+          final int filled = fill( count == 0 );
+          if ( filled < 0 )
+          {
+            return ( count == 0 ) ? -1 : count;
+          }
+          else if ( filled == 0 )
+          {
+            break;
+          }
+        }
+
+        final int chunk = Math.min( buffer.remaining(), aLength - count );
+        buffer.get( aBuffer, aOffset + count, chunk );
+        count += chunk;
+      }
+
+      return count;
+    }
+  }
+
+  /**
+   * Provides an output stream writing directly to the channel.
+   */
+  final class ChannelOutputStream extends OutputStream
+  {
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+      SocketChannelConnectionImpl.this.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final byte[] aBuffer, final int aOffset, final int aLength ) throws IOException
+    {
+      drain( ByteBuffer.wrap( aBuffer, aOffset, aLength ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final int aByte ) throws IOException
+    {
+      write( new byte[] { ( byte )aByte }, 0, 1 );
+    }
+  }
+
+  // CONSTANTS
+
+  /** The default size of the read buffer, in bytes. */
+  static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private static final int YES = 1;
+  private static final int NO = 0;
+
+  // VARIABLES
+
+  private final SocketChannel channel;
+  private final Selector readSelector;
+  private final Selector writeSelector;
+  private final ByteBuffer readBuffer;
+  private final int timeout;
+
+  private final ChannelInputStream inputStream;
+  private final ChannelOutputStream outputStream;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new SocketChannelConnectionImpl instance.
+   *
+   * @param aChannel
+   *          the connected socket channel to wrap, cannot be <code>null</code>
+   *          ;
+   * @param aTimeout
+   *          the read and write timeout, in milliseconds, or 0 to wait
+   *          indefinitely;
+   * @param aBufferSize
+   *          the size of the read buffer, in bytes, or 0 to use a default
+   *          size.
+   * @throws IllegalArgumentException
+   *           in case the given channel was <code>null</code>;
+   * @throws IOException
+   *           in case of I/O problems setting up the channel.
+   */
+  public SocketChannelConnectionImpl( final SocketChannel aChannel, final int aTimeout, final int aBufferSize )
+      throws IllegalArgumentException, IOException
+  {
+    if ( aChannel == null )
+    {
+      throw new IllegalArgumentException( "Parameter channel cannot be null!" );
+    }
+    this.channel = aChannel;
+    this.timeout = Math.max( 0, aTimeout );
+
+    this.channel.configureBlocking( false );
+
+    this.readSelector = Selector.open();
+    this.writeSelector = Selector.open();
+    this.channel.register( this.readSelector, SelectionKey.OP_READ );
+    this.channel.register( this.writeSelector, SelectionKey.OP_WRITE );
+
+    this.readBuffer = ByteBuffer.allocateDirect( ( aBufferSize > 0 ) ? aBufferSize : DEFAULT_BUFFER_SIZE );
+    // Start out empty...
+    this.readBuffer.flip();
+
+    this.inputStream = new ChannelInputStream();
+    this.outputStream = new ChannelOutputStream();
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void close() throws IOException
+  {
+    try
+    {
+      this.readSelector.close();
+      this.writeSelector.close();
+    }
+    finally
+    {
+      this.channel.close();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getAddress() throws IOException
+  {
+    return this.channel.socket().getInetAddress().getHostAddress();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getLocalAddress() throws IOException
+  {
+    return this.channel.socket().getLocalAddress().getHostAddress();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getLocalPort() throws IOException
+  {
+    return this.channel.socket().getLocalPort();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getPort() throws IOException
+  {
+    return this.channel.socket().getPort();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getSocketOption( final byte aOption ) throws IllegalArgumentException, IOException
+  {
+    final Socket socket = this.channel.socket();
+    switch ( aOption )
+    {
+      case DELAY:
+        return socket.getTcpNoDelay() ? YES : NO;
+      case LINGER:
+        return socket.getSoLinger();
+      case KEEPALIVE:
+        return socket.getKeepAlive() ? YES : NO;
+      case RCVBUF:
+        return socket.getReceiveBufferSize();
+      case SNDBUF:
+        return socket.getSendBufferSize();
+      default:
+        throw new IllegalArgumentException( "Illegal option: " + aOption + "!" );
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public DataInputStream openDataInputStream() throws IOException
+  {
+    return new DataInputStream( openInputStream() );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public DataOutputStream openDataOutputStream() throws IOException
+  {
+    return new DataOutputStream( openOutputStream() );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public InputStream openInputStream() throws IOException
+  {
+    return this.inputStream;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public OutputStream openOutputStream() throws IOException
+  {
+    return this.outputStream;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void setSocketOption( final byte aOption, final int aValue ) throws IllegalArgumentException, IOException
+  {
+    final Socket socket = this.channel.socket();
+    switch ( aOption )
+    {
+      case DELAY:
+        socket.setTcpNoDelay( aValue != NO );
+        break;
+      case LINGER:
+        socket.setSoLinger( aValue != NO, aValue );
+        break;
+      case KEEPALIVE:
+        socket.setKeepAlive( aValue != NO );
+        break;
+      case RCVBUF:
+        socket.setReceiveBufferSize( aValue );
+        break;
+      case SNDBUF:
+        socket.setSendBufferSize( aValue );
+        break;
+      default:
+        throw new IllegalArgumentException( "Illegal option: " + aOption + "!" );
+    }
+  }
+
+  /**
+   * Writes all remaining bytes of the given buffer to the channel, waiting for
+   * the channel to become writable if needed.
+   *
+   * @param aBuffer
+   *          the buffer to write, cannot be <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems, or a timeout.
+   */
+  final void drain( final ByteBuffer aBuffer ) throws IOException
+  {
+    while ( aBuffer.hasRemaining() )
+    {
+      if ( this.channel.write( aBuffer ) == 0 )
+      {
+        await( this.writeSelector );
+      }
+    }
+  }
+
+  /**
+   * Refills the (empty) read buffer with the data available on the channel.
+   *
+   * @param aBlock
+   *          <code>true</code> to wait for data to become available,
+   *          <code>false</code> to return directly if no data is available.
+   * @return the number of bytes read, or -1 if the end of the stream is
+   *         reached.
+   * @throws IOException
+   *           in case of I/O problems, or a timeout.
+   */
+  final int fill( final boolean aBlock ) throws IOException
+  {
+    final ByteBuffer buffer = this.readBuffer;
+    buffer.clear();
+    try
+    {
+      int read = this.channel.read( buffer );
+      while ( aBlock && ( read == 0 ) )
+      {
+        await( this.readSelector );
+        read = this.channel.read( buffer );
+      }
+      return read;
+    }
+    finally
+    {
+      buffer.flip();
+    }
+  }
+
+  /**
+   * Waits until the channel is ready for the operation of the given selector.
+   *
+   * @param aSelector
+   *          the selector to wait on, cannot be <code>null</code>.
+   * @throws InterruptedIOException
+   *           in case the current thread was interrupted;
+   * @throws SocketTimeoutException
+   *           in case the channel did not become ready within the timeout.
+   */
+  private void await( final Selector aSelector ) throws IOException
+  {
+    final long deadline = System.currentTimeMillis() + this.timeout;
+
+    long remaining = this.timeout;
+    try
+    {
+      while ( aSelector.select( remaining ) == 0 )
+      {
+        if ( Thread.currentThread().isInterrupted() )
+        {
+          throw new InterruptedIOException( "Interrupted while waiting for channel!" );
+        }
+        if ( this.timeout > 0 )
+        {
+          remaining = deadline - System.currentTimeMillis();
+          if ( remaining <= 0L )
+          {
+            throw new SocketTimeoutException( "Timeout while waiting for channel!" );
+          }
+        }
+      }
+    }
+    catch ( ClosedSelectorException exception )
+    {
+      // The connection is closed while we were waiting...
+      throw new ClosedChannelException();
+    }
+    aSelector.selectedKeys().clear();
+  }
+}
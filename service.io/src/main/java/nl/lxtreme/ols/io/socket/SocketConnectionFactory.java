@@ -23,6 +23,7 @@ package nl.lxtreme.ols.io.socket;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 
 import javax.microedition.io.*;
 
@@ -40,6 +41,8 @@ public class SocketConnectionFactory implements ConnectionFactory
   /**
    * The scheme we're exposing through this factory. Serial URIs should be
    * written in the form of: <tt>socket://127.0.0.1:1234;timeout=100</tt>.
+   * Optionally, the receive buffer size can be given as well, for example:
+   * <tt>socket://127.0.0.1:1234;timeout=100;rcvbuf=256k</tt>.
    */
   public static final String SCHEME = "socket";
 
@@ -90,10 +93,30 @@ public class SocketConnectionFactory implements ConnectionFactory
       this.logService.log( LogService.LOG_DEBUG,
           "Opening socket to " + aOptions.getAddress() + ":" + aOptions.getPort() );
 
-      Socket socket = new Socket( aOptions.getAddress(), aOptions.getPort() );
-      socket.setSoTimeout( aOptions.getTimeout() );
-
-      return new SocketConnectionImpl( socket );
+      final SocketChannel channel = SocketChannel.open();
+      try
+      {
+        // Must be set before connecting to allow for TCP windows > 64KB...
+        final int receiveBufferSize = aOptions.getReceiveBufferSize();
+        if ( receiveBufferSize > 0 )
+        {
+          channel.socket().setReceiveBufferSize( receiveBufferSize );
+        }
+
+        final InetSocketAddress address = new InetSocketAddress( aOptions.getAddress(), aOptions.getPort() );
+        if ( address.isUnresolved() )
+        {
+          throw new UnknownHostException( aOptions.getAddress() );
+        }
+        channel.connect( address );
+
+        return new SocketChannelConnectionImpl( channel, aOptions.getTimeout(), receiveBufferSize );
+      }
+      catch ( IOException exception )
+      {
+        channel.close();
+        throw exception;
+      }
     }
 
     this.logService.log( LogService.LOG_DEBUG, "Opening server socket on " + aOptions.getPort() );
@@ -33,13 +33,15 @@ final class SocketOptions
 
   private static final Pattern SCHEMA_REGEX = Pattern
       .compile( "^socket:(?://)?([^:;]*)(?::(\\d+))?(?:;([^\\r\\n]+))*$" );
-  private static final Pattern OPTION_REGEX = Pattern.compile( "(timeout)=([\\.\\d\\w_-]+)", Pattern.CASE_INSENSITIVE );
+  private static final Pattern OPTION_REGEX = Pattern.compile( "(timeout|rcvbuf)=([\\.\\d\\w_-]+)",
+      Pattern.CASE_INSENSITIVE );
 
   // VARIABLES
 
   private String address;
   private int port;
   private int timeout;
+  private int receiveBufferSize;
 
   // CONSTRUCTORS
 
@@ -59,6 +61,9 @@ final class SocketOptions
     // Default to no timeout...
     this.timeout = 0;
 
+    // Default to the receive buffer size of the platform...
+    this.receiveBufferSize = 0;
+
     parseURI( aURI );
   }
 
@@ -84,6 +89,17 @@ final class SocketOptions
     return this.port;
   }
 
+  /**
+   * Returns the size of the receive buffer to use for the socket.
+   * 
+   * @return the receive buffer size, in bytes, or 0 to use the platform
+   *         default.
+   */
+  public int getReceiveBufferSize()
+  {
+    return this.receiveBufferSize;
+  }
+
   /**
    * Returns the timeout to use for opening the socket.
    * 
@@ -112,6 +128,42 @@ final class SocketOptions
     return ( this.address != null ) && !this.address.trim().isEmpty();
   }
 
+  /**
+   * Parses a buffer size, which can be suffixed with "k" or "m" to denote
+   * kilobytes or megabytes.
+   * 
+   * @param aStr
+   * @return the parsed size, or -1 if the given string was not a valid size.
+   */
+  private int parseSize( final String aStr )
+  {
+    final String value = aStr.trim().toLowerCase();
+
+    int multiplier = 1;
+    int end = value.length();
+    if ( value.endsWith( "k" ) )
+    {
+      multiplier = 1024;
+      end--;
+    }
+    else if ( value.endsWith( "m" ) )
+    {
+      multiplier = 1024 * 1024;
+      end--;
+    }
+
+    try
+    {
+      final long result = Long.parseLong( value.substring( 0, end ) ) * multiplier;
+      return ( result > Integer.MAX_VALUE ) ? -1 : ( int )result;
+    }
+    catch ( NumberFormatException exception )
+    {
+      // Ignore, fall back to default value...
+      return -1;
+    }
+  }
+
   /**
    * @param aStr
    * @return
@@ -184,6 +236,14 @@ final class SocketOptions
           this.timeout = parsedValue;
         }
       }
+      else if ( "rcvbuf".equals( key ) )
+      {
+        int parsedValue = parseSize( value );
+        if ( parsedValue >= 0 )
+        {
+          this.receiveBufferSize = parsedValue;
+        }
+      }
     }
   }
 }
@@ -0,0 +1,259 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.io;
+
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.*;
+
+import javax.microedition.io.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link ConnectionCache}.
+ */
+public class ConnectionCacheTest
+{
+  // CONSTANTS
+
+  private static final String PORT = "comm:ttyUSB0";
+  private static final String OPTIONS = "comm:ttyUSB0;baudrate=115200|3|true";
+
+  // VARIABLES
+
+  private ConnectionCache cache;
+  private StreamConnection connection;
+  private InputStream inputStream;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp() throws IOException
+  {
+    this.cache = new ConnectionCache();
+
+    this.inputStream = mock( InputStream.class );
+    this.connection = mock( StreamConnection.class );
+    when( this.connection.openInputStream() ).thenReturn( this.inputStream );
+  }
+
+  /**
+   * Tears down the test case.
+   */
+  @After
+  public void tearDown()
+  {
+    this.cache.shutdown();
+  }
+
+  /**
+   * Tests that a connection that failed while leased is closed on release.
+   */
+  @Test
+  public void testBrokenConnectionIsClosedOnRelease() throws IOException
+  {
+    when( this.inputStream.read() ).thenThrow( new IOException( "Device unplugged" ) );
+
+    final StreamConnection lease = ( StreamConnection )this.cache.lease( PORT, OPTIONS, this.connection, 10000L );
+    try
+    {
+      lease.openInputStream().read();
+      fail( "IOException expected!" );
+    }
+    catch ( IOException exception )
+    {
+      // Ok; expected...
+    }
+    lease.close();
+
+    verify( this.connection ).close();
+    assertNull( this.cache.acquire( PORT, OPTIONS ) );
+    assertEquals( 0, this.cache.size() );
+  }
+
+  /**
+   * Tests that a closed lease makes its connection available for reuse,
+   * without closing it.
+   */
+  @Test
+  public void testClosedLeaseIsReused() throws IOException
+  {
+    final Connection lease = this.cache.lease( PORT, OPTIONS, this.connection, 10000L );
+    assertTrue( lease instanceof StreamConnection );
+    lease.close();
+
+    final Connection reused = this.cache.acquire( PORT, OPTIONS );
+    assertNotNull( reused );
+    assertNotSame( lease, reused );
+    assertNull( this.cache.acquire( "comm:ttyUSB1", "comm:ttyUSB1;baudrate=115200|3|true" ) );
+
+    verify( this.connection, never() ).close();
+  }
+
+  /**
+   * Tests that closing the streams of a lease does not close the connection,
+   * nor releases the lease.
+   */
+  @Test
+  public void testClosingStreamsDoesNotCloseConnection() throws IOException
+  {
+    final StreamConnection lease = ( StreamConnection )this.cache.lease( PORT, OPTIONS, this.connection, 10000L );
+    lease.openDataInputStream().close();
+
+    verify( this.inputStream, never() ).close();
+    verify( this.connection, never() ).close();
+    assertNull( this.cache.acquire( PORT, OPTIONS ) );
+
+    lease.close();
+    assertNotNull( this.cache.acquire( PORT, OPTIONS ) );
+  }
+
+  /**
+   * Tests that only the idle connections of a port are closed when evicted.
+   */
+  @Test
+  public void testEvictIdleKeepsLeasedConnections() throws IOException
+  {
+    final StreamConnection other = mock( StreamConnection.class );
+
+    this.cache.lease( PORT, OPTIONS, this.connection, 10000L ).close();
+    this.cache.lease( PORT, OPTIONS, other, 10000L );
+
+    this.cache.evictIdle( PORT, null );
+
+    verify( this.connection ).close();
+    verify( other, never() ).close();
+    assertEquals( 1, this.cache.size() );
+  }
+
+  /**
+   * Tests that an idle connection is closed after its idle timeout.
+   */
+  @Test( timeout = 5000 )
+  public void testIdleConnectionIsEvicted() throws Exception
+  {
+    this.cache.lease( PORT, OPTIONS, this.connection, 50L ).close();
+
+    while ( this.cache.size() > 0 )
+    {
+      Thread.sleep( 10L );
+    }
+
+    verify( this.connection ).close();
+    assertNull( this.cache.acquire( PORT, OPTIONS ) );
+  }
+
+  /**
+   * Tests that an idle connection is closed when its port is opened with other
+   * options.
+   */
+  @Test
+  public void testIdleConnectionWithOtherOptionsIsClosed() throws IOException
+  {
+    this.cache.lease( PORT, OPTIONS, this.connection, 10000L ).close();
+
+    assertNull( this.cache.acquire( PORT, "comm:ttyUSB0;baudrate=9600|3|true" ) );
+
+    verify( this.connection ).close();
+    assertEquals( 0, this.cache.size() );
+  }
+
+  /**
+   * Tests that a leased connection is not handed out again.
+   */
+  @Test
+  public void testLeaseIsExclusive() throws IOException
+  {
+    this.cache.lease( PORT, OPTIONS, this.connection, 10000L );
+
+    assertNull( this.cache.acquire( PORT, OPTIONS ) );
+  }
+
+  /**
+   * Tests that a released lease can no longer be used.
+   */
+  @Test
+  public void testReleasedLeaseCannotBeUsed() throws IOException
+  {
+    final StreamConnection lease = ( StreamConnection )this.cache.lease( PORT, OPTIONS, this.connection, 10000L );
+    final InputStream is = lease.openInputStream();
+    lease.close();
+
+    try
+    {
+      is.read();
+      fail( "IOException expected!" );
+    }
+    catch ( IOException exception )
+    {
+      // Ok; expected...
+    }
+
+    try
+    {
+      lease.openOutputStream();
+      fail( "IOException expected!" );
+    }
+    catch ( IOException exception )
+    {
+      // Ok; expected...
+    }
+
+    // The connection itself should still be reusable...
+    assertNotNull( this.cache.acquire( PORT, OPTIONS ) );
+  }
+
+  /**
+   * Tests that shutting down the cache closes all idle connections.
+   */
+  @Test
+  public void testShutdownClosesIdleConnections() throws IOException
+  {
+    this.cache.lease( PORT, OPTIONS, this.connection, 10000L ).close();
+
+    this.cache.shutdown();
+
+    verify( this.connection ).close();
+    assertNull( this.cache.acquire( PORT, OPTIONS ) );
+  }
+
+  /**
+   * Tests that an idle connection that is no longer healthy is closed instead
+   * of leased.
+   */
+  @Test
+  public void testUnhealthyConnectionIsDiscarded() throws IOException
+  {
+    this.cache.lease( PORT, OPTIONS, this.connection, 10000L ).close();
+
+    when( this.inputStream.available() ).thenThrow( new IOException( "Port closed" ) );
+
+    assertNull( this.cache.acquire( PORT, OPTIONS ) );
+    verify( this.connection ).close();
+  }
+}
@@ -33,6 +33,7 @@ import java.util.concurrent.*;
 import javax.microedition.io.*;
 
 import org.junit.*;
+import org.mockito.*;
 import org.mockito.invocation.*;
 import org.mockito.stubbing.*;
 import org.osgi.framework.*;
@@ -281,6 +282,69 @@ public class ConnectorServiceImplTest
     assertTrue( "OpenOutputStream.write never called?!", semaphore.tryAcquire( 1, TimeUnit.SECONDS ) );
   }
 
+  /**
+   * Tests that a connection opened with a cache option is reused after it is
+   * closed, and that the cache option is not passed to the factory.
+   */
+  @Test
+  public void openStreamConnectionWithCacheOption() throws Exception
+  {
+    final StreamConnection conn = mock( StreamConnection.class );
+    when( conn.openInputStream() ).thenReturn( new ByteArrayInputStream( new byte[0] ) );
+
+    final ConnectionFactory factory = mock( ConnectionFactory.class );
+    when( factory.createConnection( anyString(), anyInt(), anyBoolean() ) ).thenReturn( conn );
+
+    final ServiceReference ref = mock( ServiceReference.class );
+    when( this.context.getService( ref ) ).thenReturn( factory );
+    when( this.context.getAllServiceReferences( eq( ConnectionFactory.class.getName() ), anyString() ) ).thenReturn(
+        new ServiceReference[] { ref } );
+
+    final String uri = "comm:ttyUSB0;baudrate=115200;cache=10000;dtr=true";
+
+    final Connection first = this.connectorService.open( uri, ConnectorService.READ_WRITE, true );
+    // While leased, a new connection should be created...
+    final Connection second = this.connectorService.open( uri, ConnectorService.READ_WRITE, true );
+    first.close();
+    second.close();
+
+    this.connectorService.open( uri, ConnectorService.READ_WRITE, true );
+    this.connectorService.open( uri, ConnectorService.READ_WRITE, true );
+    this.connectorService.open( uri, ConnectorService.READ_WRITE, true ).close();
+
+    verify( factory, times( 3 ) ).createConnection( "comm:ttyUSB0;baudrate=115200;dtr=true",
+        ConnectorService.READ_WRITE, true );
+    verify( conn, never() ).close();
+  }
+
+  /**
+   * Tests that an idle cached connection is closed before its port is opened
+   * again with other options.
+   */
+  @Test
+  public void openStreamConnectionWithOtherOptionsClosesCachedConnection() throws Exception
+  {
+    final StreamConnection conn = mock( StreamConnection.class );
+    when( conn.openInputStream() ).thenReturn( new ByteArrayInputStream( new byte[0] ) );
+
+    final ConnectionFactory factory = mock( ConnectionFactory.class );
+    when( factory.createConnection( anyString(), anyInt(), anyBoolean() ) ).thenReturn( conn );
+
+    final ServiceReference ref = mock( ServiceReference.class );
+    when( this.context.getService( ref ) ).thenReturn( factory );
+    when( this.context.getAllServiceReferences( eq( ConnectionFactory.class.getName() ), anyString() ) ).thenReturn(
+        new ServiceReference[] { ref } );
+
+    this.connectorService.open( "comm:ttyUSB0;baudrate=115200;cache=10000", ConnectorService.READ_WRITE, true )
+        .close();
+    this.connectorService.open( "comm:ttyUSB0;baudrate=9600", ConnectorService.READ_WRITE, true );
+
+    final InOrder inOrder = inOrder( conn, factory );
+    inOrder.verify( factory ).createConnection( "comm:ttyUSB0;baudrate=115200", ConnectorService.READ_WRITE, true );
+    inOrder.verify( conn ).close();
+    inOrder.verify( factory ).createConnection( "comm:ttyUSB0;baudrate=9600", ConnectorService.READ_WRITE, true );
+  }
+
   /**
    * @throws Exception
    */
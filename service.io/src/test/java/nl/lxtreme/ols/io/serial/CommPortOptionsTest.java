@@ -106,6 +106,36 @@ public class CommPortOptionsTest
     assertEquals( 100, options.getReceiveTimeout() );
   }
 
+  /**
+   * @throws Exception
+   */
+  @Test
+  public void testParseInvalidReceiveThresholdAndBufferOk() throws Exception
+  {
+    final CommPortOptions options = new CommPortOptions(
+        "comm:/dev/tty.usb0;baudrate=115200;recv_threshold=xyz;recv_buffer=0" );
+
+    assertNotNull( options );
+    assertEquals( 0, options.getReceiveThreshold() );
+    assertEquals( CommPortOptions.DEFAULT_RECV_BUFFER_SIZE, options.getReceiveBufferSize() );
+  }
+
+  /**
+   * @throws Exception
+   */
+  @Test
+  public void testParseReceiveThresholdAndBufferOk() throws Exception
+  {
+    final CommPortOptions options = new CommPortOptions(
+        "comm:/dev/tty.usb0;baudrate=921600;recv_timeout=50;recv_threshold=512;recv_buffer=65536" );
+
+    assertNotNull( options );
+    assertEquals( 921600, options.getBaudrate() );
+    assertEquals( 50, options.getReceiveTimeout() );
+    assertEquals( 512, options.getReceiveThreshold() );
+    assertEquals( 65536, options.getReceiveBufferSize() );
+  }
+
   /**
    * @throws Exception
    */
@@ -0,0 +1,179 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.io.socket;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SocketChannelConnectionImpl}.
+ */
+public class SocketChannelConnectionImplTest
+{
+  // VARIABLES
+
+  private ServerSocket serverSocket;
+  private Socket peer;
+  private SocketChannelConnectionImpl connection;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp() throws IOException
+  {
+    this.serverSocket = new ServerSocket( 0, 1, InetAddress.getByName( null ) );
+
+    final SocketChannel channel = SocketChannel.open( new InetSocketAddress( InetAddress.getByName( null ),
+        this.serverSocket.getLocalPort() ) );
+    this.peer = this.serverSocket.accept();
+
+    this.connection = new SocketChannelConnectionImpl( channel, 250, 1024 );
+  }
+
+  /**
+   * Tears down the test case.
+   */
+  @After
+  public void tearDown() throws IOException
+  {
+    this.connection.close();
+    this.peer.close();
+    this.serverSocket.close();
+  }
+
+  /**
+   * Tests that the available data includes the data pending in the socket, so
+   * flushing the input stream drains all data sent by the peer.
+   */
+  @Test( timeout = 5000 )
+  public void testAvailableIncludesPendingData() throws Exception
+  {
+    final OutputStream peerOs = this.peer.getOutputStream();
+    peerOs.write( new byte[4000] );
+    peerOs.flush();
+
+    final InputStream is = this.connection.openInputStream();
+
+    int available;
+    while ( ( available = is.available() ) == 0 )
+    {
+      Thread.sleep( 10L );
+    }
+    assertTrue( available > 0 );
+
+    // Flush the input stream, like the SUMP protocol does before a reset...
+    long skipped = 0L;
+    while ( skipped < 4000L )
+    {
+      while ( ( available = is.available() ) > 0 )
+      {
+        skipped += is.skip( available );
+      }
+    }
+    assertEquals( 4000L, skipped );
+    assertEquals( 0, is.available() );
+
+    peerOs.write( 0x42 );
+    peerOs.flush();
+
+    assertEquals( 0x42, is.read() );
+  }
+
+  /**
+   * Tests that a single read returns all available data, even when it exceeds
+   * the size of the read buffer.
+   */
+  @Test( timeout = 5000 )
+  public void testReadAllAvailableData() throws Exception
+  {
+    final byte[] data = new byte[4000];
+    for ( int i = 0; i < data.length; i++ )
+    {
+      data[i] = ( byte )i;
+    }
+    this.peer.getOutputStream().write( data );
+    this.peer.getOutputStream().flush();
+
+    final InputStream is = this.connection.openInputStream();
+    final byte[] buffer = new byte[8192];
+
+    int count = 0;
+    while ( count < data.length )
+    {
+      final int read = is.read( buffer, count, buffer.length - count );
+      assertTrue( read > 0 );
+      count += read;
+    }
+
+    assertEquals( data.length, count );
+    for ( int i = 0; i < data.length; i++ )
+    {
+      assertEquals( data[i], buffer[i] );
+    }
+  }
+
+  /**
+   * Tests that a read returns -1 when the peer closes the connection.
+   */
+  @Test( timeout = 5000 )
+  public void testReadEndOfStream() throws Exception
+  {
+    this.peer.getOutputStream().write( 0x42 );
+    this.peer.close();
+
+    final DataInputStream is = this.connection.openDataInputStream();
+    assertEquals( 0x42, is.read() );
+    assertEquals( -1, is.read() );
+    assertEquals( -1, is.read( new byte[10] ) );
+  }
+
+  /**
+   * Tests that a read without data times out.
+   */
+  @Test( timeout = 5000, expected = SocketTimeoutException.class )
+  public void testReadTimeout() throws Exception
+  {
+    this.connection.openInputStream().read();
+  }
+
+  /**
+   * Tests that written data arrives at the peer.
+   */
+  @Test( timeout = 5000 )
+  public void testWrite() throws Exception
+  {
+    final DataOutputStream os = this.connection.openDataOutputStream();
+    os.writeInt( 0x31414c53 );
+    os.flush();
+
+    assertEquals( 0x31414c53, new DataInputStream( this.peer.getInputStream() ).readInt() );
+  }
+}
@@ -74,6 +74,28 @@ public class SocketOptionsTest
     assertEquals( 250, options.getTimeout() );
   }
 
+  /**
+   * @throws Exception
+   */
+  @Test
+  public void testParseInvalidReceiveBufferSizeOk() throws Exception
+  {
+    final SocketOptions options = new SocketOptions( "socket://localhost:1234;rcvbuf=abc" );
+    assertEquals( 0, options.getReceiveBufferSize() );
+  }
+
+  /**
+   * @throws Exception
+   */
+  @Test
+  public void testParseReceiveBufferSizeOk() throws Exception
+  {
+    assertEquals( 4096, new SocketOptions( "socket://localhost:1234;rcvbuf=4096" ).getReceiveBufferSize() );
+    assertEquals( 256 * 1024, new SocketOptions( "socket://localhost:1234;rcvbuf=256k" ).getReceiveBufferSize() );
+    assertEquals( 4 * 1024 * 1024, new SocketOptions( "socket://localhost:1234;timeout=10;rcvbuf=4M" )
+        .getReceiveBufferSize() );
+  }
+
   /**
    * @throws Exception
    */
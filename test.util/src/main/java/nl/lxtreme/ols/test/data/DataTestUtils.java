@@ -229,7 +229,7 @@ public final class DataTestUtils
   public static ToolContext createToolContext( final AcquisitionResult aContainer )
   {
     final int startSampleIdx = Math.max( 0, aContainer.getSampleIndex( aContainer.getTriggerPosition() ) - 1 );
-    final int lastSampleIdx = aContainer.getValues().length - 1;
+    final int lastSampleIdx = AcquisitionResultAdapter.adapt( aContainer ).getSampleCount() - 1;
     return createToolContext( aContainer, startSampleIdx, lastSampleIdx );
   }
 
@@ -243,7 +243,7 @@ public final class DataTestUtils
    */
   public static ToolContext createToolContext( final AcquisitionResult aContainer, final int aStartSampleIdx )
   {
-    final int lastSampleIdx = aContainer.getValues().length - 1;
+    final int lastSampleIdx = AcquisitionResultAdapter.adapt( aContainer ).getSampleCount() - 1;
     return createToolContext( aContainer, aStartSampleIdx, lastSampleIdx );
   }
 
@@ -261,7 +261,8 @@ public final class DataTestUtils
       final int aLastSampleIdx )
   {
     final Integer first = Integer.valueOf( Math.max( 0, aStartSampleIdx ) );
-    final Integer last = Integer.valueOf( Math.min( aLastSampleIdx, aData.getValues().length - 1 ) );
+    final int sampleCount = AcquisitionResultAdapter.adapt( aData ).getSampleCount();
+    final Integer last = Integer.valueOf( Math.min( aLastSampleIdx, sampleCount - 1 ) );
     final Integer size = Integer.valueOf( last.intValue() - first.intValue() );
 
     // Do NOT use Mockito#mock for this; it appears to slow things down *really*
@@ -372,6 +373,12 @@ public final class DataTestUtils
         return 8;
       }
 
+      @Override
+      public ChannelEdgeIndex getEdgeIndex( final int aChannelIdx )
+      {
+        return ChannelEdgeIndex.create( this, aChannelIdx );
+      }
+
       @Override
       public int getEnabledChannels()
       {
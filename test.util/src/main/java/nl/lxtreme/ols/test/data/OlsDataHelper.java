@@ -227,18 +227,17 @@ public final class OlsDataHelper
   {
     final BufferedWriter bw = new BufferedWriter( aWriter );
 
-    final AcquisitionResult capturedData = aDataSet.getCapturedData();
+    final IndexedAcquisitionResult capturedData = AcquisitionResultAdapter.adapt( aDataSet.getCapturedData() );
 
     final Cursor[] cursors = aDataSet.getCursors();
     final boolean cursorsEnabled = aDataSet.isCursorsEnabled();
 
     try
     {
-      final int[] values = capturedData.getValues();
-      final long[] timestamps = capturedData.getTimestamps();
+      final int sampleCount = capturedData.getSampleCount();
 
       bw.write( ";Size: " );
-      bw.write( Integer.toString( values.length ) );
+      bw.write( Integer.toString( sampleCount ) );
       bw.newLine();
 
       bw.write( ";Rate: " );
@@ -281,9 +280,9 @@ public final class OlsDataHelper
           bw.newLine();
         }
       }
-      for ( int i = 0; i < values.length; i++ )
+      for ( int i = 0; i < sampleCount; i++ )
       {
-        bw.write( formatSample( values[i], timestamps[i] ) );
+        bw.write( formatSample( capturedData.getValue( i ), capturedData.getTimestamp( i ) ) );
         bw.newLine();
       }
     }
@@ -158,6 +158,15 @@ public class StubTestProject implements Project
     this.changed = aChanged;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.data.project.Project#setDataSet(DataSet)
+   */
+  @Override
+  public void setDataSet( final DataSet aDataSet )
+  {
+    this.dataSet.setCapturedData( aDataSet.getCapturedData() );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.project.Project#setFilename(java.io.File)
    */
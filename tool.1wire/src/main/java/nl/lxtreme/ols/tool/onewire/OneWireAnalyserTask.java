@@ -81,13 +81,12 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   @Override
   public OneWireDataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
-    final int[] values = data.getValues();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     int sampleIdx;
 
     final int dataMask = this.owLineMask;
-    final int sampleCount = values.length;
+    final int sampleCount = data.getSampleCount();
 
     if ( LOG.isLoggable( Level.FINE ) )
     {
@@ -97,7 +96,7 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
     // Search the moment on which the 1-wire line is idle (= high)...
     for ( sampleIdx = 0; sampleIdx < sampleCount; sampleIdx++ )
     {
-      final int dataValue = values[sampleIdx];
+      final int dataValue = data.getValue( sampleIdx );
 
       if ( ( dataValue & dataMask ) == dataMask )
       {
@@ -155,14 +154,12 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
    *          the decoded data set to add the decoding results to, cannot be
    *          <code>null</code>.
    */
-  private void decodeData( final AcquisitionResult aData, final OneWireDataSet aDataSet )
+  private void decodeData( final IndexedAcquisitionResult aData, final OneWireDataSet aDataSet )
   {
-    final long[] timestamps = aData.getTimestamps();
-
     this.progressListener.setProgress( 0 );
 
-    final long startOfDecode = timestamps[aDataSet.getStartOfDecode()];
-    final long endOfDecode = timestamps[aDataSet.getEndOfDecode() - 1];
+    final long startOfDecode = aData.getTimestamp( aDataSet.getStartOfDecode() );
+    final long endOfDecode = aData.getTimestamp( aDataSet.getEndOfDecode() - 1 );
 
     // The timing of the 1-wire bus is done in uS, so determine what scale we've
     // to use in order to obtain those kind of time values...
@@ -324,49 +321,16 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   private long findEdge( final AcquisitionResult aData, final long aStartOfDecode, final long aEndOfDecode,
       final Edge aEdge )
   {
-    long result = -1;
+    final ChannelEdgeIndex edgeIndex = aData.getEdgeIndex( this.owLineIndex );
 
-    int oldBitValue = getDataValue( aData, aStartOfDecode ) & this.owLineMask;
-    for ( long timeCursor = aStartOfDecode + 1; ( result < 0 ) && ( timeCursor < aEndOfDecode ); timeCursor++ )
+    final long result = edgeIndex.findEdgeAfter( aStartOfDecode, aEdge );
+    if ( ( result < 0L ) || ( result >= aEndOfDecode ) )
     {
-      final int bitValue = getDataValue( aData, timeCursor ) & this.owLineMask;
-
-      final Edge edge = Edge.toEdge( oldBitValue, bitValue );
-      if ( aEdge == edge )
-      {
-        result = timeCursor;
-      }
-
-      oldBitValue = bitValue;
+      return -1L;
     }
-
     return result;
   }
 
-  /**
-   * Returns the data value for the given time stamp.
-   * 
-   * @param aTimeValue
-   *          the time stamp to return the data value for.
-   * @return the data value of the sample index right before the given time
-   *         value.
-   */
-  private int getDataValue( final AcquisitionResult aData, final long aTimeValue )
-  {
-    final int[] values = aData.getValues();
-    final long[] timestamps = aData.getTimestamps();
-
-    int i;
-    for ( i = 1; i < timestamps.length; i++ )
-    {
-      if ( aTimeValue < timestamps[i] )
-      {
-        break;
-      }
-    }
-    return values[i - 1];
-  }
-
   /**
    * Determines the resulting channel label and clears any existing annotations.
    * 
@@ -407,9 +371,9 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   private void reportData( final OneWireDataSet aDataSet, final long aStartTimestamp, final long aEndTimestamp,
       final int aByteValue )
   {
-    final AcquisitionResult data = this.context.getData();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
     final int startSampleIdx = Math.max( data.getSampleIndex( aStartTimestamp ), 0 );
-    final int endSampleIdx = Math.min( data.getSampleIndex( aEndTimestamp ) - 1, data.getTimestamps().length - 1 );
+    final int endSampleIdx = Math.min( data.getSampleIndex( aEndTimestamp ) - 1, data.getSampleCount() - 1 );
 
     aDataSet.reportData( this.owLineIndex, startSampleIdx, endSampleIdx, aByteValue );
 
@@ -428,9 +392,9 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   private void reportReset( final OneWireDataSet aDataSet, final long aStartTimestamp, final long aEndTimestamp,
       final boolean aSlaveIsPresent )
   {
-    final AcquisitionResult data = this.context.getData();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
     final int startSampleIdx = Math.max( data.getSampleIndex( aStartTimestamp ), 0 );
-    final int endSampleIdx = Math.min( data.getSampleIndex( aEndTimestamp ) - 1, data.getTimestamps().length - 1 );
+    final int endSampleIdx = Math.min( data.getSampleIndex( aEndTimestamp ) - 1, data.getSampleCount() - 1 );
 
     aDataSet.reportReset( this.owLineIndex, startSampleIdx, endSampleIdx, aSlaveIsPresent );
 
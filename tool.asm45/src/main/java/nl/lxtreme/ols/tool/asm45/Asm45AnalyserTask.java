@@ -252,9 +252,7 @@ public class Asm45AnalyserTask implements ToolTask<Asm45DataSet>
   @Override
   public Asm45DataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
-
-    final int[] values = data.getValues();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     // process the captured data and write to output
 
@@ -284,7 +282,7 @@ public class Asm45AnalyserTask implements ToolTask<Asm45DataSet>
      */
     for ( ; idx < ( asm45DataSet.getEndOfDecode() - 1 ); idx++ )
     {
-      final int dataValue = values[idx];
+      final int dataValue = data.getValue( idx );
 
       control = dataValue & 0xffff0000;
       ida = ( ~dataValue & 0x0000ffff );
@@ -81,8 +81,7 @@ public class DMX512AnalyzerTask implements ToolTask<DMX512DataSet>
   @Override
   public DMX512DataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
-    final int[] values = data.getValues();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     int startOfDecode = this.context.getStartSampleIndex();
     final int endOfDecode = this.context.getEndSampleIndex();
@@ -90,10 +89,10 @@ public class DMX512AnalyzerTask implements ToolTask<DMX512DataSet>
     // find first state change on the selected lines
     final int mask = ( 1 << this.dataLine );
 
-    final int value = values[startOfDecode] & mask;
+    final int value = data.getValue( startOfDecode ) & mask;
     for ( int i = startOfDecode + 1; i < endOfDecode; i++ )
     {
-      if ( value != ( values[i] & mask ) )
+      if ( value != ( data.getValue( i ) & mask ) )
       {
         startOfDecode = i;
         break;
@@ -115,10 +115,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
   @Override
   public I2CDataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
-
-    final int[] values = data.getValues();
-    final long[] timestamps = data.getTimestamps();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     // process the captured data and write to output
     int oldSCL, oldSDA, bitCount;
@@ -162,8 +159,8 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
     int idx = i2cDataSet.getStartOfDecode();
     int prevIdx = -1;
 
-    oldSCL = values[idx] & sclMask;
-    oldSDA = values[idx] & sdaMask;
+    oldSCL = data.getValue( idx ) & sclMask;
+    oldSDA = data.getValue( idx ) & sdaMask;
 
     bitCount = I2C_BITCOUNT;
     byteValue = 0;
@@ -178,7 +175,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
       // We've just found our start condition, start the report with that...
       reportStartCondition( i2cDataSet, startOfDecode );
 
-      this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[startOfDecode],
+      this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, data.getTimestamp( startOfDecode ),
           I2CDataSet.I2C_START ) );
 
       startCondFound = true;
@@ -186,7 +183,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
 
     for ( ; idx < i2cDataSet.getEndOfDecode(); idx++ )
     {
-      final int dataValue = values[idx];
+      final int dataValue = data.getValue( idx );
 
       final int sda = ( dataValue & sdaMask );
       final int scl = ( dataValue & sclMask );
@@ -247,8 +244,8 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
                 Integer.valueOf( byteValue ), Integer.valueOf( byteValue ) );
           }
 
-          this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[prevIdx],
-              timestamps[idx], annotation ) );
+          this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, data.getTimestamp( prevIdx ),
+              data.getTimestamp( idx ), annotation ) );
 
           byteValue = 0;
         }
@@ -279,7 +276,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
               // NACK
               reportNACK( i2cDataSet, idx );
 
-              this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[idx],
+              this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, data.getTimestamp( idx ),
                   I2CDataSet.I2C_NACK ) );
             }
             else
@@ -287,7 +284,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
               // ACK
               reportACK( i2cDataSet, idx );
 
-              this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[idx],
+              this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, data.getTimestamp( idx ),
                   I2CDataSet.I2C_ACK ) );
             }
 
@@ -314,7 +311,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
             // SDA rises, this is a stop condition
             reportStopCondition( i2cDataSet, idx );
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[idx],
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, data.getTimestamp( idx ),
                 I2CDataSet.I2C_STOP ) );
 
             slaveAddress = 0x00;
@@ -325,7 +322,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
             // SDA falls, this is a start condition
             reportStartCondition( i2cDataSet, idx );
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[idx],
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, data.getTimestamp( idx ),
                 I2CDataSet.I2C_START ) );
 
             startCondFound = true;
@@ -444,12 +441,11 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
    * @return the (new) starting sample index at which the START condition
    *         occurred.
    */
-  private int autodetectDataAndClock( final AcquisitionResult aData, final int aStartOfDecode, final int aEndOfDecode )
+  private int autodetectDataAndClock( final IndexedAcquisitionResult aData, final int aStartOfDecode,
+      final int aEndOfDecode )
   {
     final int dataMask = this.lineAmask | this.lineBmask;
 
-    final int[] values = aData.getValues();
-
     int sampleIdx;
     /*
      * first of all scan both lines until they are high (IDLE), then the first
@@ -457,7 +453,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
      */
     for ( sampleIdx = aStartOfDecode; sampleIdx < aEndOfDecode; sampleIdx++ )
     {
-      final int dataValue = values[sampleIdx];
+      final int dataValue = aData.getValue( sampleIdx );
 
       if ( ( dataValue & dataMask ) == dataMask )
       {
@@ -478,7 +474,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
     // a is now the start of idle, now find the first start condition
     for ( ; sampleIdx < aEndOfDecode; sampleIdx++ )
     {
-      final int sample = values[sampleIdx];
+      final int sample = aData.getValue( sampleIdx );
       final int dataValue = sample & dataMask;
 
       if ( ( dataValue != dataMask ) && ( dataValue != 0 ) )
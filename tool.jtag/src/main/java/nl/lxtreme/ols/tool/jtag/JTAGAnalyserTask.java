@@ -42,7 +42,8 @@ import java.math.BigInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import nl.lxtreme.ols.api.acquisition.AcquisitionResult;
+import nl.lxtreme.ols.api.acquisition.AcquisitionResultAdapter;
+import nl.lxtreme.ols.api.acquisition.IndexedAcquisitionResult;
 import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
 import nl.lxtreme.ols.api.tools.ToolContext;
 import nl.lxtreme.ols.api.tools.ToolProgressListener;
@@ -187,10 +188,7 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
    */
   private void clockDataOnEdge( final JTAGDataSet aDataSet, final int aSlaveSelectedIdx )
   {
-    final AcquisitionResult data = this.context.getData();
-
-    final int[] values = data.getValues();
-    final long[] timestamps = data.getTimestamps();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     final int startOfDecode = Math.max( aSlaveSelectedIdx, aDataSet.getStartOfDecode() );
     final int endOfDecode = aDataSet.getEndOfDecode();
@@ -201,7 +199,7 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
     final int tmsMask = ( 1 << this.tmsIdx );
 
     // scanning for falling/rising clk edges
-    int oldTckValue = ( values[startOfDecode] & tckMask );
+    int oldTckValue = ( data.getValue( startOfDecode ) & tckMask );
 
     String state;
     int startTdiDataIdx = 0;
@@ -219,7 +217,7 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
     final double length = endOfDecode - startOfDecode;
     for ( int idx = startOfDecode + 1; idx < endOfDecode; idx++ )
     {
-      final int dataSample = values[idx];
+      final int dataSample = data.getValue( idx );
       final int tckValue = ( dataSample & tckMask );
       final int tmsValue = ( dataSample & tmsMask );
       final int tdiValue = ( dataSample & tdiMask );
@@ -355,10 +353,12 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
           { // state 8: Update DR
             state = this.currentState.getDisplayText();
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdiIdx, timestamps[startTdiDataIdx],
-                timestamps[endTdiDataIdx], String.format( "0x%x", new BigInteger( tdiData, 2 ) ) ) );
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdoIdx, timestamps[startTdiDataIdx],
-                timestamps[endTdiDataIdx], String.format( "0x%x", new BigInteger( tdoData, 2 ) ) ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdiIdx,
+                data.getTimestamp( startTdiDataIdx ), data.getTimestamp( endTdiDataIdx ),
+                String.format( "0x%x", new BigInteger( tdiData, 2 ) ) ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdoIdx,
+                data.getTimestamp( startTdiDataIdx ), data.getTimestamp( endTdiDataIdx ),
+                String.format( "0x%x", new BigInteger( tdoData, 2 ) ) ) );
 
             aDataSet.reportJTAGTdiData( tdiIdx, startTdiDataIdx, endTdiDataIdx, currentState, tdiData );
             aDataSet.reportJTAGTdoData( tdoIdx, startTdiDataIdx, endTdiDataIdx, currentState, tdoData );
@@ -476,11 +476,13 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
           { // state 15: Update IR
             state = this.currentState.getDisplayText();
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdiIdx, timestamps[startTdiDataIdx],
-                timestamps[endTdiDataIdx], String.format( "0x%x", new BigInteger( tdiData, 2 ) ) ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdiIdx,
+                data.getTimestamp( startTdiDataIdx ), data.getTimestamp( endTdiDataIdx ),
+                String.format( "0x%x", new BigInteger( tdiData, 2 ) ) ) );
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdoIdx, timestamps[startTdiDataIdx],
-                timestamps[endTdiDataIdx], String.format( "0x%x", new BigInteger( tdoData, 2 ) ) ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdoIdx,
+                data.getTimestamp( startTdiDataIdx ), data.getTimestamp( endTdiDataIdx ),
+                String.format( "0x%x", new BigInteger( tdoData, 2 ) ) ) );
 
             aDataSet.reportJTAGTdiData( tdiIdx, startTdiDataIdx, endTdiDataIdx, currentState, tdiData );
             aDataSet.reportJTAGTdoData( tdoIdx, startTdiDataIdx, endTdiDataIdx, currentState, tdoData );
@@ -501,8 +503,8 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
 
           if ( this.oldState != this.currentState )
           {
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tmsIdx, timestamps[this.startIdx],
-                timestamps[idx], state ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tmsIdx,
+                data.getTimestamp( this.startIdx ), data.getTimestamp( idx ), state ) );
 
             aDataSet.reportJTAGState( this.tmsIdx, this.startIdx, idx, this.oldState );
 
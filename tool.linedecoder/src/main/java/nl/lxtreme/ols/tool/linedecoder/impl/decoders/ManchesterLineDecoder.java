@@ -65,10 +65,7 @@ public class ManchesterLineDecoder implements LineDecoder
   public AcquisitionResult decode( final LineDecoderToolContext aContext, final AnnotationListener aAnnotationListener,
       final ToolProgressListener aListener ) throws Exception
   {
-    final AcquisitionResult inputData = aContext.getData();
-
-    final int[] values = inputData.getValues();
-    final long[] timestamps = inputData.getTimestamps();
+    final IndexedAcquisitionResult inputData = AcquisitionResultAdapter.adapt( aContext.getData() );
 
     final int dataIdx = aContext.getLineChannels()[0];
     final int clockIdx = dataIdx >= 1 ? dataIdx - 1 : dataIdx + 1; // XXX
@@ -81,7 +78,7 @@ public class ManchesterLineDecoder implements LineDecoder
 
     int startIdx = aContext.getStartSampleIndex();
     int endIdx = aContext.getEndSampleIndex();
-    int lastValue = values[startIdx] & dataMask;
+    int lastValue = inputData.getValue( startIdx ) & dataMask;
 
     long symbolStartTime = -1L;
     long lastTimestamp = -1L;
@@ -96,7 +93,7 @@ public class ManchesterLineDecoder implements LineDecoder
 
     for ( int i = startIdx; i < endIdx; i++ )
     {
-      int value = values[i] & dataMask;
+      int value = inputData.getValue( i ) & dataMask;
 
       long clockEdge = -1L;
 
@@ -108,7 +105,7 @@ public class ManchesterLineDecoder implements LineDecoder
           // First rising or falling edge; take its timestamp and do not do
           // anything yet, we need another edge to fully start the decoding
           // process...
-          lastTimestamp = timestamps[i];
+          lastTimestamp = inputData.getTimestamp( i );
           symbolStartTime = lastTimestamp;
           firstSignalEdge = lastTimestamp;
         }
@@ -116,7 +113,7 @@ public class ManchesterLineDecoder implements LineDecoder
         {
           // Either a falling or rising edge; take the time between the former
           // edge and this edge.
-          long diff = timestamps[i] - lastTimestamp;
+          long diff = inputData.getTimestamp( i ) - lastTimestamp;
 
           if ( halfCycle < 0L )
           {
@@ -139,7 +136,7 @@ public class ManchesterLineDecoder implements LineDecoder
               // Only the even edges are considered a clock edge...
               if ( ( edgeCounter % 2 ) == 0 )
               {
-                clockEdge = timestamps[i];
+                clockEdge = inputData.getTimestamp( i );
               }
               edgeCounter++;
             }
@@ -150,13 +147,13 @@ public class ManchesterLineDecoder implements LineDecoder
 
               // The clock edge should have appeared halfCycle before the
               // current timestamp...
-              clockEdge = timestamps[i] - halfCycle;
+              clockEdge = inputData.getTimestamp( i ) - halfCycle;
               // We've missed a clock edge, so increase the counter by 2...
               edgeCounter += 2;
             }
           }
 
-          lastTimestamp = timestamps[i];
+          lastTimestamp = inputData.getTimestamp( i );
         }
       }
 
@@ -212,9 +209,9 @@ public class ManchesterLineDecoder implements LineDecoder
     System.out.println( "Clock signal = " + format );
 
     SortedMap<Long, Integer> newSamples = new TreeMap<Long, Integer>();
-    for ( int i = 0; i < values.length; i++ )
+    for ( int i = 0; i < inputData.getSampleCount(); i++ )
     {
-      newSamples.put( timestamps[i], values[i] );
+      newSamples.put( inputData.getTimestamp( i ), inputData.getValue( i ) );
     }
 
     boolean clockLow = false;
@@ -263,10 +260,10 @@ public class ManchesterLineDecoder implements LineDecoder
       newTimestamps.add( entry.getKey() );
     }
 
-    for ( int i = endIdx; i < values.length; i++ )
+    for ( int i = endIdx; i < inputData.getSampleCount(); i++ )
     {
-      newValues.add( values[i] );
-      newTimestamps.add( timestamps[i] );
+      newValues.add( inputData.getValue( i ) );
+      newTimestamps.add( inputData.getTimestamp( i ) );
     }
 
     long absoluteLength = newTimestamps.get( newTimestamps.size() - 1 );
@@ -303,17 +300,30 @@ public class ManchesterLineDecoder implements LineDecoder
    */
   protected final int getDataValue( final LineDecoderToolContext aContext, final long aTimeValue )
   {
-    final AcquisitionResult inputData = aContext.getData();
-    final int[] values = inputData.getValues();
-    final long[] timestamps = inputData.getTimestamps();
+    final IndexedAcquisitionResult inputData = AcquisitionResultAdapter.adapt( aContext.getData() );
 
-    int k = Arrays.binarySearch( timestamps, aTimeValue );
-    if ( k < 0 )
+    int k = 0;
+    int high = inputData.getSampleCount() - 1;
+    while ( k <= high )
     {
-      k = -( k + 1 );
+      final int mid = ( k + high ) >>> 1;
+      final long midVal = inputData.getTimestamp( mid );
+      if ( midVal < aTimeValue )
+      {
+        k = mid + 1;
+      }
+      else if ( midVal > aTimeValue )
+      {
+        high = mid - 1;
+      }
+      else
+      {
+        k = mid;
+        break;
+      }
     }
 
-    return ( ( k == 0 ) ? values[0] : values[k - 1] );
+    return ( ( k == 0 ) ? inputData.getValue( 0 ) : inputData.getValue( k - 1 ) );
   }
 
   /**
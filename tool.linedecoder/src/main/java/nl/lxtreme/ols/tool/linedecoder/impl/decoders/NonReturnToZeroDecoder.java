@@ -61,10 +61,7 @@ public class NonReturnToZeroDecoder implements LineDecoder
   public AcquisitionResult decode( final LineDecoderToolContext aContext, final AnnotationListener aAnnotationListener,
       final ToolProgressListener aListener ) throws Exception
   {
-    final AcquisitionResult inputData = aContext.getData();
-
-    final int[] values = inputData.getValues();
-    final long[] timestamps = inputData.getTimestamps();
+    final IndexedAcquisitionResult inputData = AcquisitionResultAdapter.adapt( aContext.getData() );
 
     final int dataIdx = aContext.getLineChannels()[0];
     final int clockIdx = aContext.getLineChannels()[1];
@@ -84,7 +81,7 @@ public class NonReturnToZeroDecoder implements LineDecoder
 
     for ( int i = startIdx; i < endIdx; i++ )
     {
-      int clockValue = values[i] & clockMask;
+      int clockValue = inputData.getValue( i ) & clockMask;
 
       if ( clockValue != 0 )
       {
@@ -93,7 +90,7 @@ public class NonReturnToZeroDecoder implements LineDecoder
           symbolStartIdx = i;
         }
 
-        int dataValue = values[i] & dataMask;
+        int dataValue = inputData.getValue( i ) & dataMask;
 
         symbol <<= 1;
         if ( dataValue != 0 )
@@ -104,8 +101,8 @@ public class NonReturnToZeroDecoder implements LineDecoder
 
         if ( bitCount == symbolSize )
         {
-          aAnnotationListener.onAnnotation( createAnnotation( dataIdx, timestamps[symbolStartIdx], timestamps[i],
-              symbol ) );
+          aAnnotationListener.onAnnotation( createAnnotation( dataIdx, inputData.getTimestamp( symbolStartIdx ),
+              inputData.getTimestamp( i ), symbol ) );
 
           symbol = 0;
           bitCount = 0;
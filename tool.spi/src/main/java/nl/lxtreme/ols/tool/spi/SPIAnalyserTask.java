@@ -328,9 +328,7 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
    */
   private void clockDataOnEdge( final SPIDataSet aDataSet, final SPIMode aMode, final int aSlaveSelectedIdx )
   {
-    final AcquisitionResult data = this.context.getData();
-
-    final int[] values = data.getValues();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     final int startOfDecode = Math.max( aSlaveSelectedIdx, aDataSet.getStartOfDecode() );
     final int endOfDecode = aDataSet.getEndOfDecode();
@@ -343,8 +341,8 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
     final int csMask = ( 1 << this.csIdx );
 
     // scanning for falling/rising clk edges
-    int oldSckValue = ( values[startOfDecode] & sckMask );
-    int oldCsValue = ( values[startOfDecode] & csMask );
+    int oldSckValue = ( data.getValue( startOfDecode ) & sckMask );
+    int oldCsValue = ( data.getValue( startOfDecode ) & csMask );
 
     boolean slaveSelected = true;
     int dataStartIdx = startOfDecode;
@@ -359,7 +357,7 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
 
     for ( int idx = startOfDecode + 1; idx < endOfDecode; idx++ )
     {
-      final int dataSample = values[idx];
+      final int dataSample = data.getValue( idx );
       /* CLK edge detection */
       final int sckValue = ( dataSample & sckMask );
       /* CS edge detection */
@@ -523,17 +521,16 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
    */
   private SPIMode detectSPIMode( final int aStartIndex, final int aEndIndex )
   {
-    final AcquisitionResult data = this.context.getData();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
     final Frequency<Integer> valueStats = new Frequency<Integer>();
 
-    final int[] values = data.getValues();
     final int sckMask = 1 << this.sckIdx;
 
     // Determine the value of the clock line of each sample; the value that
     // occurs the most is probably the default polarity...
     for ( int i = aStartIndex; i < aEndIndex; i++ )
     {
-      final int newValue = ( values[i] & sckMask ) >> this.sckIdx;
+      final int newValue = ( data.getValue( i ) & sckMask ) >> this.sckIdx;
       valueStats.addValue( Integer.valueOf( newValue ) );
     }
 
@@ -646,7 +643,7 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
   private void reportData( final SPIDataSet aDecodedData, final int aStartIdx, final int aEndIdx, final int aMosiValue,
       final int aMisoValue )
   {
-    long[] timestamps = this.context.getData().getTimestamps();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     if ( SPIFIMode.STANDARD.equals( this.protocol ) )
     {
@@ -661,8 +658,8 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
           formatSpec = formatSpec.concat( " (%1$c)" );
         }
 
-        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.mosiIdx, timestamps[aStartIdx],
-            timestamps[aEndIdx], String.format( formatSpec, Integer.valueOf( mosivalue ) ) ) );
+        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.mosiIdx, data.getTimestamp( aStartIdx ),
+            data.getTimestamp( aEndIdx ), String.format( formatSpec, Integer.valueOf( mosivalue ) ) ) );
 
         aDecodedData.reportMosiData( this.mosiIdx, aStartIdx, aEndIdx, mosivalue );
       }
@@ -678,8 +675,8 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
           formatSpec = formatSpec.concat( " (%1$c)" );
         }
 
-        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.misoIdx, timestamps[aStartIdx],
-            timestamps[aEndIdx], String.format( formatSpec, Integer.valueOf( misovalue ) ) ) );
+        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.misoIdx, data.getTimestamp( aStartIdx ),
+            data.getTimestamp( aEndIdx ), String.format( formatSpec, Integer.valueOf( misovalue ) ) ) );
 
         aDecodedData.reportMisoData( this.misoIdx, aStartIdx, aEndIdx, misovalue );
       }
@@ -695,8 +692,8 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
         formatSpec = formatSpec.concat( " (%1$c)" );
       }
 
-      this.annotationListener.onAnnotation( new SampleDataAnnotation( this.mosiIdx, timestamps[aStartIdx],
-          timestamps[aEndIdx], String.format( formatSpec, Integer.valueOf( mosivalue ) ) ) );
+      this.annotationListener.onAnnotation( new SampleDataAnnotation( this.mosiIdx, data.getTimestamp( aStartIdx ),
+          data.getTimestamp( aEndIdx ), String.format( formatSpec, Integer.valueOf( mosivalue ) ) ) );
 
       aDecodedData.reportMosiData( this.mosiIdx, aStartIdx, aEndIdx, mosivalue );
     }
@@ -709,8 +706,7 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
    */
   private int searchSlaveSelected( final int aStartIndex, final int aEndIndex )
   {
-    final AcquisitionResult data = this.context.getData();
-    final int[] values = data.getValues();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     final int csMask = 1 << this.csIdx;
 
@@ -719,10 +715,10 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
      * found, the position of the trigger is used for start of analysis. If no
      * trigger and no edge is found the analysis fails.
      */
-    int oldCsValue = values[aStartIndex] & csMask;
+    int oldCsValue = data.getValue( aStartIndex ) & csMask;
     for ( int i = aStartIndex + 1; i < aEndIndex; i++ )
     {
-      final int csValue = values[i] & csMask;
+      final int csValue = data.getValue( i ) & csMask;
       Edge edge = Edge.toEdge( oldCsValue, csValue );
       
       if ( this.invertCS && edge.isRising() || !this.invertCS && edge.isFalling() )
@@ -66,21 +66,21 @@ public class StateAnalysisTask implements ToolTask<AcquisitionResult>
   @Override
   public CapturedData call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     // obtain data from captured data
-    final int[] values = data.getValues();
+    final int sampleCount = data.getSampleCount();
     final long triggerPosition = data.getTriggerPosition();
 
     final int maskValue = 1 << this.number;
 
     int size = 0;
-    int last = ( values[0] & maskValue ) >> this.number;
+    int last = ( data.getValue( 0 ) & maskValue ) >> this.number;
 
     // calculate new sample array size
-    for ( final int value : values )
+    for ( int i = 0; i < sampleCount; i++ )
     {
-      final int current = ( value & maskValue ) >> this.number;
+      final int current = ( data.getValue( i ) & maskValue ) >> this.number;
       if ( ( last == this.level ) && ( current != this.level ) )
       {
         size++;
@@ -95,17 +95,17 @@ public class StateAnalysisTask implements ToolTask<AcquisitionResult>
     }
 
     // convert captured data
-    last = values[0] & maskValue;
+    last = data.getValue( 0 ) & maskValue;
     int pos = 0;
     int newTrigger = -1;
 
     final int[] newValues = new int[size];
-    for ( int i = 0; i < values.length; i++ )
+    for ( int i = 0; i < sampleCount; i++ )
     {
-      final int current = ( values[i] & maskValue ) >> this.number;
+      final int current = ( data.getValue( i ) & maskValue ) >> this.number;
       if ( ( last == this.level ) && ( current != this.level ) )
       {
-        newValues[pos++] = values[i - 1];
+        newValues[pos++] = data.getValue( i - 1 );
       }
       if ( triggerPosition == i )
       {
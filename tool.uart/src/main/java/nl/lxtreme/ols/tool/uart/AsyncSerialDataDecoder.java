@@ -513,7 +513,7 @@ public class AsyncSerialDataDecoder
   // VARIABLES
 
   protected final SerialConfiguration configuration;
-  protected final AcquisitionResult dataSet;
+  protected final IndexedAcquisitionResult dataSet;
   protected final ToolContext context;
 
   private SerialDecoderCallback callback;
@@ -533,7 +533,7 @@ public class AsyncSerialDataDecoder
   {
     this.configuration = aConfiguration;
     this.context = aContext;
-    this.dataSet = aContext.getData();
+    this.dataSet = AcquisitionResultAdapter.adapt( aContext.getData() );
   }
 
   // METHODS
@@ -542,21 +542,37 @@ public class AsyncSerialDataDecoder
    * Finds the sample index of the given timestamp value.
    * <p>
    * Note the sample index returned is <em>not per se</em> equal to
-   * <code>timestamps[result]</code>!
+   * <code>getTimestamp(result)</code>!
    * </p>
    * 
+   * @param aData
+   *          the data to search in, cannot be <code>null</code>;
    * @param aTimeValue
    *          the time value to search the corresponding index for, >= 0.
    * @return a sample index, >= 0.
    */
-  protected static final int findSampleIndex( final long[] aTimestamps, final long aTimeValue )
+  protected static final int findSampleIndex( final IndexedAcquisitionResult aData, final long aTimeValue )
   {
-    int k = Arrays.binarySearch( aTimestamps, aTimeValue );
-    if ( k < 0 )
+    int low = 0;
+    int high = aData.getSampleCount() - 1;
+    while ( low <= high )
     {
-      k = -( k + 1 );
+      final int mid = ( low + high ) >>> 1;
+      final long midVal = aData.getTimestamp( mid );
+      if ( midVal < aTimeValue )
+      {
+        low = mid + 1;
+      }
+      else if ( midVal > aTimeValue )
+      {
+        high = mid - 1;
+      }
+      else
+      {
+        return mid; // key found
+      }
     }
-    return k;
+    return low;
   }
 
   /**
@@ -575,10 +591,8 @@ public class AsyncSerialDataDecoder
     final StopBits stopBits = this.configuration.getStopBits();
     final Parity parity = this.configuration.getParity();
 
-    final long[] timestamps = this.dataSet.getTimestamps();
-
-    final long startOfDecode = timestamps[this.context.getStartSampleIndex()];
-    final long endOfDecode = timestamps[this.context.getEndSampleIndex()];
+    final long startOfDecode = this.dataSet.getTimestamp( this.context.getStartSampleIndex() );
+    final long endOfDecode = this.dataSet.getTimestamp( this.context.getEndSampleIndex() );
     final BitLevel idleLevel = this.configuration.getIdleLevel();
 
     DataBitExtractor extractor = new DataBitExtractor( aChannelIndex );
@@ -711,29 +725,16 @@ public class AsyncSerialDataDecoder
   protected final long findEdge( final int aChannelIndex, final Edge aSampleEdge, final long aStartOfDecode,
       final long aEndOfDecode )
   {
-    final int mask = ( 1 << aChannelIndex );
-    long result = -1;
+    final ChannelEdgeIndex edgeIndex = this.dataSet.getEdgeIndex( aChannelIndex );
 
-    int oldBitValue = getDataValue( aStartOfDecode, mask );
-    for ( long timeCursor = aStartOfDecode + 1; ( result < 0 ) && ( timeCursor < aEndOfDecode ); timeCursor++ )
+    // The data value for a given time is the value *right before* that time,
+    // meaning that an edge is only observed one time unit after it occurred...
+    final long edge = edgeIndex.findEdgeAfter( aStartOfDecode - 1L, aSampleEdge );
+    if ( ( edge < 0L ) || ( ( edge + 1L ) >= aEndOfDecode ) )
     {
-      final int bitValue = getDataValue( timeCursor, mask );
-
-      Edge edge = Edge.toEdge( oldBitValue, bitValue );
-      if ( aSampleEdge.isNone() && !edge.isNone() )
-      {
-        /* No edge given, so any edge will do */
-        result = timeCursor;
-      }
-      else if ( !aSampleEdge.isNone() && ( aSampleEdge == edge ) )
-      {
-        result = timeCursor;
-      }
-
-      oldBitValue = bitValue;
+      return -1L;
     }
-
-    return result;
+    return edge + 1L;
   }
 
   /**
@@ -776,11 +777,9 @@ public class AsyncSerialDataDecoder
    */
   protected final int getDataValue( final long aTimeValue, final int aMask )
   {
-    final int[] values = this.dataSet.getValues();
-    final long[] timestamps = this.dataSet.getTimestamps();
-    int k = findSampleIndex( timestamps, aTimeValue );
+    int k = findSampleIndex( this.dataSet, aTimeValue );
 
-    int value = ( ( k == 0 ) ? values[0] : values[k - 1] );
+    int value = this.dataSet.getValue( ( k == 0 ) ? 0 : k - 1 );
 
     return value & aMask;
   }
@@ -110,7 +110,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
   @Override
   public UARTDataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     /*
      * Start decode from trigger or if no trigger is available from the first
@@ -120,18 +120,16 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
      * is displayed it must be sortet by time.
      */
 
-    final int[] values = data.getValues();
-
     int startOfDecode = this.context.getStartSampleIndex();
     final int endOfDecode = this.context.getEndSampleIndex();
 
     // find first state change on the selected lines
     final int mask = getBitMask();
 
-    final int value = values[startOfDecode] & mask;
+    final int value = data.getValue( startOfDecode ) & mask;
     for ( int i = startOfDecode + 1; i < endOfDecode; i++ )
     {
-      if ( value != ( values[i] & mask ) )
+      if ( value != ( data.getValue( i ) & mask ) )
       {
         startOfDecode = i;
         break;
@@ -353,7 +351,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
    */
   private void decodeControl( final UARTDataSet aDataSet, final int aChannelIndex, final String aName )
   {
-    final AcquisitionResult data = this.context.getData();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     if ( LOG.isLoggable( Level.FINE ) )
     {
@@ -365,13 +363,12 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
     final int startSampleIdx = aDataSet.getStartOfDecode();
     final int endSampleIdx = aDataSet.getEndOfDecode();
 
-    final int[] values = data.getValues();
     this.progressListener.setProgress( 0 );
 
-    int oldValue = values[startSampleIdx] & mask;
+    int oldValue = data.getValue( startSampleIdx ) & mask;
     for ( int i = startSampleIdx + 1; i < endSampleIdx; i++ )
     {
-      final int value = values[i] & mask;
+      final int value = data.getValue( i ) & mask;
 
       final Edge edge = Edge.toEdge( oldValue, value );
       if ( edge.isRising() )
@@ -399,7 +396,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
    */
   private void decodeData( final UARTDataSet aDataSet, final int aChannelIndex, final int aEventType )
   {
-    final AcquisitionResult data = this.context.getData();
+    final IndexedAcquisitionResult data = AcquisitionResultAdapter.adapt( this.context.getData() );
 
     final int baudRate;
 
@@ -407,7 +404,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
     {
       // Auto detect the baud rate...
       final int mask = ( 1 << aChannelIndex );
-      final BaudRateAnalyzer baudRateAnalyzer = new BaudRateAnalyzer( data.getSampleRate(), data.getValues(), data.getTimestamps(), mask );
+      final BaudRateAnalyzer baudRateAnalyzer = new BaudRateAnalyzer( data.getSampleRate(), data, mask );
       baudRate = baudRateAnalyzer.getBaudRateExact();
       // Set nominal (normalized) baud rate
       aDataSet.setBaudRate( baudRateAnalyzer.getBaudRate() );
@@ -454,7 +451,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
         public void onSymbol( final int aChannelIdx, final int aSymbol, final long aStartTime, final long aEndTime )
         {
           final int startSampleIdx = Math.max( data.getSampleIndex( aStartTime ), 0 );
-          final int endSampleIdx = Math.min( data.getSampleIndex( aEndTime ), data.getTimestamps().length - 1 );
+          final int endSampleIdx = Math.min( data.getSampleIndex( aEndTime ), data.getSampleCount() - 1 );
 
           aDataSet.reportData( aChannelIndex, startSampleIdx, endSampleIdx, aSymbol, aEventType );
 
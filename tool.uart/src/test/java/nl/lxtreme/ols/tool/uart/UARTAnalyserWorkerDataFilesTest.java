@@ -27,6 +27,7 @@ import java.net.*;
 import java.util.*;
 
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
 import nl.lxtreme.ols.api.tools.*;
 import nl.lxtreme.ols.test.*;
@@ -127,6 +128,8 @@ public class UARTAnalyserWorkerDataFilesTest
     AcquisitionResult container = DataTestUtils.getCapturedData( resource );
     ToolContext toolContext = DataTestUtils.createToolContext( container );
 
+    final long memoryUsage = ( ( CapturedData )container ).getMemoryUsage();
+
     ToolProgressListener tpl = Mockito.mock( ToolProgressListener.class );
     AnnotationListener al = Mockito.mock( AnnotationListener.class );
 
@@ -143,6 +146,9 @@ public class UARTAnalyserWorkerDataFilesTest
 
     UARTDataSet result = worker.call();
     assertNotNull( result );
+
+    // Decoding should not expand the compactly stored samples to arrays...
+    assertEquals( memoryUsage, ( ( CapturedData )container ).getMemoryUsage() );
     return result;
   }
 }